@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("application")
     id("com.github.johnrengelman.shadow") version "7.1.2"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "io.winapps.voizy"
@@ -20,6 +21,8 @@ dependencies {
     // Web Server
     implementation("org.eclipse.jetty:jetty-server:11.0.13")
     implementation("org.eclipse.jetty:jetty-servlet:11.0.13")
+    implementation("org.eclipse.jetty.http2:http2-server:11.0.13")
+    implementation("org.eclipse.jetty:jetty-alpn-java-server:11.0.13")
     implementation("javax.servlet:javax.servlet-api:4.0.1")
 
     // Database
@@ -42,6 +45,9 @@ dependencies {
     // Rate Limiting
     implementation("com.google.guava:guava:31.1-jre")
 
+    // Metrics
+    implementation("org.hdrhistogram:HdrHistogram:2.1.12")
+
     // Logging
     implementation("org.slf4j:slf4j-api:2.0.5")
     implementation("ch.qos.logback:logback-classic:1.4.6")
@@ -65,6 +71,20 @@ tasks.test {
     useJUnitPlatform()
 }
 
+val gitShortSha: String = providers.exec {
+    commandLine("git", "rev-parse", "--short", "HEAD")
+    isIgnoreExitValue = true
+}.standardOutput.asText.get().trim().ifEmpty { "unknown" }
+
+// Microbenchmarks live in src/jmh/java; run with ./gradlew jmh
+// Narrow the run with -PjmhIncludes=<regex>, e.g. -PjmhIncludes=JwtUtilBenchmark
+jmh {
+    jmhVersion.set("1.37")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results-$gitShortSha.json"))
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+}
+
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
 }
@@ -73,6 +93,8 @@ tasks.shadowJar {
     archiveBaseName.set("VoizyServer")
 //    archiveClassifier.set("")
     archiveVersion.set(project.version.toString())
+    // Jetty finds its ALPN processor through META-INF/services
+    mergeServiceFiles()
     manifest {
         attributes(mapOf(
             "Main-Class" to "io.winapps.voizy.VoizyServer"
@@ -0,0 +1,32 @@
+#!/bin/bash
+
+# Compare two JMH JSON result files and print the score change per benchmark.
+# Requires jq.
+#
+# Usage: ./compare-jmh.sh <baseline.json> <candidate.json>
+
+set -euo pipefail
+
+if [ $# -ne 2 ]; then
+	echo "Usage: $0 <baseline.json> <candidate.json>"
+	exit 1
+fi
+
+summarize() {
+	jq -r '.[] | [
+		(.benchmark | split(".") | .[-2:] | join(".")) + (if .params then " " + (.params | to_entries | map(.key + "=" + .value) | join(",")) else "" end),
+		.primaryMetric.score,
+		.primaryMetric.scoreError,
+		.primaryMetric.scoreUnit
+	] | @tsv' "$1" | sort
+}
+
+join -t $'\t' <(summarize "$1") <(summarize "$2") | awk -F'\t' '
+	BEGIN {
+		printf "%-70s %14s %14s %9s  %s\n", "Benchmark", "Baseline", "Candidate", "Change", "Unit"
+	}
+	{
+		change = $2 == 0 ? 0 : ($5 - $2) / $2 * 100
+		printf "%-70s %14.3f %14.3f %+8.1f%%  %s\n", $1, $2, $5, change, $4
+	}
+'
@@ -0,0 +1,80 @@
+#!/bin/bash
+
+# Compare HTTP/1.1 and HTTP/2 (h2c) on the request pattern of one app screen:
+# a profile, a wall page and the media of each post on it.
+#
+# Requirements: h2load (nghttp2), MySQL and Redis running as for run-local.sh,
+# and an existing user's ID and API key.
+#
+# Usage: USER_ID=1 API_KEY=... POST_IDS="1 2 3" ./loadtest/compare-http-versions.sh
+
+set -euo pipefail
+
+: "${USER_ID:?USER_ID must be set}"
+: "${API_KEY:?API_KEY must be set}"
+
+PORT=${PORT:-8282}
+POST_IDS=${POST_IDS:-}
+CLIENTS=${CLIENTS:-100}
+# Mobile HTTP/1.1 stacks open about six connections per host
+H1_CONNECTIONS_PER_CLIENT=${H1_CONNECTIONS_PER_CLIENT:-6}
+H2_STREAMS_PER_CLIENT=${H2_STREAMS_PER_CLIENT:-6}
+DURATION=${DURATION:-60}
+WARMUP=${WARMUP:-15}
+THREADS=${THREADS:-8}
+JAR=build/libs/VoizyServer-1.0-SNAPSHOT-all.jar
+RESULTS_DIR=loadtest/results/$(date +%Y%m%d-%H%M%S)
+
+export USE_HTTPS=false
+export SERVER_PORT=$PORT
+export HTTP2_ENABLED=true
+export DBU=${DBU:-root}
+export DBP=${DBP:-}
+
+if [ ! -f "$JAR" ]; then
+	echo "Building application..."
+	./gradlew clean shadowJar
+fi
+
+mkdir -p "$RESULTS_DIR"
+
+URLS=(
+	"http://localhost:$PORT/users/profile/get?id=$USER_ID"
+	"http://localhost:$PORT/posts/list?id=$USER_ID&limit=20&page=1"
+)
+for post_id in $POST_IDS; do
+	URLS+=("http://localhost:$PORT/posts/get/media?id=$post_id")
+done
+
+echo "Starting server..."
+java -jar "$JAR" > "$RESULTS_DIR/server.log" 2>&1 &
+PID=$!
+trap 'kill "$PID" 2>/dev/null || true' EXIT
+
+until curl -s -o /dev/null "http://localhost:$PORT/"; do
+	sleep 1
+done
+
+run_protocol() {
+	local name=$1
+	shift
+
+	h2load "$@" -t"$THREADS" -D"$WARMUP" \
+		-H "X-API-Key: $API_KEY" -H "X-User-ID: $USER_ID" "${URLS[@]}" > /dev/null
+	h2load "$@" -t"$THREADS" -D"$DURATION" \
+		-H "X-API-Key: $API_KEY" -H "X-User-ID: $USER_ID" "${URLS[@]}" | tee "$RESULTS_DIR/$name.txt"
+}
+
+# HTTP/1.1: several connections per client, one request in flight on each
+run_protocol http1 --h1 -c"$((CLIENTS * H1_CONNECTIONS_PER_CLIENT))" -m1
+# h2c with prior knowledge: one connection per client, requests multiplexed as streams
+run_protocol h2c -c"$CLIENTS" -m"$H2_STREAMS_PER_CLIENT"
+
+echo
+echo "Summary (requests/sec, mean and max request time):"
+for file in "$RESULTS_DIR"/*.txt; do
+	rps=$(grep "finished in" "$file" | awk '{print $4}')
+	mean=$(grep "time for request:" "$file" | awk '{print $6}')
+	max=$(grep "time for request:" "$file" | awk '{print $5}')
+	printf "%-10s %12s %10s %10s\n" "$(basename "$file" .txt)" "$rps" "$mean" "$max"
+done
@@ -0,0 +1,77 @@
+#!/bin/bash
+
+# Compare throughput and latency percentiles of platform-thread and virtual-thread
+# request execution under the same load.
+#
+# Requirements: a Java 21+ runtime (virtual threads), wrk, MySQL and Redis running
+# as for run-local.sh, and an existing user's ID and API key.
+#
+# Usage: USER_ID=1 API_KEY=... ./loadtest/compare-thread-modes.sh
+
+set -euo pipefail
+
+: "${USER_ID:?USER_ID must be set}"
+: "${API_KEY:?API_KEY must be set}"
+
+PORT=${PORT:-8282}
+DURATION=${DURATION:-60s}
+CONNECTIONS=${CONNECTIONS:-400}
+THREADS=${THREADS:-8}
+WARMUP=${WARMUP:-15s}
+JAR=build/libs/VoizyServer-1.0-SNAPSHOT-all.jar
+RESULTS_DIR=loadtest/results/$(date +%Y%m%d-%H%M%S)
+
+export USE_HTTPS=false
+export SERVER_PORT=$PORT
+export DBU=${DBU:-root}
+export DBP=${DBP:-}
+
+if [ ! -f "$JAR" ]; then
+	echo "Building application..."
+	./gradlew clean shadowJar
+fi
+
+mkdir -p "$RESULTS_DIR"
+
+ENDPOINTS=(
+	"/users/profile/get?id=$USER_ID"
+	"/posts/list?id=$USER_ID&limit=20&page=1"
+)
+
+run_mode() {
+	local mode=$1
+	local virtual=$2
+
+	echo "Starting server with VIRTUAL_THREADS=$virtual..."
+	VIRTUAL_THREADS=$virtual java -jar "$JAR" > "$RESULTS_DIR/server-$mode.log" 2>&1 &
+	local pid=$!
+
+	until curl -s -o /dev/null "http://localhost:$PORT/"; do
+		sleep 1
+	done
+
+	for endpoint in "${ENDPOINTS[@]}"; do
+		local name
+		name=$(echo "$endpoint" | cut -d'?' -f1 | tr '/' '_')
+		local url="http://localhost:$PORT$endpoint"
+
+		wrk -t"$THREADS" -c"$CONNECTIONS" -d"$WARMUP" \
+			-H "X-API-Key: $API_KEY" -H "X-User-ID: $USER_ID" "$url" > /dev/null
+		wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency \
+			-H "X-API-Key: $API_KEY" -H "X-User-ID: $USER_ID" "$url" | tee "$RESULTS_DIR/$mode$name.txt"
+	done
+
+	kill "$pid"
+	wait "$pid" || true
+}
+
+run_mode platform false
+run_mode virtual true
+
+echo
+echo "Summary (requests/sec, p99 latency):"
+for file in "$RESULTS_DIR"/*.txt; do
+	rps=$(grep "Requests/sec" "$file" | awk '{print $2}')
+	p99=$(grep " 99%" "$file" | awk '{print $2}')
+	printf "%-45s %12s %10s\n" "$(basename "$file" .txt)" "$rps" "$p99"
+done
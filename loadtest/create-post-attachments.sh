@@ -0,0 +1,83 @@
+#!/bin/bash
+
+# Measure /posts/create latency as the number of attachments grows.
+# Each run posts N images, N hashtags and N poll options, so the cost of the
+# child inserts dominates as N increases.
+#
+# Requirements: wrk, a running server, and an existing user's ID, API key and JWT.
+#
+# Usage: USER_ID=1 API_KEY=... TOKEN=... ./loadtest/create-post-attachments.sh
+
+set -euo pipefail
+
+: "${USER_ID:?USER_ID must be set}"
+: "${API_KEY:?API_KEY must be set}"
+: "${TOKEN:?TOKEN must be set}"
+
+BASE_URL=${BASE_URL:-http://localhost:8282}
+DURATION=${DURATION:-30s}
+CONNECTIONS=${CONNECTIONS:-32}
+THREADS=${THREADS:-4}
+ATTACHMENT_COUNTS=${ATTACHMENT_COUNTS:-"0 1 5 10 20"}
+RESULTS_DIR=loadtest/results/create-post-$(date +%Y%m%d-%H%M%S)
+
+mkdir -p "$RESULTS_DIR"
+
+build_body() {
+	local count=$1
+	local images="" hashtags="" options=""
+
+	for i in $(seq 1 "$count"); do
+		[ "$i" -gt 1 ] && images+="," && hashtags+="," && options+=","
+		images+="\"https://cdn.voizy.me/loadtest/image-$i.jpg\""
+		hashtags+="\"#loadtest$i\""
+		options+="\"Option $i\""
+	done
+
+	local is_poll=false
+	[ "$count" -gt 0 ] && is_poll=true
+
+	cat <<JSON
+{
+  "userID": $USER_ID,
+  "toUserID": $USER_ID,
+  "contentText": "Load test post with $count attachments",
+  "locationName": "",
+  "locationLat": 0,
+  "locationLong": 0,
+  "images": [$images],
+  "hashtags": [$hashtags],
+  "isPoll": $is_poll,
+  "pollQuestion": "Which option?",
+  "pollDurationType": "days",
+  "pollDurationLength": 1,
+  "pollOptions": [$options]
+}
+JSON
+}
+
+for count in $ATTACHMENT_COUNTS; do
+	body_file="$RESULTS_DIR/body-$count.json"
+	build_body "$count" > "$body_file"
+
+	echo "Running with $count attachments of each kind..."
+	BODY_FILE=$body_file wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency \
+		-s loadtest/post-body.lua \
+		-H "Authorization: Bearer $TOKEN" \
+		-H "X-API-Key: $API_KEY" \
+		-H "X-User-ID: $USER_ID" \
+		"$BASE_URL/posts/create" > "$RESULTS_DIR/attachments-$count.txt"
+done
+
+echo
+printf "%-12s %12s %10s %10s\n" "Attachments" "Requests/s" "p50" "p99"
+for count in $ATTACHMENT_COUNTS; do
+	file="$RESULTS_DIR/attachments-$count.txt"
+	rps=$(grep "Requests/sec" "$file" | awk '{print $2}')
+	p50=$(grep " 50%" "$file" | awk '{print $2}')
+	p99=$(grep " 99%" "$file" | awk '{print $2}')
+	printf "%-12s %12s %10s %10s\n" "$count" "$rps" "$p50" "$p99"
+done
+
+echo
+echo "Posts created by this run contain \"Load test post with\" and can be deleted afterwards."
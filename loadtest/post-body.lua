@@ -0,0 +1,6 @@
+-- wrk script that POSTs the JSON file named by BODY_FILE
+local file = assert(io.open(os.getenv("BODY_FILE"), "r"))
+wrk.method = "POST"
+wrk.body = file:read("*a")
+wrk.headers["Content-Type"] = "application/json"
+file:close()
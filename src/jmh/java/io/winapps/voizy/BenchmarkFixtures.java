@@ -0,0 +1,224 @@
+package io.winapps.voizy;
+
+import io.winapps.voizy.models.posts.ListPost;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lightweight stand-ins for servlet and JDBC objects used by the benchmarks.
+ * Dynamic proxies are used instead of Mockito so that stub overhead stays small
+ * and does not allocate invocation records on every call.
+ */
+public class BenchmarkFixtures {
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Build a list of posts with realistic field contents
+     */
+    public static List<ListPost> listPosts(int count) {
+        List<ListPost> posts = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+        for (int i = 0; i < count; i++) {
+            ListPost post = new ListPost();
+            post.setPostId(10_000 + i);
+            post.setUserId(42);
+            post.setToUserId(i % 3 == 0 ? 7 : 42);
+            post.setOriginalPostId(i % 5 == 0 ? (long) i : null);
+            post.setImpressions(1000 + i);
+            post.setViews(500 + i);
+            post.setContentText("Post number " + i + " with some text about what happened today #voizy #java");
+            post.setCreatedAt(now.minusMinutes(i));
+            post.setUpdatedAt(now.minusMinutes(i));
+            post.setLocationName(i % 2 == 0 ? "Kyiv" : null);
+            post.setLocationLat(i % 2 == 0 ? 50.4501 : null);
+            post.setLocationLong(i % 2 == 0 ? 30.5234 : null);
+            post.setIsPoll(false);
+            post.setUsername("user42");
+            post.setFirstName("Mitchell");
+            post.setLastName("Wintrow");
+            post.setPreferredName("Mitch");
+            post.setUserReaction(i % 4 == 0 ? "like" : null);
+            post.setTotalReactions(i * 3L);
+            post.setTotalComments(i * 2L);
+            post.setTotalPostShares(i);
+            posts.add(post);
+        }
+
+        return posts;
+    }
+
+    /**
+     * A single row shaped like the columns of PostRepository's list query
+     */
+    public static Map<String, Object> listPostRow() {
+        Map<String, Object> row = new HashMap<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 12, 0));
+
+        row.put("post_id", 10_000L);
+        row.put("user_id", 42L);
+        row.put("to_user_id", 7L);
+        row.put("original_post_id", null);
+        row.put("impressions", 1000L);
+        row.put("views", 500L);
+        row.put("content_text", "Post with some text about what happened today #voizy #java");
+        row.put("created_at", now);
+        row.put("updated_at", now);
+        row.put("location_name", "Kyiv");
+        row.put("location_lat", 50.4501);
+        row.put("location_lng", 30.5234);
+        row.put("is_poll", false);
+        row.put("poll_question", null);
+        row.put("poll_duration_type", null);
+        row.put("poll_duration_length", null);
+        row.put("username", "user42");
+        row.put("first_name", "Mitchell");
+        row.put("last_name", "Wintrow");
+        row.put("preferred_name", "Mitch");
+        row.put("user_reaction", "like");
+        row.put("total_reactions", 12L);
+        row.put("total_comments", 3L);
+        row.put("total_post_shares", 1L);
+
+        return row;
+    }
+
+    /**
+     * A ResultSet positioned on a single row backed by the given column map
+     */
+    public static ResultSet resultSet(Map<String, Object> row) {
+        return proxy(ResultSet.class, new InvocationHandler() {
+            private boolean lastWasNull;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("wasNull".equals(name)) {
+                    return lastWasNull;
+                }
+
+                if (name.startsWith("get") && args != null && args.length == 1 && args[0] instanceof String) {
+                    Object value = row.get(args[0]);
+                    lastWasNull = value == null;
+                    return convert(value, method.getReturnType());
+                }
+
+                return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    /**
+     * A request that only answers header lookups and attribute writes
+     */
+    public static HttpServletRequest request(Map<String, String> headers) {
+        Map<String, Object> attributes = new HashMap<>();
+        return proxy(HttpServletRequest.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getHeader":
+                    return headers.get((String) args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    /**
+     * A response whose body is discarded
+     */
+    public static HttpServletResponse response() {
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        return proxy(HttpServletResponse.class, (proxy, method, args) -> {
+            if ("getOutputStream".equals(method.getName())) {
+                return out;
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (value == null) {
+            return defaultValue(type);
+        }
+        if (type == long.class) {
+            return ((Number) value).longValue();
+        }
+        if (type == int.class) {
+            return ((Number) value).intValue();
+        }
+        if (type == double.class) {
+            return ((Number) value).doubleValue();
+        }
+        return value;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return '\0';
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(BenchmarkFixtures.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
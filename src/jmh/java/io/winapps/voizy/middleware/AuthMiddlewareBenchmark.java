@@ -0,0 +1,141 @@
+package io.winapps.voizy.middleware;
+
+import io.winapps.voizy.BenchmarkFixtures;
+import io.winapps.voizy.cache.ApiKeyCache;
+import io.winapps.voizy.models.middleware.APIKey;
+import io.winapps.voizy.repositories.ApiKeyRepository;
+import io.winapps.voizy.util.ApiKeyRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * The validateApiKey middleware chain with an in-memory repository.
+ * "cachedKey" is the steady state where ApiKeyCache serves the key;
+ * "uncachedKey" invalidates first so every call goes through the repository.
+ * Both rotate over KEY_COUNT keys on the internal tier, so each key sees far fewer
+ * requests per second than its limit and every call takes the success path; an
+ * iteration that was denied anything fails rather than reporting a mixed number.
+ * "rateLimitedKey" measures the 429 path with one standard-tier key whose burst is
+ * spent in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AuthMiddlewareBenchmark {
+    private static final long USER_ID = 42;
+    private static final String SUCCESS_TIER = "internal";
+    private static final String RATE_LIMITED_KEY = "sk_rate_limited";
+    /** Power of two; at a few million calls per second each key still sees well under 5000 */
+    private static final int KEY_COUNT = 1 << 16;
+
+    private BiConsumer<HttpServletRequest, HttpServletResponse> chain;
+    private String[] keys;
+    private HttpServletRequest[] requests;
+    private HttpServletRequest rateLimitedRequest;
+    private HttpServletResponse response;
+    private int next;
+    private long deniedAtIterationStart;
+
+    static class InMemoryApiKeyRepository extends ApiKeyRepository {
+        private final Map<String, APIKey> apiKeys;
+
+        InMemoryApiKeyRepository(Map<String, APIKey> apiKeys) {
+            this.apiKeys = apiKeys;
+        }
+
+        @Override
+        public APIKey fetchApiKey(long userID, String apiKeyStr) {
+            return userID == USER_ID ? apiKeys.get(apiKeyStr) : null;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, APIKey> apiKeys = new HashMap<>();
+
+        keys = new String[KEY_COUNT];
+        requests = new HttpServletRequest[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "sk_benchmark_" + i;
+            apiKeys.put(keys[i], apiKey(keys[i], SUCCESS_TIER, now));
+            requests[i] = request(keys[i]);
+        }
+
+        apiKeys.put(RATE_LIMITED_KEY, apiKey(RATE_LIMITED_KEY, ApiKeyRateLimiter.DEFAULT_TIER, now));
+        rateLimitedRequest = request(RATE_LIMITED_KEY);
+
+        AuthMiddleware authMiddleware = new AuthMiddleware(new InMemoryApiKeyRepository(apiKeys));
+        chain = authMiddleware.validateApiKey((req, res) -> res.setStatus(HttpServletResponse.SC_OK));
+        response = BenchmarkFixtures.response();
+
+        long burst = ApiKeyRateLimiter.getTier(ApiKeyRateLimiter.DEFAULT_TIER).getBurst();
+        for (long i = 0; i <= burst; i++) {
+            chain.accept(rateLimitedRequest, response);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void recordDenied() {
+        deniedAtIterationStart = ApiKeyRateLimiter.getTier(SUCCESS_TIER).getDeniedCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkNothingDenied() {
+        long denied = ApiKeyRateLimiter.getTier(SUCCESS_TIER).getDeniedCount() - deniedAtIterationStart;
+        if (denied > 0) {
+            throw new IllegalStateException(denied + " success-path calls were rate limited; raise KEY_COUNT");
+        }
+    }
+
+    @Benchmark
+    public void cachedKey() {
+        chain.accept(requests[next++ & (KEY_COUNT - 1)], response);
+    }
+
+    @Benchmark
+    public void uncachedKey() {
+        int index = next++ & (KEY_COUNT - 1);
+        ApiKeyCache.invalidate(USER_ID, keys[index]);
+        chain.accept(requests[index], response);
+    }
+
+    @Benchmark
+    public void rateLimitedKey() {
+        chain.accept(rateLimitedRequest, response);
+    }
+
+    private static APIKey apiKey(String key, String tier, LocalDateTime now) {
+        APIKey apiKey = new APIKey(key, now, now, now.plusDays(90), now);
+        apiKey.setTier(tier);
+        return apiKey;
+    }
+
+    private static HttpServletRequest request(String key) {
+        return BenchmarkFixtures.request(Map.of(
+                "X-API-Key", key,
+                "X-User-ID", Long.toString(USER_ID)
+        ));
+    }
+}
@@ -0,0 +1,45 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.BenchmarkFixtures;
+import io.winapps.voizy.models.posts.ListPost;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row mapping cost of the /posts/list query, excluding the driver.
+ * The proxy ResultSet adds a small constant per column read, so compare
+ * results between commits rather than reading them as absolute driver cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PostRowMappingBenchmark {
+    private PostRepository postRepository;
+    private ResultSet resultSet;
+
+    @Setup
+    public void setup() {
+        postRepository = new PostRepository();
+        resultSet = BenchmarkFixtures.resultSet(BenchmarkFixtures.listPostRow());
+    }
+
+    @Benchmark
+    public ListPost mapResultSetToPost() throws SQLException {
+        return postRepository.mapResultSetToPost(resultSet);
+    }
+}
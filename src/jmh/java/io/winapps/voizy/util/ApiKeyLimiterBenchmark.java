@@ -0,0 +1,58 @@
+package io.winapps.voizy.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiter acquisition under contention, on the local buckets used when Redis is
+ * not connected (as in this benchmark).
+ * "sharedKey" has every thread hammer one key (one client flooding the API);
+ * "distinctKeys" spreads threads over many keys (many clients at once).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(8)
+public class ApiKeyLimiterBenchmark {
+    private static final int KEY_COUNT = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Keys {
+        String sharedKey;
+        String[] keys;
+
+        @Setup
+        public void setup() {
+            sharedKey = "sk_shared";
+            keys = new String[KEY_COUNT];
+            for (int i = 0; i < KEY_COUNT; i++) {
+                keys[i] = "sk_bench_" + i;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean sharedKey(Keys keys) {
+        return ApiKeyRateLimiter.tryAcquire(keys.sharedKey, ApiKeyRateLimiter.DEFAULT_TIER);
+    }
+
+    @Benchmark
+    public boolean distinctKeys(Keys keys) {
+        String key = keys.keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)];
+        return ApiKeyRateLimiter.tryAcquire(key, ApiKeyRateLimiter.DEFAULT_TIER);
+    }
+}
@@ -0,0 +1,53 @@
+package io.winapps.voizy.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.winapps.voizy.BenchmarkFixtures;
+import io.winapps.voizy.models.posts.ListPostsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of a /posts/list response body
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JsonSerializationBenchmark {
+    @Param({"20", "50", "100"})
+    private int postCount;
+
+    private ObjectMapper objectMapper;
+    private ListPostsResponse response;
+
+    @Setup
+    public void setup() {
+        objectMapper = JsonUtil.getObjectMapper();
+
+        response = new ListPostsResponse();
+        response.setPosts(BenchmarkFixtures.listPosts(postCount));
+        response.setLimit(postCount);
+        response.setPage(1);
+        response.setTotalPosts(postCount * 10L);
+        response.setTotalPages(10);
+        response.setNextCursor(CursorUtil.encode(response.getPosts().get(postCount - 1).getCreatedAt(), 10_000));
+    }
+
+    @Benchmark
+    public byte[] serializeListPostsResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,59 @@
+package io.winapps.voizy.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying a JWT on every JWT-protected request.
+ * "rebuildParser" reproduces the original per-call parser construction as a baseline
+ * for "validateToken" (shared parser) and "verifyUserIDCached" (verified-token cache).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtUtilBenchmark {
+    private String token;
+    private Key signingKey;
+
+    @Setup
+    public void setup() throws Exception {
+        token = JwtUtil.generateAndStoreJWT("42", "weekly");
+        signingKey = Keys.hmacShaKeyFor(JwtUtil.getJwtSecretKey().getBytes());
+    }
+
+    @Benchmark
+    public Claims rebuildParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims validateToken() {
+        return JwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String verifyUserIDCached() {
+        return JwtUtil.verifyUserID(token);
+    }
+}
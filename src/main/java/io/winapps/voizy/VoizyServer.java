@@ -1,14 +1,40 @@
 package io.winapps.voizy;
 
+import io.winapps.voizy.cache.HashtagDictionary;
+import io.winapps.voizy.cache.ProfileCache;
 import io.winapps.voizy.controllers.AuthController;
+import io.winapps.voizy.controllers.CommentController;
+import io.winapps.voizy.controllers.FeedController;
+import io.winapps.voizy.controllers.MetricsController;
 import io.winapps.voizy.controllers.PostController;
 import io.winapps.voizy.controllers.UserController;
 import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.metrics.ComponentMetrics;
+import io.winapps.voizy.metrics.JvmMetrics;
 import io.winapps.voizy.middleware.AuthMiddleware;
+import io.winapps.voizy.middleware.CompressionMiddleware;
+import io.winapps.voizy.middleware.MetricsMiddleware;
+import io.winapps.voizy.repositories.HashtagRepository;
+import io.winapps.voizy.repositories.PostCountersRepository;
+import io.winapps.voizy.repositories.UserStatsRepository;
+import io.winapps.voizy.util.AnalyticsUtil;
+import io.winapps.voizy.util.ApiKeyUsageTracker;
+import io.winapps.voizy.util.BoundedExecutors;
+import io.winapps.voizy.util.EnvUtil;
+import io.winapps.voizy.util.FeedFanout;
+import io.winapps.voizy.util.HashingUtil;
+import io.winapps.voizy.util.PostEngagementCounter;
+import io.winapps.voizy.util.PostReactionTotals;
 import io.winapps.voizy.util.ServletAdapter;
+import io.winapps.voizy.util.VirtualThreadsUtil;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.http2.HTTP2Cipher;
+import org.eclipse.jetty.http2.server.AbstractHTTP2ServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.server.SecureRequestCustomizer;
@@ -18,13 +44,18 @@ import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.BiConsumer;
 
 public class VoizyServer {
     private static final Logger logger = LoggerFactory.getLogger(VoizyServer.class);
+    private static final boolean COMPRESSION_ENABLED = EnvUtil.getBoolean("COMPRESSION_ENABLED", true);
+    private static ThreadPoolExecutor handlerExecutor;
 
     public static void main(String[] args) {
         boolean useHttps = !"false".equalsIgnoreCase(System.getenv("USE_HTTPS"));
@@ -32,9 +63,44 @@ public class VoizyServer {
 
         try {
             DatabaseManager.initMySQL();
-            // Later init Redis as well
+            if (EnvUtil.getBoolean("USE_REDIS", true)) {
+                DatabaseManager.initRedis();
+            }
+            ProfileCache.init();
+            JvmMetrics.register();
+            ComponentMetrics.register();
+
+            PostCountersRepository postCountersRepository = new PostCountersRepository();
+            if (EnvUtil.getBoolean("REBUILD_POST_COUNTERS", false)) {
+                postCountersRepository.rebuildAll();
+            } else {
+                postCountersRepository.backfillIfEmpty();
+            }
+
+            if (EnvUtil.getBoolean("REBUILD_USER_STATS", false)) {
+                new UserStatsRepository().rebuildAll();
+            }
+
+            if (EnvUtil.getBoolean("HASHTAG_DICTIONARY_WARM", true)) {
+                HashtagDictionary.warm(new HashtagRepository());
+            }
 
             Server server = configureServer(useHttps, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.stop();
+                } catch (Exception e) {
+                    logger.error("Error stopping server", e);
+                }
+                shutdownServices();
+            }, "voizy-shutdown"));
+
+            if (EnvUtil.getBoolean("ASYNC_HANDLERS", false)) {
+                // Handlers mostly wait on MySQL, so more threads than connections only adds queueing
+                int threads = EnvUtil.getInt("ASYNC_HANDLER_THREADS", DatabaseManager.getMaximumPoolSize());
+                int queueCapacity = EnvUtil.getInt("ASYNC_QUEUE_CAPACITY", threads * 20);
+                handlerExecutor = BoundedExecutors.newBoundedExecutor("voizy-handler", threads, queueCapacity);
+            }
 
             ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
             context.setContextPath("/");
@@ -43,49 +109,71 @@ public class VoizyServer {
             UserController userController = new UserController();
             AuthController authController = new AuthController();
             PostController postController = new PostController();
+            CommentController commentController = new CommentController();
+            FeedController feedController = new FeedController();
+            MetricsController metricsController = new MetricsController();
             AuthMiddleware authMiddleware = new AuthMiddleware();
 
             //-------------------------//
             //       User routes       //
             //-------------------------//
             // CreateUser
-            HttpServlet protectedCreateUserServlet = ServletAdapter.biConsumerToServlet(
-                    userController.createUserHandler()
-            );
-            context.addServlet(new ServletHolder(protectedCreateUserServlet), "/users/create");
+            addRoute(context, "/users/create", userController.createUserHandler());
 
             // Login
-            HttpServlet protectedLoginServlet = ServletAdapter.biConsumerToServlet(
-                    authController.loginHandler()
-            );
-            context.addServlet(new ServletHolder(protectedLoginServlet), "/users/login");
+            addRoute(context, "/users/login", authController.loginHandler());
 
             // GetProfile
-            HttpServlet protectedGetProfileServlet = ServletAdapter.biConsumerToServlet(
-                    authMiddleware.validateApiKey(userController.getProfileHandler())
-            );
-            context.addServlet(new ServletHolder(protectedGetProfileServlet), "/users/profile/get");
+            addRoute(context, "/users/profile/get", authMiddleware.validateApiKey(userController.getProfileHandler()));
 
             //-------------------------//
             //       Post routes       //
             //-------------------------//
             // ListPosts
-            HttpServlet protectedListPostsServlet = ServletAdapter.biConsumerToServlet(
-                    authMiddleware.validateApiKey(postController.listPostsHandler())
-            );
-            context.addServlet(new ServletHolder(protectedListPostsServlet), "/posts/list");
+            addRoute(context, "/posts/list", authMiddleware.validateApiKey(postController.listPostsHandler()));
 
             // CreatePost
-            HttpServlet protectedCreatePostServlet = ServletAdapter.biConsumerToServlet(
-                    authMiddleware.combinedAuth(postController.createPostHandler())
-            );
-            context.addServlet(new ServletHolder(protectedCreatePostServlet), "/posts/create");
+            addRoute(context, "/posts/create", authMiddleware.combinedAuth(postController.createPostHandler()));
 
             // GetPostMedia
-            HttpServlet protectedGetPostMediaServlet = ServletAdapter.biConsumerToServlet(
-                    authMiddleware.validateApiKey(postController.getPostMediaHandler())
-            );
-            context.addServlet(new ServletHolder(protectedGetPostMediaServlet), "/posts/get/media");
+            addRoute(context, "/posts/get/media", authMiddleware.validateApiKey(postController.getPostMediaHandler()));
+
+            // GetPostMediaBatch
+            addRoute(context, "/posts/get/media/batch", authMiddleware.validateApiKey(postController.getPostMediaBatchHandler()));
+
+            // RecordImpressions
+            addRoute(context, "/posts/impressions", authMiddleware.validateApiKey(postController.recordImpressionsHandler()));
+
+            // RecordViews
+            addRoute(context, "/posts/views", authMiddleware.validateApiKey(postController.recordViewsHandler()));
+
+            // ReactToPost
+            addRoute(context, "/posts/react", authMiddleware.validateApiKey(postController.reactToPostHandler()));
+
+            // GetPostReactions
+            addRoute(context, "/posts/reactions", authMiddleware.validateApiKey(postController.getPostReactionsHandler()));
+
+            //-------------------------//
+            //     Comment routes      //
+            //-------------------------//
+            // CreateComment
+            addRoute(context, "/comments/create", authMiddleware.validateApiKey(commentController.createCommentHandler()));
+
+            // ListComments
+            addRoute(context, "/comments/list", authMiddleware.validateApiKey(commentController.listCommentsHandler()));
+
+            //-------------------------//
+            //       Feed routes       //
+            //-------------------------//
+            // GetFeed
+            addRoute(context, "/feed", authMiddleware.validateApiKey(feedController.getFeedHandler()));
+
+            //-------------------------//
+            //     Metrics routes      //
+            //-------------------------//
+            // Not timed, so scrapes do not show up in request metrics
+            HttpServlet metricsServlet = ServletAdapter.biConsumerToServlet(metricsController.metricsHandler());
+            context.addServlet(new ServletHolder(metricsServlet), "/metrics");
 
             server.start();
             logger.info("Server started on port {}", port);
@@ -95,8 +183,40 @@ public class VoizyServer {
             logger.error("Server initialization error", e);
             System.exit(1);
         } finally {
-            DatabaseManager.close();
+            shutdownServices();
+        }
+    }
+
+    /**
+     * Register a handler at a path, timed under the path as its route label.
+     * In async mode the handler runs on the bounded handler executor.
+     */
+    private static void addRoute(ServletContextHandler context, String path, BiConsumer<HttpServletRequest, HttpServletResponse> handler) {
+        if (COMPRESSION_ENABLED) {
+            handler = CompressionMiddleware.compress(handler);
         }
+        BiConsumer<HttpServletRequest, HttpServletResponse> timedHandler = MetricsMiddleware.timed(path, handler);
+
+        if (handlerExecutor == null) {
+            context.addServlet(new ServletHolder(ServletAdapter.biConsumerToServlet(timedHandler)), path);
+            return;
+        }
+
+        ServletHolder holder = new ServletHolder(ServletAdapter.biConsumerToAsyncServlet(path, timedHandler, handlerExecutor));
+        holder.setAsyncSupported(true);
+        context.addServlet(holder, path);
+    }
+
+    private static synchronized void shutdownServices() {
+        BoundedExecutors.shutdown(handlerExecutor, 10_000);
+        FeedFanout.shutdown();
+        HashingUtil.shutdown();
+        ApiKeyUsageTracker.shutdown();
+        PostEngagementCounter.shutdown();
+        PostReactionTotals.shutdown();
+        AnalyticsUtil.shutdown();
+        ProfileCache.shutdown();
+        DatabaseManager.close();
     }
 
     private static int determinePort(String[] args) {
@@ -122,10 +242,21 @@ public class VoizyServer {
     }
 
     private static Server configureServer(boolean useHttps, int port) {
-        Server server = new Server();
+        QueuedThreadPool threadPool = new QueuedThreadPool(EnvUtil.getInt("HTTP_MAX_THREADS", 200));
+        threadPool.setName("voizy-http");
+        if (VirtualThreadsUtil.isEnabled()) {
+            // Jetty keeps its selectors and acceptors on the pool and dispatches requests to virtual threads
+            threadPool.setUseVirtualThreads(true);
+        }
+        logger.info("Request execution mode: {} threads", VirtualThreadsUtil.isEnabled() ? "virtual" : "platform");
+
+        Server server = new Server(threadPool);
+
+        HttpConfiguration httpConfig = new HttpConfiguration();
+        HttpConnectionFactory http1 = new HttpConnectionFactory(httpConfig);
+        boolean http2Enabled = EnvUtil.getBoolean("HTTP2_ENABLED", true);
 
         if (useHttps) {
-            HttpConfiguration httpConfig = new HttpConfiguration();
             httpConfig.setSecureScheme("https");
             httpConfig.setSecurePort(443);
             httpConfig.addCustomizer(new SecureRequestCustomizer());
@@ -134,23 +265,62 @@ public class VoizyServer {
             sslContextFactory.setKeyStorePath("/etc/letsencrypt/voizy.me/keystore.jks");
             sslContextFactory.setKeyStorePassword(System.getenv("KEYSTORE_PASSWORD"));
 
-            ServerConnector sslConnector = new ServerConnector(
-                    server,
-                    new SslConnectionFactory(sslContextFactory, "http/1.1"),
-                    new HttpConnectionFactory(httpConfig)
-            );
+            ServerConnector sslConnector;
+            if (http2Enabled) {
+                // h2 is negotiated with ALPN; clients without ALPN or h2 support get HTTP/1.1
+                HTTP2ServerConnectionFactory h2 = configureHttp2(new HTTP2ServerConnectionFactory(httpConfig));
+                ALPNServerConnectionFactory alpn = new ALPNServerConnectionFactory();
+                alpn.setDefaultProtocol(http1.getProtocol());
+                // RFC 7540 blacklists some ciphers for h2, so order the acceptable ones first
+                sslContextFactory.setCipherComparator(HTTP2Cipher.COMPARATOR);
+
+                sslConnector = new ServerConnector(
+                        server,
+                        new SslConnectionFactory(sslContextFactory, alpn.getProtocol()),
+                        alpn,
+                        h2,
+                        http1
+                );
+            } else {
+                sslConnector = new ServerConnector(
+                        server,
+                        new SslConnectionFactory(sslContextFactory, http1.getProtocol()),
+                        http1
+                );
+            }
             sslConnector.setPort(443);
 
             server.addConnector(sslConnector);
         } else {
-            ServerConnector connector = new ServerConnector(server);
+            ServerConnector connector;
+            if (http2Enabled) {
+                // h2c behind the proxy: accepts prior-knowledge h2 and "Upgrade: h2c" alongside HTTP/1.1
+                HTTP2CServerConnectionFactory h2c = configureHttp2(new HTTP2CServerConnectionFactory(httpConfig));
+                connector = new ServerConnector(server, http1, h2c);
+            } else {
+                connector = new ServerConnector(server, http1);
+            }
             connector.setPort(port);
             server.addConnector(connector);
         }
+        logger.info("HTTP/2 {}", http2Enabled ? (useHttps ? "enabled (h2 via ALPN)" : "enabled (h2c)") : "disabled");
 
         return server;
     }
 
+    /**
+     * Apply stream concurrency and flow-control settings.
+     * Each client multiplexes a whole screen (profile, wall, media per post) over one connection,
+     * so the stream limit bounds how many of those requests a single connection can have in flight.
+     */
+    private static <T extends AbstractHTTP2ServerConnectionFactory> T configureHttp2(T factory) {
+        factory.setMaxConcurrentStreams(EnvUtil.getInt("HTTP2_MAX_CONCURRENT_STREAMS", 128));
+        factory.setInitialStreamRecvWindow(EnvUtil.getInt("HTTP2_STREAM_WINDOW_BYTES", 512 * 1024));
+        factory.setInitialSessionRecvWindow(EnvUtil.getInt("HTTP2_SESSION_WINDOW_BYTES", 2 * 1024 * 1024));
+        factory.setStreamIdleTimeout(EnvUtil.getLong("HTTP2_STREAM_IDLE_TIMEOUT_MS", 30_000));
+        return factory;
+    }
+
     static HttpServlet createServlet(BiConsumerServlet handler) {
         return new HttpServlet() {
             @Override
@@ -0,0 +1,140 @@
+package io.winapps.voizy.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.winapps.voizy.models.middleware.APIKey;
+import io.winapps.voizy.util.EnvUtil;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, TTL-based cache of validated (userID, apiKey) lookups used by AuthMiddleware.
+ * Keys that were not found are remembered for a shorter time so repeated bad keys
+ * do not reach MySQL. Database errors are never cached.
+ */
+public class ApiKeyCache {
+    private static final long MAX_SIZE = EnvUtil.getLong("API_KEY_CACHE_MAX_SIZE", 100_000);
+    private static final long TTL_SECONDS = EnvUtil.getLong("API_KEY_CACHE_TTL_SECONDS", 300);
+    private static final long NEGATIVE_TTL_SECONDS = EnvUtil.getLong("API_KEY_CACHE_NEGATIVE_TTL_SECONDS", 10);
+
+    private static final Cache<String, APIKey> validKeys = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterWrite(TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    private static final Cache<String, Boolean> missingKeys = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE / 10)
+            .expireAfterWrite(NEGATIVE_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder negativeHits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder loadFailures = new LongAdder();
+    private static final LongAdder totalLoadTimeNanos = new LongAdder();
+
+    @FunctionalInterface
+    public interface ApiKeyLoader {
+        APIKey load() throws SQLException;
+    }
+
+    /**
+     * Get a validated API key, loading it on a miss
+     * @param userID User ID the key must belong to
+     * @param apiKey API key string
+     * @param loader Loads the key from the database; returns null if it does not exist
+     * @return The API key, or null if it does not exist
+     * @throws SQLException if the loader fails (the failure is not cached)
+     */
+    public static APIKey get(long userID, String apiKey, ApiKeyLoader loader) throws SQLException {
+        String cacheKey = cacheKey(userID, apiKey);
+
+        APIKey cached = validKeys.getIfPresent(cacheKey);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        if (missingKeys.getIfPresent(cacheKey) != null) {
+            negativeHits.increment();
+            return null;
+        }
+
+        misses.increment();
+        long startTime = System.nanoTime();
+        APIKey loaded;
+        try {
+            loaded = loader.load();
+        } catch (SQLException e) {
+            loadFailures.increment();
+            throw e;
+        } finally {
+            totalLoadTimeNanos.add(System.nanoTime() - startTime);
+        }
+
+        if (loaded != null) {
+            validKeys.put(cacheKey, loaded);
+        } else {
+            missingKeys.put(cacheKey, Boolean.TRUE);
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Drop a single (userID, apiKey) entry, e.g. after it failed validation or was just stored
+     */
+    public static void invalidate(long userID, String apiKey) {
+        String cacheKey = cacheKey(userID, apiKey);
+        validKeys.invalidate(cacheKey);
+        missingKeys.invalidate(cacheKey);
+    }
+
+    private static String cacheKey(long userID, String apiKey) {
+        return userID + ":" + apiKey;
+    }
+
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    public static long getNegativeHitCount() {
+        return negativeHits.sum();
+    }
+
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    public static long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    public static long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos.sum();
+    }
+
+    /**
+     * Fraction of lookups served without a database round trip, including cached misses
+     */
+    public static double getHitRatio() {
+        long served = hits.sum() + negativeHits.sum();
+        long total = served + misses.sum();
+        return total == 0 ? 1.0 : (double) served / total;
+    }
+
+    public static double getAverageLoadTimeNanos() {
+        long loads = misses.sum();
+        return loads == 0 ? 0.0 : (double) totalLoadTimeNanos.sum() / loads;
+    }
+
+    public static long getSize() {
+        return validKeys.size();
+    }
+
+    public static long getNegativeSize() {
+        return missingKeys.size();
+    }
+}
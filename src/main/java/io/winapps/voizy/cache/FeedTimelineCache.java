@@ -0,0 +1,252 @@
+package io.winapps.voizy.cache;
+
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.util.EnvUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Precomputed home timelines, one Redis sorted set of post IDs per user.
+ * Members and scores are both the post ID, which increases with creation time, so
+ * pages are read with an exclusive ZREVRANGEBYSCORE below the cursor. Each set is
+ * capped at FEED_TIMELINE_SIZE entries and expires after FEED_TIMELINE_TTL_SECONDS
+ * without writes. Pushes only touch timelines that already exist; missing ones are
+ * rebuilt from MySQL on their next read, so an expired timeline never comes back
+ * holding only the posts made since it expired. A rebuild creates the key before it
+ * reads MySQL, so a post committed while the rebuild runs is either in what it reads
+ * or pushed into the key, and a timeline deleted mid-rebuild stays deleted.
+ */
+public class FeedTimelineCache {
+    private static final Logger logger = LoggerFactory.getLogger(FeedTimelineCache.class);
+
+    private static final String KEY_PREFIX = "voizy:feed:";
+    private static final String PULL_AUTHORS_KEY = "voizy:feed:pull_authors";
+    /** Keeps a rebuilt but empty timeline from looking missing; never returned to readers */
+    private static final String EMPTY_MARKER = "0";
+    private static final int PUSH_CHUNK_SIZE = 500;
+
+    private static final int MAX_SIZE = EnvUtil.getInt("FEED_TIMELINE_SIZE", 800);
+    private static final long TTL_SECONDS = EnvUtil.getLong("FEED_TIMELINE_TTL_SECONDS", 7 * 24 * 3600);
+    private static final long PULL_AUTHORS_REFRESH_MS = EnvUtil.getLong("FEED_PULL_AUTHORS_REFRESH_MS", 60_000);
+    private static final boolean ENABLED = EnvUtil.getBoolean("FEED_REDIS", true);
+
+    private static final String PUSH_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+            "redis.call('ZADD', KEYS[1], ARGV[1], ARGV[1]) " +
+            "redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[2]) + 1)) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+            "return 1 " +
+            "end " +
+            "return 0";
+
+    private static final String COMPLETE_REBUILD_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "for i = 3, #ARGV do redis.call('ZADD', KEYS[1], ARGV[i], ARGV[i]) end " +
+            "redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[1]) + 1)) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+            "return 1";
+
+    private static final FeedTimelineCache instance = new FeedTimelineCache();
+
+    private volatile String pushScriptSha;
+    private volatile Set<Long> pullAuthors = Collections.emptySet();
+    private volatile long pullAuthorsLoadedAt;
+
+    /**
+     * @return The shared cache; services take it as a constructor argument so tests can substitute it
+     */
+    public static FeedTimelineCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return True if Redis is connected and FEED_REDIS is not false
+     */
+    public boolean isEnabled() {
+        return ENABLED && DatabaseManager.isRedisAvailable();
+    }
+
+    public int getMaxSize() {
+        return MAX_SIZE;
+    }
+
+    /**
+     * Add a post to the timelines of the given users, skipping timelines that do not exist
+     * @return Number of timelines the post was added to
+     */
+    public long push(Collection<Long> ownerIds, long postId) {
+        List<Long> owners = new ArrayList<>(ownerIds);
+        List<String> args = Arrays.asList(String.valueOf(postId), String.valueOf(MAX_SIZE), String.valueOf(TTL_SECONDS));
+        long pushed = 0;
+
+        try (Jedis jedis = DatabaseManager.getJedisPool().getResource()) {
+            for (int start = 0; start < owners.size(); start += PUSH_CHUNK_SIZE) {
+                List<Long> chunk = owners.subList(start, Math.min(start + PUSH_CHUNK_SIZE, owners.size()));
+                pushed += pushChunk(jedis, chunk, args, false);
+            }
+        }
+
+        return pushed;
+    }
+
+    private long pushChunk(Jedis jedis, List<Long> owners, List<String> args, boolean retried) {
+        String sha = pushScriptSha;
+        if (sha == null) {
+            sha = jedis.scriptLoad(PUSH_SCRIPT);
+            pushScriptSha = sha;
+        }
+
+        Pipeline pipeline = jedis.pipelined();
+        for (long ownerId : owners) {
+            pipeline.evalsha(sha, Collections.singletonList(KEY_PREFIX + ownerId), args);
+        }
+
+        long pushed = 0;
+        for (Object result : pipeline.syncAndReturnAll()) {
+            if (result instanceof JedisDataException) {
+                JedisDataException e = (JedisDataException) result;
+                if (!retried && e.getMessage() != null && e.getMessage().startsWith("NOSCRIPT")) {
+                    // Redis restarted or flushed its scripts; the script is idempotent per owner
+                    pushScriptSha = null;
+                    return pushChunk(jedis, owners, args, true);
+                }
+                throw e;
+            }
+            if (result instanceof Long) {
+                pushed += (Long) result;
+            }
+        }
+
+        return pushed;
+    }
+
+    /**
+     * Read a page of a user's timeline
+     * @param beforePostId Only return posts with a smaller ID; Long.MAX_VALUE for the first page
+     * @return Post IDs, newest first, or null if the user has no timeline yet
+     */
+    public List<Long> read(long userId, long beforePostId, int limit) {
+        String key = KEY_PREFIX + userId;
+        String max = beforePostId == Long.MAX_VALUE ? "+inf" : "(" + beforePostId;
+
+        try (Jedis jedis = DatabaseManager.getJedisPool().getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            Response<Boolean> exists = pipeline.exists(key);
+            Response<List<String>> members = pipeline.zrevrangeByScore(key, max, "(" + EMPTY_MARKER, 0, limit);
+            pipeline.sync();
+
+            if (!exists.get()) {
+                return null;
+            }
+
+            List<Long> postIds = new ArrayList<>(members.get().size());
+            for (String member : members.get()) {
+                postIds.add(Long.parseLong(member));
+            }
+            return postIds;
+        }
+    }
+
+    /**
+     * Create an empty timeline for a user who has none, so posts pushed while it is
+     * rebuilt are kept. Call before reading the posts passed to completeRebuild.
+     */
+    public void beginRebuild(long userId) {
+        String key = KEY_PREFIX + userId;
+
+        try (Jedis jedis = DatabaseManager.getJedisPool().getResource()) {
+            Transaction transaction = jedis.multi();
+            transaction.zadd(key, 0.0, EMPTY_MARKER);
+            transaction.expire(key, TTL_SECONDS);
+            transaction.exec();
+        }
+    }
+
+    /**
+     * Add the posts read for a rebuild to the user's timeline, keeping anything pushed
+     * since beginRebuild. Does nothing if the timeline was deleted in the meantime.
+     */
+    public void completeRebuild(long userId, List<Long> postIds) {
+        List<String> args = new ArrayList<>(postIds.size() + 2);
+        args.add(String.valueOf(MAX_SIZE));
+        args.add(String.valueOf(TTL_SECONDS));
+        for (long postId : postIds) {
+            args.add(String.valueOf(postId));
+        }
+
+        try (Jedis jedis = DatabaseManager.getJedisPool().getResource()) {
+            jedis.eval(COMPLETE_REBUILD_SCRIPT, Collections.singletonList(KEY_PREFIX + userId), args);
+        }
+    }
+
+    /**
+     * Delete the timelines of the given users so their next read rebuilds them from MySQL
+     */
+    public void invalidate(Collection<Long> ownerIds) {
+        List<String> keys = new ArrayList<>(ownerIds.size());
+        for (long ownerId : ownerIds) {
+            keys.add(KEY_PREFIX + ownerId);
+        }
+
+        try (Jedis jedis = DatabaseManager.getJedisPool().getResource()) {
+            for (int start = 0; start < keys.size(); start += PUSH_CHUNK_SIZE) {
+                List<String> chunk = keys.subList(start, Math.min(start + PUSH_CHUNK_SIZE, keys.size()));
+                jedis.del(chunk.toArray(new String[0]));
+            }
+        }
+    }
+
+    /**
+     * Record that an author's posts are no longer fanned out and must be pulled on read
+     */
+    public void addPullAuthor(long userId) {
+        try (Jedis jedis = DatabaseManager.getJedisPool().getResource()) {
+            if (jedis.sadd(PULL_AUTHORS_KEY, String.valueOf(userId)) > 0) {
+                logger.info("User {} now has too many friends for fan-out; their posts are pulled on read", userId);
+            }
+        }
+
+        Set<Long> updated = new HashSet<>(pullAuthors);
+        updated.add(userId);
+        pullAuthors = Collections.unmodifiableSet(updated);
+    }
+
+    /**
+     * @return Authors whose posts are pulled on read, refreshed from Redis at most
+     *         every FEED_PULL_AUTHORS_REFRESH_MS
+     */
+    public Set<Long> getPullAuthors() {
+        long now = System.currentTimeMillis();
+        if (now - pullAuthorsLoadedAt < PULL_AUTHORS_REFRESH_MS) {
+            return pullAuthors;
+        }
+
+        try (Jedis jedis = DatabaseManager.getJedisPool().getResource()) {
+            Set<Long> loaded = new HashSet<>();
+            for (String member : jedis.smembers(PULL_AUTHORS_KEY)) {
+                loaded.add(Long.parseLong(member));
+            }
+            pullAuthors = Collections.unmodifiableSet(loaded);
+            pullAuthorsLoadedAt = now;
+        }
+
+        return pullAuthors;
+    }
+
+    public int getPullAuthorCount() {
+        return pullAuthors.size();
+    }
+}
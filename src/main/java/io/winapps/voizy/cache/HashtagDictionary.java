@@ -0,0 +1,97 @@
+package io.winapps.voizy.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.winapps.voizy.repositories.HashtagRepository;
+import io.winapps.voizy.util.EnvUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, process-wide map of normalized hashtag text to hashtag_id.
+ * Hashtag rows are never updated or deleted, so entries do not expire; the least
+ * recently used ones are evicted once the dictionary is full. Entries are only added
+ * for IDs that are committed, so a rolled-back post cannot leave a dangling ID behind.
+ */
+public class HashtagDictionary {
+    private static final Logger logger = LoggerFactory.getLogger(HashtagDictionary.class);
+
+    private static final long MAX_SIZE = EnvUtil.getLong("HASHTAG_DICTIONARY_MAX_SIZE", 50_000);
+    private static final int WARM_WINDOW = EnvUtil.getInt("HASHTAG_DICTIONARY_WARM_WINDOW", 200_000);
+
+    private static final Cache<String, Long> ids = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    /**
+     * Look up the IDs of the given tags
+     * @param keys Normalized tags
+     * @return IDs of the tags that are known; unknown tags are absent
+     */
+    public static Map<String, Long> getAll(Collection<String> keys) {
+        Map<String, Long> found = new HashMap<>();
+
+        for (String key : keys) {
+            Long id = ids.getIfPresent(key);
+            if (id != null) {
+                found.put(key, id);
+            }
+        }
+
+        hits.add(found.size());
+        misses.add(keys.size() - found.size());
+        return found;
+    }
+
+    /**
+     * Remember tag IDs. Only call with IDs whose rows are committed.
+     * @param idsByKey IDs keyed by normalized tag
+     */
+    public static void putAll(Map<String, Long> idsByKey) {
+        ids.putAll(idsByKey);
+    }
+
+    /**
+     * Forget tags, e.g. after an insert referencing them failed a foreign key check
+     */
+    public static void invalidateAll(Collection<String> keys) {
+        ids.invalidateAll(keys);
+    }
+
+    /**
+     * Preload the most used hashtags among recent posts
+     */
+    public static void warm(HashtagRepository hashtagRepository) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            Map<String, Long> popular = hashtagRepository.loadPopularHashtags(WARM_WINDOW, (int) Math.min(MAX_SIZE, Integer.MAX_VALUE));
+            ids.putAll(popular);
+            logger.info("Hashtag dictionary warmed with {} tags in {} ms", popular.size(), System.currentTimeMillis() - startTime);
+        } catch (SQLException e) {
+            // Not fatal: the dictionary fills on misses
+            logger.warn("Failed to warm hashtag dictionary", e);
+        }
+    }
+
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    public static long getSize() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,351 @@
+package io.winapps.voizy.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.models.users.GetUserProfileResponse;
+import io.winapps.voizy.util.EnvUtil;
+import io.winapps.voizy.util.JsonUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through, two-tier cache for user profiles.
+ * Tier one is a bounded in-process cache; tier two is Redis, shared by every node.
+ * Invalidations delete the Redis entry and are broadcast over Redis pub/sub so every
+ * node drops its local copy. Without Redis the cache runs with the local tier only,
+ * and staleness across nodes is bounded by the local TTL.
+ * A profile loaded before an invalidation is never written back after it: locally,
+ * each user's invalidation generation is rechecked after the put, and in Redis the
+ * write only happens if the user's version key still holds the value read before
+ * the load, checked and written atomically in a script.
+ */
+public class ProfileCache {
+    private static final Logger logger = LoggerFactory.getLogger(ProfileCache.class);
+    private static final ObjectMapper objectMapper = JsonUtil.getObjectMapper();
+
+    private static final String REDIS_KEY_PREFIX = "voizy:profile:";
+    private static final String VERSION_KEY_PREFIX = "voizy:profile:version:";
+    private static final String INVALIDATION_CHANNEL = "voizy:profile:invalidate";
+    /** Must outlive any load in flight when the version changes */
+    private static final long VERSION_TTL_SECONDS = 24 * 3600;
+    private static final int GENERATION_STRIPES = 1024;
+    private static final long SUBSCRIBER_RETRY_DELAY_MS = 1000;
+
+    private static final String WRITE_SCRIPT =
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+            "redis.call('SETEX', KEYS[1], ARGV[2], ARGV[3]) " +
+            "return 1";
+
+    private static final String INVALIDATE_SCRIPT =
+            "redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[1]) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return 1";
+
+    /** Bumped on every local invalidation; users sharing a stripe only cost each other a skipped put */
+    private static final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private static final LongAdder redisHits = new LongAdder();
+    private static final LongAdder redisMisses = new LongAdder();
+    private static final LongAdder redisErrors = new LongAdder();
+    private static final LongAdder invalidationsReceived = new LongAdder();
+
+    private static volatile Cache<Long, GetUserProfileResponse> localCache;
+    private static volatile boolean redisEnabled;
+    private static volatile JedisPool jedisPool;
+    private static volatile boolean running;
+    private static int redisTtlSeconds;
+    private static volatile Thread subscriberThread;
+    private static volatile JedisPubSub subscriber;
+
+    private static final class RedisEntry {
+        private final GetUserProfileResponse profile;
+        private final String version;
+
+        private RedisEntry(GetUserProfileResponse profile, String version) {
+            this.profile = profile;
+            this.version = version;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ProfileLoader {
+        GetUserProfileResponse load() throws SQLException;
+    }
+
+    /**
+     * Initialize the cache. Uses Redis as the second tier if DatabaseManager has a
+     * working Redis pool; otherwise only the local tier is enabled.
+     */
+    public static synchronized void init() {
+        if (localCache != null) {
+            return;
+        }
+
+        long maxSize = EnvUtil.getLong("PROFILE_CACHE_MAX_SIZE", 10_000);
+        long localTtlSeconds = EnvUtil.getLong("PROFILE_CACHE_LOCAL_TTL_SECONDS", 60);
+        redisTtlSeconds = EnvUtil.getInt("PROFILE_CACHE_REDIS_TTL_SECONDS", 600);
+
+        localCache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(localTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+
+        redisEnabled = DatabaseManager.isRedisAvailable();
+        jedisPool = redisEnabled ? DatabaseManager.getJedisPool() : null;
+        running = true;
+
+        if (redisEnabled) {
+            startSubscriber();
+        }
+
+        logger.info("Profile cache initialized (maxSize={}, localTtl={}s, redis={})",
+                maxSize, localTtlSeconds, redisEnabled ? "enabled, ttl=" + redisTtlSeconds + "s" : "disabled");
+    }
+
+    /**
+     * Get a profile, checking the local tier, then Redis, then the loader.
+     * If the cache has not been initialized, calls the loader directly.
+     * @param userId User ID of the profile
+     * @param loader Loads the profile from the database on a miss
+     * @return The profile, or null if the loader found none (not cached)
+     */
+    public static GetUserProfileResponse get(long userId, ProfileLoader loader) throws SQLException {
+        Cache<Long, GetUserProfileResponse> cache = localCache;
+        if (cache == null) {
+            return loader.load();
+        }
+
+        GetUserProfileResponse profile = cache.getIfPresent(userId);
+        if (profile != null) {
+            return profile;
+        }
+
+        long generation = generations.get(stripeOf(userId));
+
+        RedisEntry entry = getFromRedis(userId);
+        if (entry != null && entry.profile != null) {
+            putLocal(cache, userId, entry.profile, generation);
+            return entry.profile;
+        }
+
+        profile = loader.load();
+        if (profile != null) {
+            putLocal(cache, userId, profile, generation);
+            if (entry != null) {
+                putInRedis(userId, profile, entry.version);
+            }
+        }
+
+        return profile;
+    }
+
+    /**
+     * Put a profile read while the user's generation was the given one. An invalidation
+     * bumps the generation before dropping the entry, so either it drops this put or this
+     * sees the new generation and drops the entry itself.
+     */
+    private static void putLocal(Cache<Long, GetUserProfileResponse> cache, long userId,
+                                 GetUserProfileResponse profile, long generation) {
+        cache.put(userId, profile);
+        if (generations.get(stripeOf(userId)) != generation) {
+            cache.invalidate(userId);
+        }
+    }
+
+    private static void invalidateLocal(Cache<Long, GetUserProfileResponse> cache, long userId) {
+        generations.incrementAndGet(stripeOf(userId));
+        cache.invalidate(userId);
+    }
+
+    private static void invalidateAllLocal(Cache<Long, GetUserProfileResponse> cache) {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    private static int stripeOf(long userId) {
+        return (int) Math.floorMod(userId, (long) GENERATION_STRIPES);
+    }
+
+    /**
+     * Drop a profile from every tier on every node
+     * @param userId User ID of the profile that changed
+     */
+    public static void invalidate(long userId) {
+        Cache<Long, GetUserProfileResponse> cache = localCache;
+        if (cache == null) {
+            return;
+        }
+
+        invalidateLocal(cache, userId);
+
+        if (!redisEnabled) {
+            return;
+        }
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.eval(INVALIDATE_SCRIPT, Arrays.asList(REDIS_KEY_PREFIX + userId, VERSION_KEY_PREFIX + userId),
+                    Collections.singletonList(Long.toString(VERSION_TTL_SECONDS)));
+            jedis.publish(INVALIDATION_CHANNEL, Long.toString(userId));
+        } catch (Exception e) {
+            redisErrors.increment();
+            logger.warn("Failed to invalidate profile {} in Redis", userId, e);
+        }
+    }
+
+    /**
+     * @return The cached profile (null on a miss) with the user's version at the time of the
+     *         read, or null if Redis is disabled or failed, in which case nothing is written back
+     */
+    private static RedisEntry getFromRedis(long userId) {
+        if (!redisEnabled) {
+            return null;
+        }
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            List<String> values = jedis.mget(REDIS_KEY_PREFIX + userId, VERSION_KEY_PREFIX + userId);
+            String json = values.get(0);
+            String version = values.get(1) != null ? values.get(1) : "0";
+            if (json == null) {
+                redisMisses.increment();
+                return new RedisEntry(null, version);
+            }
+
+            redisHits.increment();
+            return new RedisEntry(objectMapper.readValue(json, GetUserProfileResponse.class), version);
+        } catch (Exception e) {
+            redisErrors.increment();
+            logger.warn("Failed to read profile {} from Redis", userId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Write a loaded profile unless the user was invalidated since the version was read
+     */
+    private static void putInRedis(long userId, GetUserProfileResponse profile, String version) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.eval(WRITE_SCRIPT, Arrays.asList(REDIS_KEY_PREFIX + userId, VERSION_KEY_PREFIX + userId),
+                    Arrays.asList(version, Integer.toString(redisTtlSeconds), objectMapper.writeValueAsString(profile)));
+        } catch (Exception e) {
+            redisErrors.increment();
+            logger.warn("Failed to write profile {} to Redis", userId, e);
+        }
+    }
+
+    private static void startSubscriber() {
+        subscriberThread = new Thread(() -> {
+            // A thread left over from before a shutdown() and init() must not keep running
+            while (running && subscriberThread == Thread.currentThread()) {
+                JedisPubSub pubSub = new JedisPubSub() {
+                    @Override
+                    public void onMessage(String channel, String message) {
+                        Cache<Long, GetUserProfileResponse> cache = localCache;
+                        if (cache == null) {
+                            return;
+                        }
+                        try {
+                            invalidateLocal(cache, Long.parseLong(message));
+                            invalidationsReceived.increment();
+                        } catch (NumberFormatException e) {
+                            logger.warn("Ignoring malformed profile invalidation message: {}", message);
+                        }
+                    }
+
+                    @Override
+                    public void onSubscribe(String channel, int subscribedChannels) {
+                        // Messages may have been missed while disconnected
+                        Cache<Long, GetUserProfileResponse> cache = localCache;
+                        if (cache != null) {
+                            invalidateAllLocal(cache);
+                        }
+                        logger.info("Subscribed to {}", channel);
+                    }
+                };
+                subscriber = pubSub;
+
+                try (Jedis jedis = jedisPool.getResource()) {
+                    jedis.subscribe(pubSub, INVALIDATION_CHANNEL);
+                } catch (Exception e) {
+                    if (!running) {
+                        break;
+                    }
+                    redisErrors.increment();
+                    logger.warn("Profile invalidation subscription lost; retrying in {} ms", SUBSCRIBER_RETRY_DELAY_MS, e);
+                    try {
+                        Thread.sleep(SUBSCRIBER_RETRY_DELAY_MS);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }, "profile-cache-invalidation");
+        subscriberThread.setDaemon(true);
+        subscriberThread.start();
+    }
+
+    /**
+     * Stop listening for invalidations. Later calls to get() go straight to the loader.
+     */
+    public static synchronized void shutdown() {
+        running = false;
+        localCache = null;
+
+        JedisPubSub pubSub = subscriber;
+        if (pubSub != null && pubSub.isSubscribed()) {
+            try {
+                pubSub.unsubscribe();
+            } catch (Exception e) {
+                logger.warn("Error unsubscribing from profile invalidations", e);
+            }
+        }
+
+        if (subscriberThread != null) {
+            subscriberThread.interrupt();
+        }
+    }
+
+    public static long getLocalSize() {
+        Cache<Long, GetUserProfileResponse> cache = localCache;
+        return cache == null ? 0 : cache.size();
+    }
+
+    public static CacheStats getLocalStats() {
+        Cache<Long, GetUserProfileResponse> cache = localCache;
+        return cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+    }
+
+    public static long getRedisHitCount() {
+        return redisHits.sum();
+    }
+
+    public static long getRedisMissCount() {
+        return redisMisses.sum();
+    }
+
+    public static long getRedisErrorCount() {
+        return redisErrors.sum();
+    }
+
+    public static long getInvalidationsReceivedCount() {
+        return invalidationsReceived.sum();
+    }
+}
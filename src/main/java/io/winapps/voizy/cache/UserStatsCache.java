@@ -0,0 +1,86 @@
+package io.winapps.voizy.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.winapps.voizy.util.EnvUtil;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived, process-local cache of per-user post counts from user_stats.
+ * Paging through a timeline asks for the same count on every page, so even a few
+ * seconds of caching removes most of those reads. Posts created through this node
+ * invalidate the affected users; other nodes see the new count once the TTL expires.
+ * Set USER_STATS_CACHE_TTL_SECONDS=0 to disable.
+ */
+public class UserStatsCache {
+    private static final long MAX_SIZE = EnvUtil.getLong("USER_STATS_CACHE_MAX_SIZE", 100_000);
+    private static final long TTL_SECONDS = EnvUtil.getLong("USER_STATS_CACHE_TTL_SECONDS", 5);
+
+    private static final Cache<Long, Long> timelinePostCounts = TTL_SECONDS > 0
+            ? CacheBuilder.newBuilder()
+                    .maximumSize(MAX_SIZE)
+                    .expireAfterWrite(TTL_SECONDS, TimeUnit.SECONDS)
+                    .build()
+            : null;
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    @FunctionalInterface
+    public interface CountLoader {
+        long load() throws SQLException;
+    }
+
+    /**
+     * Get a user's timeline post count, loading it on a miss
+     * @param userId User ID
+     * @param loader Loads the count from the database
+     * @return Number of posts authored by or addressed to the user
+     * @throws SQLException if the loader fails (the failure is not cached)
+     */
+    public static long getTimelinePostCount(long userId, CountLoader loader) throws SQLException {
+        if (timelinePostCounts == null) {
+            misses.increment();
+            return loader.load();
+        }
+
+        Long cached = timelinePostCounts.getIfPresent(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        long loaded = loader.load();
+        timelinePostCounts.put(userId, loaded);
+        return loaded;
+    }
+
+    /**
+     * Drop a user's cached counts, e.g. after a post by or to them was committed
+     */
+    public static void invalidate(long userId) {
+        if (timelinePostCounts != null) {
+            timelinePostCounts.invalidate(userId);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return timelinePostCounts != null;
+    }
+
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    public static long getSize() {
+        return timelinePostCounts == null ? 0 : timelinePostCounts.size();
+    }
+}
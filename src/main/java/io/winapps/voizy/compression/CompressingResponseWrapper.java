@@ -0,0 +1,317 @@
+package io.winapps.voizy.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Encodes a response body with a codec once it grows past a threshold.
+ * The first minBytes are buffered; if the response ends or is flushed before that,
+ * it is sent unencoded, since small bodies gain little and every
+ * compressed response costs a Deflater. Call finish() once the handler returns.
+ * reset(), resetBuffer() and sendError() throw away encoded output along with the
+ * buffer, so no stray deflate data or trailer follows an error page.
+ */
+public class CompressingResponseWrapper extends HttpServletResponseWrapper {
+    private final ContentCodec codec;
+    private final int minBytes;
+    private final ByteArrayOutputStream pending;
+    private OutputStream compressed;
+    private boolean passthrough;
+    private boolean finished;
+    private boolean discarding;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public CompressingResponseWrapper(HttpServletResponse response, ContentCodec codec, int minBytes) {
+        super(response);
+        this.codec = codec;
+        this.minBytes = minBytes;
+        this.pending = new ByteArrayOutputStream(Math.min(minBytes, 8192));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream == null) {
+            outputStream = new BufferingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            String encoding = getCharacterEncoding();
+            outputStream = new BufferingOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(outputStream,
+                    encoding == null ? StandardCharsets.ISO_8859_1.name() : encoding));
+        }
+        return writer;
+    }
+
+    // The length of the encoded body is not known up front, so lengths set by the
+    // handler are dropped; Jetty computes one for bodies that finish below the threshold
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (!"Content-Length".equalsIgnoreCase(name)) {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (!"Content-Length".equalsIgnoreCase(name)) {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (compressed != null) {
+            compressed.flush();
+        } else {
+            sendPending();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        discardOutput();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        discardOutput();
+        outputStream = null;
+        writer = null;
+    }
+
+    // The error page is written by the container, so anything written after this is sent as is
+    @Override
+    public void sendError(int sc) throws IOException {
+        discardOutput();
+        passthrough = true;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        discardOutput();
+        passthrough = true;
+        super.sendError(sc, msg);
+    }
+
+    /**
+     * Write out whatever is buffered and finish the encoding. Safe to call more than once.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+
+        if (writer != null) {
+            writer.flush();
+        }
+        finished = true;
+        // Closing releases the Deflater back to its pool even if the client has gone away
+        if (compressed != null) {
+            compressed.close();
+        } else {
+            sendPending();
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (discarding) {
+            return;
+        }
+        if (finished) {
+            throw new IOException("Response already finished");
+        }
+
+        if (compressed != null) {
+            compressed.write(b, off, len);
+        } else if (passthrough) {
+            super.getOutputStream().write(b, off, len);
+        } else {
+            pending.write(b, off, len);
+            if (pending.size() >= minBytes) {
+                startCompressing();
+            }
+        }
+    }
+
+    private void startCompressing() throws IOException {
+        if (!isCompressible()) {
+            sendPending();
+            return;
+        }
+
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        response.setHeader("Content-Encoding", codec.getEncoding());
+        response.setHeader("Content-Length", null);
+        compressed = codec.compress(new EncodedBodyStream());
+        pending.writeTo(compressed);
+        pending.reset();
+    }
+
+    private void sendPending() throws IOException {
+        if (passthrough) {
+            return;
+        }
+
+        passthrough = true;
+        CompressionStats.recordUncompressedResponse();
+        if (pending.size() > 0) {
+            pending.writeTo(super.getOutputStream());
+            pending.reset();
+        }
+    }
+
+    /**
+     * Drop everything written so far, including output the encoder still holds and its
+     * trailer, and return to buffering. Closing the encoder releases its Deflater.
+     */
+    private void discardOutput() {
+        discarding = true;
+        try {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (compressed != null) {
+                try {
+                    compressed.close();
+                } catch (IOException e) {
+                    // Nothing is written while discarding
+                }
+                compressed = null;
+                ((HttpServletResponse) getResponse()).setHeader("Content-Encoding", null);
+            }
+        } finally {
+            discarding = false;
+        }
+
+        pending.reset();
+        passthrough = false;
+    }
+
+    private boolean isCompressible() {
+        if (containsHeader("Content-Encoding")) {
+            return false;
+        }
+
+        String contentType = getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        contentType = contentType.toLowerCase(Locale.ROOT);
+        return contentType.startsWith("application/json")
+                || contentType.startsWith("text/")
+                || contentType.startsWith("application/xml")
+                || contentType.startsWith("application/javascript");
+    }
+
+    private final class BufferingOutputStream extends ServletOutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            CompressingResponseWrapper.this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            CompressingResponseWrapper.this.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (discarding) {
+                return;
+            }
+            if (compressed != null) {
+                compressed.flush();
+            } else if (passthrough) {
+                CompressingResponseWrapper.super.getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return CompressingResponseWrapper.super.getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                CompressingResponseWrapper.super.getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException("Response output stream is unavailable", e);
+            }
+        }
+    }
+
+    /**
+     * Target of the encoder: the wrapped response's stream, muted while output is discarded
+     */
+    private final class EncodedBodyStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            if (!discarding) {
+                CompressingResponseWrapper.super.getOutputStream().write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!discarding) {
+                CompressingResponseWrapper.super.getOutputStream().write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!discarding) {
+                CompressingResponseWrapper.super.getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!discarding) {
+                CompressingResponseWrapper.super.getOutputStream().close();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.winapps.voizy.compression;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for request and response compression, exported by ComponentMetrics
+ */
+public class CompressionStats {
+    private static final LongAdder compressedResponses = new LongAdder();
+    private static final LongAdder uncompressedResponses = new LongAdder();
+    private static final LongAdder bytesBeforeCompression = new LongAdder();
+    private static final LongAdder bytesAfterCompression = new LongAdder();
+    private static final LongAdder compressNanos = new LongAdder();
+    private static final LongAdder inflatedRequests = new LongAdder();
+    private static final LongAdder rejectedRequests = new LongAdder();
+
+    static void recordResponse(long bytesIn, long bytesOut) {
+        compressedResponses.increment();
+        bytesBeforeCompression.add(bytesIn);
+        bytesAfterCompression.add(bytesOut);
+    }
+
+    static void recordCompressTime(long nanos) {
+        compressNanos.add(nanos);
+    }
+
+    static void recordUncompressedResponse() {
+        uncompressedResponses.increment();
+    }
+
+    public static void recordInflatedRequest() {
+        inflatedRequests.increment();
+    }
+
+    public static void recordRejectedRequest() {
+        rejectedRequests.increment();
+    }
+
+    public static long getCompressedResponseCount() {
+        return compressedResponses.sum();
+    }
+
+    public static long getUncompressedResponseCount() {
+        return uncompressedResponses.sum();
+    }
+
+    public static long getBytesBeforeCompression() {
+        return bytesBeforeCompression.sum();
+    }
+
+    public static long getBytesAfterCompression() {
+        return bytesAfterCompression.sum();
+    }
+
+    public static long getCompressNanos() {
+        return compressNanos.sum();
+    }
+
+    public static long getInflatedRequestCount() {
+        return inflatedRequests.sum();
+    }
+
+    public static long getRejectedRequestCount() {
+        return rejectedRequests.sum();
+    }
+
+    /**
+     * Compressed size over uncompressed size across all compressed responses; lower is better
+     */
+    public static double getCompressionRatio() {
+        long before = bytesBeforeCompression.sum();
+        return before == 0 ? 1.0 : (double) bytesAfterCompression.sum() / before;
+    }
+}
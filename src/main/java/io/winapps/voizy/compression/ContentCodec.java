@@ -0,0 +1,26 @@
+package io.winapps.voizy.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * An HTTP content coding, e.g. gzip. Register implementations in ContentCodecs.
+ */
+public interface ContentCodec {
+    /**
+     * @return Token used in Accept-Encoding and Content-Encoding headers
+     */
+    String getEncoding();
+
+    /**
+     * Wrap a stream so bytes written to it are encoded. Closing the returned stream
+     * finishes the encoding and closes the target.
+     */
+    OutputStream compress(OutputStream out) throws IOException;
+
+    /**
+     * Wrap a stream so bytes read from it are decoded
+     */
+    InputStream decompress(InputStream in) throws IOException;
+}
@@ -0,0 +1,105 @@
+package io.winapps.voizy.compression;
+
+import io.winapps.voizy.util.EnvUtil;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of supported content codings and Accept-Encoding negotiation.
+ * Codecs are preferred in registration order when a client weighs them equally.
+ */
+public class ContentCodecs {
+    // Level 5 keeps most of the size reduction of the zlib default (6) on JSON at a noticeably lower CPU cost
+    private static final int GZIP_LEVEL = EnvUtil.getInt("COMPRESSION_LEVEL", 5);
+    private static final int DEFLATER_POOL_SIZE = EnvUtil.getInt("COMPRESSION_DEFLATER_POOL_SIZE", 64);
+
+    private static final DeflaterPool deflaterPool = new DeflaterPool(GZIP_LEVEL, DEFLATER_POOL_SIZE);
+    private static final List<ContentCodec> codecs = new CopyOnWriteArrayList<>();
+    private static final Map<String, ContentCodec> codecsByEncoding = new ConcurrentHashMap<>();
+
+    static {
+        GzipCodec gzip = new GzipCodec(deflaterPool);
+        register(gzip);
+        codecsByEncoding.put("x-gzip", gzip);
+    }
+
+    public static void register(ContentCodec codec) {
+        codecs.add(codec);
+        codecsByEncoding.put(codec.getEncoding().toLowerCase(Locale.ROOT), codec);
+    }
+
+    /**
+     * Look up the codec for a request's Content-Encoding
+     * @return Codec, or null if the coding is not supported
+     */
+    public static ContentCodec forEncoding(String encoding) {
+        if (encoding == null) {
+            return null;
+        }
+        return codecsByEncoding.get(encoding.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Pick the codec to encode a response with
+     * @param acceptEncoding Accept-Encoding request header, may be null
+     * @return Codec with the highest q-value the client accepts, or null for identity
+     */
+    public static ContentCodec negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+
+        ContentCodec best = null;
+        double bestQuality = 0;
+        for (ContentCodec codec : codecs) {
+            double quality = qualityOf(acceptEncoding, codec.getEncoding());
+            if (quality > bestQuality) {
+                best = codec;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * q-value the header gives an encoding; an exact entry overrides "*", and absence means 0
+     */
+    static double qualityOf(String acceptEncoding, String encoding) {
+        double wildcard = 0;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String token = parts[0].trim();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (token.equalsIgnoreCase(encoding)) {
+                return quality;
+            }
+            if (token.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard;
+    }
+
+    public static int getIdleDeflaterCount() {
+        return deflaterPool.getIdleCount();
+    }
+
+    public static long getCreatedDeflaterCount() {
+        return deflaterPool.getCreatedCount();
+    }
+}
@@ -0,0 +1,153 @@
+package io.winapps.voizy.compression;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * Presents an encoded request body as its decoded bytes.
+ * Content-Encoding and Content-Length are hidden since they describe the encoded body.
+ * Decoding stops with an IOException past maxInflatedBytes so a small compressed
+ * body cannot expand into an unbounded amount of memory.
+ */
+public class DecompressingRequestWrapper extends HttpServletRequestWrapper {
+    private final ContentCodec codec;
+    private final long maxInflatedBytes;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    public DecompressingRequestWrapper(HttpServletRequest request, ContentCodec codec, long maxInflatedBytes) {
+        super(request);
+        this.codec = codec;
+        this.maxInflatedBytes = maxInflatedBytes;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (reader != null) {
+            throw new IllegalStateException("getReader() has already been called");
+        }
+        if (inputStream == null) {
+            ServletInputStream source = super.getInputStream();
+            inputStream = new InflatingInputStream(source, codec.decompress(source), maxInflatedBytes);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            if (inputStream != null) {
+                throw new IllegalStateException("getInputStream() has already been called");
+            }
+            String encoding = getCharacterEncoding();
+            ServletInputStream source = super.getInputStream();
+            InputStream in = new InflatingInputStream(source, codec.decompress(source), maxInflatedBytes);
+            reader = new BufferedReader(new InputStreamReader(in,
+                    encoding == null ? StandardCharsets.UTF_8.name() : encoding));
+        }
+        return reader;
+    }
+
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if (isHiddenHeader(name)) {
+            return null;
+        }
+        return super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        if (isHiddenHeader(name)) {
+            return Collections.emptyEnumeration();
+        }
+        return super.getHeaders(name);
+    }
+
+    private static boolean isHiddenHeader(String name) {
+        return "Content-Encoding".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name);
+    }
+
+    private static final class InflatingInputStream extends ServletInputStream {
+        private final ServletInputStream source;
+        private final InputStream in;
+        private final long maxBytes;
+        private long bytesRead;
+        private boolean finished;
+
+        private InflatingInputStream(ServletInputStream source, InputStream in, long maxBytes) {
+            this.source = source;
+            this.in = in;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                finished = true;
+            } else {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n < 0) {
+                finished = true;
+            } else {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            bytesRead += n;
+            if (bytesRead > maxBytes) {
+                throw new IOException("Decompressed request body exceeds " + maxBytes + " bytes");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return source.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            source.setReadListener(readListener);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.winapps.voizy.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * Bounded pool of raw (nowrap) Deflaters.
+ * A Deflater holds about 256 KB of native zlib state, and allocating and freeing one
+ * per response costs more than compressing a typical JSON page. Deflaters are reset
+ * before reuse; when the pool is full, returned ones are ended instead.
+ */
+public class DeflaterPool {
+    private final int level;
+    private final BlockingQueue<Deflater> idle;
+    private final LongAdder created = new LongAdder();
+
+    public DeflaterPool(int level, int capacity) {
+        this.level = level;
+        this.idle = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public Deflater acquire() {
+        Deflater deflater = idle.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+            created.increment();
+        }
+        return deflater;
+    }
+
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+}
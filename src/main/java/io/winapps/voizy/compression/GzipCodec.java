@@ -0,0 +1,145 @@
+package io.winapps.voizy.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * gzip (RFC 1952) content coding.
+ * GZIPOutputStream always allocates its own Deflater, so output is framed here around
+ * a raw Deflater borrowed from a DeflaterPool.
+ */
+public class GzipCodec implements ContentCodec {
+    private static final byte[] HEADER = {
+            0x1f, (byte) 0x8b,      // magic
+            Deflater.DEFLATED,      // compression method
+            0,                      // flags
+            0, 0, 0, 0,             // modification time
+            0,                      // extra flags
+            (byte) 0xff             // operating system: unknown
+    };
+    private static final int BUFFER_SIZE = 8192;
+
+    private final DeflaterPool deflaterPool;
+
+    public GzipCodec(DeflaterPool deflaterPool) {
+        this.deflaterPool = deflaterPool;
+    }
+
+    @Override
+    public String getEncoding() {
+        return "gzip";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream out) throws IOException {
+        return new GzipOutputStream(out, deflaterPool);
+    }
+
+    @Override
+    public InputStream decompress(InputStream in) throws IOException {
+        return new GZIPInputStream(in, BUFFER_SIZE);
+    }
+
+    private static final class GzipOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final DeflaterPool pool;
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private boolean closed;
+
+        private GzipOutputStream(OutputStream out, DeflaterPool pool) throws IOException {
+            this.out = out;
+            this.pool = pool;
+            this.deflater = pool.acquire();
+            out.write(HEADER);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (len == 0) {
+                return;
+            }
+
+            long startTime = System.nanoTime();
+            crc.update(b, off, len);
+            deflater.setInput(b, off, len);
+            while (!deflater.needsInput()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            CompressionStats.recordCompressTime(System.nanoTime() - startTime);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (closed) {
+                return;
+            }
+
+            long startTime = System.nanoTime();
+            int written;
+            do {
+                written = deflate(Deflater.SYNC_FLUSH);
+            } while (written == buffer.length);
+            CompressionStats.recordCompressTime(System.nanoTime() - startTime);
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            try {
+                long startTime = System.nanoTime();
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate(Deflater.NO_FLUSH);
+                }
+                CompressionStats.recordCompressTime(System.nanoTime() - startTime);
+
+                writeTrailer();
+                CompressionStats.recordResponse(deflater.getBytesRead(), deflater.getBytesWritten() + HEADER.length + 8);
+                out.close();
+            } finally {
+                pool.release(deflater);
+            }
+        }
+
+        private int deflate(int flushMode) throws IOException {
+            int written = deflater.deflate(buffer, 0, buffer.length, flushMode);
+            if (written > 0) {
+                out.write(buffer, 0, written);
+            }
+            return written;
+        }
+
+        private void writeTrailer() throws IOException {
+            byte[] trailer = new byte[8];
+            writeIntLE(trailer, 0, (int) crc.getValue());
+            writeIntLE(trailer, 4, (int) deflater.getBytesRead());
+            out.write(trailer);
+        }
+
+        private static void writeIntLE(byte[] target, int offset, int value) {
+            target[offset] = (byte) value;
+            target[offset + 1] = (byte) (value >> 8);
+            target[offset + 2] = (byte) (value >> 16);
+            target[offset + 3] = (byte) (value >> 24);
+        }
+    }
+}
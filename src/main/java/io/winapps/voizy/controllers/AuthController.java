@@ -5,6 +5,7 @@ import io.winapps.voizy.models.auth.LoginRequest;
 import io.winapps.voizy.models.auth.LoginResponse;
 import io.winapps.voizy.services.AuthService;
 import io.winapps.voizy.util.JsonUtil;
+import io.winapps.voizy.util.ServiceUnavailableException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -54,6 +55,10 @@ public class AuthController {
             res.setContentType("application/json");
             objectMapper.writeValue(res.getOutputStream(), loginResponse);
 
+        } catch (ServiceUnavailableException e) {
+            logger.warn("Shed {} request: {}", req.getServletPath(), e.getMessage());
+            res.setHeader("Retry-After", Long.toString(e.getRetryAfterSeconds()));
+            res.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
         } catch (Exception e) {
             logger.error("Error processing login request", e);
             res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error logging in: " + e.getMessage());
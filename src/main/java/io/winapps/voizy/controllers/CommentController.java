@@ -0,0 +1,163 @@
+package io.winapps.voizy.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.winapps.voizy.middleware.AuthMiddleware;
+import io.winapps.voizy.models.comments.CreateCommentRequest;
+import io.winapps.voizy.models.comments.CreateCommentResponse;
+import io.winapps.voizy.models.comments.ListCommentsResponse;
+import io.winapps.voizy.services.CommentService;
+import io.winapps.voizy.util.EnvUtil;
+import io.winapps.voizy.util.JsonUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.function.BiConsumer;
+
+public class CommentController {
+    private static final Logger logger = LoggerFactory.getLogger(CommentController.class);
+    private static final ObjectMapper objectMapper = JsonUtil.getObjectMapper();
+    private static final int MAX_CONTENT_LENGTH = EnvUtil.getInt("COMMENT_MAX_LENGTH", 2000);
+    private static final int DEFAULT_LIMIT = EnvUtil.getInt("COMMENTS_DEFAULT_LIMIT", 20);
+    private static final int MAX_LIMIT = EnvUtil.getInt("COMMENTS_MAX_LIMIT", 100);
+    private final CommentService commentService;
+
+    public CommentController() {
+        this.commentService = new CommentService();
+    }
+
+    public CommentController(CommentService commentService) {
+        this.commentService = commentService;
+    }
+
+    public void createComment(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (!req.getMethod().equals("POST")) {
+            res.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
+            return;
+        }
+
+        try {
+            Long userId = AuthMiddleware.getAuthenticatedUserId(req);
+            if (userId == null) {
+                res.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing authenticated user");
+                return;
+            }
+
+            CreateCommentRequest request = objectMapper.readValue(req.getInputStream(), CreateCommentRequest.class);
+
+            if (request.getPostId() <= 0) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing or invalid postID");
+                return;
+            }
+
+            if (request.getParentCommentId() != null && request.getParentCommentId() <= 0) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parentCommentID");
+                return;
+            }
+
+            if (request.getContentText() == null || request.getContentText().trim().isEmpty()) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required body param 'contentText'");
+                return;
+            }
+
+            if (request.getContentText().length() > MAX_CONTENT_LENGTH) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Comment is too long; maximum is " + MAX_CONTENT_LENGTH + " characters");
+                return;
+            }
+
+            CreateCommentResponse response = commentService.createComment(userId, request);
+
+            res.setContentType("application/json");
+            objectMapper.writeValue(res.getOutputStream(), response);
+
+        } catch (Exception e) {
+            logger.error("Error creating comment", e);
+            res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error creating comment: " + e.getMessage());
+        }
+    }
+
+    public BiConsumer<HttpServletRequest, HttpServletResponse> createCommentHandler() {
+        return (req, res) -> {
+            try {
+                createComment(req, res);
+            } catch (IOException e) {
+                logger.error("IO error in create comment handler", e);
+                throw new RuntimeException("Error handling create comment request", e);
+            }
+        };
+    }
+
+    /**
+     * List a post's top-level comments, or with 'parentId' the replies to one comment,
+     * oldest first. Pass the response's nextCursor as 'cursor' to get the next page.
+     */
+    public void listComments(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (!req.getMethod().equals("GET")) {
+            res.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
+            return;
+        }
+
+        try {
+            String postIdString = req.getParameter("postId");
+            if (postIdString == null || postIdString.isEmpty()) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'postId'");
+                return;
+            }
+
+            long postId;
+            Long parentCommentId = null;
+            int limit = DEFAULT_LIMIT;
+            try {
+                postId = Long.parseLong(postIdString);
+
+                String parentIdString = req.getParameter("parentId");
+                if (parentIdString != null && !parentIdString.isEmpty()) {
+                    parentCommentId = Long.parseLong(parentIdString);
+                }
+
+                String limitString = req.getParameter("limit");
+                if (limitString != null && !limitString.isEmpty()) {
+                    limit = Integer.parseInt(limitString);
+                }
+            } catch (NumberFormatException e) {
+                logger.error("Error parsing request parameters", e);
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameters: " + e.getMessage());
+                return;
+            }
+
+            if (limit <= 0 || limit > MAX_LIMIT) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Parameter 'limit' must be between 1 and " + MAX_LIMIT);
+                return;
+            }
+
+            ListCommentsResponse response;
+            try {
+                response = commentService.listComments(postId, parentCommentId, limit, req.getParameter("cursor"));
+            } catch (IllegalArgumentException e) {
+                logger.error("Error decoding cursor", e);
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameter 'cursor'");
+                return;
+            }
+
+            res.setContentType("application/json");
+            objectMapper.writeValue(res.getOutputStream(), response);
+
+        } catch (Exception e) {
+            logger.error("Error listing comments", e);
+            res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error listing comments: " + e.getMessage());
+        }
+    }
+
+    public BiConsumer<HttpServletRequest, HttpServletResponse> listCommentsHandler() {
+        return (req, res) -> {
+            try {
+                listComments(req, res);
+            } catch (IOException e) {
+                logger.error("IO error in list comments handler", e);
+                throw new RuntimeException("Error handling list comments request", e);
+            }
+        };
+    }
+}
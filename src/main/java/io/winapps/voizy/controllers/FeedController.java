@@ -0,0 +1,124 @@
+package io.winapps.voizy.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.winapps.voizy.middleware.AuthMiddleware;
+import io.winapps.voizy.models.feed.GetFeedResponse;
+import io.winapps.voizy.services.FeedService;
+import io.winapps.voizy.util.EnvUtil;
+import io.winapps.voizy.util.JsonUtil;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.function.BiConsumer;
+
+public class FeedController {
+    private static final Logger logger = LoggerFactory.getLogger(FeedController.class);
+    private static final ObjectMapper objectMapper = JsonUtil.getObjectMapper();
+    private static final int MAX_LIMIT = EnvUtil.getInt("FEED_MAX_LIMIT", 100);
+    private final FeedService feedService;
+
+    public FeedController() {
+        this.feedService = new FeedService();
+    }
+
+    public FeedController(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    /**
+     * Get one page of the authenticated user's feed. 'id' must name the authenticated user;
+     * another user's feed is never served.
+     */
+    public void getFeed(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (!req.getMethod().equals("GET")) {
+            res.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
+            return;
+        }
+
+        try {
+            Long authenticatedUserId = AuthMiddleware.getAuthenticatedUserId(req);
+            if (authenticatedUserId == null) {
+                res.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing authenticated user");
+                return;
+            }
+
+            String userIdString = req.getParameter("id");
+            if (userIdString == null || userIdString.isEmpty()) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'id'");
+                return;
+            }
+
+            String limitString = req.getParameter("limit");
+            if (limitString == null || limitString.isEmpty()) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'limit'");
+                return;
+            }
+
+            long userId;
+            int limit;
+            try {
+                userId = Long.parseLong(userIdString);
+                limit = Integer.parseInt(limitString);
+            } catch (NumberFormatException e) {
+                logger.error("Error parsing request parameters", e);
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameters: " + e.getMessage());
+                return;
+            }
+
+            if (userId != authenticatedUserId) {
+                res.sendError(HttpServletResponse.SC_FORBIDDEN, "Cannot read another user's feed");
+                return;
+            }
+
+            if (limit <= 0 || limit > MAX_LIMIT) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Parameter 'limit' must be between 1 and " + MAX_LIMIT);
+                return;
+            }
+
+            GetFeedResponse response;
+            try {
+                response = feedService.getFeed(userId, limit, req.getParameter("cursor"));
+            } catch (IllegalArgumentException e) {
+                logger.error("Error decoding cursor", e);
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameter 'cursor'");
+                return;
+            }
+
+            res.setContentType("application/json");
+            objectMapper.writeValue(res.getOutputStream(), response);
+
+        } catch (Exception e) {
+            logger.error("Error getting feed", e);
+            res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error getting feed: " + e.getMessage());
+        }
+    }
+
+    public BiConsumer<HttpServletRequest, HttpServletResponse> getFeedHandler() {
+        return (req, res) -> {
+            try {
+                getFeed(req, res);
+            } catch (IOException e) {
+                logger.error("IO error in get feed handler", e);
+                throw new RuntimeException("Error handling get feed request", e);
+            }
+        };
+    }
+
+    public HttpServlet getFeedServlet() {
+        return new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                try {
+                    getFeed(req, resp);
+                } catch (IOException e) {
+                    logger.error("IO error in get feed servlet", e);
+                    throw new RuntimeException("Error handling get feed request", e);
+                }
+            }
+        };
+    }
+}
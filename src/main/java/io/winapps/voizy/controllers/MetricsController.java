@@ -0,0 +1,83 @@
+package io.winapps.voizy.controllers;
+
+import io.winapps.voizy.metrics.MetricsRegistry;
+import io.winapps.voizy.util.EnvUtil;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.BiConsumer;
+
+public class MetricsController {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsController.class);
+    private final String token;
+
+    public MetricsController() {
+        this(EnvUtil.getString("METRICS_TOKEN", null));
+    }
+
+    /**
+     * @param token Bearer token scrapers must present, or null to leave /metrics open
+     */
+    public MetricsController(String token) {
+        this.token = token;
+    }
+
+    public void metrics(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (!req.getMethod().equals("GET")) {
+            res.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
+            return;
+        }
+
+        if (token != null && !isAuthorized(req.getHeader("Authorization"))) {
+            res.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid metrics token");
+            return;
+        }
+
+        byte[] body = MetricsRegistry.scrape().getBytes(StandardCharsets.UTF_8);
+
+        res.setStatus(HttpServletResponse.SC_OK);
+        res.setContentType(MetricsRegistry.CONTENT_TYPE);
+        res.setContentLength(body.length);
+        res.getOutputStream().write(body);
+    }
+
+    private boolean isAuthorized(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return false;
+        }
+
+        byte[] presented = authHeader.substring("Bearer ".length()).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(presented, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public BiConsumer<HttpServletRequest, HttpServletResponse> metricsHandler() {
+        return (req, res) -> {
+            try {
+                metrics(req, res);
+            } catch (IOException e) {
+                logger.error("IO error in metrics handler", e);
+                throw new RuntimeException("Error handling metrics request", e);
+            }
+        };
+    }
+
+    public HttpServlet metricsServlet() {
+        return new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                try {
+                    metrics(req, resp);
+                } catch (IOException e) {
+                    logger.error("IO error in metrics servlet", e);
+                    throw new RuntimeException("Error handling metrics request", e);
+                }
+            }
+        };
+    }
+}
@@ -1,11 +1,19 @@
 package io.winapps.voizy.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.winapps.voizy.middleware.AuthMiddleware;
 import io.winapps.voizy.models.posts.CreatePostRequest;
 import io.winapps.voizy.models.posts.CreatePostResponse;
+import io.winapps.voizy.models.posts.GetPostMediaBatchResponse;
 import io.winapps.voizy.models.posts.GetPostMediaResponse;
+import io.winapps.voizy.models.posts.GetPostReactionsResponse;
 import io.winapps.voizy.models.posts.ListPostsResponse;
+import io.winapps.voizy.models.posts.ReactToPostRequest;
+import io.winapps.voizy.models.posts.ReactToPostResponse;
+import io.winapps.voizy.models.posts.RecordPostEventsRequest;
+import io.winapps.voizy.repositories.PostReactionRepository;
 import io.winapps.voizy.services.PostService;
+import io.winapps.voizy.util.EnvUtil;
 import io.winapps.voizy.util.JsonUtil;
 import io.winapps.voizy.util.ServletAdapter;
 import jakarta.servlet.http.HttpServlet;
@@ -15,11 +23,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 
 public class PostController {
     private static final Logger logger = LoggerFactory.getLogger(PostController.class);
     private static final ObjectMapper objectMapper = JsonUtil.getObjectMapper();
+    private static final int MAX_MEDIA_BATCH_IDS = EnvUtil.getInt("POST_MEDIA_BATCH_MAX_IDS", 50);
+    private static final int MAX_REACTIONS_BATCH_IDS = EnvUtil.getInt("POST_REACTIONS_BATCH_MAX_IDS", 50);
+    private static final int MAX_EVENT_BATCH_IDS = EnvUtil.getInt("POST_EVENTS_MAX_IDS", 200);
+    private static final boolean STREAM_LIST_POSTS = EnvUtil.getBoolean("LIST_POSTS_STREAMING", false);
     private final PostService postService;
 
     public PostController() {
@@ -49,30 +66,68 @@ public class PostController {
                 return;
             }
 
+            String cursor = req.getParameter("cursor");
+            boolean useCursor = cursor != null && !cursor.isEmpty();
+
             String pageString = req.getParameter("page");
-            if (pageString == null || pageString.isEmpty()) {
+            if (!useCursor && (pageString == null || pageString.isEmpty())) {
                 res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'page'");
                 return;
             }
 
-            long userId, limit, page;
+            // Totals are on by default; includeTotals=false skips the count lookup
+            boolean includeTotals = !"false".equalsIgnoreCase(req.getParameter("includeTotals"));
+
+            long userId, limit, page = 0;
             try {
                 userId = Long.parseLong(userIdString);
                 limit = Long.parseLong(limitString);
-                page = Long.parseLong(pageString);
+                if (!useCursor) {
+                    page = Long.parseLong(pageString);
+                }
             } catch (NumberFormatException e) {
                 logger.error("Error parsing request parameters", e);
                 res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameters: " + e.getMessage());
                 return;
             }
 
-            ListPostsResponse response = postService.listPosts(userId, limit, page);
+            if (STREAM_LIST_POSTS) {
+                res.setContentType("application/json");
+                if (useCursor) {
+                    try {
+                        postService.streamListPostsByCursor(userId, limit, cursor, includeTotals, res.getOutputStream());
+                    } catch (IllegalArgumentException e) {
+                        logger.error("Error decoding cursor", e);
+                        res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameter 'cursor'");
+                    }
+                } else {
+                    postService.streamListPosts(userId, limit, page, includeTotals, res.getOutputStream());
+                }
+                return;
+            }
+
+            ListPostsResponse response;
+            if (useCursor) {
+                try {
+                    response = postService.listPostsByCursor(userId, limit, cursor, includeTotals);
+                } catch (IllegalArgumentException e) {
+                    logger.error("Error decoding cursor", e);
+                    res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameter 'cursor'");
+                    return;
+                }
+            } else {
+                response = postService.listPosts(userId, limit, page, includeTotals);
+            }
 
             res.setContentType("application/json");
             objectMapper.writeValue(res.getOutputStream(), response);
 
         } catch (Exception e) {
             logger.error("Error listing posts", e);
+            if (res.isCommitted()) {
+                // Part of a streamed body is already sent; the unterminated JSON signals the failure
+                return;
+            }
             res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error listing posts: " + e.getMessage());
         }
     }
@@ -209,4 +264,254 @@ public class PostController {
             }
         };
     }
+
+    public void getPostMediaBatch(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (!req.getMethod().equals("GET")) {
+            res.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
+            return;
+        }
+
+        try {
+            List<Long> postIdList = parsePostIdsParameter(req, res, MAX_MEDIA_BATCH_IDS);
+            if (postIdList == null) {
+                return;
+            }
+
+            Map<Long, GetPostMediaResponse> media = postService.getPostMediaBatch(postIdList);
+
+            res.setContentType("application/json");
+            objectMapper.writeValue(res.getOutputStream(), new GetPostMediaBatchResponse(media));
+
+        } catch (Exception e) {
+            logger.error("Error getting post media batch", e);
+            res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error getting post media: " + e.getMessage());
+        }
+    }
+
+    public BiConsumer<HttpServletRequest, HttpServletResponse> getPostMediaBatchHandler() {
+        return (req, res) -> {
+            try {
+                getPostMediaBatch(req, res);
+            } catch (IOException e) {
+                logger.error("IO error in get post media batch handler", e);
+                throw new RuntimeException("Error handling get post media batch request", e);
+            }
+        };
+    }
+
+    public HttpServlet getPostMediaBatchServlet() {
+        return new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                try {
+                    getPostMediaBatch(req, resp);
+                } catch (IOException e) {
+                    logger.error("IO error in get post media batch servlet", e);
+                    throw new RuntimeException("Error handling get post media batch request", e);
+                }
+            }
+        };
+    }
+
+    public void recordImpressions(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        recordPostEvents(req, res, "impressions");
+    }
+
+    public void recordViews(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        recordPostEvents(req, res, "views");
+    }
+
+    /**
+     * Accept a batch of post IDs that were shown or opened. Duplicate IDs in one batch count once.
+     * Counts are aggregated in memory, so this answers 202 before they reach the database.
+     */
+    private void recordPostEvents(HttpServletRequest req, HttpServletResponse res, String eventType) throws IOException {
+        if (!req.getMethod().equals("POST")) {
+            res.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
+            return;
+        }
+
+        try {
+            RecordPostEventsRequest request = objectMapper.readValue(req.getInputStream(), RecordPostEventsRequest.class);
+
+            if (request.getPostIds() == null || request.getPostIds().isEmpty()) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required body param 'postIds'");
+                return;
+            }
+
+            Set<Long> postIds = new LinkedHashSet<>();
+            for (Long postId : request.getPostIds()) {
+                if (postId == null || postId <= 0) {
+                    res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid post ID: " + postId);
+                    return;
+                }
+                postIds.add(postId);
+            }
+
+            if (postIds.size() > MAX_EVENT_BATCH_IDS) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Too many post IDs; maximum is " + MAX_EVENT_BATCH_IDS);
+                return;
+            }
+
+            if ("views".equals(eventType)) {
+                postService.recordViews(postIds);
+            } else {
+                postService.recordImpressions(postIds);
+            }
+
+            res.setStatus(HttpServletResponse.SC_ACCEPTED);
+
+        } catch (Exception e) {
+            logger.error("Error recording post {}", eventType, e);
+            res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error recording post " + eventType + ": " + e.getMessage());
+        }
+    }
+
+    public BiConsumer<HttpServletRequest, HttpServletResponse> recordImpressionsHandler() {
+        return (req, res) -> {
+            try {
+                recordImpressions(req, res);
+            } catch (IOException e) {
+                logger.error("IO error in record impressions handler", e);
+                throw new RuntimeException("Error handling record impressions request", e);
+            }
+        };
+    }
+
+    public BiConsumer<HttpServletRequest, HttpServletResponse> recordViewsHandler() {
+        return (req, res) -> {
+            try {
+                recordViews(req, res);
+            } catch (IOException e) {
+                logger.error("IO error in record views handler", e);
+                throw new RuntimeException("Error handling record views request", e);
+            }
+        };
+    }
+
+    public void reactToPost(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (!req.getMethod().equals("POST")) {
+            res.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
+            return;
+        }
+
+        try {
+            Long userId = AuthMiddleware.getAuthenticatedUserId(req);
+            if (userId == null) {
+                res.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing authenticated user");
+                return;
+            }
+
+            ReactToPostRequest request = objectMapper.readValue(req.getInputStream(), ReactToPostRequest.class);
+
+            if (request.getPostId() <= 0) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing or invalid postID");
+                return;
+            }
+
+            // A null reactionType removes the user's reaction
+            String reactionType = request.getReactionType();
+            if (reactionType != null && !PostReactionRepository.REACTION_TYPES.contains(reactionType)) {
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                        "Invalid reactionType; expected one of " + PostReactionRepository.REACTION_TYPES);
+                return;
+            }
+
+            ReactToPostResponse response = postService.reactToPost(userId, request.getPostId(), reactionType);
+
+            res.setContentType("application/json");
+            objectMapper.writeValue(res.getOutputStream(), response);
+
+        } catch (IllegalArgumentException e) {
+            res.sendError(HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error reacting to post", e);
+            res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error reacting to post: " + e.getMessage());
+        }
+    }
+
+    public BiConsumer<HttpServletRequest, HttpServletResponse> reactToPostHandler() {
+        return (req, res) -> {
+            try {
+                reactToPost(req, res);
+            } catch (IOException e) {
+                logger.error("IO error in react to post handler", e);
+                throw new RuntimeException("Error handling react to post request", e);
+            }
+        };
+    }
+
+    public void getPostReactions(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (!req.getMethod().equals("GET")) {
+            res.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
+            return;
+        }
+
+        try {
+            List<Long> postIdList = parsePostIdsParameter(req, res, MAX_REACTIONS_BATCH_IDS);
+            if (postIdList == null) {
+                return;
+            }
+
+            Map<Long, Map<String, Long>> reactions = postService.getPostReactions(postIdList);
+
+            res.setContentType("application/json");
+            objectMapper.writeValue(res.getOutputStream(), new GetPostReactionsResponse(reactions));
+
+        } catch (Exception e) {
+            logger.error("Error getting post reactions", e);
+            res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error getting post reactions: " + e.getMessage());
+        }
+    }
+
+    public BiConsumer<HttpServletRequest, HttpServletResponse> getPostReactionsHandler() {
+        return (req, res) -> {
+            try {
+                getPostReactions(req, res);
+            } catch (IOException e) {
+                logger.error("IO error in get post reactions handler", e);
+                throw new RuntimeException("Error handling get post reactions request", e);
+            }
+        };
+    }
+
+    /**
+     * Parse the comma-separated 'ids' parameter, dropping duplicates.
+     * Sends a 400 and returns null if it is missing, malformed or longer than maxIds.
+     */
+    private List<Long> parsePostIdsParameter(HttpServletRequest req, HttpServletResponse res, int maxIds) throws IOException {
+        String idsString = req.getParameter("ids");
+        if (idsString == null || idsString.isEmpty()) {
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'ids'");
+            return null;
+        }
+
+        Set<Long> postIds = new LinkedHashSet<>();
+        for (String idString : idsString.split(",")) {
+            String trimmed = idString.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            try {
+                postIds.add(Long.parseLong(trimmed));
+            } catch (NumberFormatException e) {
+                logger.error("Error parsing post ID", e);
+                res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid post ID: " + e.getMessage());
+                return null;
+            }
+        }
+
+        if (postIds.isEmpty()) {
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'ids'");
+            return null;
+        }
+
+        if (postIds.size() > maxIds) {
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST, "Too many post IDs; maximum is " + maxIds);
+            return null;
+        }
+
+        return new ArrayList<>(postIds);
+    }
 }
@@ -6,6 +6,7 @@ import io.winapps.voizy.models.users.CreateUserResponse;
 import io.winapps.voizy.models.users.GetUserProfileResponse;
 import io.winapps.voizy.services.UserService;
 import io.winapps.voizy.util.JsonUtil;
+import io.winapps.voizy.util.ServiceUnavailableException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -42,6 +43,10 @@ public class UserController {
             res.setContentType("application/json");
             objectMapper.writeValue(res.getOutputStream(), response);
 
+        } catch (ServiceUnavailableException e) {
+            logger.warn("Shed {} request: {}", req.getServletPath(), e.getMessage());
+            res.setHeader("Retry-After", Long.toString(e.getRetryAfterSeconds()));
+            res.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
         } catch (Exception e) {
             logger.error("Error creating user", e);
             res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error creating the user: " + e.getMessage());
@@ -2,18 +2,36 @@ package io.winapps.voizy.database;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import io.winapps.voizy.metrics.HikariMetricsTrackerFactory;
+import io.winapps.voizy.util.EnvUtil;
+import io.winapps.voizy.util.VirtualThreadsUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DatabaseManager {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
     private static HikariDataSource dataSource;
     private static JedisPool jedisPool;
+    private static int maximumPoolSize = 10;
+    private static long permitTimeoutMs;
+    /**
+     * Bounds how many callers may hold or wait on a pooled connection. With virtual
+     * threads, thousands of requests can reach getConnection at once, and waiting
+     * here is cheaper and fairer than piling up inside Hikari's connection timeout.
+     * Null when the bound is disabled.
+     */
+    private static Semaphore connectionPermits;
 
     public static void initMySQL() throws SQLException {
         try {
@@ -36,28 +54,39 @@ public class DatabaseManager {
             System.out.println("========================================================");
 
             HikariConfig config = new HikariConfig();
+            config.setPoolName("voizy-mysql");
+            config.setMetricsTrackerFactory(new HikariMetricsTrackerFactory());
             config.setJdbcUrl(jdbcUrl);
             config.setUsername(username);
             config.setPassword(password);
-            config.setMaximumPoolSize(10);
-            config.setMinimumIdle(5);
+            maximumPoolSize = EnvUtil.getInt("DB_POOL_SIZE", 10);
+            config.setMaximumPoolSize(maximumPoolSize);
+            config.setMinimumIdle(Math.min(5, maximumPoolSize));
             config.setIdleTimeout(300000);
             config.setConnectionTimeout(10000);
             config.addDataSourceProperty("cachePrepStmts", "true");
             config.addDataSourceProperty("prepStmtCacheSize", "250");
             config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
 
             dataSource = new HikariDataSource(config);
 
+            if (EnvUtil.getBoolean("DB_LIMIT_CONCURRENCY", VirtualThreadsUtil.isEnabled())) {
+                int permits = EnvUtil.getInt("DB_MAX_CONCURRENCY", maximumPoolSize);
+                permitTimeoutMs = EnvUtil.getLong("DB_PERMIT_TIMEOUT_MS", 10000);
+                connectionPermits = new Semaphore(permits, true);
+                logger.info("Database concurrency limited to {} permits (timeout {} ms)", permits, permitTimeoutMs);
+            }
+
             try (Connection conn = dataSource.getConnection()) {
                 if (!conn.isValid(5)) {
                     throw new SQLException("Failed to validate database connection");
                 }
             }
 
-            Schema.createTables();
+            SchemaMigrator.migrate();
 
-            logger.info("MySQL connected and schema ensured");
+            logger.info("MySQL connected and schema at version {}", SchemaMigrator.getCurrentVersion());
         } catch (SQLException e) {
             logger.error("Failed to initialize MySQL", e);
             throw e;
@@ -65,29 +94,101 @@ public class DatabaseManager {
     }
 
     public static void initRedis() {
+        String host = EnvUtil.getString("REDIS_HOST", "localhost");
+        int port = EnvUtil.getInt("REDIS_PORT", 6379);
+
         try {
             JedisPoolConfig poolConfig = new JedisPoolConfig();
             poolConfig.setMaxTotal(10);
             poolConfig.setMaxIdle(5);
             poolConfig.setMinIdle(1);
 
-            jedisPool = new JedisPool(poolConfig, "localhost", 6379, 2000);
+            jedisPool = new JedisPool(poolConfig, host, port, 2000);
 
             try (var jedis = jedisPool.getResource()) {
                 jedis.ping();
             }
 
-            logger.info("Redis connected");
+            logger.info("Redis connected at {}:{}", host, port);
         } catch (Exception e) {
-            logger.error("Failed to initialize Redis");
+            logger.error("Failed to initialize Redis at {}:{}; continuing without Redis", host, port, e);
+            if (jedisPool != null) {
+                jedisPool.close();
+                jedisPool = null;
+            }
         }
     }
 
+    public static boolean isRedisAvailable() {
+        return jedisPool != null;
+    }
+
     public static Connection getConnection() throws SQLException {
         if (dataSource == null) {
             throw new SQLException("Database not initialized");
         }
-        return dataSource.getConnection();
+
+        Semaphore permits = connectionPermits;
+        if (permits == null) {
+            return dataSource.getConnection();
+        }
+
+        try {
+            if (!permits.tryAcquire(permitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + permitTimeoutMs + " ms waiting for a database permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database permit", e);
+        }
+
+        try {
+            return releasingOnClose(dataSource.getConnection(), permits);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Wrap a connection so closing it also returns its permit, exactly once
+     */
+    private static Connection releasingOnClose(Connection conn, Semaphore permits) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            conn.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public static int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * @return Number of callers waiting for a database permit, or 0 if unbounded
+     */
+    public static int getPermitQueueLength() {
+        Semaphore permits = connectionPermits;
+        return permits == null ? 0 : permits.getQueueLength();
     }
 
     public static JedisPool getJedisPool() {
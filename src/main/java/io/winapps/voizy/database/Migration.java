@@ -0,0 +1,64 @@
+package io.winapps.voizy.database;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A numbered set of DDL/DML statements applied once, in version order, by SchemaMigrator.
+ * The checksum covers the statement text, so an applied migration must never be edited;
+ * add a new one instead.
+ */
+public class Migration {
+    private final int version;
+    private final String description;
+    private final List<String> statements;
+    private final String checksum;
+
+    public Migration(int version, String description, String... statements) {
+        this(version, description, Arrays.asList(statements));
+    }
+
+    public Migration(int version, String description, List<String> statements) {
+        if (version < 1) {
+            throw new IllegalArgumentException("Migration version must be positive: " + version);
+        }
+        if (statements.isEmpty()) {
+            throw new IllegalArgumentException("Migration V" + version + " has no statements");
+        }
+
+        this.version = version;
+        this.description = description;
+        this.statements = Collections.unmodifiableList(statements);
+        this.checksum = computeChecksum(statements);
+    }
+
+    private static String computeChecksum(List<String> statements) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (String statement : statements) {
+            hasher.putString(statement.trim(), StandardCharsets.UTF_8);
+            hasher.putByte((byte) 0);
+        }
+        return hasher.hash().toString();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+}
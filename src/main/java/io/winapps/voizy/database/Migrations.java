@@ -0,0 +1,126 @@
+package io.winapps.voizy.database;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Every schema migration, in the order they are applied.
+ * Append new migrations with the next version number; never edit or reorder applied ones.
+ */
+public class Migrations {
+    private static final List<Migration> ALL = Collections.unmodifiableList(Arrays.asList(
+            new Migration(1, "Baseline tables", Schema.baselineStatements()),
+
+            // listPosts filters on (user_id OR to_user_id) and orders by (created_at, post_id);
+            // one index per side lets MySQL index-merge both sides and seek the keyset cursor
+            // instead of scanning posts. The first also covers getTotalPostsCount and replaces
+            // the user_id foreign key index.
+            new Migration(2, "Index posts by author and recipient timeline",
+                    "CREATE INDEX idx_posts_user_created ON posts (user_id, created_at, post_id)",
+                    "CREATE INDEX idx_posts_to_user_created ON posts (to_user_id, created_at, post_id)"),
+
+            // getPostMedia and getPostMediaBatch read only these columns, so the index covers them
+            new Migration(3, "Index post media by post and type",
+                    "CREATE INDEX idx_post_media_post_type ON post_media (post_id, media_type, media_url)"),
+
+            // listPosts joins the caller's own reaction on (post_id, user_id)
+            new Migration(4, "Index post reactions by post and user",
+                    "CREATE INDEX idx_post_reactions_post_user ON post_reactions (post_id, user_id)"),
+
+            // fetchApiKey looks keys up by (user_id, api_key); user_id had no index at all
+            new Migration(5, "Index API keys by user",
+                    "CREATE INDEX idx_api_keys_user_key ON api_keys (user_id, api_key)"),
+
+            // Per-user count of the posts listPosts returns (authored by or addressed to the
+            // user), kept current by triggers so raw inserts and deletes are counted too.
+            // When both users change, the lower user_id row is locked first so two posts
+            // between the same pair of users cannot deadlock. Posts removed by a cascade from
+            // users do not fire triggers; REBUILD_USER_STATS=true recounts from posts.
+            new Migration(6, "Add user_stats with post count triggers",
+                    "CREATE TABLE IF NOT EXISTS user_stats (" +
+                            "user_id BIGINT PRIMARY KEY, " +
+                            "timeline_posts BIGINT NOT NULL DEFAULT 0, " +
+                            "updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+                            ")",
+                    "DROP TRIGGER IF EXISTS trg_posts_user_stats_insert",
+                    "CREATE TRIGGER trg_posts_user_stats_insert AFTER INSERT ON posts FOR EACH ROW " +
+                            "BEGIN " +
+                            "IF NEW.to_user_id > 0 AND NEW.to_user_id <> NEW.user_id THEN " +
+                            "INSERT INTO user_stats (user_id, timeline_posts) VALUES " +
+                            "(LEAST(NEW.user_id, NEW.to_user_id), 1), (GREATEST(NEW.user_id, NEW.to_user_id), 1) " +
+                            "ON DUPLICATE KEY UPDATE timeline_posts = timeline_posts + 1; " +
+                            "ELSE " +
+                            "INSERT INTO user_stats (user_id, timeline_posts) VALUES (NEW.user_id, 1) " +
+                            "ON DUPLICATE KEY UPDATE timeline_posts = timeline_posts + 1; " +
+                            "END IF; " +
+                            "END",
+                    "DROP TRIGGER IF EXISTS trg_posts_user_stats_delete",
+                    "CREATE TRIGGER trg_posts_user_stats_delete AFTER DELETE ON posts FOR EACH ROW " +
+                            "BEGIN " +
+                            "UPDATE user_stats SET timeline_posts = GREATEST(timeline_posts - 1, 0) " +
+                            "WHERE user_id IN (OLD.user_id, OLD.to_user_id) " +
+                            "ORDER BY user_id; " +
+                            "END",
+                    "INSERT INTO user_stats (user_id, timeline_posts) " +
+                            "SELECT t.user_id, COUNT(*) FROM (" +
+                            "SELECT user_id, post_id FROM posts " +
+                            "UNION " +
+                            "SELECT to_user_id, post_id FROM posts WHERE to_user_id > 0" +
+                            ") t GROUP BY t.user_id " +
+                            "ON DUPLICATE KEY UPDATE timeline_posts = VALUES(timeline_posts)"),
+
+            // Friendships are symmetric once accepted, so the feed looks them up from both sides
+            new Migration(7, "Index accepted friendships in both directions",
+                    "CREATE INDEX idx_friendships_user_status ON friendships (user_id, status, friend_id)",
+                    "CREATE INDEX idx_friendships_friend_status ON friendships (friend_id, status, user_id)"),
+
+            // Rate limits are looked up by tier name in RATE_LIMIT_TIERS
+            new Migration(8, "Add a rate limit tier to API keys",
+                    "ALTER TABLE api_keys ADD COLUMN tier VARCHAR(32) NOT NULL DEFAULT 'standard'"),
+
+            // /posts/react keeps one reaction per user and post. Older duplicates are dropped so
+            // the unique key can replace the V4 index, keeping each user's latest reaction.
+            // Per-type counts are spread over REACTION_COUNT_SHARDS rows per post and type, so
+            // concurrent reactions to one post rarely update the same row; /posts/reactions sums
+            // the shards. post_counters.total_reactions stays, since listPosts reads it and
+            // servers not yet upgraded still expect it. Existing reactions are counted into shard 0.
+            new Migration(9, "Make post reactions unique per user and add sharded reaction counts",
+                    "DELETE pr FROM post_reactions pr JOIN post_reactions newer " +
+                            "ON newer.post_id = pr.post_id AND newer.user_id = pr.user_id " +
+                            "AND newer.post_reaction_id > pr.post_reaction_id",
+                    "CREATE UNIQUE INDEX uq_post_reactions_post_user ON post_reactions (post_id, user_id)",
+                    "DROP INDEX idx_post_reactions_post_user ON post_reactions",
+                    "CREATE TABLE IF NOT EXISTS post_reaction_counts (" +
+                            "post_id BIGINT NOT NULL, " +
+                            "reaction_type ENUM('like','love','laugh','congratulate','shocked','sad','angry') NOT NULL, " +
+                            "shard SMALLINT NOT NULL, " +
+                            "reaction_count BIGINT NOT NULL DEFAULT 0, " +
+                            "PRIMARY KEY (post_id, reaction_type, shard), " +
+                            "FOREIGN KEY (post_id) REFERENCES posts(post_id) ON DELETE CASCADE" +
+                            ")",
+                    "DELETE FROM post_reaction_counts",
+                    "INSERT INTO post_reaction_counts (post_id, reaction_type, shard, reaction_count) " +
+                            "SELECT post_id, reaction_type, 0, COUNT(*) FROM post_reactions " +
+                            "GROUP BY post_id, reaction_type"),
+
+            // Replies point at their parent through parent_comment_id; the column and its foreign
+            // key are added in one statement so a re-run skips both. /comments/list seeks the
+            // (created_at, comment_id) keyset within a post's top-level comments or within one
+            // comment's replies, and the index covers both since parent_comment_id IS NULL is
+            // an index lookup. It also replaces the post_id foreign key index.
+            new Migration(10, "Add comment threading and keyset indexes",
+                    "ALTER TABLE comments ADD COLUMN parent_comment_id BIGINT NULL AFTER user_id, " +
+                            "ADD CONSTRAINT fk_comments_parent FOREIGN KEY (parent_comment_id) " +
+                            "REFERENCES comments(comment_id) ON DELETE CASCADE",
+                    "CREATE INDEX idx_comments_post_parent_created ON comments (post_id, parent_comment_id, created_at, comment_id)")
+    ));
+
+    public static List<Migration> all() {
+        return ALL;
+    }
+
+    public static int latestVersion() {
+        return ALL.get(ALL.size() - 1).getVersion();
+    }
+}
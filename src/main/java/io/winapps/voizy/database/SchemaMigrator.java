@@ -0,0 +1,206 @@
+package io.winapps.voizy.database;
+
+import io.winapps.voizy.util.EnvUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies pending migrations from Migrations and records them in schema_version.
+ * When every migration is already recorded with a matching checksum, startup runs a
+ * single SELECT and no DDL. Otherwise a MySQL named lock makes sure only one server
+ * instance migrates at a time. A checksum mismatch means an applied migration was
+ * edited, and fails startup.
+ */
+public class SchemaMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final int MYSQL_ER_DUP_FIELDNAME = 1060;
+    private static final int MYSQL_ER_DUP_KEYNAME = 1061;
+    private static final int MYSQL_ER_CANT_DROP_FIELD_OR_KEY = 1091;
+    private static final int MYSQL_ER_NO_SUCH_TABLE = 1146;
+
+    private static final String LOCK_NAME = "voizy_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = EnvUtil.getInt("SCHEMA_LOCK_TIMEOUT_SECONDS", 60);
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT PRIMARY KEY, " +
+            "description VARCHAR(255) NOT NULL, " +
+            "checksum CHAR(64) NOT NULL, " +
+            "execution_ms BIGINT NOT NULL, " +
+            "applied_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+            ")";
+
+    private static volatile int currentVersion;
+
+    public static void migrate() throws SQLException {
+        migrate(Migrations.all());
+    }
+
+    /**
+     * Apply the given migrations instead of Migrations.all(); integration tests use this
+     * to run their own migrations on top of the real ones
+     */
+    public static void migrate(List<Migration> migrations) throws SQLException {
+        validateOrder(migrations);
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            List<Migration> pending = findPending(migrations, loadApplied(conn));
+            if (pending.isEmpty()) {
+                currentVersion = migrations.get(migrations.size() - 1).getVersion();
+                logger.info("Schema is current at version {}", currentVersion);
+                return;
+            }
+
+            acquireLock(conn);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(CREATE_VERSION_TABLE);
+                }
+
+                // Another instance may have migrated while this one waited for the lock
+                pending = findPending(migrations, loadApplied(conn));
+                for (Migration migration : pending) {
+                    apply(conn, migration);
+                }
+
+                currentVersion = migrations.get(migrations.size() - 1).getVersion();
+                logger.info("Schema migrated to version {} ({} migrations applied)", currentVersion, pending.size());
+            } finally {
+                releaseLock(conn);
+            }
+        }
+    }
+
+    static void validateOrder(List<Migration> migrations) {
+        if (migrations.isEmpty()) {
+            throw new IllegalStateException("No schema migrations defined");
+        }
+
+        int previous = 0;
+        for (Migration migration : migrations) {
+            if (migration.getVersion() <= previous) {
+                throw new IllegalStateException("Schema migration V" + migration.getVersion() +
+                        " is out of order after V" + previous);
+            }
+            previous = migration.getVersion();
+        }
+    }
+
+    /**
+     * @return Applied version to checksum, or an empty map if schema_version does not exist yet
+     */
+    private static Map<Integer, String> loadApplied(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        } catch (SQLException e) {
+            if (e.getErrorCode() != MYSQL_ER_NO_SUCH_TABLE) {
+                throw e;
+            }
+        }
+
+        return applied;
+    }
+
+    /**
+     * @param applied Applied version to checksum; entries for known versions are removed
+     */
+    static List<Migration> findPending(List<Migration> migrations, Map<Integer, String> applied) throws SQLException {
+        List<Migration> pending = new ArrayList<>();
+
+        for (Migration migration : migrations) {
+            String checksum = applied.remove(migration.getVersion());
+            if (checksum == null) {
+                pending.add(migration);
+            } else if (!checksum.equals(migration.getChecksum())) {
+                throw new SQLException(String.format(
+                        "Checksum mismatch for schema migration V%d (%s): database has %s, code has %s",
+                        migration.getVersion(), migration.getDescription(), checksum, migration.getChecksum()));
+            }
+        }
+
+        if (!applied.isEmpty()) {
+            // A newer build has already migrated this database, e.g. during a rolling deploy
+            logger.warn("Database has schema versions {} that this build does not know about", applied.keySet());
+        }
+
+        return pending;
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        logger.info("Applying schema migration V{}: {}", migration.getVersion(), migration.getDescription());
+        long startTime = System.currentTimeMillis();
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : migration.getStatements()) {
+                try {
+                    stmt.execute(statement);
+                } catch (SQLException e) {
+                    // MySQL DDL is not transactional, so a migration that failed halfway is
+                    // re-run from the top; columns and indexes it already added or dropped are skipped.
+                    if (e.getErrorCode() != MYSQL_ER_DUP_KEYNAME && e.getErrorCode() != MYSQL_ER_DUP_FIELDNAME
+                            && e.getErrorCode() != MYSQL_ER_CANT_DROP_FIELD_OR_KEY) {
+                        throw new SQLException("Schema migration V" + migration.getVersion() + " failed: " +
+                                e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+                    }
+                    logger.info("Skipping already applied statement in V{}: {}", migration.getVersion(), e.getMessage());
+                }
+            }
+        }
+
+        long elapsedMs = System.currentTimeMillis() - startTime;
+        String insert = "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+            stmt.setInt(1, migration.getVersion());
+            stmt.setString(2, migration.getDescription());
+            stmt.setString(3, migration.getChecksum());
+            stmt.setLong(4, elapsedMs);
+            stmt.executeUpdate();
+        }
+
+        logger.info("Applied schema migration V{} in {} ms", migration.getVersion(), elapsedMs);
+    }
+
+    private static void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out after " + LOCK_TIMEOUT_SECONDS +
+                            " s waiting for the schema migration lock");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            logger.warn("Error releasing schema migration lock", e);
+        }
+    }
+
+    /**
+     * @return Latest schema version known to be applied, or 0 before migrate() has run
+     */
+    public static int getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,225 @@
+package io.winapps.voizy.metrics;
+
+import io.winapps.voizy.cache.ApiKeyCache;
+import io.winapps.voizy.cache.FeedTimelineCache;
+import io.winapps.voizy.cache.HashtagDictionary;
+import io.winapps.voizy.cache.ProfileCache;
+import io.winapps.voizy.cache.UserStatsCache;
+import io.winapps.voizy.compression.CompressionStats;
+import io.winapps.voizy.compression.ContentCodecs;
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.services.FeedService;
+import io.winapps.voizy.util.AnalyticsUtil;
+import io.winapps.voizy.util.ApiKeyRateLimiter;
+import io.winapps.voizy.util.ApiKeyUsageTracker;
+import io.winapps.voizy.util.FeedFanout;
+import io.winapps.voizy.util.JwtUtil;
+import io.winapps.voizy.util.PostEngagementCounter;
+import io.winapps.voizy.util.PostReactionTotals;
+
+/**
+ * Exports the statistics that caches, the analytics queue and the database
+ * permit gate already keep
+ */
+public class ComponentMetrics {
+    private static boolean registered;
+
+    public static synchronized void register() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+
+        registerProfileCache();
+        registerApiKeyCache();
+        registerAnalytics();
+        registerFeed();
+        registerCompression();
+        registerRateLimiter();
+        registerPostEngagement();
+        registerPostReactionTotals();
+
+        MetricsRegistry.counter("voizy_hashtag_dictionary_hits_total", "Hashtags resolved without touching the hashtags table",
+                HashtagDictionary::getHitCount);
+        MetricsRegistry.counter("voizy_hashtag_dictionary_misses_total", "Hashtags that had to be upserted and looked up",
+                HashtagDictionary::getMissCount);
+        MetricsRegistry.gauge("voizy_hashtag_dictionary_size", "Hashtags held in the dictionary",
+                HashtagDictionary::getSize);
+
+        MetricsRegistry.counter("voizy_user_stats_cache_hits_total", "Post counts served from cache",
+                UserStatsCache::getHitCount);
+        MetricsRegistry.counter("voizy_user_stats_cache_misses_total", "Post counts read from user_stats",
+                UserStatsCache::getMissCount);
+        MetricsRegistry.gauge("voizy_user_stats_cache_size", "Post counts held in cache",
+                UserStatsCache::getSize);
+
+        MetricsRegistry.counter("voizy_jwt_cache_hits_total", "JWTs accepted from the verified-token cache",
+                JwtUtil::getCacheHitCount);
+        MetricsRegistry.counter("voizy_jwt_cache_misses_total", "JWTs that required full verification",
+                JwtUtil::getCacheMissCount);
+        MetricsRegistry.gauge("voizy_jwt_cache_size", "Verified tokens held in cache",
+                JwtUtil::getCacheSize);
+
+        MetricsRegistry.gauge("voizy_db_permit_waiters", "Callers waiting for a database permit",
+                DatabaseManager::getPermitQueueLength);
+    }
+
+    private static void registerProfileCache() {
+        MetricsRegistry.counter("voizy_profile_cache_local_hits_total", "Profile lookups served by the local tier",
+                () -> ProfileCache.getLocalStats().hitCount());
+        MetricsRegistry.counter("voizy_profile_cache_local_misses_total", "Profile lookups missed by the local tier",
+                () -> ProfileCache.getLocalStats().missCount());
+        MetricsRegistry.counter("voizy_profile_cache_local_evictions_total", "Profiles evicted from the local tier",
+                () -> ProfileCache.getLocalStats().evictionCount());
+        MetricsRegistry.gauge("voizy_profile_cache_local_size", "Profiles held in the local tier",
+                ProfileCache::getLocalSize);
+        MetricsRegistry.counter("voizy_profile_cache_redis_hits_total", "Profile lookups served by Redis",
+                ProfileCache::getRedisHitCount);
+        MetricsRegistry.counter("voizy_profile_cache_redis_misses_total", "Profile lookups missed by Redis",
+                ProfileCache::getRedisMissCount);
+        MetricsRegistry.counter("voizy_profile_cache_redis_errors_total", "Failed Redis operations in the profile cache",
+                ProfileCache::getRedisErrorCount);
+        MetricsRegistry.counter("voizy_profile_cache_invalidations_received_total", "Invalidations received over pub/sub",
+                ProfileCache::getInvalidationsReceivedCount);
+    }
+
+    private static void registerApiKeyCache() {
+        MetricsRegistry.counter("voizy_api_key_cache_hits_total", "API key lookups served from cache",
+                ApiKeyCache::getHitCount);
+        MetricsRegistry.counter("voizy_api_key_cache_negative_hits_total", "Unknown API keys rejected from cache",
+                ApiKeyCache::getNegativeHitCount);
+        MetricsRegistry.counter("voizy_api_key_cache_misses_total", "API key lookups that went to the database",
+                ApiKeyCache::getMissCount);
+        MetricsRegistry.counter("voizy_api_key_cache_load_failures_total", "API key lookups that failed with a database error",
+                ApiKeyCache::getLoadFailureCount);
+        MetricsRegistry.counter("voizy_api_key_cache_load_seconds_total", "Time spent loading API keys from the database",
+                () -> ApiKeyCache.getTotalLoadTimeNanos() / 1e9);
+        MetricsRegistry.gauge("voizy_api_key_cache_size", "Valid API keys held in cache",
+                ApiKeyCache::getSize);
+        MetricsRegistry.gauge("voizy_api_key_cache_negative_size", "Unknown API keys held in cache",
+                ApiKeyCache::getNegativeSize);
+    }
+
+    private static void registerFeed() {
+        MetricsRegistry.counter("voizy_feed_reads_total", "Feed pages read, by source",
+                FeedService::getRedisReadCount, "source", "redis");
+        MetricsRegistry.counter("voizy_feed_reads_total", "Feed pages read, by source",
+                FeedService::getMysqlReadCount, "source", "mysql");
+        MetricsRegistry.counter("voizy_feed_timeline_rebuilds_total", "Redis timelines rebuilt from MySQL on read",
+                FeedService::getTimelineRebuildCount);
+        MetricsRegistry.counter("voizy_feed_fanouts_total", "Posts fanned out to timelines",
+                FeedFanout::getFanoutCount);
+        MetricsRegistry.counter("voizy_feed_timeline_writes_total", "Timelines a post was pushed into",
+                FeedFanout::getTimelineWriteCount);
+        MetricsRegistry.counter("voizy_feed_pull_only_posts_total", "Posts left to fan-out-on-read",
+                FeedFanout::getPullOnlyPostCount);
+        MetricsRegistry.counter("voizy_feed_fanout_failures_total", "Fan-outs that failed",
+                FeedFanout::getFailureCount);
+        MetricsRegistry.counter("voizy_feed_invalidations_total", "Lost fan-outs whose timelines were deleted",
+                FeedFanout::getInvalidationCount);
+        MetricsRegistry.gauge("voizy_feed_pending_invalidations", "Authors whose timelines are waiting to be deleted",
+                FeedFanout::getPendingInvalidationCount);
+        MetricsRegistry.gauge("voizy_feed_pull_authors", "Authors whose posts are pulled on read",
+                () -> FeedTimelineCache.getInstance().getPullAuthorCount());
+    }
+
+    private static void registerAnalytics() {
+        MetricsRegistry.gauge("voizy_analytics_queue_depth", "Analytics events waiting to be written",
+                AnalyticsUtil::getQueueDepth);
+        MetricsRegistry.gauge("voizy_analytics_queue_capacity", "Analytics queue capacity",
+                AnalyticsUtil::getQueueCapacity);
+        MetricsRegistry.counter("voizy_analytics_events_enqueued_total", "Analytics events accepted",
+                AnalyticsUtil::getEnqueuedCount);
+        MetricsRegistry.counter("voizy_analytics_events_dropped_total", "Analytics events dropped because the queue was full",
+                AnalyticsUtil::getDroppedCount);
+        MetricsRegistry.counter("voizy_analytics_events_sampled_out_total", "Analytics events skipped by sampling",
+                AnalyticsUtil::getSampledOutCount);
+        MetricsRegistry.counter("voizy_analytics_events_flushed_total", "Analytics events written to the database",
+                AnalyticsUtil::getFlushedCount);
+        MetricsRegistry.counter("voizy_analytics_events_failed_total", "Analytics events lost to write errors",
+                AnalyticsUtil::getFailedCount);
+        MetricsRegistry.counter("voizy_analytics_flushes_total", "Analytics batch writes",
+                AnalyticsUtil::getFlushCount);
+        MetricsRegistry.counter("voizy_analytics_flush_seconds_total", "Time spent writing analytics batches",
+                () -> AnalyticsUtil.getTotalFlushTimeNanos() / 1e9);
+        MetricsRegistry.gauge("voizy_analytics_flush_max_seconds", "Longest analytics batch write",
+                () -> AnalyticsUtil.getMaxFlushTimeNanos() / 1e9);
+    }
+
+    private static void registerCompression() {
+        MetricsRegistry.counter("voizy_http_responses_total", "Responses to clients accepting compression, by whether they were encoded",
+                CompressionStats::getCompressedResponseCount, "compressed", "true");
+        MetricsRegistry.counter("voizy_http_responses_total", "Responses to clients accepting compression, by whether they were encoded",
+                CompressionStats::getUncompressedResponseCount, "compressed", "false");
+        MetricsRegistry.counter("voizy_compression_input_bytes_total", "Response bytes before compression",
+                CompressionStats::getBytesBeforeCompression);
+        MetricsRegistry.counter("voizy_compression_output_bytes_total", "Response bytes after compression",
+                CompressionStats::getBytesAfterCompression);
+        MetricsRegistry.gauge("voizy_compression_ratio", "Compressed over uncompressed response bytes since start",
+                CompressionStats::getCompressionRatio);
+        MetricsRegistry.counter("voizy_compression_seconds_total", "Time spent compressing responses",
+                () -> CompressionStats.getCompressNanos() / 1e9);
+        MetricsRegistry.counter("voizy_compression_requests_inflated_total", "Request bodies decompressed",
+                CompressionStats::getInflatedRequestCount);
+        MetricsRegistry.counter("voizy_compression_requests_rejected_total", "Requests rejected for an unsupported Content-Encoding",
+                CompressionStats::getRejectedRequestCount);
+        MetricsRegistry.gauge("voizy_compression_deflaters_idle", "Deflaters waiting in the pool",
+                ContentCodecs::getIdleDeflaterCount);
+        MetricsRegistry.counter("voizy_compression_deflaters_created_total", "Deflaters allocated because the pool was empty",
+                ContentCodecs::getCreatedDeflaterCount);
+    }
+
+    private static void registerRateLimiter() {
+        for (ApiKeyRateLimiter.Tier tier : ApiKeyRateLimiter.getTiers()) {
+            MetricsRegistry.counter("voizy_rate_limit_decisions_total", "API key rate limit decisions, by tier and decision",
+                    tier::getAllowedCount, "tier", tier.getName(), "decision", "allowed");
+            MetricsRegistry.counter("voizy_rate_limit_decisions_total", "API key rate limit decisions, by tier and decision",
+                    tier::getDeniedCount, "tier", tier.getName(), "decision", "denied");
+        }
+        MetricsRegistry.counter("voizy_rate_limit_local_decisions_total", "Rate limit decisions made without Redis",
+                ApiKeyRateLimiter::getLocalDecisionCount);
+        MetricsRegistry.counter("voizy_rate_limit_redis_errors_total", "Redis errors that switched rate limiting to local buckets",
+                ApiKeyRateLimiter::getRedisErrorCount);
+        MetricsRegistry.gauge("voizy_rate_limit_local_buckets", "Local token buckets held in memory",
+                ApiKeyRateLimiter::getLocalBucketCount);
+
+        MetricsRegistry.counter("voizy_api_key_usage_touches_total", "Authenticated requests recorded for last_used_at",
+                ApiKeyUsageTracker::getTouchCount);
+        MetricsRegistry.gauge("voizy_api_key_usage_pending", "API keys with a last_used_at waiting to be written",
+                ApiKeyUsageTracker::getPendingCount);
+        MetricsRegistry.counter("voizy_api_key_usage_rows_written_total", "api_keys rows updated by usage flushes",
+                ApiKeyUsageTracker::getFlushedRowCount);
+        MetricsRegistry.counter("voizy_api_key_usage_flushes_total", "Batched last_used_at UPDATEs",
+                ApiKeyUsageTracker::getFlushCount);
+        MetricsRegistry.counter("voizy_api_key_usage_flush_failures_total", "Batched last_used_at UPDATEs that failed",
+                ApiKeyUsageTracker::getFailedFlushCount);
+    }
+
+    private static void registerPostEngagement() {
+        MetricsRegistry.counter("voizy_post_engagement_recorded_total", "Post impressions and views accepted, by type",
+                PostEngagementCounter::getRecordedImpressionCount, "type", "impression");
+        MetricsRegistry.counter("voizy_post_engagement_recorded_total", "Post impressions and views accepted, by type",
+                PostEngagementCounter::getRecordedViewCount, "type", "view");
+        MetricsRegistry.gauge("voizy_post_engagement_pending_posts", "Post counters waiting for the next flush",
+                PostEngagementCounter::getPendingPostCount);
+        MetricsRegistry.counter("voizy_post_engagement_rows_written_total", "posts rows updated by engagement flushes",
+                PostEngagementCounter::getFlushedRowCount);
+        MetricsRegistry.counter("voizy_post_engagement_flushes_total", "Engagement flushes written",
+                PostEngagementCounter::getFlushCount);
+        MetricsRegistry.counter("voizy_post_engagement_flush_failures_total", "Engagement flushes that failed and were requeued",
+                PostEngagementCounter::getFailedFlushCount);
+        MetricsRegistry.counter("voizy_post_engagement_flush_seconds_total", "Time spent writing engagement flushes",
+                () -> PostEngagementCounter.getTotalFlushTimeNanos() / 1e9);
+    }
+
+    private static void registerPostReactionTotals() {
+        MetricsRegistry.gauge("voizy_post_reaction_totals_pending_posts", "Post reaction totals waiting for the next flush",
+                PostReactionTotals::getPendingPostCount);
+        MetricsRegistry.counter("voizy_post_reaction_totals_rows_written_total", "post_counters rows updated by reaction total flushes",
+                PostReactionTotals::getFlushedRowCount);
+        MetricsRegistry.counter("voizy_post_reaction_totals_flushes_total", "Reaction total flushes written",
+                PostReactionTotals::getFlushCount);
+        MetricsRegistry.counter("voizy_post_reaction_totals_flush_failures_total", "Reaction total flushes that failed and were requeued",
+                PostReactionTotals::getFailedFlushCount);
+    }
+}
@@ -0,0 +1,65 @@
+package io.winapps.voizy.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exports HikariCP pool state and connection acquire/usage times
+ */
+public class HikariMetricsTrackerFactory implements MetricsTrackerFactory {
+    private static final double[] ACQUIRE_BUCKETS = {
+            0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        String[] labels = {"pool", poolName};
+
+        MetricsRegistry.gauge("voizy_db_pool_active_connections", "Connections in use",
+                poolStats::getActiveConnections, labels);
+        MetricsRegistry.gauge("voizy_db_pool_idle_connections", "Idle connections",
+                poolStats::getIdleConnections, labels);
+        MetricsRegistry.gauge("voizy_db_pool_pending_threads", "Threads waiting for a connection",
+                poolStats::getPendingThreads, labels);
+        MetricsRegistry.gauge("voizy_db_pool_total_connections", "Open connections",
+                poolStats::getTotalConnections, labels);
+        MetricsRegistry.gauge("voizy_db_pool_max_connections", "Maximum pool size",
+                poolStats::getMaxConnections, labels);
+
+        LatencyHistogram acquire = MetricsRegistry.histogram("voizy_db_pool_acquire_seconds",
+                "Time taken to borrow a connection from the pool", ACQUIRE_BUCKETS, labels);
+        LatencyHistogram usage = MetricsRegistry.histogram("voizy_db_pool_usage_seconds",
+                "Time a connection was held before being returned", LatencyHistogram.DEFAULT_BUCKETS, labels);
+        LatencyHistogram creation = MetricsRegistry.histogram("voizy_db_pool_creation_seconds",
+                "Time taken to open a new connection", LatencyHistogram.DEFAULT_BUCKETS, labels);
+
+        LongAdder timeouts = new LongAdder();
+        MetricsRegistry.counter("voizy_db_pool_timeouts_total", "Connection requests that timed out",
+                timeouts::sum, labels);
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.recordNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.recordMillis(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                creation.recordMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+}
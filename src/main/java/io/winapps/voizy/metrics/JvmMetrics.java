@@ -0,0 +1,53 @@
+package io.winapps.voizy.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Exports JVM garbage collection, memory and thread statistics
+ */
+public class JvmMetrics {
+    private static boolean registered;
+
+    public static synchronized void register() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            MetricsRegistry.counter("voizy_jvm_gc_collections_total", "Garbage collections, by collector",
+                    gc::getCollectionCount, "gc", gc.getName());
+            MetricsRegistry.counter("voizy_jvm_gc_collection_seconds_total", "Time spent in garbage collection, by collector",
+                    () -> gc.getCollectionTime() / 1000.0, "gc", gc.getName());
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MetricsRegistry.gauge("voizy_jvm_memory_used_bytes", "Memory in use, by area",
+                () -> memory.getHeapMemoryUsage().getUsed(), "area", "heap");
+        MetricsRegistry.gauge("voizy_jvm_memory_used_bytes", "Memory in use, by area",
+                () -> memory.getNonHeapMemoryUsage().getUsed(), "area", "nonheap");
+        MetricsRegistry.gauge("voizy_jvm_memory_committed_bytes", "Memory committed by the JVM, by area",
+                () -> memory.getHeapMemoryUsage().getCommitted(), "area", "heap");
+        MetricsRegistry.gauge("voizy_jvm_memory_committed_bytes", "Memory committed by the JVM, by area",
+                () -> memory.getNonHeapMemoryUsage().getCommitted(), "area", "nonheap");
+        MetricsRegistry.gauge("voizy_jvm_memory_max_bytes", "Maximum memory available, by area (-1 if undefined)",
+                () -> memory.getHeapMemoryUsage().getMax(), "area", "heap");
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            MetricsRegistry.gauge("voizy_jvm_memory_pool_used_bytes", "Heap memory in use, by pool",
+                    () -> pool.getUsage().getUsed(), "pool", pool.getName());
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MetricsRegistry.gauge("voizy_jvm_threads", "Live platform threads", threads::getThreadCount);
+        MetricsRegistry.gauge("voizy_jvm_threads_daemon", "Live daemon platform threads", threads::getDaemonThreadCount);
+    }
+}
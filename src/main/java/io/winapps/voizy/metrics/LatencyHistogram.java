@@ -0,0 +1,118 @@
+package io.winapps.voizy.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram backed by an HdrHistogram Recorder.
+ * Recording is wait-free, so it is safe to call on every request. Values are kept in
+ * microseconds with two significant digits, up to one minute; larger values are clamped.
+ * Scrapes fold the recorder's interval histogram into a cumulative one, so exported
+ * buckets only ever grow, as Prometheus expects.
+ */
+public class LatencyHistogram {
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    /** Default bucket boundaries, in seconds */
+    public static final double[] DEFAULT_BUCKETS = {
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram cumulative = new Histogram(MAX_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder sumNanos = new LongAdder();
+    private final double[] buckets;
+    private Histogram interval;
+
+    public LatencyHistogram() {
+        this(DEFAULT_BUCKETS);
+    }
+
+    /**
+     * @param buckets Upper bucket boundaries in seconds, ascending
+     */
+    public LatencyHistogram(double[] buckets) {
+        this.buckets = buckets.clone();
+    }
+
+    public void recordNanos(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        sumNanos.add(nanos);
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_TRACKABLE_MICROS));
+    }
+
+    public void recordMillis(long millis) {
+        recordNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Take a consistent view of the histogram for export
+     */
+    public synchronized Snapshot snapshot() {
+        interval = recorder.getIntervalHistogram(interval);
+        cumulative.add(interval);
+
+        long[] cumulativeCounts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            long upperMicros = (long) (buckets[i] * 1_000_000);
+            cumulativeCounts[i] = cumulative.getCountBetweenValues(0, upperMicros);
+        }
+
+        return new Snapshot(
+                buckets,
+                cumulativeCounts,
+                cumulative.getTotalCount(),
+                sumNanos.sum() / 1e9,
+                cumulative.getValueAtPercentile(50.0) / 1e6,
+                cumulative.getValueAtPercentile(99.0) / 1e6
+        );
+    }
+
+    public static final class Snapshot {
+        private final double[] buckets;
+        private final long[] cumulativeCounts;
+        private final long count;
+        private final double sumSeconds;
+        private final double p50Seconds;
+        private final double p99Seconds;
+
+        Snapshot(double[] buckets, long[] cumulativeCounts, long count, double sumSeconds, double p50Seconds, double p99Seconds) {
+            this.buckets = buckets;
+            this.cumulativeCounts = cumulativeCounts;
+            this.count = count;
+            this.sumSeconds = sumSeconds;
+            this.p50Seconds = p50Seconds;
+            this.p99Seconds = p99Seconds;
+        }
+
+        public double[] getBuckets() {
+            return buckets;
+        }
+
+        public long[] getCumulativeCounts() {
+            return cumulativeCounts;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getSumSeconds() {
+            return sumSeconds;
+        }
+
+        public double getP50Seconds() {
+            return p50Seconds;
+        }
+
+        public double getP99Seconds() {
+            return p99Seconds;
+        }
+    }
+}
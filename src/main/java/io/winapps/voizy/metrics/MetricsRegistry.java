@@ -0,0 +1,202 @@
+package io.winapps.voizy.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-wide registry of metrics, exported in the Prometheus text format.
+ * Counters and gauges are read from suppliers at scrape time, so components keep
+ * their own LongAdders and recording costs nothing beyond what they already do.
+ * Histograms are LatencyHistograms owned by the registry.
+ */
+public class MetricsRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        HISTOGRAM("histogram");
+
+        private final String text;
+
+        Type(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class Child {
+        private final String labels;
+        private final DoubleSupplier value;
+        private final LatencyHistogram histogram;
+
+        private Child(String labels, DoubleSupplier value, LatencyHistogram histogram) {
+            this.labels = labels;
+            this.value = value;
+            this.histogram = histogram;
+        }
+    }
+
+    private static final class Family {
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final Map<String, Child> children = new LinkedHashMap<>();
+
+        private Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private static final Map<String, Family> families = new LinkedHashMap<>();
+    private static final ConcurrentMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Register a gauge read from the supplier at scrape time
+     * @param labels Alternating label names and values
+     */
+    public static void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        register(name, help, Type.GAUGE, new Child(formatLabels(labels), value, null));
+    }
+
+    /**
+     * Register a monotonically increasing counter read from the supplier at scrape time
+     * @param labels Alternating label names and values
+     */
+    public static void counter(String name, String help, DoubleSupplier value, String... labels) {
+        register(name, help, Type.COUNTER, new Child(formatLabels(labels), value, null));
+    }
+
+    /**
+     * Register a latency histogram exported in seconds
+     * @param buckets Upper bucket boundaries in seconds
+     * @param labels Alternating label names and values
+     * @return The histogram to record into
+     */
+    public static LatencyHistogram histogram(String name, String help, double[] buckets, String... labels) {
+        LatencyHistogram histogram = new LatencyHistogram(buckets);
+        register(name, help, Type.HISTOGRAM, new Child(formatLabels(labels), null, histogram));
+        return histogram;
+    }
+
+    /**
+     * Get or create the metrics for an HTTP route
+     */
+    public static RouteMetrics route(String route) {
+        return routes.computeIfAbsent(route, RouteMetrics::new);
+    }
+
+    private static synchronized void register(String name, String help, Type type, Child child) {
+        Family family = families.computeIfAbsent(name, n -> new Family(n, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type.text);
+        }
+        family.children.put(child.labels, child);
+    }
+
+    /**
+     * Render every registered metric in the Prometheus text exposition format
+     */
+    public static String scrape() {
+        List<Family> snapshot;
+        Map<Family, List<Child>> childrenSnapshot = new LinkedHashMap<>();
+        synchronized (MetricsRegistry.class) {
+            snapshot = new ArrayList<>(families.values());
+            for (Family family : snapshot) {
+                childrenSnapshot.put(family, new ArrayList<>(family.children.values()));
+            }
+        }
+
+        StringBuilder out = new StringBuilder(16 * 1024);
+        for (Family family : snapshot) {
+            out.append("# HELP ").append(family.name).append(' ').append(escapeHelp(family.help)).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type.text).append('\n');
+
+            for (Child child : childrenSnapshot.get(family)) {
+                if (child.histogram != null) {
+                    writeHistogram(out, family.name, child.labels, child.histogram.snapshot());
+                    continue;
+                }
+
+                double value;
+                try {
+                    value = child.value.getAsDouble();
+                } catch (RuntimeException e) {
+                    logger.debug("Failed to read metric {}{}", family.name, braces(child.labels), e);
+                    continue;
+                }
+                writeSample(out, family.name, braces(child.labels), value);
+            }
+        }
+
+        return out.toString();
+    }
+
+    private static void writeHistogram(StringBuilder out, String name, String labels, LatencyHistogram.Snapshot snapshot) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        double[] buckets = snapshot.getBuckets();
+        long[] counts = snapshot.getCumulativeCounts();
+
+        for (int i = 0; i < buckets.length; i++) {
+            writeSample(out, name + "_bucket", "{" + prefix + "le=\"" + formatValue(buckets[i]) + "\"}", counts[i]);
+        }
+        writeSample(out, name + "_bucket", "{" + prefix + "le=\"+Inf\"}", snapshot.getCount());
+        writeSample(out, name + "_sum", braces(labels), snapshot.getSumSeconds());
+        writeSample(out, name + "_count", braces(labels), snapshot.getCount());
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append(labels).append(' ').append(formatValue(value)).append('\n');
+    }
+
+    static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String formatLabels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(escapeLabelValue(labels[i + 1])).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String braces(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,74 @@
+package io.winapps.voizy.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, status-code counts and in-flight requests for a single route
+ */
+public class RouteMetrics {
+    private final String route;
+    private final LatencyHistogram latency;
+    private final LongAdder inFlight = new LongAdder();
+    private final ConcurrentMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+    RouteMetrics(String route) {
+        this.route = route;
+        this.latency = MetricsRegistry.histogram(
+                "voizy_http_request_duration_seconds",
+                "Time spent handling HTTP requests, by route",
+                LatencyHistogram.DEFAULT_BUCKETS,
+                "route", route
+        );
+        MetricsRegistry.gauge(
+                "voizy_http_requests_in_flight",
+                "HTTP requests currently being handled, by route",
+                inFlight::sum,
+                "route", route
+        );
+    }
+
+    public void requestStarted() {
+        inFlight.increment();
+    }
+
+    public void requestFinished(int status, long elapsedNanos) {
+        inFlight.decrement();
+        latency.recordNanos(elapsedNanos);
+
+        LongAdder count = statusCounts.get(status);
+        if (count == null) {
+            count = statusCounts.computeIfAbsent(status, this::registerStatus);
+        }
+        count.increment();
+    }
+
+    private LongAdder registerStatus(int status) {
+        LongAdder count = new LongAdder();
+        MetricsRegistry.counter(
+                "voizy_http_requests_total",
+                "HTTP requests handled, by route and status code",
+                count::sum,
+                "route", route, "status", Integer.toString(status)
+        );
+        return count;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    public long getStatusCount(int status) {
+        LongAdder count = statusCounts.get(status);
+        return count == null ? 0 : count.sum();
+    }
+}
@@ -1,12 +1,14 @@
 package io.winapps.voizy.middleware;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.cache.ApiKeyCache;
 import io.winapps.voizy.models.middleware.APIKey;
 import io.winapps.voizy.models.middleware.ErrorResponse;
+import io.winapps.voizy.repositories.ApiKeyRepository;
+import io.winapps.voizy.util.ApiKeyRateLimiter;
+import io.winapps.voizy.util.ApiKeyUsageTracker;
 import io.winapps.voizy.util.ApiKeyUtil;
 import io.winapps.voizy.util.JwtUtil;
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,9 +18,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.function.BiConsumer;
 
@@ -29,6 +28,18 @@ public class AuthMiddleware {
     public static final String USER_ID_CONTEXT_KEY = "userID";
     public static final String API_KEY_CONTEXT_KEY = "apiKey";
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final ApiKeyRepository apiKeyRepository;
+
+    public AuthMiddleware() {
+        this.apiKeyRepository = new ApiKeyRepository();
+    }
+
+    public AuthMiddleware(ApiKeyRepository apiKeyRepository) {
+        this.apiKeyRepository = apiKeyRepository;
+    }
+
     public BiConsumer<HttpServletRequest, HttpServletResponse> validateJwt(BiConsumer<HttpServletRequest, HttpServletResponse> next) {
         return (req, res) -> {
             try {
@@ -38,17 +49,15 @@ public class AuthMiddleware {
                     return;
                 }
 
-                String[] splitToken = authHeader.split("Bearer ");
-                if (splitToken.length != 2) {
+                if (!authHeader.startsWith(BEARER_PREFIX) || authHeader.length() == BEARER_PREFIX.length()) {
                     sendError(res, "Invalid authorization format", HttpServletResponse.SC_UNAUTHORIZED);
                     return;
                 }
 
-                String tokenStr = splitToken[1];
+                String tokenStr = authHeader.substring(BEARER_PREFIX.length());
 
                 try {
-                    Claims claims = JwtUtil.validateToken(tokenStr);
-                    String userID = claims.get("userID", String.class);
+                    String userID = JwtUtil.verifyUserID(tokenStr);
 
                     if (userID == null) {
                         sendError(res, "Invalid token claims", HttpServletResponse.SC_UNAUTHORIZED);
@@ -107,15 +116,19 @@ public class AuthMiddleware {
                 }
 
                 if (!ApiKeyUtil.validateAPIKey(apiKey)) {
+                    ApiKeyCache.invalidate(xUserID, xApiKey);
                     sendError(res, "API key validation failed", HttpServletResponse.SC_UNAUTHORIZED);
                     return;
                 }
 
-                if (!ApiKeyUtil.getLimiter(apiKey.getKey()).tryAcquire()) {
+                if (!ApiKeyRateLimiter.tryAcquire(apiKey.getKey(), apiKey.getTier())) {
+                    res.setHeader("Retry-After", "1");
                     sendError(res, "Rate limit exceeded", HttpStatus.TOO_MANY_REQUESTS_429);
                     return;
                 }
 
+                ApiKeyUsageTracker.touch(xUserID, apiKey.getKey());
+
                 req.setAttribute(USER_ID_CONTEXT_KEY, xUserID);
                 req.setAttribute(API_KEY_CONTEXT_KEY, apiKey);
 
@@ -148,30 +161,8 @@ public class AuthMiddleware {
     }
 
     private APIKey fetchApiKey(long userID, String apiKeyStr) {
-        try (Connection conn = DatabaseManager.getConnection()) {
-            String query = "SELECT user_id, api_key, created_at, expires_at, last_used_at, updated_at " +
-                    "FROM api_keys WHERE user_id = ? AND api_key = ? LIMIT 1";
-
-            try (PreparedStatement stmt = conn.prepareStatement(query)) {
-                stmt.setLong(1, userID);
-                stmt.setString(2, apiKeyStr);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        APIKey apiKey = new APIKey();
-                        apiKey.setKey(rs.getString("api_key"));
-                        apiKey.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-                        apiKey.setExpiresAt(rs.getTimestamp("expires_at").toLocalDateTime());
-                        apiKey.setLastUsedAt(rs.getTimestamp("last_used_at").toLocalDateTime());
-                        apiKey.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-
-                        // Also validate against users table
-                        if (validateUserAPIKey(conn, userID, apiKeyStr)) {
-                            return apiKey;
-                        }
-                    }
-                }
-            }
+        try {
+            return ApiKeyCache.get(userID, apiKeyStr, () -> apiKeyRepository.fetchApiKey(userID, apiKeyStr));
         } catch (SQLException e) {
             logger.error("Database error fetching API key", e);
         }
@@ -179,34 +170,23 @@ public class AuthMiddleware {
         return null;
     }
 
-    private boolean validateUserAPIKey(Connection conn, long userID, String apiKeyStr) throws SQLException {
-        String query = "SELECT user_id, api_key FROM users WHERE user_id = ? AND api_key = ?";
-
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setLong(1, userID);
-            stmt.setString(2, apiKeyStr);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next();
-            }
+    /**
+     * The caller's user ID as set by the middleware: a Long from API key auth, or the
+     * String claim from JWT auth
+     * @return The user ID, or null if the request was not authenticated
+     */
+    public static Long getAuthenticatedUserId(HttpServletRequest req) {
+        Object userId = req.getAttribute(USER_ID_CONTEXT_KEY);
+        if (userId instanceof Long) {
+            return (Long) userId;
         }
-    }
-
-    private void updateApiKeyLastUsedAt(long userID, String apiKeyStr) {
-        try (Connection conn = DatabaseManager.getConnection()) {
-            String query = "UPDATE api_keys SET last_used_at = NOW() WHERE user_id = ? AND api_key = ?";
-
-            try (PreparedStatement stmt = conn.prepareStatement(query)) {
-                stmt.setLong(1, userID);
-                stmt.setString(2, apiKeyStr);
-
-                int rowsAffected = stmt.executeUpdate();
-                if (rowsAffected != 1) {
-                    logger.warn("Incorrect rows affected: {}", rowsAffected);
-                }
+        if (userId instanceof String) {
+            try {
+                return Long.parseLong((String) userId);
+            } catch (NumberFormatException e) {
+                return null;
             }
-        } catch (SQLException e) {
-            logger.error("Database error updating API key last used timestamp", e);
         }
+        return null;
     }
 }
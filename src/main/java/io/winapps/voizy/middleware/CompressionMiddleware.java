@@ -0,0 +1,83 @@
+package io.winapps.voizy.middleware;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.winapps.voizy.compression.CompressingResponseWrapper;
+import io.winapps.voizy.compression.CompressionStats;
+import io.winapps.voizy.compression.ContentCodec;
+import io.winapps.voizy.compression.ContentCodecs;
+import io.winapps.voizy.compression.DecompressingRequestWrapper;
+import io.winapps.voizy.models.middleware.ErrorResponse;
+import io.winapps.voizy.util.EnvUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.function.BiConsumer;
+
+public class CompressionMiddleware {
+    private static final Logger logger = LoggerFactory.getLogger(CompressionMiddleware.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int MIN_BYTES = EnvUtil.getInt("COMPRESSION_MIN_BYTES", 1024);
+    private static final long MAX_INFLATED_BYTES = EnvUtil.getLong("COMPRESSION_MAX_INFLATED_BYTES", 10L * 1024 * 1024);
+
+    /**
+     * Decode request bodies sent with a supported Content-Encoding and encode responses
+     * with the best coding the client accepts once they pass COMPRESSION_MIN_BYTES.
+     * Wrap inside MetricsMiddleware so compression time counts towards route latency.
+     * @param next Handler to wrap
+     * @return Handler with negotiated compression
+     */
+    public static BiConsumer<HttpServletRequest, HttpServletResponse> compress(BiConsumer<HttpServletRequest, HttpServletResponse> next) {
+        return (req, res) -> {
+            HttpServletRequest request = req;
+            String contentEncoding = req.getHeader("Content-Encoding");
+            if (contentEncoding != null && !contentEncoding.isEmpty() && !"identity".equalsIgnoreCase(contentEncoding.trim())) {
+                ContentCodec requestCodec = ContentCodecs.forEncoding(contentEncoding);
+                if (requestCodec == null) {
+                    CompressionStats.recordRejectedRequest();
+                    sendError(res, "Unsupported Content-Encoding: " + contentEncoding, HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+                    return;
+                }
+                CompressionStats.recordInflatedRequest();
+                request = new DecompressingRequestWrapper(req, requestCodec, MAX_INFLATED_BYTES);
+            }
+
+            // Responses to the same URL differ by Accept-Encoding whether or not this one is encoded
+            res.addHeader("Vary", "Accept-Encoding");
+            ContentCodec responseCodec = ContentCodecs.negotiate(req.getHeader("Accept-Encoding"));
+            if (responseCodec == null) {
+                next.accept(request, res);
+                return;
+            }
+
+            CompressingResponseWrapper response = new CompressingResponseWrapper(res, responseCodec, MIN_BYTES);
+            try {
+                next.accept(request, response);
+            } finally {
+                try {
+                    response.finish();
+                } catch (IOException e) {
+                    logger.warn("Error finishing compressed response: {}", e.getMessage());
+                }
+            }
+        };
+    }
+
+    private static void sendError(HttpServletResponse res, String message, int statusCode) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                Integer.toString(statusCode),
+                message
+        );
+
+        try {
+            res.setStatus(statusCode);
+            res.setContentType("application/json");
+            objectMapper.writeValue(res.getOutputStream(), errorResponse);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
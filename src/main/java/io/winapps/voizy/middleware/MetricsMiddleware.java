@@ -0,0 +1,34 @@
+package io.winapps.voizy.middleware;
+
+import io.winapps.voizy.metrics.MetricsRegistry;
+import io.winapps.voizy.metrics.RouteMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.function.BiConsumer;
+
+public class MetricsMiddleware {
+    /**
+     * Record latency, status code and in-flight count for every request to a route.
+     * Wrap outside of authentication so rejected requests are counted too.
+     * @param route Route label, normally the servlet path
+     * @param next Handler to time
+     * @return Timed handler
+     */
+    public static BiConsumer<HttpServletRequest, HttpServletResponse> timed(String route, BiConsumer<HttpServletRequest, HttpServletResponse> next) {
+        RouteMetrics metrics = MetricsRegistry.route(route);
+
+        return (req, res) -> {
+            long startTime = System.nanoTime();
+            int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+            metrics.requestStarted();
+
+            try {
+                next.accept(req, res);
+                status = res.getStatus();
+            } finally {
+                metrics.requestFinished(status, System.nanoTime() - startTime);
+            }
+        };
+    }
+}
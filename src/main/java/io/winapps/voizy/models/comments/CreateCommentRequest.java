@@ -0,0 +1,38 @@
+package io.winapps.voizy.models.comments;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class CreateCommentRequest {
+    @JsonProperty("postID")
+    private long postId;
+
+    @JsonProperty("parentCommentID")
+    private Long parentCommentId;
+
+    @JsonProperty("contentText")
+    private String contentText;
+
+    public long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(long postId) {
+        this.postId = postId;
+    }
+
+    public Long getParentCommentId() {
+        return parentCommentId;
+    }
+
+    public void setParentCommentId(Long parentCommentId) {
+        this.parentCommentId = parentCommentId;
+    }
+
+    public String getContentText() {
+        return contentText;
+    }
+
+    public void setContentText(String contentText) {
+        this.contentText = contentText;
+    }
+}
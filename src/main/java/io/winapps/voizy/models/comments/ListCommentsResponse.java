@@ -0,0 +1,40 @@
+package io.winapps.voizy.models.comments;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class ListCommentsResponse {
+    @JsonProperty("comments")
+    private List<Comment> comments;
+
+    @JsonProperty("limit")
+    private long limit;
+
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<Comment> comments) {
+        this.comments = comments;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public void setLimit(long limit) {
+        this.limit = limit;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
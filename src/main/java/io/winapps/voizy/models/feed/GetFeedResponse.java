@@ -0,0 +1,41 @@
+package io.winapps.voizy.models.feed;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.winapps.voizy.models.posts.ListPost;
+
+import java.util.List;
+
+public class GetFeedResponse {
+    @JsonProperty("posts")
+    private List<ListPost> posts;
+
+    @JsonProperty("limit")
+    private long limit;
+
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+
+    public List<ListPost> getPosts() {
+        return posts;
+    }
+
+    public void setPosts(List<ListPost> posts) {
+        this.posts = posts;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public void setLimit(long limit) {
+        this.limit = limit;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
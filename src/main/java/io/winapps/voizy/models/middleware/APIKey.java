@@ -25,6 +25,9 @@ public class APIKey {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime updatedAt;
 
+    @JsonProperty("tier")
+    private String tier;
+
     public APIKey() {
     }
 
@@ -75,4 +78,12 @@ public class APIKey {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-}
\ No newline at end of file
+
+    public String getTier() {
+        return tier;
+    }
+
+    public void setTier(String tier) {
+        this.tier = tier;
+    }
+}
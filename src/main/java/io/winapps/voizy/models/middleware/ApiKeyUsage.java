@@ -0,0 +1,27 @@
+package io.winapps.voizy.models.middleware;
+
+import java.time.LocalDateTime;
+
+public class ApiKeyUsage {
+    private final long userID;
+    private final String apiKey;
+    private final LocalDateTime lastUsedAt;
+
+    public ApiKeyUsage(long userID, String apiKey, LocalDateTime lastUsedAt) {
+        this.userID = userID;
+        this.apiKey = apiKey;
+        this.lastUsedAt = lastUsedAt;
+    }
+
+    public long getUserID() {
+        return userID;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public LocalDateTime getLastUsedAt() {
+        return lastUsedAt;
+    }
+}
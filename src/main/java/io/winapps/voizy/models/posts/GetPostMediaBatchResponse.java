@@ -0,0 +1,25 @@
+package io.winapps.voizy.models.posts;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+public class GetPostMediaBatchResponse {
+    @JsonProperty("media")
+    private Map<Long, GetPostMediaResponse> media;
+
+    public GetPostMediaBatchResponse() {
+    }
+
+    public GetPostMediaBatchResponse(Map<Long, GetPostMediaResponse> media) {
+        this.media = media;
+    }
+
+    public Map<Long, GetPostMediaResponse> getMedia() {
+        return media;
+    }
+
+    public void setMedia(Map<Long, GetPostMediaResponse> media) {
+        this.media = media;
+    }
+}
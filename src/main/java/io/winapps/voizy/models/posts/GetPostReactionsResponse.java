@@ -0,0 +1,25 @@
+package io.winapps.voizy.models.posts;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+public class GetPostReactionsResponse {
+    @JsonProperty("reactions")
+    private Map<Long, Map<String, Long>> reactions;
+
+    public GetPostReactionsResponse() {
+    }
+
+    public GetPostReactionsResponse(Map<Long, Map<String, Long>> reactions) {
+        this.reactions = reactions;
+    }
+
+    public Map<Long, Map<String, Long>> getReactions() {
+        return reactions;
+    }
+
+    public void setReactions(Map<Long, Map<String, Long>> reactions) {
+        this.reactions = reactions;
+    }
+}
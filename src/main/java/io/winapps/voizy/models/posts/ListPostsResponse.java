@@ -1,5 +1,6 @@
 package io.winapps.voizy.models.posts;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
@@ -14,11 +15,17 @@ public class ListPostsResponse {
     @JsonProperty("page")
     private long page;
 
+    // Null, and left out of the JSON, when the client asked for includeTotals=false
     @JsonProperty("totalPosts")
-    private long totalPosts;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalPosts;
 
     @JsonProperty("totalPages")
-    private long totalPages;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalPages;
+
+    @JsonProperty("nextCursor")
+    private String nextCursor;
 
     public List<ListPost> getPosts() {
         return posts;
@@ -44,7 +51,7 @@ public class ListPostsResponse {
         this.page = page;
     }
 
-    public long getTotalPosts() {
+    public Long getTotalPosts() {
         return totalPosts;
     }
 
@@ -52,11 +59,19 @@ public class ListPostsResponse {
         this.totalPosts = totalPosts;
     }
 
-    public long getTotalPages() {
+    public Long getTotalPages() {
         return totalPages;
     }
 
     public void setTotalPages(long totalPages) {
         this.totalPages = totalPages;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
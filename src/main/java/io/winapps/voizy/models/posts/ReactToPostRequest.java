@@ -0,0 +1,27 @@
+package io.winapps.voizy.models.posts;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ReactToPostRequest {
+    @JsonProperty("postID")
+    private long postId;
+
+    @JsonProperty("reactionType")
+    private String reactionType;
+
+    public long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(long postId) {
+        this.postId = postId;
+    }
+
+    public String getReactionType() {
+        return reactionType;
+    }
+
+    public void setReactionType(String reactionType) {
+        this.reactionType = reactionType;
+    }
+}
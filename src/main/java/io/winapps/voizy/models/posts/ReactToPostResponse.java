@@ -0,0 +1,49 @@
+package io.winapps.voizy.models.posts;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ReactToPostResponse {
+    @JsonProperty("postID")
+    private long postId;
+
+    @JsonProperty("reactionType")
+    private String reactionType;
+
+    @JsonProperty("previousReactionType")
+    private String previousReactionType;
+
+    @JsonProperty("changed")
+    private boolean changed;
+
+    public long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(long postId) {
+        this.postId = postId;
+    }
+
+    public String getReactionType() {
+        return reactionType;
+    }
+
+    public void setReactionType(String reactionType) {
+        this.reactionType = reactionType;
+    }
+
+    public String getPreviousReactionType() {
+        return previousReactionType;
+    }
+
+    public void setPreviousReactionType(String previousReactionType) {
+        this.previousReactionType = previousReactionType;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
+    public void setChanged(boolean changed) {
+        this.changed = changed;
+    }
+}
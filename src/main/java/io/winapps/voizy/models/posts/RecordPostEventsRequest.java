@@ -0,0 +1,25 @@
+package io.winapps.voizy.models.posts;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class RecordPostEventsRequest {
+    @JsonProperty("postIds")
+    private List<Long> postIds;
+
+    public RecordPostEventsRequest() {
+    }
+
+    public RecordPostEventsRequest(List<Long> postIds) {
+        this.postIds = postIds;
+    }
+
+    public List<Long> getPostIds() {
+        return postIds;
+    }
+
+    public void setPostIds(List<Long> postIds) {
+        this.postIds = postIds;
+    }
+}
@@ -0,0 +1,104 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.models.middleware.APIKey;
+import io.winapps.voizy.models.middleware.ApiKeyUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+public class ApiKeyRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ApiKeyRepository.class);
+
+    /**
+     * Fetch an API key that belongs to the user in both api_keys and users
+     * @return The API key, or null if it does not exist for the user
+     */
+    public APIKey fetchApiKey(long userID, String apiKeyStr) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            String query = "SELECT user_id, api_key, created_at, expires_at, last_used_at, updated_at, tier " +
+                    "FROM api_keys WHERE user_id = ? AND api_key = ? LIMIT 1";
+
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setLong(1, userID);
+                stmt.setString(2, apiKeyStr);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        APIKey apiKey = new APIKey();
+                        apiKey.setKey(rs.getString("api_key"));
+                        apiKey.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                        apiKey.setExpiresAt(rs.getTimestamp("expires_at").toLocalDateTime());
+                        apiKey.setLastUsedAt(rs.getTimestamp("last_used_at").toLocalDateTime());
+                        apiKey.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+                        apiKey.setTier(rs.getString("tier"));
+
+                        // Also validate against users table
+                        if (validateUserAPIKey(conn, userID, apiKeyStr)) {
+                            return apiKey;
+                        }
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private boolean validateUserAPIKey(Connection conn, long userID, String apiKeyStr) throws SQLException {
+        String query = "SELECT user_id, api_key FROM users WHERE user_id = ? AND api_key = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, userID);
+            stmt.setString(2, apiKeyStr);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Set last_used_at for several keys in one UPDATE. A time older than the stored one is
+     * ignored, so a retried or late batch never moves last_used_at backwards, and
+     * updated_at is left alone since recording use is not an edit of the key.
+     * @return Rows updated
+     */
+    public int updateLastUsedAt(List<ApiKeyUsage> usages) throws SQLException {
+        if (usages.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder query = new StringBuilder("UPDATE api_keys SET last_used_at = CASE");
+        for (int i = 0; i < usages.size(); i++) {
+            query.append(" WHEN user_id = ? AND api_key = ? THEN GREATEST(last_used_at, ?)");
+        }
+        query.append(" ELSE last_used_at END, updated_at = updated_at WHERE (user_id, api_key) IN (");
+        for (int i = 0; i < usages.size(); i++) {
+            query.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        query.append(")");
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query.toString())) {
+            int index = 1;
+            for (ApiKeyUsage usage : usages) {
+                stmt.setLong(index++, usage.getUserID());
+                stmt.setString(index++, usage.getApiKey());
+                stmt.setTimestamp(index++, Timestamp.valueOf(usage.getLastUsedAt()));
+            }
+            for (ApiKeyUsage usage : usages) {
+                stmt.setLong(index++, usage.getUserID());
+                stmt.setString(index++, usage.getApiKey());
+            }
+
+            return stmt.executeUpdate();
+        }
+    }
+}
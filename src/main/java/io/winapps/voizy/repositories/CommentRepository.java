@@ -0,0 +1,200 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.models.comments.Comment;
+import io.winapps.voizy.models.comments.CreateCommentRequest;
+import io.winapps.voizy.util.SqlNullUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CommentRepository {
+    private static final Logger logger = LoggerFactory.getLogger(CommentRepository.class);
+    private static final int MYSQL_ER_NO_REFERENCED_ROW = 1452;
+    private final PostCountersRepository postCountersRepository = new PostCountersRepository();
+
+    private static final String LIST_COMMENTS_SELECT = "SELECT comment_id, post_id, parent_comment_id, user_id, " +
+            "content_text, created_at, updated_at FROM comments ";
+
+    /**
+     * Insert a comment and count it in post_counters in one transaction
+     * @return The new comment's ID
+     * @throws IllegalArgumentException if the post or parent comment does not exist, or the
+     *                                  parent belongs to a different post
+     */
+    public long createComment(long userId, CreateCommentRequest request) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseManager.getConnection();
+            conn.setAutoCommit(false);
+
+            if (request.getParentCommentId() != null) {
+                Long parentPostId = getCommentPostId(conn, request.getParentCommentId());
+                if (parentPostId == null || parentPostId != request.getPostId()) {
+                    throw new IllegalArgumentException("Parent comment not found on post " + request.getPostId());
+                }
+            }
+
+            long commentId = insertComment(conn, userId, request);
+            postCountersRepository.incrementComments(conn, request.getPostId(), 1);
+
+            conn.commit();
+            return commentId;
+
+        } catch (SQLException | IllegalArgumentException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    logger.error("Error rolling back transaction", rollbackEx);
+                }
+            }
+            if (e instanceof SQLException && ((SQLException) e).getErrorCode() == MYSQL_ER_NO_REFERENCED_ROW) {
+                throw new IllegalArgumentException("Post not found: " + request.getPostId());
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error("Error closing connection", e);
+                }
+            }
+        }
+    }
+
+    private Long getCommentPostId(Connection conn, long commentId) throws SQLException {
+        String query = "SELECT post_id FROM comments WHERE comment_id = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, commentId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong("post_id") : null;
+            }
+        }
+    }
+
+    private long insertComment(Connection conn, long userId, CreateCommentRequest request) throws SQLException {
+        String query = "INSERT INTO comments (post_id, user_id, parent_comment_id, content_text) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setLong(1, request.getPostId());
+            stmt.setLong(2, userId);
+            if (request.getParentCommentId() != null) {
+                stmt.setLong(3, request.getParentCommentId());
+            } else {
+                stmt.setNull(3, Types.BIGINT);
+            }
+            stmt.setString(4, request.getContentText());
+            stmt.executeUpdate();
+
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("Creating comment failed, no ID obtained");
+                }
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * List a post's top-level comments, or the replies to one comment, oldest first.
+     * With a cursor, seeks past the (created_at, comment_id) key of the previous page's
+     * last comment instead of skipping rows with OFFSET. Author names are not loaded.
+     * @param parentCommentId Comment whose replies to list, or null for top-level comments
+     * @param afterCreatedAt Sort key of the previous page's last comment, or null for the first page
+     */
+    public List<Comment> listComments(long postId, Long parentCommentId, int limit,
+                                      LocalDateTime afterCreatedAt, long afterCommentId) throws SQLException {
+        StringBuilder query = new StringBuilder(LIST_COMMENTS_SELECT)
+                .append("WHERE post_id = ? AND ")
+                .append(parentCommentId != null ? "parent_comment_id = ? " : "parent_comment_id IS NULL ");
+        if (afterCreatedAt != null) {
+            query.append("AND (created_at > ? OR (created_at = ? AND comment_id > ?)) ");
+        }
+        query.append("ORDER BY created_at, comment_id LIMIT ?");
+
+        List<Comment> comments = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query.toString())) {
+
+            int index = 1;
+            stmt.setLong(index++, postId);
+            if (parentCommentId != null) {
+                stmt.setLong(index++, parentCommentId);
+            }
+            if (afterCreatedAt != null) {
+                Timestamp createdAtTimestamp = Timestamp.valueOf(afterCreatedAt);
+                stmt.setTimestamp(index++, createdAtTimestamp);
+                stmt.setTimestamp(index++, createdAtTimestamp);
+                stmt.setLong(index++, afterCommentId);
+            }
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    comments.add(mapResultSetToComment(rs));
+                }
+            }
+        }
+
+        return comments;
+    }
+
+    /**
+     * Count the direct replies of several comments with a single query
+     * @return Reply counts keyed by comment ID; comments without replies are left out
+     */
+    public Map<Long, Long> getReplyCounts(List<Long> commentIds) throws SQLException {
+        Map<Long, Long> counts = new HashMap<>();
+        if (commentIds.isEmpty()) {
+            return counts;
+        }
+
+        String inList = String.join(", ", Collections.nCopies(commentIds.size(), "?"));
+        String query = "SELECT parent_comment_id, COUNT(*) AS replies FROM comments " +
+                "WHERE parent_comment_id IN (" + inList + ") GROUP BY parent_comment_id";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int index = 1;
+            for (long commentId : commentIds) {
+                stmt.setLong(index++, commentId);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getLong("parent_comment_id"), rs.getLong("replies"));
+                }
+            }
+        }
+
+        return counts;
+    }
+
+    private Comment mapResultSetToComment(ResultSet rs) throws SQLException {
+        Comment comment = new Comment();
+
+        comment.setCommentId(rs.getLong("comment_id"));
+        comment.setPostId(rs.getLong("post_id"));
+        comment.setParentCommentId(SqlNullUtil.getLong(rs, "parent_comment_id"));
+        comment.setUserId(rs.getLong("user_id"));
+        comment.setContentText(SqlNullUtil.getString(rs, "content_text"));
+        comment.setCreatedAt(SqlNullUtil.getLocalDateTime(rs, "created_at"));
+        comment.setUpdatedAt(SqlNullUtil.getLocalDateTime(rs, "updated_at"));
+
+        return comment;
+    }
+}
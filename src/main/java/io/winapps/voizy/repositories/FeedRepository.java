@@ -0,0 +1,85 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.database.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pulls home feed post IDs straight from MySQL: the viewer's own posts plus those of
+ * accepted friends, newest first. Used to build Redis timelines, for authors that are
+ * not fanned out, and as the whole feed when Redis is unavailable.
+ * Post IDs increase with creation time, so they double as the sort and cursor key.
+ */
+public class FeedRepository {
+    /**
+     * @param beforePostId Only return posts with a smaller ID; Long.MAX_VALUE for the first page
+     */
+    public List<Long> listFeedPostIds(long viewerId, long beforePostId, int limit) throws SQLException {
+        String query = "SELECT p.post_id FROM posts p " +
+                "WHERE (p.user_id = ? OR p.user_id IN (" + FriendshipRepository.ACCEPTED_FRIEND_IDS + ")) " +
+                "AND p.post_id < ? " +
+                "ORDER BY p.post_id DESC LIMIT ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setLong(1, viewerId);
+            stmt.setLong(2, viewerId);
+            stmt.setLong(3, viewerId);
+            stmt.setLong(4, beforePostId);
+            stmt.setInt(5, limit);
+
+            return readIds(stmt);
+        }
+    }
+
+    /**
+     * List recent posts by the given authors, restricted to the viewer's accepted friends
+     */
+    public List<Long> listFriendPostIdsByAuthors(long viewerId, Collection<Long> authorIds, long beforePostId, int limit) throws SQLException {
+        if (authorIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String inList = String.join(", ", Collections.nCopies(authorIds.size(), "?"));
+        String query = "SELECT p.post_id FROM posts p " +
+                "WHERE p.user_id IN (" + inList + ") " +
+                "AND p.user_id IN (" + FriendshipRepository.ACCEPTED_FRIEND_IDS + ") " +
+                "AND p.post_id < ? " +
+                "ORDER BY p.post_id DESC LIMIT ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int index = 1;
+            for (Long authorId : authorIds) {
+                stmt.setLong(index++, authorId);
+            }
+            stmt.setLong(index++, viewerId);
+            stmt.setLong(index++, viewerId);
+            stmt.setLong(index++, beforePostId);
+            stmt.setInt(index, limit);
+
+            return readIds(stmt);
+        }
+    }
+
+    private List<Long> readIds(PreparedStatement stmt) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+
+        return ids;
+    }
+}
@@ -0,0 +1,58 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.database.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads accepted friendships. A friendship row is stored once, from the user who sent
+ * the request, so both columns are checked.
+ */
+public class FriendshipRepository {
+    /**
+     * Subquery selecting the accepted friends of one user; bind the user ID twice
+     */
+    static final String ACCEPTED_FRIEND_IDS =
+            "SELECT f.friend_id FROM friendships f WHERE f.user_id = ? AND f.status = 'accepted' " +
+            "UNION " +
+            "SELECT f.user_id FROM friendships f WHERE f.friend_id = ? AND f.status = 'accepted'";
+
+    public long countAcceptedFriends(long userId) throws SQLException {
+        String query = "SELECT COUNT(*) FROM (" + ACCEPTED_FRIEND_IDS + ") friends";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setLong(1, userId);
+            stmt.setLong(2, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    public List<Long> getAcceptedFriendIds(long userId) throws SQLException {
+        List<Long> friendIds = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ACCEPTED_FRIEND_IDS)) {
+
+            stmt.setLong(1, userId);
+            stmt.setLong(2, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    friendIds.add(rs.getLong(1));
+                }
+            }
+        }
+
+        return friendIds;
+    }
+}
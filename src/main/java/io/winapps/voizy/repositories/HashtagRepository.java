@@ -0,0 +1,153 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.database.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class HashtagRepository {
+    /**
+     * Strip the leading '#', drop empty tags, and dedupe case-insensitively to match
+     * the hashtags.tag collation. Keys are sorted so concurrent upserts lock the unique
+     * index in the same order and cannot deadlock each other.
+     * @return Tags keyed by their normalized (lower-cased) form, keeping the first spelling seen
+     */
+    public static Map<String, String> normalizeHashtags(List<String> hashtags) {
+        Map<String, String> tagsByKey = new TreeMap<>();
+
+        for (String tag : hashtags) {
+            if (tag == null) {
+                continue;
+            }
+
+            String cleanedTag = !tag.isEmpty() && tag.charAt(0) == '#' ? tag.substring(1) : tag;
+            if (cleanedTag.isEmpty()) {
+                continue;
+            }
+
+            tagsByKey.putIfAbsent(normalizeKey(cleanedTag), cleanedTag);
+        }
+
+        return tagsByKey;
+    }
+
+    public static String normalizeKey(String tag) {
+        return tag.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Make sure every tag exists and return their IDs, using one multi-row upsert
+     * and one SELECT ... IN regardless of the number of tags.
+     * Safe when another node creates the same tag concurrently: the unique index
+     * makes both upserts land on one row, and the locking read sees it committed.
+     * @param conn Connection of the surrounding transaction
+     * @param tagsByKey Tags keyed by normalized form, as returned by normalizeHashtags
+     * @return Hashtag IDs keyed by normalized form
+     */
+    public Map<String, Long> resolveHashtagIds(Connection conn, Map<String, String> tagsByKey) throws SQLException {
+        if (tagsByKey.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(tagsByKey.size(), "(?)"));
+        // No-op update keeps the existing spelling instead of rewriting the row
+        String upsertTagsQuery = "INSERT INTO hashtags (tag) VALUES " + placeholders +
+                " ON DUPLICATE KEY UPDATE hashtag_id = hashtag_id";
+
+        try (PreparedStatement stmt = conn.prepareStatement(upsertTagsQuery)) {
+            int index = 1;
+            for (String tag : tagsByKey.values()) {
+                stmt.setString(index++, tag);
+            }
+            stmt.executeUpdate();
+        }
+
+        String inList = String.join(", ", Collections.nCopies(tagsByKey.size(), "?"));
+        // The upsert already holds these rows exclusively, so a locking read costs nothing
+        // extra and always sees the latest committed row, whatever the transaction's snapshot
+        String selectTagsQuery = "SELECT hashtag_id, tag FROM hashtags WHERE tag IN (" + inList + ") LOCK IN SHARE MODE";
+
+        Map<String, Long> idsByKey = new HashMap<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(selectTagsQuery)) {
+            int index = 1;
+            for (String tag : tagsByKey.values()) {
+                stmt.setString(index++, tag);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String key = normalizeKey(rs.getString("tag"));
+                    if (tagsByKey.containsKey(key)) {
+                        idsByKey.put(key, rs.getLong("hashtag_id"));
+                    }
+                }
+            }
+        }
+
+        // The collation may also fold accents, so a stored spelling can differ from the
+        // requested one by more than case; look those up individually
+        if (idsByKey.size() < tagsByKey.size()) {
+            String selectTagQuery = "SELECT hashtag_id FROM hashtags WHERE tag = ? LIMIT 1 LOCK IN SHARE MODE";
+
+            try (PreparedStatement stmt = conn.prepareStatement(selectTagQuery)) {
+                for (Map.Entry<String, String> entry : tagsByKey.entrySet()) {
+                    if (idsByKey.containsKey(entry.getKey())) {
+                        continue;
+                    }
+
+                    stmt.setString(1, entry.getValue());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            idsByKey.put(entry.getKey(), rs.getLong("hashtag_id"));
+                        }
+                    }
+                }
+            }
+        }
+
+        return idsByKey;
+    }
+
+    /**
+     * Load the most used hashtags among recent posts
+     * @param recentWindow Number of most recent post_hashtags rows to consider
+     * @param limit Maximum number of hashtags to return
+     * @return Hashtag IDs keyed by normalized tag
+     */
+    public Map<String, Long> loadPopularHashtags(int recentWindow, int limit) throws SQLException {
+        String query = "SELECT h.hashtag_id, h.tag " +
+                "FROM hashtags h " +
+                "JOIN (" +
+                "  SELECT recent.hashtag_id, COUNT(*) AS uses " +
+                "  FROM (SELECT hashtag_id FROM post_hashtags ORDER BY post_hashtag_id DESC LIMIT ?) recent " +
+                "  GROUP BY recent.hashtag_id " +
+                "  ORDER BY uses DESC " +
+                "  LIMIT ?" +
+                ") top ON top.hashtag_id = h.hashtag_id";
+
+        Map<String, Long> idsByKey = new HashMap<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, recentWindow);
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    idsByKey.put(normalizeKey(rs.getString("tag")), rs.getLong("hashtag_id"));
+                }
+            }
+        }
+
+        return idsByKey;
+    }
+}
@@ -0,0 +1,262 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.util.EnvUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the denormalized post_counters table read by listPosts, and the sharded
+ * post_reaction_counts table read by /posts/reactions. total_reactions is written
+ * behind by PostReactionTotals rather than in the reaction transaction.
+ * Writers call the increment methods with their own connection so the counter
+ * changes commit or roll back together with the row they describe.
+ */
+public class PostCountersRepository {
+    private static final Logger logger = LoggerFactory.getLogger(PostCountersRepository.class);
+    private static final long REBUILD_CHUNK_SIZE = 1000;
+    private static final int REACTION_COUNT_SHARDS = Math.max(1, EnvUtil.getInt("REACTION_COUNT_SHARDS", 16));
+    private static final int REACTION_TOTALS_CHUNK_SIZE = 500;
+
+    /**
+     * Apply one user's reaction count changes for one post, e.g. -1 for the old type and +1
+     * for the new one when they change their reaction. A user's changes always go to the
+     * shard picked by their user ID, so concurrent reactions from different users to the
+     * same post mostly lock different rows, and removing a reaction takes it off the shard
+     * it was added to. Types are updated in sorted order so two transactions never lock the
+     * same rows in opposite orders. Only the sum over shards is meaningful; a shard can go
+     * negative after REACTION_COUNT_SHARDS changes.
+     * @param deltas Count change by reaction type
+     */
+    public void incrementReactionCounts(Connection conn, long postId, long userId, Map<String, Long> deltas) throws SQLException {
+        String query = "INSERT INTO post_reaction_counts (post_id, reaction_type, shard, reaction_count) VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE reaction_count = reaction_count + VALUES(reaction_count)";
+        int shard = shardOf(userId);
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            for (Map.Entry<String, Long> delta : new TreeMap<>(deltas).entrySet()) {
+                if (delta.getValue() == 0) {
+                    continue;
+                }
+                stmt.setLong(1, postId);
+                stmt.setString(2, delta.getKey());
+                stmt.setInt(3, shard);
+                stmt.setLong(4, delta.getValue());
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    static int shardOf(long userId) {
+        return (int) Math.floorMod(userId, (long) REACTION_COUNT_SHARDS);
+    }
+
+    /**
+     * Add reaction count changes to post_counters.total_reactions, in one transaction.
+     * Posts are written in ascending ID order, REACTION_TOTALS_CHUNK_SIZE per statement,
+     * so concurrent flushers cannot deadlock. Rows are created for posts that have none;
+     * deltas for deleted posts are dropped.
+     * @param deltas Change by post ID
+     * @return Rows updated
+     */
+    public long addReactionTotals(Map<Long, Long> deltas) throws SQLException {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(new TreeMap<>(deltas).entrySet());
+
+        Connection conn = null;
+        try {
+            conn = DatabaseManager.getConnection();
+            conn.setAutoCommit(false);
+
+            long updated = 0;
+            for (int start = 0; start < entries.size(); start += REACTION_TOTALS_CHUNK_SIZE) {
+                updated += addReactionTotalsChunk(conn, entries.subList(start, Math.min(start + REACTION_TOTALS_CHUNK_SIZE, entries.size())));
+            }
+
+            conn.commit();
+            return updated;
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    logger.error("Error rolling back transaction", rollbackEx);
+                }
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error("Error closing connection", e);
+                }
+            }
+        }
+    }
+
+    private int addReactionTotalsChunk(Connection conn, List<Map.Entry<Long, Long>> chunk) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+        // IGNORE also skips posts deleted since their reactions were counted
+        String createQuery = "INSERT IGNORE INTO post_counters (post_id) VALUES " +
+                String.join(", ", Collections.nCopies(chunk.size(), "(?)"));
+        String updateQuery = "UPDATE post_counters SET total_reactions = GREATEST(total_reactions + CASE post_id" +
+                String.join("", Collections.nCopies(chunk.size(), " WHEN ? THEN ?")) + " ELSE 0 END, 0) " +
+                "WHERE post_id IN (" + placeholders + ")";
+
+        try (PreparedStatement createStmt = conn.prepareStatement(createQuery);
+             PreparedStatement updateStmt = conn.prepareStatement(updateQuery)) {
+            int index = 1;
+            for (Map.Entry<Long, Long> entry : chunk) {
+                createStmt.setLong(index++, entry.getKey());
+            }
+            createStmt.executeUpdate();
+
+            index = 1;
+            for (Map.Entry<Long, Long> entry : chunk) {
+                updateStmt.setLong(index++, entry.getKey());
+                updateStmt.setLong(index++, entry.getValue());
+            }
+            for (Map.Entry<Long, Long> entry : chunk) {
+                updateStmt.setLong(index++, entry.getKey());
+            }
+            return updateStmt.executeUpdate();
+        }
+    }
+
+    public void incrementComments(Connection conn, long postId, long delta) throws SQLException {
+        increment(conn, "total_comments", postId, delta);
+    }
+
+    public void incrementShares(Connection conn, long postId, long delta) throws SQLException {
+        increment(conn, "total_post_shares", postId, delta);
+    }
+
+    private void increment(Connection conn, String column, long postId, long delta) throws SQLException {
+        String query = "INSERT INTO post_counters (post_id, " + column + ") VALUES (?, GREATEST(?, 0)) " +
+                "ON DUPLICATE KEY UPDATE " + column + " = GREATEST(" + column + " + ?, 0)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, postId);
+            stmt.setLong(2, delta);
+            stmt.setLong(3, delta);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Populate post_counters from the source tables if it is empty but posts exist,
+     * e.g. the first boot after the table was introduced.
+     */
+    public void backfillIfEmpty() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            if (hasRows(conn, "SELECT 1 FROM post_counters LIMIT 1") || !hasRows(conn, "SELECT 1 FROM posts LIMIT 1")) {
+                return;
+            }
+        }
+
+        logger.info("post_counters is empty; backfilling from source tables");
+        rebuildAll();
+    }
+
+    /**
+     * Rebuild every post's counters from post_reactions, comments and post_shares.
+     * Works through posts in primary-key chunks so no single statement holds locks
+     * across the whole table. Reaction counts of a chunk are replaced in one transaction,
+     * collapsed into shard 0. Writes that race with a chunk may be off by one until
+     * the next rebuild.
+     */
+    public void rebuildAll() throws SQLException {
+        String rangeQuery = "SELECT MIN(post_id), MAX(post_id) FROM posts";
+        String rebuildQuery = "INSERT INTO post_counters (post_id, total_reactions, total_comments, total_post_shares) " +
+                "SELECT p.post_id, " +
+                "(SELECT COUNT(*) FROM post_reactions pr WHERE pr.post_id = p.post_id), " +
+                "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.post_id), " +
+                "(SELECT COUNT(*) FROM post_shares ps WHERE ps.post_id = p.post_id) " +
+                "FROM posts p WHERE p.post_id BETWEEN ? AND ? " +
+                "ON DUPLICATE KEY UPDATE " +
+                "total_reactions = VALUES(total_reactions), " +
+                "total_comments = VALUES(total_comments), " +
+                "total_post_shares = VALUES(total_post_shares)";
+
+        long startTime = System.currentTimeMillis();
+        long rowsAffected = 0;
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            long minId, maxId;
+            try (PreparedStatement stmt = conn.prepareStatement(rangeQuery);
+                 ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getObject(1) == null) {
+                    logger.info("No posts found; nothing to rebuild in post_counters");
+                    return;
+                }
+                minId = rs.getLong(1);
+                maxId = rs.getLong(2);
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(rebuildQuery)) {
+                for (long chunkStart = minId; chunkStart <= maxId; chunkStart += REBUILD_CHUNK_SIZE) {
+                    stmt.setLong(1, chunkStart);
+                    stmt.setLong(2, chunkStart + REBUILD_CHUNK_SIZE - 1);
+                    rowsAffected += stmt.executeUpdate();
+                }
+            }
+
+            for (long chunkStart = minId; chunkStart <= maxId; chunkStart += REBUILD_CHUNK_SIZE) {
+                rowsAffected += rebuildReactionCounts(conn, chunkStart, chunkStart + REBUILD_CHUNK_SIZE - 1);
+            }
+        }
+
+        logger.info("Rebuilt post_counters in {} ms ({} rows affected)",
+                System.currentTimeMillis() - startTime, rowsAffected);
+    }
+
+    private long rebuildReactionCounts(Connection conn, long fromPostId, long toPostId) throws SQLException {
+        String deleteQuery = "DELETE FROM post_reaction_counts WHERE post_id BETWEEN ? AND ?";
+        String insertQuery = "INSERT INTO post_reaction_counts (post_id, reaction_type, shard, reaction_count) " +
+                "SELECT post_id, reaction_type, 0, COUNT(*) FROM post_reactions " +
+                "WHERE post_id BETWEEN ? AND ? GROUP BY post_id, reaction_type";
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement deleteStmt = conn.prepareStatement(deleteQuery);
+             PreparedStatement insertStmt = conn.prepareStatement(insertQuery)) {
+            deleteStmt.setLong(1, fromPostId);
+            deleteStmt.setLong(2, toPostId);
+            deleteStmt.executeUpdate();
+
+            insertStmt.setLong(1, fromPostId);
+            insertStmt.setLong(2, toPostId);
+            long rows = insertStmt.executeUpdate();
+
+            conn.commit();
+            return rows;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private boolean hasRows(Connection conn, String query) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next();
+        }
+    }
+}
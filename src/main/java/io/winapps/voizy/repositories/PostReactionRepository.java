@@ -0,0 +1,261 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.database.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes post_reactions, keeping the sharded per-type counts in
+ * post_reaction_counts in the same transaction. post_counters.total_reactions is
+ * not touched here; PostService records the change in PostReactionTotals, which adds
+ * it to that row later, so new reactions to one post never queue on a single row.
+ */
+public class PostReactionRepository {
+    private static final Logger logger = LoggerFactory.getLogger(PostReactionRepository.class);
+    private static final int MYSQL_ER_DUP_ENTRY = 1062;
+    private static final int MYSQL_ER_LOCK_DEADLOCK = 1213;
+    private static final int MYSQL_ER_NO_REFERENCED_ROW = 1452;
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * Values of the post_reactions.reaction_type ENUM, in declaration order
+     */
+    public static final Set<String> REACTION_TYPES = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            "like", "love", "laugh", "congratulate", "shocked", "sad", "angry")));
+
+    private final PostCountersRepository postCountersRepository = new PostCountersRepository();
+
+    /**
+     * Set a user's reaction to a post, replacing any previous one. Setting the reaction
+     * the user already has writes nothing, so clients can safely retry.
+     * @param reactionType New reaction, or null to remove the user's reaction
+     * @return The user's reaction before this call, or null if there was none
+     * @throws IllegalArgumentException if the post does not exist
+     */
+    public String setReaction(long postId, long userId, String reactionType) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Outcome outcome = setReactionOnce(postId, userId, reactionType);
+                if (outcome != null) {
+                    return outcome.previous;
+                }
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new SQLException("Reaction by user " + userId + " on post " + postId + " kept changing concurrently");
+                }
+            } catch (SQLException e) {
+                // Two requests from the same user can still deadlock upgrading their locks on
+                // that user's row; the loser sees the winner's row on the next attempt
+                if (e.getErrorCode() != MYSQL_ER_LOCK_DEADLOCK || attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Retrying reaction by user {} on post {} after: {}", userId, postId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The user's row is only ever locked when it exists: a first reaction is a plain INSERT,
+     * and the existing row is read and locked only after that INSERT hits the unique key.
+     * A locking read of a missing row would take a gap lock under REPEATABLE READ, and
+     * first reactions from users whose IDs fall in the same gap would then deadlock on
+     * their inserts.
+     * @return The user's previous reaction, or null if the row changed underneath and
+     *         the attempt must be repeated
+     */
+    private Outcome setReactionOnce(long postId, long userId, String reactionType) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseManager.getConnection();
+            conn.setAutoCommit(false);
+
+            String previous;
+            boolean written;
+            if (reactionType != null) {
+                if (insertReaction(conn, postId, userId, reactionType)) {
+                    previous = null;
+                    written = true;
+                } else {
+                    // The failed INSERT share-locked the existing row, so it is still there
+                    previous = selectReactionForUpdate(conn, postId, userId);
+                    if (previous == null) {
+                        conn.rollback();
+                        return null;
+                    }
+                    written = !previous.equals(reactionType) && updateReaction(conn, postId, userId, reactionType) == 1;
+                }
+            } else {
+                previous = selectReaction(conn, postId, userId);
+                if (previous == null) {
+                    conn.commit();
+                    return new Outcome(null);
+                }
+                if (deleteReaction(conn, postId, userId, previous) != 1) {
+                    conn.rollback();
+                    return null;
+                }
+                written = true;
+            }
+
+            if (written) {
+                Map<String, Long> deltas = new HashMap<>();
+                if (previous != null) {
+                    deltas.merge(previous, -1L, Long::sum);
+                }
+                if (reactionType != null) {
+                    deltas.merge(reactionType, 1L, Long::sum);
+                }
+                postCountersRepository.incrementReactionCounts(conn, postId, userId, deltas);
+            }
+
+            conn.commit();
+            return new Outcome(previous);
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    logger.error("Error rolling back transaction", rollbackEx);
+                }
+            }
+            if (e.getErrorCode() == MYSQL_ER_NO_REFERENCED_ROW) {
+                throw new IllegalArgumentException("Post not found: " + postId);
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error("Error closing connection", e);
+                }
+            }
+        }
+    }
+
+    private static final class Outcome {
+        private final String previous;
+
+        private Outcome(String previous) {
+            this.previous = previous;
+        }
+    }
+
+    private String selectReaction(Connection conn, long postId, long userId) throws SQLException {
+        return selectReaction(conn, "SELECT reaction_type FROM post_reactions WHERE post_id = ? AND user_id = ?", postId, userId);
+    }
+
+    private String selectReactionForUpdate(Connection conn, long postId, long userId) throws SQLException {
+        return selectReaction(conn, "SELECT reaction_type FROM post_reactions WHERE post_id = ? AND user_id = ? FOR UPDATE", postId, userId);
+    }
+
+    private String selectReaction(Connection conn, String query, long postId, long userId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, postId);
+            stmt.setLong(2, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("reaction_type") : null;
+            }
+        }
+    }
+
+    /**
+     * @return True if the row was inserted, false if the user already has a reaction to the post
+     */
+    private boolean insertReaction(Connection conn, long postId, long userId, String reactionType) throws SQLException {
+        String query = "INSERT INTO post_reactions (post_id, user_id, reaction_type) VALUES (?, ?, ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, postId);
+            stmt.setLong(2, userId);
+            stmt.setString(3, reactionType);
+            return stmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            if (e.getErrorCode() == MYSQL_ER_DUP_ENTRY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private int updateReaction(Connection conn, long postId, long userId, String reactionType) throws SQLException {
+        String query = "UPDATE post_reactions SET reaction_type = ?, reacted_at = CURRENT_TIMESTAMP " +
+                "WHERE post_id = ? AND user_id = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, reactionType);
+            stmt.setLong(2, postId);
+            stmt.setLong(3, userId);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Delete the user's reaction only if it is still the one read, so the deltas match what was removed
+     */
+    private int deleteReaction(Connection conn, long postId, long userId, String reactionType) throws SQLException {
+        String query = "DELETE FROM post_reactions WHERE post_id = ? AND user_id = ? AND reaction_type = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, postId);
+            stmt.setLong(2, userId);
+            stmt.setString(3, reactionType);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Get the reaction counts of several posts with a single query, summing each type's shards
+     * @param postIds Post IDs to look up
+     * @return Counts by reaction type keyed by post ID, in request order; types nobody chose
+     *         are left out, and posts without reactions map to empty maps
+     */
+    public Map<Long, Map<String, Long>> getReactionCounts(List<Long> postIds) throws SQLException {
+        Map<Long, Map<String, Long>> countsByPostId = new LinkedHashMap<>();
+        for (long postId : postIds) {
+            countsByPostId.put(postId, new LinkedHashMap<>());
+        }
+
+        if (countsByPostId.isEmpty()) {
+            return countsByPostId;
+        }
+
+        String inList = String.join(", ", Collections.nCopies(countsByPostId.size(), "?"));
+        String query = "SELECT post_id, reaction_type, SUM(reaction_count) AS total FROM post_reaction_counts " +
+                "WHERE post_id IN (" + inList + ") " +
+                "GROUP BY post_id, reaction_type HAVING total > 0 " +
+                "ORDER BY post_id, reaction_type";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int index = 1;
+            for (long postId : countsByPostId.keySet()) {
+                stmt.setLong(index++, postId);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    countsByPostId.get(rs.getLong("post_id")).put(rs.getString("reaction_type"), rs.getLong("total"));
+                }
+            }
+        }
+
+        return countsByPostId;
+    }
+}
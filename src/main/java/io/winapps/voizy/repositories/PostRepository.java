@@ -1,5 +1,7 @@
 package io.winapps.voizy.repositories;
 
+import io.winapps.voizy.cache.HashtagDictionary;
+import io.winapps.voizy.cache.UserStatsCache;
 import io.winapps.voizy.database.DatabaseManager;
 import io.winapps.voizy.models.posts.CreatePostRequest;
 import io.winapps.voizy.models.posts.GetPostMediaResponse;
@@ -8,85 +10,213 @@ import io.winapps.voizy.util.SqlNullUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class PostRepository {
     private static final Logger logger = LoggerFactory.getLogger(PostRepository.class);
-
+    private static final int MYSQL_ER_NO_REFERENCED_ROW = 1452;
+    private static final int ENGAGEMENT_CHUNK_SIZE = 500;
+    private final PostCountersRepository postCountersRepository = new PostCountersRepository();
+    private final HashtagRepository hashtagRepository = new HashtagRepository();
+    private final UserStatsRepository userStatsRepository = new UserStatsRepository();
+
+    private static final String LIST_POSTS_SELECT = "SELECT " +
+            "p.post_id, " +
+            "p.user_id, " +
+            "p.to_user_id, " +
+            "p.original_post_id, " +
+            "p.impressions, " +
+            "p.views, " +
+            "p.content_text, " +
+            "p.created_at, " +
+            "p.updated_at, " +
+            "p.location_name, " +
+            "p.location_lat, " +
+            "p.location_lng, " +
+            "p.is_poll, " +
+            "p.poll_question, " +
+            "p.poll_duration_type, " +
+            "p.poll_duration_length, " +
+            "u.username, " +
+            "up.first_name, " +
+            "up.last_name, " +
+            "up.preferred_name, " +
+            "pr_user.reaction_type AS user_reaction, " +
+            "COALESCE(pc.total_reactions, 0) AS total_reactions, " +
+            "COALESCE(pc.total_comments, 0) AS total_comments, " +
+            "COALESCE(pc.total_post_shares, 0) AS total_post_shares " +
+            "FROM posts p LEFT JOIN users u ON u.user_id = p.user_id " +
+            "LEFT JOIN post_counters pc ON pc.post_id = p.post_id " +
+            "LEFT JOIN user_profiles up ON up.user_id = p.user_id " +
+            "LEFT JOIN post_reactions pr_user ON pr_user.post_id = p.post_id AND pr_user.user_id = ? ";
+
+    /**
+     * Count the posts listPosts returns for a user, from the trigger-maintained user_stats
+     * row rather than a COUNT(*) over posts
+     */
     public long getTotalPostsCount(long userId) throws SQLException {
-        String countQuery = "SELECT COUNT(*) FROM posts WHERE user_id = ?";
+        return UserStatsCache.getTimelinePostCount(userId, () -> userStatsRepository.getTimelinePostCount(userId));
+    }
+
+    public List<ListPost> listPosts(long userId, long limit, long offset) throws SQLException {
+        List<ListPost> posts = new ArrayList<>();
 
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(countQuery)) {
+             PreparedStatement stmt = prepareListPosts(conn, userId, limit, offset);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                ListPost post = mapResultSetToPost(rs);
+                posts.add(post);
+            }
+        }
+
+        return posts;
+    }
 
-            stmt.setLong(1, userId);
+    /**
+     * List posts that sort strictly after the given (created_at, post_id) key.
+     * Seeks straight to the next page instead of scanning and discarding earlier rows.
+     */
+    public List<ListPost> listPostsBefore(long userId, long limit, LocalDateTime createdAt, long postId) throws SQLException {
+        List<ListPost> posts = new ArrayList<>();
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong(1);
-                }
-                return 0;
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = prepareListPostsBefore(conn, userId, limit, createdAt, postId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                ListPost post = mapResultSetToPost(rs);
+                posts.add(post);
             }
         }
+
+        return posts;
     }
 
-    public List<ListPost> listPosts(long userId, long limit, long offset) throws SQLException {
-        String selectQuery = "SELECT " +
-                "p.post_id, " +
-                "p.user_id, " +
-                "p.to_user_id, " +
-                "p.original_post_id, " +
-                "p.impressions, " +
-                "p.views, " +
-                "p.content_text, " +
-                "p.created_at, " +
-                "p.updated_at, " +
-                "p.location_name, " +
-                "p.location_lat, " +
-                "p.location_lng, " +
-                "p.is_poll, " +
-                "p.poll_question, " +
-                "p.poll_duration_type, " +
-                "p.poll_duration_length, " +
-                "u.username, " +
-                "up.first_name, " +
-                "up.last_name, " +
-                "up.preferred_name, " +
-                "pr_user.reaction_type AS user_reaction, " +
-                "(SELECT COUNT(*) FROM post_reactions pr WHERE pr.post_id = p.post_id) AS total_reactions, " +
-                "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.post_id) AS total_comments, " +
-                "(SELECT COUNT(*) FROM post_shares ps WHERE ps.post_id = p.post_id) AS total_post_shares " +
-                "FROM posts p LEFT JOIN users u ON u.user_id = p.user_id " +
-                "LEFT JOIN user_profiles up ON up.user_id = p.user_id " +
-                "LEFT JOIN post_reactions pr_user ON pr_user.post_id = p.post_id AND pr_user.user_id = ? " +
+    @FunctionalInterface
+    public interface PostRowHandler {
+        void handle(ListPost post) throws IOException;
+    }
+
+    /**
+     * Same rows as listPosts, handed to the handler one at a time as they are read.
+     * The driver streams rows from the server instead of buffering the whole result,
+     * so memory use does not grow with the page size.
+     */
+    public void streamPosts(long userId, long limit, long offset, PostRowHandler handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = prepareListPosts(conn, userId, limit, offset)) {
+            stream(stmt, handler);
+        }
+    }
+
+    /**
+     * Same rows as listPostsBefore, handed to the handler one at a time as they are read
+     */
+    public void streamPostsBefore(long userId, long limit, LocalDateTime createdAt, long postId, PostRowHandler handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = prepareListPostsBefore(conn, userId, limit, createdAt, postId)) {
+            stream(stmt, handler);
+        }
+    }
+
+    private void stream(PreparedStatement stmt, PostRowHandler handler) throws SQLException, IOException {
+        // Connector/J's streaming mode; unlike useCursorFetch it needs no pool-wide setting
+        stmt.setFetchSize(Integer.MIN_VALUE);
+
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                handler.handle(mapResultSetToPost(rs));
+            }
+        }
+    }
+
+    private PreparedStatement prepareListPosts(Connection conn, long userId, long limit, long offset) throws SQLException {
+        String selectQuery = LIST_POSTS_SELECT +
                 "WHERE (p.user_id = ? OR p.to_user_id = ?) " +
-                "ORDER BY p.created_at DESC LIMIT ? OFFSET ?";
+                "ORDER BY p.created_at DESC, p.post_id DESC LIMIT ? OFFSET ?";
+
+        PreparedStatement stmt = conn.prepareStatement(selectQuery);
+        stmt.setLong(1, userId);
+        stmt.setLong(2, userId);
+        stmt.setLong(3, userId);
+        stmt.setLong(4, limit);
+        stmt.setLong(5, offset);
+        return stmt;
+    }
 
-        List<ListPost> posts = new ArrayList<>();
+    private PreparedStatement prepareListPostsBefore(Connection conn, long userId, long limit, LocalDateTime createdAt, long postId) throws SQLException {
+        String selectQuery = LIST_POSTS_SELECT +
+                "WHERE (p.user_id = ? OR p.to_user_id = ?) " +
+                "AND (p.created_at < ? OR (p.created_at = ? AND p.post_id < ?)) " +
+                "ORDER BY p.created_at DESC, p.post_id DESC LIMIT ?";
+
+        Timestamp createdAtTimestamp = Timestamp.valueOf(createdAt);
+
+        PreparedStatement stmt = conn.prepareStatement(selectQuery);
+        stmt.setLong(1, userId);
+        stmt.setLong(2, userId);
+        stmt.setLong(3, userId);
+        stmt.setTimestamp(4, createdAtTimestamp);
+        stmt.setTimestamp(5, createdAtTimestamp);
+        stmt.setLong(6, postId);
+        stmt.setLong(7, limit);
+        return stmt;
+    }
+
+    /**
+     * Load posts by ID for a viewer, in the order the IDs were given.
+     * IDs of posts that no longer exist are skipped.
+     */
+    public List<ListPost> getPostsByIds(long viewerId, List<Long> postIds) throws SQLException {
+        if (postIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String inList = String.join(", ", Collections.nCopies(postIds.size(), "?"));
+        String selectQuery = LIST_POSTS_SELECT + "WHERE p.post_id IN (" + inList + ")";
+
+        Map<Long, ListPost> postsById = new HashMap<>();
 
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(selectQuery)) {
 
-            stmt.setLong(1, userId);
-            stmt.setLong(2, userId);
-            stmt.setLong(3, userId);
-            stmt.setLong(4, limit);
-            stmt.setLong(5, offset);
+            stmt.setLong(1, viewerId);
+            int index = 2;
+            for (long postId : postIds) {
+                stmt.setLong(index++, postId);
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     ListPost post = mapResultSetToPost(rs);
-                    posts.add(post);
+                    postsById.put(post.getPostId(), post);
                 }
             }
         }
 
+        List<ListPost> posts = new ArrayList<>(postsById.size());
+        for (long postId : postIds) {
+            ListPost post = postsById.get(postId);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+
         return posts;
     }
 
-    private ListPost mapResultSetToPost(ResultSet rs) throws SQLException {
+    // Package-private for PostRowMappingBenchmark
+    ListPost mapResultSetToPost(ResultSet rs) throws SQLException {
         ListPost post = new ListPost();
 
         post.setPostId(rs.getLong("post_id"));
@@ -137,11 +267,15 @@ public class PostRepository {
                 insertPostMedia(conn, postId, request.getImages());
             }
 
+            Map<String, Long> newHashtagIds = Collections.emptyMap();
             if (request.getHashtags() != null && !request.getHashtags().isEmpty()) {
-                insertPostHashtags(conn, postId, request.getHashtags());
+                newHashtagIds = insertPostHashtags(conn, postId, request.getHashtags());
             }
 
             conn.commit();
+            HashtagDictionary.putAll(newHashtagIds);
+            UserStatsCache.invalidate(request.getUserId());
+            UserStatsCache.invalidate(request.getToUserId());
             return postId;
 
         } catch (SQLException e) {
@@ -262,6 +396,8 @@ public class PostRepository {
             stmt.setLong(2, userId);
             stmt.executeUpdate();
         }
+
+        postCountersRepository.incrementShares(conn, originalPostId, 1);
     }
 
     private void insertPollOptions(Connection conn, long postId, List<String> options) throws SQLException {
@@ -276,8 +412,10 @@ public class PostRepository {
             for (String option : options) {
                 stmt.setLong(1, postId);
                 stmt.setString(2, option);
-                stmt.executeUpdate();
+                stmt.addBatch();
             }
+            // Sent as one multi-row INSERT (rewriteBatchedStatements)
+            stmt.executeBatch();
         }
     }
 
@@ -293,89 +431,223 @@ public class PostRepository {
             for (String imageUrl : images) {
                 stmt.setLong(1, postId);
                 stmt.setString(2, imageUrl);
-                stmt.executeUpdate();
+                stmt.addBatch();
             }
+            stmt.executeBatch();
         }
     }
 
-    private void insertPostHashtags(Connection conn, long postId, List<String> hashtags) throws SQLException {
+    /**
+     * Link hashtags to a post. Tags already in the HashtagDictionary skip the hashtags
+     * table entirely; only unknown tags are upserted and looked up.
+     * @return IDs resolved from the database, to add to the dictionary once committed
+     */
+    private Map<String, Long> insertPostHashtags(Connection conn, long postId, List<String> hashtags) throws SQLException {
         if (hashtags == null || hashtags.isEmpty()) {
             logger.info("No hashtags were passed to insertPostHashtags");
-            return;
+            return Collections.emptyMap();
         }
 
-        String upsertTagQuery = "INSERT INTO hashtags (tag) VALUES (?) ON DUPLICATE KEY UPDATE tag=VALUES(tag)";
-        String selectTagQuery = "SELECT hashtag_id FROM hashtags WHERE tag = ? LIMIT 1";
-        String insertPostHashtagQuery = "INSERT INTO post_hashtags (post_id, hashtag_id) VALUES (?, ?)";
+        Map<String, String> tagsByKey = HashtagRepository.normalizeHashtags(hashtags);
+        if (tagsByKey.isEmpty()) {
+            return Collections.emptyMap();
+        }
 
-        try (
-                PreparedStatement upsertTagStmt = conn.prepareStatement(upsertTagQuery);
-                PreparedStatement selectTagStmt = conn.prepareStatement(selectTagQuery);
-                PreparedStatement insertPostHashtagStmt = conn.prepareStatement(insertPostHashtagQuery)
-        ) {
-            for (String tag : hashtags) {
-                String cleanedTag = tag;
-                if (cleanedTag != null && !cleanedTag.isEmpty() && cleanedTag.charAt(0) == '#') {
-                    cleanedTag = cleanedTag.substring(1);
-                }
+        Map<String, Long> idsByKey = HashtagDictionary.getAll(tagsByKey.keySet());
+        Map<String, Long> resolved = Collections.emptyMap();
+
+        if (idsByKey.size() < tagsByKey.size()) {
+            Map<String, String> unknownTags = new TreeMap<>(tagsByKey);
+            unknownTags.keySet().removeAll(idsByKey.keySet());
 
-                upsertTagStmt.setString(1, cleanedTag);
-                upsertTagStmt.executeUpdate();
+            resolved = hashtagRepository.resolveHashtagIds(conn, unknownTags);
+            idsByKey.putAll(resolved);
+        }
 
-                selectTagStmt.setString(1, cleanedTag);
-                try (ResultSet rs = selectTagStmt.executeQuery()) {
-                    if (rs.next()) {
-                        long tagId = rs.getLong("hashtag_id");
+        String insertPostHashtagQuery = "INSERT INTO post_hashtags (post_id, hashtag_id) VALUES (?, ?)";
 
-                        insertPostHashtagStmt.setLong(1, postId);
-                        insertPostHashtagStmt.setLong(2, tagId);
-                        insertPostHashtagStmt.executeUpdate();
-                    }
-                }
+        try (PreparedStatement stmt = conn.prepareStatement(insertPostHashtagQuery)) {
+            for (long hashtagId : new LinkedHashSet<>(idsByKey.values())) {
+                stmt.setLong(1, postId);
+                stmt.setLong(2, hashtagId);
+                stmt.addBatch();
             }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            if (e.getErrorCode() == MYSQL_ER_NO_REFERENCED_ROW) {
+                HashtagDictionary.invalidateAll(tagsByKey.keySet());
+            }
+            throw e;
         }
+
+        return resolved;
     }
 
     public GetPostMediaResponse getPostMedia(long postId) throws SQLException {
-        GetPostMediaResponse response = new GetPostMediaResponse();
+        GetPostMediaResponse response = emptyMediaResponse();
 
-        // Get images
-        List<String> images = new ArrayList<>();
-        String queryImages = "SELECT media_url FROM post_media WHERE post_id = ? AND media_type = 'image'";
+        // One query for both media types, split in Java
+        String query = "SELECT media_url, media_type FROM post_media WHERE post_id = ? ORDER BY media_id";
 
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(queryImages)) {
+             PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setLong(1, postId);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    String imageUrl = rs.getString("media_url");
-                    images.add(imageUrl);
+                    addMedia(response, rs.getString("media_type"), rs.getString("media_url"));
                 }
             }
         }
 
-        // Get videos
-        List<String> videos = new ArrayList<>();
-        String queryVideos = "SELECT media_url FROM post_media WHERE post_id = ? AND media_type = 'video'";
+        return response;
+    }
+
+    /**
+     * Get the media of several posts with a single query
+     * @param postIds Post IDs to look up
+     * @return Media keyed by post ID, in request order; posts without media map to empty lists
+     */
+    public Map<Long, GetPostMediaResponse> getPostMediaBatch(List<Long> postIds) throws SQLException {
+        Map<Long, GetPostMediaResponse> mediaByPostId = new LinkedHashMap<>();
+        for (long postId : postIds) {
+            mediaByPostId.put(postId, emptyMediaResponse());
+        }
+
+        if (mediaByPostId.isEmpty()) {
+            return mediaByPostId;
+        }
+
+        String inList = String.join(", ", Collections.nCopies(mediaByPostId.size(), "?"));
+        String query = "SELECT post_id, media_url, media_type FROM post_media " +
+                "WHERE post_id IN (" + inList + ") ORDER BY media_id";
 
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(queryVideos)) {
+             PreparedStatement stmt = conn.prepareStatement(query)) {
 
-            stmt.setLong(1, postId);
+            int index = 1;
+            for (long postId : mediaByPostId.keySet()) {
+                stmt.setLong(index++, postId);
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    String videoUrl = rs.getString("media_url");
-                    videos.add(videoUrl);
+                    GetPostMediaResponse response = mediaByPostId.get(rs.getLong("post_id"));
+                    addMedia(response, rs.getString("media_type"), rs.getString("media_url"));
                 }
             }
         }
 
-        response.setImages(images);
-        response.setVideos(videos);
+        return mediaByPostId;
+    }
+
+    /**
+     * Add impression and view deltas to posts in one transaction, one UPDATE per chunk of
+     * posts. Posts are updated in ID order so concurrent flushes from several nodes lock
+     * rows in the same order. Deltas for posts that do not exist are ignored.
+     * @return Rows updated
+     */
+    public long addEngagementCounts(Map<Long, Long> impressionDeltas, Map<Long, Long> viewDeltas) throws SQLException {
+        TreeMap<Long, long[]> deltas = new TreeMap<>();
+        impressionDeltas.forEach((postId, delta) -> deltas.computeIfAbsent(postId, k -> new long[2])[0] += delta);
+        viewDeltas.forEach((postId, delta) -> deltas.computeIfAbsent(postId, k -> new long[2])[1] += delta);
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<Long, long[]>> entries = new ArrayList<>(deltas.entrySet());
+        Connection conn = null;
+        try {
+            conn = DatabaseManager.getConnection();
+            conn.setAutoCommit(false);
 
+            long updated = 0;
+            for (int start = 0; start < entries.size(); start += ENGAGEMENT_CHUNK_SIZE) {
+                updated += addEngagementChunk(conn, entries.subList(start, Math.min(start + ENGAGEMENT_CHUNK_SIZE, entries.size())));
+            }
+
+            conn.commit();
+            return updated;
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    logger.error("Error rolling back transaction", rollbackEx);
+                }
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error("Error closing connection", e);
+                }
+            }
+        }
+    }
+
+    private int addEngagementChunk(Connection conn, List<Map.Entry<Long, long[]>> chunk) throws SQLException {
+        StringBuilder impressionsCase = new StringBuilder();
+        StringBuilder viewsCase = new StringBuilder();
+        for (Map.Entry<Long, long[]> entry : chunk) {
+            if (entry.getValue()[0] != 0) {
+                impressionsCase.append(" WHEN ? THEN ?");
+            }
+            if (entry.getValue()[1] != 0) {
+                viewsCase.append(" WHEN ? THEN ?");
+            }
+        }
+
+        // updated_at is ON UPDATE CURRENT_TIMESTAMP; keep it so counting does not look like an edit
+        String query = "UPDATE posts SET " +
+                "impressions = impressions + " + caseExpression(impressionsCase) + ", " +
+                "views = views + " + caseExpression(viewsCase) + ", " +
+                "updated_at = updated_at " +
+                "WHERE post_id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            int index = 1;
+            for (Map.Entry<Long, long[]> entry : chunk) {
+                if (entry.getValue()[0] != 0) {
+                    stmt.setLong(index++, entry.getKey());
+                    stmt.setLong(index++, entry.getValue()[0]);
+                }
+            }
+            for (Map.Entry<Long, long[]> entry : chunk) {
+                if (entry.getValue()[1] != 0) {
+                    stmt.setLong(index++, entry.getKey());
+                    stmt.setLong(index++, entry.getValue()[1]);
+                }
+            }
+            for (Map.Entry<Long, long[]> entry : chunk) {
+                stmt.setLong(index++, entry.getKey());
+            }
+
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static String caseExpression(StringBuilder whenClauses) {
+        return whenClauses.length() == 0 ? "0" : "CASE post_id" + whenClauses + " ELSE 0 END";
+    }
+
+    private static GetPostMediaResponse emptyMediaResponse() {
+        GetPostMediaResponse response = new GetPostMediaResponse();
+        response.setImages(new ArrayList<>());
+        response.setVideos(new ArrayList<>());
         return response;
     }
+
+    private static void addMedia(GetPostMediaResponse response, String mediaType, String mediaUrl) {
+        if ("image".equals(mediaType)) {
+            response.getImages().add(mediaUrl);
+        } else if ("video".equals(mediaType)) {
+            response.getVideos().add(mediaUrl);
+        }
+    }
 }
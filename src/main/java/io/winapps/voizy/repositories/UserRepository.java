@@ -1,16 +1,23 @@
 package io.winapps.voizy.repositories;
 
+import io.winapps.voizy.cache.ApiKeyCache;
 import io.winapps.voizy.database.DatabaseManager;
 import io.winapps.voizy.models.auth.User;
 import io.winapps.voizy.models.middleware.APIKey;
 import io.winapps.voizy.models.users.CreateUserRequest;
 import io.winapps.voizy.models.users.GetUserProfileResponse;
 import io.winapps.voizy.models.users.Profile;
+import io.winapps.voizy.models.users.UserSummary;
+import io.winapps.voizy.util.SqlNullUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 public class UserRepository {
     private static final Logger logger = LoggerFactory.getLogger(UserRepository.class);
@@ -104,6 +111,26 @@ public class UserRepository {
                 throw new SQLException("Failed to insert API key, affected rows: " + affected);
             }
         }
+
+        ApiKeyCache.invalidate(userId, apiKey.getKey());
+    }
+
+    /**
+     * Replace a user's password hash, only if it is still the expected one
+     * @return True if the hash was replaced
+     */
+    public boolean updatePasswordHash(long userId, String expectedHash, String newHash) throws SQLException {
+        String query = "UPDATE users SET password_hash = ?, updated_at = ? WHERE user_id = ? AND password_hash = ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, newHash);
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.setLong(3, userId);
+            stmt.setString(4, expectedHash);
+
+            return stmt.executeUpdate() == 1;
+        }
     }
 
     public User findByEmail(String email) throws SQLException {
@@ -170,4 +197,44 @@ public class UserRepository {
 
         return null;
     }
+
+    /**
+     * Look up the username and display names of several users with a single query
+     * @param userIds User IDs to look up
+     * @return Summaries keyed by user ID; users that do not exist are left out
+     */
+    public Map<Long, UserSummary> getUserSummaries(Collection<Long> userIds) throws SQLException {
+        Map<Long, UserSummary> summaries = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return summaries;
+        }
+
+        String inList = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+        String query = "SELECT u.user_id, u.username, up.first_name, up.last_name, up.preferred_name " +
+                "FROM users u LEFT JOIN user_profiles up ON up.user_id = u.user_id " +
+                "WHERE u.user_id IN (" + inList + ")";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int index = 1;
+            for (long userId : userIds) {
+                stmt.setLong(index++, userId);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    UserSummary summary = new UserSummary();
+                    summary.setUserId(rs.getLong("user_id"));
+                    summary.setUsername(SqlNullUtil.getString(rs, "username"));
+                    summary.setFirstName(SqlNullUtil.getString(rs, "first_name"));
+                    summary.setLastName(SqlNullUtil.getString(rs, "last_name"));
+                    summary.setPreferredName(SqlNullUtil.getString(rs, "preferred_name"));
+                    summaries.put(summary.getUserId(), summary);
+                }
+            }
+        }
+
+        return summaries;
+    }
 }
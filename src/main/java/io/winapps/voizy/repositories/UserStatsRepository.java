@@ -0,0 +1,82 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.database.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the per-user counters in user_stats.
+ * The counters are maintained by triggers on posts (see Migrations V6), so writers
+ * do not need to touch this table themselves.
+ */
+public class UserStatsRepository {
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsRepository.class);
+    private static final long REBUILD_CHUNK_SIZE = 1000;
+
+    /**
+     * @return Number of posts authored by or addressed to the user, i.e. what listPosts returns
+     */
+    public long getTimelinePostCount(long userId) throws SQLException {
+        String query = "SELECT timeline_posts FROM user_stats WHERE user_id = ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setLong(1, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Recount every user's timeline_posts from posts.
+     * Works through users in primary-key chunks so no single statement holds locks
+     * across the whole table. Posts created while a chunk runs may be off by one until
+     * the next rebuild.
+     */
+    public void rebuildAll() throws SQLException {
+        String rangeQuery = "SELECT MIN(user_id), MAX(user_id) FROM users";
+        String rebuildQuery = "INSERT INTO user_stats (user_id, timeline_posts) " +
+                "SELECT u.user_id, " +
+                "(SELECT COUNT(*) FROM posts p WHERE p.user_id = u.user_id OR p.to_user_id = u.user_id) " +
+                "FROM users u WHERE u.user_id BETWEEN ? AND ? " +
+                "ON DUPLICATE KEY UPDATE timeline_posts = VALUES(timeline_posts)";
+
+        long startTime = System.currentTimeMillis();
+        long rowsAffected = 0;
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            long minId, maxId;
+            try (PreparedStatement stmt = conn.prepareStatement(rangeQuery);
+                 ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getObject(1) == null) {
+                    logger.info("No users found; nothing to rebuild in user_stats");
+                    return;
+                }
+                minId = rs.getLong(1);
+                maxId = rs.getLong(2);
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(rebuildQuery)) {
+                for (long chunkStart = minId; chunkStart <= maxId; chunkStart += REBUILD_CHUNK_SIZE) {
+                    stmt.setLong(1, chunkStart);
+                    stmt.setLong(2, chunkStart + REBUILD_CHUNK_SIZE - 1);
+                    rowsAffected += stmt.executeUpdate();
+                }
+            }
+        }
+
+        logger.info("Rebuilt user_stats in {} ms ({} rows affected)",
+                System.currentTimeMillis() - startTime, rowsAffected);
+    }
+}
@@ -7,6 +7,7 @@ import io.winapps.voizy.repositories.UserRepository;
 import io.winapps.voizy.util.AnalyticsUtil;
 import io.winapps.voizy.util.HashingUtil;
 import io.winapps.voizy.util.JwtUtil;
+import io.winapps.voizy.util.ServiceUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +42,10 @@ public class AuthService {
 
             String token = null;
             if (isPasswordCorrect) {
+                if (HashingUtil.needsRehash(user.getPasswordHash())) {
+                    scheduleRehash(user, request.getPassword() + user.getSalt());
+                }
+
                 token = JwtUtil.generateAndStoreJWT(String.valueOf(user.getUserID()), "always");
 
                 Map<String, Object> metadata = new HashMap<>();
@@ -51,12 +56,33 @@ public class AuthService {
 
             return buildLoginResponse(user, isPasswordCorrect, token);
 
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error during login", e);
             throw new Exception("Login failed: " + e.getMessage());
         }
     }
 
+    /**
+     * Upgrade a hash made at an older BCRYPT_COST. The login does not wait for it, and the
+     * update is skipped if the password changed while the new hash was computed.
+     */
+    private void scheduleRehash(User user, String saltedPassword) {
+        long userId = user.getUserID();
+        String oldHash = user.getPasswordHash();
+
+        HashingUtil.rehashInBackground(saltedPassword, newHash -> {
+            try {
+                if (userRepository.updatePasswordHash(userId, oldHash, newHash)) {
+                    logger.info("Rehashed password for user {} at cost {}", userId, HashingUtil.getCost());
+                }
+            } catch (SQLException e) {
+                logger.error("Error storing rehashed password for user {}", userId, e);
+            }
+        });
+    }
+
     private User findUserByEmailOrUsername(LoginRequest request) throws SQLException {
         if (request.getEmail() != null && !request.getEmail().isEmpty()) {
             return userRepository.findByEmail(request.getEmail());
@@ -0,0 +1,137 @@
+package io.winapps.voizy.services;
+
+import io.winapps.voizy.models.comments.Comment;
+import io.winapps.voizy.models.comments.CreateCommentRequest;
+import io.winapps.voizy.models.comments.CreateCommentResponse;
+import io.winapps.voizy.models.comments.ListCommentsResponse;
+import io.winapps.voizy.models.users.UserSummary;
+import io.winapps.voizy.repositories.CommentRepository;
+import io.winapps.voizy.repositories.UserRepository;
+import io.winapps.voizy.util.AnalyticsUtil;
+import io.winapps.voizy.util.CursorUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CommentService {
+    private static final Logger logger = LoggerFactory.getLogger(CommentService.class);
+    private final CommentRepository commentRepository;
+    private final UserRepository userRepository;
+
+    public CommentService() {
+        this(new CommentRepository(), new UserRepository());
+    }
+
+    public CommentService(CommentRepository commentRepository, UserRepository userRepository) {
+        this.commentRepository = commentRepository;
+        this.userRepository = userRepository;
+    }
+
+    public CreateCommentResponse createComment(long userId, CreateCommentRequest request) throws Exception {
+        try {
+            long commentId = commentRepository.createComment(userId, request);
+
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("comment_id", commentId);
+            if (request.getParentCommentId() != null) {
+                metadata.put("parent_comment_id", request.getParentCommentId());
+            }
+            AnalyticsUtil.trackEvent(userId, "create_comment", "post", request.getPostId(), metadata);
+
+            CreateCommentResponse response = new CreateCommentResponse();
+            response.setSuccess(true);
+            response.setMessage("Comment created successfully");
+            response.setCommentId(commentId);
+
+            return response;
+        } catch (IllegalArgumentException e) {
+            logger.error("Validation error while creating comment", e);
+            CreateCommentResponse response = new CreateCommentResponse();
+            response.setSuccess(false);
+            response.setMessage(e.getMessage());
+            return response;
+        } catch (SQLException e) {
+            logger.error("Database error while creating comment", e);
+            throw new Exception("Failed to create comment: " + e.getMessage());
+        }
+    }
+
+    /**
+     * List one page of a post's top-level comments, or of one comment's replies, oldest first.
+     * Authors are looked up with one query for the whole page, and so are reply counts.
+     * @param parentCommentId Comment whose replies to list, or null for top-level comments
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public ListCommentsResponse listComments(long postId, Long parentCommentId, int limit, String cursor) throws Exception {
+        LocalDateTime afterCreatedAt = null;
+        long afterCommentId = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            CursorUtil.Cursor decodedCursor = CursorUtil.decode(cursor);
+            afterCreatedAt = decodedCursor.getCreatedAt();
+            afterCommentId = decodedCursor.getId();
+        }
+
+        try {
+            List<Comment> comments = commentRepository.listComments(postId, parentCommentId, limit, afterCreatedAt, afterCommentId);
+
+            if (!comments.isEmpty()) {
+                addAuthorsAndReplyCounts(comments);
+            }
+
+            ListCommentsResponse response = new ListCommentsResponse();
+            response.setComments(comments);
+            response.setLimit(limit);
+            response.setNextCursor(buildNextCursor(comments, limit));
+
+            return response;
+        } catch (SQLException e) {
+            logger.error("Database error while listing comments", e);
+            throw new Exception("Failed to list comments: " + e.getMessage());
+        }
+    }
+
+    private void addAuthorsAndReplyCounts(List<Comment> comments) throws SQLException {
+        Set<Long> authorIds = new LinkedHashSet<>();
+        List<Long> commentIds = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            authorIds.add(comment.getUserId());
+            commentIds.add(comment.getCommentId());
+        }
+
+        Map<Long, UserSummary> authors = userRepository.getUserSummaries(authorIds);
+        Map<Long, Long> replyCounts = commentRepository.getReplyCounts(commentIds);
+
+        for (Comment comment : comments) {
+            UserSummary author = authors.get(comment.getUserId());
+            if (author != null) {
+                comment.setUsername(author.getUsername());
+                comment.setFirstName(author.getFirstName());
+                comment.setLastName(author.getLastName());
+                comment.setPreferredName(author.getPreferredName());
+            }
+            comment.setTotalReplies(replyCounts.getOrDefault(comment.getCommentId(), 0L));
+        }
+    }
+
+    private String buildNextCursor(List<Comment> comments, int limit) {
+        if (comments.isEmpty() || comments.size() < limit) {
+            return null;
+        }
+
+        Comment last = comments.get(comments.size() - 1);
+        if (last.getCreatedAt() == null) {
+            return null;
+        }
+
+        return CursorUtil.encode(last.getCreatedAt(), last.getCommentId());
+    }
+}
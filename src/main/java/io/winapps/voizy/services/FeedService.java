@@ -0,0 +1,158 @@
+package io.winapps.voizy.services;
+
+import io.winapps.voizy.cache.FeedTimelineCache;
+import io.winapps.voizy.models.feed.GetFeedResponse;
+import io.winapps.voizy.models.posts.ListPost;
+import io.winapps.voizy.repositories.FeedRepository;
+import io.winapps.voizy.repositories.PostRepository;
+import io.winapps.voizy.util.CursorUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+public class FeedService {
+    private static final Logger logger = LoggerFactory.getLogger(FeedService.class);
+
+    private static final LongAdder redisReads = new LongAdder();
+    private static final LongAdder timelineRebuilds = new LongAdder();
+    private static final LongAdder mysqlReads = new LongAdder();
+
+    private final FeedRepository feedRepository;
+    private final PostRepository postRepository;
+    private final FeedTimelineCache timelineCache;
+
+    public FeedService() {
+        this(new FeedRepository(), new PostRepository(), FeedTimelineCache.getInstance());
+    }
+
+    public FeedService(FeedRepository feedRepository, PostRepository postRepository, FeedTimelineCache timelineCache) {
+        this.feedRepository = feedRepository;
+        this.postRepository = postRepository;
+        this.timelineCache = timelineCache;
+    }
+
+    /**
+     * Get a page of a user's home feed: their own posts and their friends', newest first.
+     * Reads the Redis timeline when available and falls back to pulling from MySQL.
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public GetFeedResponse getFeed(long userId, int limit, String cursor) throws Exception {
+        long beforePostId = cursor == null || cursor.isEmpty() ? Long.MAX_VALUE : CursorUtil.decode(cursor).getId();
+
+        try {
+            List<Long> postIds = null;
+            if (timelineCache.isEnabled()) {
+                try {
+                    postIds = readTimeline(userId, beforePostId, limit);
+                    redisReads.increment();
+                } catch (JedisException e) {
+                    logger.warn("Redis timeline unavailable for user {}; reading feed from MySQL", userId, e);
+                }
+            }
+
+            if (postIds == null) {
+                postIds = feedRepository.listFeedPostIds(userId, beforePostId, limit);
+                mysqlReads.increment();
+            }
+
+            List<ListPost> posts = postRepository.getPostsByIds(userId, postIds);
+
+            GetFeedResponse response = new GetFeedResponse();
+            response.setPosts(posts);
+            response.setLimit(limit);
+            response.setNextCursor(buildNextCursor(posts, postIds, limit));
+
+            return response;
+        } catch (SQLException e) {
+            logger.error("Database error while getting feed", e);
+            throw new Exception("Failed to get feed: " + e.getMessage());
+        }
+    }
+
+    private List<Long> readTimeline(long userId, long beforePostId, int limit) throws SQLException {
+        List<Long> postIds = timelineCache.read(userId, beforePostId, limit);
+        if (postIds == null) {
+            timelineCache.beginRebuild(userId);
+            List<Long> recent = feedRepository.listFeedPostIds(userId, Long.MAX_VALUE, timelineCache.getMaxSize());
+            timelineCache.completeRebuild(userId, recent);
+            timelineRebuilds.increment();
+
+            postIds = new ArrayList<>(limit);
+            for (long postId : recent) {
+                if (postId < beforePostId && postIds.size() < limit) {
+                    postIds.add(postId);
+                }
+            }
+        }
+
+        Set<Long> pullAuthors = timelineCache.getPullAuthors();
+        if (!pullAuthors.isEmpty()) {
+            postIds = merge(postIds, feedRepository.listFriendPostIdsByAuthors(userId, pullAuthors, beforePostId, limit), limit);
+        }
+
+        if (postIds.size() < limit) {
+            // The timeline is capped, so older pages continue from MySQL
+            long olderThan = postIds.isEmpty() ? beforePostId : postIds.get(postIds.size() - 1);
+            postIds = merge(postIds, feedRepository.listFeedPostIds(userId, olderThan, limit - postIds.size()), limit);
+        }
+
+        return postIds;
+    }
+
+    private List<Long> merge(Collection<Long> first, Collection<Long> second, int limit) {
+        TreeSet<Long> merged = new TreeSet<>((a, b) -> Long.compare(b, a));
+        merged.addAll(first);
+        merged.addAll(second);
+
+        List<Long> postIds = new ArrayList<>(Math.min(merged.size(), limit));
+        for (long postId : merged) {
+            if (postIds.size() == limit) {
+                break;
+            }
+            postIds.add(postId);
+        }
+        return postIds;
+    }
+
+    /**
+     * The cursor is keyed on the last post ID read, not the last post returned,
+     * so a page whose last posts were deleted still advances
+     */
+    private String buildNextCursor(List<ListPost> posts, List<Long> postIds, int limit) {
+        if (postIds.size() < limit) {
+            return null;
+        }
+
+        long lastPostId = postIds.get(postIds.size() - 1);
+        LocalDateTime createdAt = LocalDateTime.now();
+        for (ListPost post : posts) {
+            if (post.getPostId() == lastPostId && post.getCreatedAt() != null) {
+                createdAt = post.getCreatedAt();
+            }
+        }
+
+        return CursorUtil.encode(createdAt, lastPostId);
+    }
+
+    public static long getRedisReadCount() {
+        return redisReads.sum();
+    }
+
+    public static long getTimelineRebuildCount() {
+        return timelineRebuilds.sum();
+    }
+
+    public static long getMysqlReadCount() {
+        return mysqlReads.sum();
+    }
+}
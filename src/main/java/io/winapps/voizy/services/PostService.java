@@ -1,53 +1,174 @@
 package io.winapps.voizy.services;
 
 import io.winapps.voizy.models.posts.*;
+import io.winapps.voizy.repositories.PostReactionRepository;
 import io.winapps.voizy.repositories.PostRepository;
 import io.winapps.voizy.util.AnalyticsUtil;
+import io.winapps.voizy.util.CursorUtil;
+import io.winapps.voizy.util.FeedFanout;
+import io.winapps.voizy.util.ListPostsJsonWriter;
+import io.winapps.voizy.util.PostEngagementCounter;
+import io.winapps.voizy.util.PostReactionTotals;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class PostService {
     private static final Logger logger = LoggerFactory.getLogger(PostService.class);
     private final PostRepository postRepository;
+    private final PostReactionRepository postReactionRepository;
 
     public PostService() {
-        this.postRepository = new PostRepository();
+        this(new PostRepository(), new PostReactionRepository());
     }
 
     public PostService(PostRepository postRepository) {
+        this(postRepository, new PostReactionRepository());
+    }
+
+    public PostService(PostRepository postRepository, PostReactionRepository postReactionRepository) {
         this.postRepository = postRepository;
+        this.postReactionRepository = postReactionRepository;
     }
 
     public ListPostsResponse listPosts(long userId, long limit, long page) throws Exception {
+        return listPosts(userId, limit, page, true);
+    }
+
+    /**
+     * @param includeTotals Whether to look up totalPosts and totalPages; clients that page
+     *                      without showing totals can skip the count
+     */
+    public ListPostsResponse listPosts(long userId, long limit, long page, boolean includeTotals) throws Exception {
         try {
             long offset = (page - 1) * limit;
 
-            long totalPosts = postRepository.getTotalPostsCount(userId);
+            Long totalPosts = includeTotals ? postRepository.getTotalPostsCount(userId) : null;
 
             List<ListPost> posts = postRepository.listPosts(userId, limit, offset);
 
-            long totalPages = (long) Math.ceil((double) totalPosts / limit);
+            return buildListPostsResponse(posts, limit, page, totalPosts);
+        } catch (SQLException e) {
+            logger.error("Database error while listing posts", e);
+            throw new Exception("Failed to list posts: " + e.getMessage());
+        }
+    }
 
-            ListPostsResponse response = new ListPostsResponse();
-            response.setPosts(posts);
-            response.setLimit(limit);
-            response.setPage(page);
-            response.setTotalPosts(totalPosts);
-            response.setTotalPages(totalPages);
+    public ListPostsResponse listPostsByCursor(long userId, long limit, String cursor) throws Exception {
+        return listPostsByCursor(userId, limit, cursor, true);
+    }
 
-            return response;
+    public ListPostsResponse listPostsByCursor(long userId, long limit, String cursor, boolean includeTotals) throws Exception {
+        CursorUtil.Cursor decodedCursor = CursorUtil.decode(cursor);
+
+        try {
+            Long totalPosts = includeTotals ? postRepository.getTotalPostsCount(userId) : null;
+
+            List<ListPost> posts = postRepository.listPostsBefore(
+                    userId, limit, decodedCursor.getCreatedAt(), decodedCursor.getId()
+            );
+
+            return buildListPostsResponse(posts, limit, 0, totalPosts);
         } catch (SQLException e) {
-            logger.error("Database error while listing posts", e);
+            logger.error("Database error while listing posts by cursor", e);
             throw new Exception("Failed to list posts: " + e.getMessage());
         }
     }
 
+    /**
+     * Write the same response as listPosts to the output stream, row by row
+     */
+    public void streamListPosts(long userId, long limit, long page, boolean includeTotals, OutputStream out) throws Exception {
+        try {
+            long offset = (page - 1) * limit;
+
+            Long totalPosts = includeTotals ? postRepository.getTotalPostsCount(userId) : null;
+
+            try (ListPostsJsonWriter writer = new ListPostsJsonWriter(out)) {
+                postRepository.streamPosts(userId, limit, offset, writer::writePost);
+                finishListPosts(writer, limit, page, totalPosts);
+            }
+        } catch (SQLException e) {
+            logger.error("Database error while streaming posts", e);
+            throw new Exception("Failed to list posts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the same response as listPostsByCursor to the output stream, row by row
+     * @throws IllegalArgumentException if the cursor is malformed; nothing has been written yet
+     */
+    public void streamListPostsByCursor(long userId, long limit, String cursor, boolean includeTotals, OutputStream out) throws Exception {
+        CursorUtil.Cursor decodedCursor = CursorUtil.decode(cursor);
+
+        try {
+            Long totalPosts = includeTotals ? postRepository.getTotalPostsCount(userId) : null;
+
+            try (ListPostsJsonWriter writer = new ListPostsJsonWriter(out)) {
+                postRepository.streamPostsBefore(
+                        userId, limit, decodedCursor.getCreatedAt(), decodedCursor.getId(), writer::writePost
+                );
+                finishListPosts(writer, limit, 0, totalPosts);
+            }
+        } catch (SQLException e) {
+            logger.error("Database error while streaming posts by cursor", e);
+            throw new Exception("Failed to list posts: " + e.getMessage());
+        }
+    }
+
+    private void finishListPosts(ListPostsJsonWriter writer, long limit, long page, Long totalPosts) throws IOException {
+        Long totalPages = totalPosts != null ? totalPages(totalPosts, limit) : null;
+        writer.finish(limit, page, totalPosts, totalPages, buildNextCursor(writer.getCount(), writer.getLastPost(), limit));
+    }
+
+    private ListPostsResponse buildListPostsResponse(List<ListPost> posts, long limit, long page, Long totalPosts) {
+        ListPostsResponse response = new ListPostsResponse();
+        response.setPosts(posts);
+        response.setLimit(limit);
+        response.setPage(page);
+        if (totalPosts != null) {
+            response.setTotalPosts(totalPosts);
+            response.setTotalPages(totalPages(totalPosts, limit));
+        }
+        response.setNextCursor(buildNextCursor(posts, limit));
+
+        return response;
+    }
+
+    private long totalPages(long totalPosts, long limit) {
+        return (long) Math.ceil((double) totalPosts / limit);
+    }
+
+    private String buildNextCursor(List<ListPost> posts, long limit) {
+        if (posts == null || posts.isEmpty()) {
+            return null;
+        }
+
+        return buildNextCursor(posts.size(), posts.get(posts.size() - 1), limit);
+    }
+
+    private String buildNextCursor(long count, ListPost last, long limit) {
+        if (count == 0 || count < limit) {
+            return null;
+        }
+
+        if (last.getCreatedAt() == null) {
+            return null;
+        }
+
+        return CursorUtil.encode(last.getCreatedAt(), last.getPostId());
+    }
+
     public CreatePostResponse createPost(CreatePostRequest request) throws Exception {
         try {
             if (request.getUserId() <= 0) {
@@ -56,6 +177,7 @@ public class PostService {
 
             long postId = postRepository.createPost(request);
 
+            FeedFanout.postCreated(request.getUserId(), postId);
             trackPostCreationEvents(request, postId);
 
             CreatePostResponse response = new CreatePostResponse();
@@ -86,6 +208,61 @@ public class PostService {
         }
     }
 
+    /**
+     * Count an impression for each post; written to posts.impressions by the next flush
+     */
+    public void recordImpressions(Collection<Long> postIds) {
+        PostEngagementCounter.recordImpressions(postIds);
+    }
+
+    /**
+     * Count a view for each post; written to posts.views by the next flush
+     */
+    public void recordViews(Collection<Long> postIds) {
+        PostEngagementCounter.recordViews(postIds);
+    }
+
+    /**
+     * Set the user's reaction to a post, or remove it when reactionType is null.
+     * Repeating the current reaction is a no-op reported with changed=false.
+     * @throws IllegalArgumentException if the post does not exist
+     */
+    public ReactToPostResponse reactToPost(long userId, long postId, String reactionType) throws Exception {
+        try {
+            String previous = postReactionRepository.setReaction(postId, userId, reactionType);
+            boolean changed = !Objects.equals(previous, reactionType);
+
+            if (changed) {
+                if (previous == null || reactionType == null) {
+                    PostReactionTotals.record(postId, reactionType != null ? 1 : -1);
+                }
+
+                Map<String, Object> metadata = new HashMap<>();
+                metadata.put("reaction_type", reactionType != null ? reactionType : previous);
+                AnalyticsUtil.trackEvent(userId, reactionType != null ? "react_post" : "unreact_post", "post", postId, metadata);
+            }
+
+            ReactToPostResponse response = new ReactToPostResponse();
+            response.setPostId(postId);
+            response.setReactionType(reactionType);
+            response.setPreviousReactionType(previous);
+            response.setChanged(changed);
+            return response;
+        } catch (SQLException e) {
+            logger.error("Database error while reacting to post", e);
+            throw new Exception("Failed to react to post: " + e.getMessage());
+        }
+    }
+
+    public Map<Long, Map<String, Long>> getPostReactions(List<Long> postIds) throws Exception {
+        try {
+            return postReactionRepository.getReactionCounts(postIds);
+        } catch (SQLException e) {
+            logger.error("Database error while getting post reactions", e);
+            throw new Exception("Failed to get post reactions: " + e.getMessage());
+        }
+    }
+
     public GetPostMediaResponse getPostMedia(long postId) throws Exception {
         try {
             return postRepository.getPostMedia(postId);
@@ -98,4 +275,21 @@ public class PostService {
             return emptyResponse;
         }
     }
+
+    public Map<Long, GetPostMediaResponse> getPostMediaBatch(List<Long> postIds) throws Exception {
+        try {
+            return postRepository.getPostMediaBatch(postIds);
+        } catch (SQLException e) {
+            logger.error("Database error while getting post media batch", e);
+
+            Map<Long, GetPostMediaResponse> emptyResponses = new LinkedHashMap<>();
+            for (long postId : postIds) {
+                GetPostMediaResponse emptyResponse = new GetPostMediaResponse();
+                emptyResponse.setImages(Collections.emptyList());
+                emptyResponse.setVideos(Collections.emptyList());
+                emptyResponses.put(postId, emptyResponse);
+            }
+            return emptyResponses;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package io.winapps.voizy.services;
 
+import io.winapps.voizy.cache.ProfileCache;
 import io.winapps.voizy.models.auth.User;
 import io.winapps.voizy.models.middleware.APIKey;
 import io.winapps.voizy.models.posts.GetPostMediaResponse;
@@ -13,6 +14,7 @@ import io.winapps.voizy.util.AnalyticsUtil;
 import io.winapps.voizy.util.ApiKeyUtil;
 import io.winapps.voizy.util.HashingUtil;
 import io.winapps.voizy.util.JwtUtil;
+import io.winapps.voizy.util.ServiceUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,10 +52,13 @@ public class UserService {
             String token = JwtUtil.generateAndStoreJWT(String.valueOf(user.getUserID()), "always");
 
             Profile profile = profileRepository.create(user.getUserID(), request);
+            ProfileCache.invalidate(user.getUserID());
 
             trackUserCreationEvents(user.getUserID(), profile.getProfileID(), request);
 
             return buildCreateUserResponse(user, profile, token);
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error creating user", e);
             throw new Exception("Failed to create user: " + e.getMessage());
@@ -90,7 +95,7 @@ public class UserService {
 
     public GetUserProfileResponse getUserProfile(long userID) throws Exception {
         try {
-            return userRepository.getProfile(userID);
+            return ProfileCache.get(userID, () -> userRepository.getProfile(userID));
         } catch (SQLException e) {
             logger.error("Database error while getting user profile", e);
 
@@ -0,0 +1,267 @@
+package io.winapps.voizy.util;
+
+import io.winapps.voizy.util.AnalyticsUtil.OverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The bounded queue and single flusher thread behind AnalyticsUtil.
+ * Events are written in batches of up to batchSize, either when a batch fills up or
+ * when the oldest queued event has waited for the flush interval.
+ */
+class AnalyticsEventQueue {
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsEventQueue.class);
+
+    /**
+     * Offered by shutdown() to wake a flusher waiting on an empty queue; never written
+     */
+    private static final Event WAKE_UP = new Event(0, null, null, null, null);
+
+    interface BatchWriter {
+        void write(List<Event> batch) throws SQLException;
+    }
+
+    static final class Event {
+        final long userID;
+        final String eventType;
+        final String objectType;
+        final Long objectID;
+        final Map<String, Object> metadata;
+        final LocalDateTime eventTime;
+
+        Event(long userID, String eventType, String objectType, Long objectID, Map<String, Object> metadata) {
+            this.userID = userID;
+            this.eventType = eventType;
+            this.objectType = objectType;
+            this.objectID = objectID;
+            this.metadata = metadata;
+            this.eventTime = LocalDateTime.now();
+        }
+    }
+
+    private final OverflowPolicy overflowPolicy;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long blockTimeoutMs;
+    private final int sampleRate;
+    private final int sampleThreshold;
+    private final BatchWriter writer;
+    private final BlockingQueue<Event> queue;
+
+    private final LongAdder enqueuedEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder sampledOutEvents = new LongAdder();
+    private final LongAdder flushedEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder totalFlushTimeNanos = new LongAdder();
+    private final AtomicLong maxFlushTimeNanos = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private volatile boolean running = true;
+    private final Thread flusherThread;
+
+    AnalyticsEventQueue(OverflowPolicy overflowPolicy, int capacity, int batchSize, long flushIntervalMs,
+                        long blockTimeoutMs, int sampleRate, BatchWriter writer) {
+        this.overflowPolicy = overflowPolicy;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.sampleThreshold = (int) (capacity * 0.8);
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        this.flusherThread = VirtualThreadsUtil.newThreadFactory("analytics-flusher").newThread(this::runFlusher);
+        this.flusherThread.start();
+    }
+
+    void offer(Event event) {
+        if (!running) {
+            droppedEvents.increment();
+            return;
+        }
+
+        boolean accepted;
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    accepted = queue.offer(event, blockTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    accepted = false;
+                }
+                break;
+            case SAMPLE:
+                if (queue.size() >= sampleThreshold && sampleCounter.incrementAndGet() % sampleRate != 0) {
+                    sampledOutEvents.increment();
+                    return;
+                }
+                accepted = queue.offer(event);
+                break;
+            case DROP:
+            default:
+                accepted = queue.offer(event);
+                break;
+        }
+
+        if (accepted) {
+            enqueuedEvents.increment();
+        } else {
+            droppedEvents.increment();
+            logger.debug("Analytics queue full; dropped event \"{}\"", event.eventType);
+        }
+    }
+
+    private void runFlusher() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        long deadline = 0;
+
+        while (true) {
+            try {
+                if (batch.isEmpty()) {
+                    if (!running && queue.isEmpty()) {
+                        break;
+                    }
+
+                    Event first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null || first == WAKE_UP) {
+                        continue;
+                    }
+                    batch.add(first);
+                    deadline = System.nanoTime() + flushIntervalNanos;
+                }
+
+                queue.drainTo(batch, batchSize - batch.size());
+                batch.remove(WAKE_UP);
+
+                long remaining = deadline - System.nanoTime();
+                if (running && batch.size() < batchSize && remaining > 0) {
+                    Event next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null && next != WAKE_UP) {
+                        batch.add(next);
+                    }
+                    continue;
+                }
+
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Nothing interrupts the flusher on purpose; keep draining until the queue is empty
+                running = false;
+            } catch (Exception e) {
+                logger.error("Unexpected error in analytics flusher", e);
+                failedEvents.add(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Event> batch) {
+        long startTime = System.nanoTime();
+
+        try {
+            writer.write(batch);
+            flushedEvents.add(batch.size());
+            logger.debug("Flushed {} analytics events", batch.size());
+        } catch (SQLException e) {
+            failedEvents.add(batch.size());
+            logger.error("Error flushing {} analytics events", batch.size(), e);
+        } finally {
+            long elapsed = System.nanoTime() - startTime;
+            flushCount.increment();
+            totalFlushTimeNanos.add(elapsed);
+            maxFlushTimeNanos.accumulateAndGet(elapsed, Math::max);
+            lastBatchSize.set(batch.size());
+        }
+    }
+
+    /**
+     * Stop accepting events and wait up to timeoutMs for everything still queued to be written.
+     * The flusher is woken rather than interrupted, so a batch it is already writing is not
+     * cut off inside the connection pool or driver.
+     */
+    void shutdown(long timeoutMs) {
+        if (!running && !flusherThread.isAlive()) {
+            return;
+        }
+
+        running = false;
+        // Fails only when the queue is full, and then the flusher is not waiting anyway
+        queue.offer(WAKE_UP);
+
+        try {
+            flusherThread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (flusherThread.isAlive()) {
+            logger.warn("Analytics flusher did not finish within {} ms; {} events left unflushed",
+                    timeoutMs, queue.size());
+        }
+    }
+
+    OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    int getQueueCapacity() {
+        return capacity;
+    }
+
+    long getEnqueuedCount() {
+        return enqueuedEvents.sum();
+    }
+
+    long getDroppedCount() {
+        return droppedEvents.sum();
+    }
+
+    long getSampledOutCount() {
+        return sampledOutEvents.sum();
+    }
+
+    long getFlushedCount() {
+        return flushedEvents.sum();
+    }
+
+    long getFailedCount() {
+        return failedEvents.sum();
+    }
+
+    long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+
+    long getTotalFlushTimeNanos() {
+        return totalFlushTimeNanos.sum();
+    }
+
+    long getMaxFlushTimeNanos() {
+        return maxFlushTimeNanos.get();
+    }
+}
@@ -7,16 +7,48 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.sql.Types;
-import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
+/**
+ * Analytics event ingestion.
+ * Events are placed on a bounded queue and written by a single flusher thread as
+ * multi-row JDBC batches, either when a batch fills up or when the oldest queued
+ * event has waited for the flush interval. When the queue is full the configured
+ * overflow policy decides whether events are dropped, the caller waits briefly,
+ * or events are sampled.
+ */
 public class AnalyticsUtil {
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsUtil.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
-    private static final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    public enum OverflowPolicy {
+        /** Drop new events while the queue is full */
+        DROP,
+        /** Wait up to ANALYTICS_BLOCK_TIMEOUT_MS for space, then drop */
+        BLOCK,
+        /** Keep 1 in ANALYTICS_SAMPLE_RATE events once the queue is 80% full */
+        SAMPLE
+    }
+
+    private static final int QUEUE_CAPACITY = EnvUtil.getInt("ANALYTICS_QUEUE_CAPACITY", 10_000);
+    private static final int BATCH_SIZE = EnvUtil.getInt("ANALYTICS_BATCH_SIZE", 500);
+    private static final long FLUSH_INTERVAL_MS = EnvUtil.getLong("ANALYTICS_FLUSH_INTERVAL_MS", 1000);
+    private static final long BLOCK_TIMEOUT_MS = EnvUtil.getLong("ANALYTICS_BLOCK_TIMEOUT_MS", 100);
+    private static final int SAMPLE_RATE = EnvUtil.getInt("ANALYTICS_SAMPLE_RATE", 10);
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+    private static final OverflowPolicy OVERFLOW_POLICY = parseOverflowPolicy(
+            EnvUtil.getString("ANALYTICS_OVERFLOW_POLICY", OverflowPolicy.DROP.name())
+    );
+
+    private static final String INSERT_QUERY = "INSERT INTO analytics_events " +
+            "(user_id, event_type, object_type, object_id, event_time, metadata) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final AnalyticsEventQueue events = new AnalyticsEventQueue(OVERFLOW_POLICY, QUEUE_CAPACITY,
+            BATCH_SIZE, FLUSH_INTERVAL_MS, BLOCK_TIMEOUT_MS, SAMPLE_RATE, AnalyticsUtil::writeBatch);
 
     /**
      * Track an analytics event asynchronously
@@ -27,66 +59,113 @@ public class AnalyticsUtil {
      * @param metadata Additional metadata for the event (can be null)
      */
     public static void trackEvent(long userID, String eventType, String objectType, Long objectID, Map<String, Object> metadata) {
-        executorService.submit(() -> {
-            try {
-                String metadataJson = null;
-                if (metadata != null) {
-                    metadataJson = objectMapper.writeValueAsString(metadata);
+        events.offer(new AnalyticsEventQueue.Event(userID, eventType, objectType, objectID, metadata));
+    }
+
+    private static void writeBatch(List<AnalyticsEventQueue.Event> batch) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_QUERY)) {
+            for (AnalyticsEventQueue.Event event : batch) {
+                stmt.setLong(1, event.userID);
+                stmt.setString(2, event.eventType);
+                stmt.setString(3, event.objectType);
+
+                if (event.objectID != null) {
+                    stmt.setLong(4, event.objectID);
+                } else {
+                    stmt.setNull(4, Types.BIGINT);
                 }
 
-                try (Connection conn = DatabaseManager.getConnection()) {
-                    String query;
-                    PreparedStatement stmt;
-
-                    if (objectID != null) {
-                        query = "INSERT INTO analytics_events (user_id, event_type, object_type, object_id, event_time, metadata) " +
-                                "VALUES (?, ?, ?, ?, ?, ?)";
-                        stmt = conn.prepareStatement(query);
-                        stmt.setLong(1, userID);
-                        stmt.setString(2, eventType);
-                        stmt.setString(3, objectType);
-                        stmt.setLong(4, objectID);
-                        stmt.setObject(5, LocalDateTime.now());
-
-                        if (metadataJson != null) {
-                            stmt.setString(6, metadataJson);
-                        } else {
-                            stmt.setNull(6, Types.VARCHAR);
-                        }
-                    } else {
-                        query = "INSERT INTO analytics_events (user_id, event_type, object_type, event_time, metadata) " +
-                                "VALUES (?, ?, ?, ?, ?)";
-                        stmt = conn.prepareStatement(query);
-                        stmt.setLong(1, userID);
-                        stmt.setString(2, eventType);
-                        stmt.setString(3, objectType);
-                        stmt.setObject(4, LocalDateTime.now());
-
-                        if (metadataJson != null) {
-                            stmt.setString(5, metadataJson);
-                        } else {
-                            stmt.setNull(5, Types.VARCHAR);
-                        }
-                    }
-
-                    int rowsAffected = stmt.executeUpdate();
-
-                    if (rowsAffected > 0) {
-                        logger.info("TrackEvent \"{}\" success; total rows affected = {}", eventType, rowsAffected);
-                    } else {
-                        logger.warn("TrackEvent fail; no rows affected = {}", rowsAffected);
-                    }
+                stmt.setTimestamp(5, Timestamp.valueOf(event.eventTime));
+
+                String metadataJson = serializeMetadata(event);
+                if (metadataJson != null) {
+                    stmt.setString(6, metadataJson);
+                } else {
+                    stmt.setNull(6, Types.VARCHAR);
                 }
-            } catch (Exception e) {
-                logger.error("Error tracking event: {}", eventType, e);
+
+                stmt.addBatch();
             }
-        });
+
+            stmt.executeBatch();
+        }
+    }
+
+    private static String serializeMetadata(AnalyticsEventQueue.Event event) {
+        if (event.metadata == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.writeValueAsString(event.metadata);
+        } catch (Exception e) {
+            logger.warn("Error serializing metadata for event \"{}\"; storing without metadata", event.eventType, e);
+            return null;
+        }
+    }
+
+    private static OverflowPolicy parseOverflowPolicy(String value) {
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown ANALYTICS_OVERFLOW_POLICY \"{}\"; using DROP", value);
+            return OverflowPolicy.DROP;
+        }
     }
 
     /**
-     * Shutdown the executor service
+     * Stop accepting events and flush everything still queued
      */
     public static void shutdown() {
-        executorService.shutdown();
+        events.shutdown(SHUTDOWN_TIMEOUT_MS);
+    }
+
+    public static OverflowPolicy getOverflowPolicy() {
+        return events.getOverflowPolicy();
+    }
+
+    public static int getQueueDepth() {
+        return events.getQueueDepth();
+    }
+
+    public static int getQueueCapacity() {
+        return events.getQueueCapacity();
+    }
+
+    public static long getEnqueuedCount() {
+        return events.getEnqueuedCount();
+    }
+
+    public static long getDroppedCount() {
+        return events.getDroppedCount();
+    }
+
+    public static long getSampledOutCount() {
+        return events.getSampledOutCount();
+    }
+
+    public static long getFlushedCount() {
+        return events.getFlushedCount();
+    }
+
+    public static long getFailedCount() {
+        return events.getFailedCount();
+    }
+
+    public static long getFlushCount() {
+        return events.getFlushCount();
+    }
+
+    public static long getLastBatchSize() {
+        return events.getLastBatchSize();
+    }
+
+    public static long getTotalFlushTimeNanos() {
+        return events.getTotalFlushTimeNanos();
+    }
+
+    public static long getMaxFlushTimeNanos() {
+        return events.getMaxFlushTimeNanos();
     }
 }
@@ -0,0 +1,289 @@
+package io.winapps.voizy.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.winapps.voizy.database.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-API-key token bucket rate limiting shared by every node.
+ * Buckets live in Redis and are refilled and drawn from by one Lua script, so N nodes
+ * together allow the configured rate rather than N times it. A bucket expires once it
+ * would have refilled completely, so idle keys cost nothing. If Redis is unavailable,
+ * each node falls back to size-bounded local buckets with the same limits, and retries
+ * Redis after RATE_LIMIT_REDIS_RETRY_MS.
+ * Limits are per tier, from RATE_LIMIT_TIERS ("name:permitsPerSecond:burst,...").
+ */
+public class ApiKeyRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(ApiKeyRateLimiter.class);
+
+    public static final String DEFAULT_TIER = "standard";
+
+    private static final String KEY_PREFIX = "voizy:ratelimit:";
+    private static final String DEFAULT_TIERS = DEFAULT_TIER + ":100:100,premium:500:1000,internal:5000:10000";
+
+    private static final long REDIS_RETRY_MS = EnvUtil.getLong("RATE_LIMIT_REDIS_RETRY_MS", 1_000);
+    private static final long LOCAL_MAX_BUCKETS = EnvUtil.getLong("RATE_LIMIT_LOCAL_MAX_BUCKETS", 100_000);
+    private static final boolean REDIS_ENABLED = EnvUtil.getBoolean("RATE_LIMIT_REDIS", true);
+
+    // Uses the Redis clock so nodes with skewed clocks agree; replicate_commands lets
+    // the script write after reading TIME on Redis versions before 5
+    private static final String ACQUIRE_SCRIPT =
+            "redis.replicate_commands() " +
+            "local rate = tonumber(ARGV[1]) " +
+            "local burst = tonumber(ARGV[2]) " +
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts') " +
+            "local tokens = tonumber(bucket[1]) " +
+            "local ts = tonumber(bucket[2]) " +
+            "if tokens == nil or ts == nil then tokens = burst ts = now end " +
+            "tokens = math.min(burst, tokens + math.max(0, now - ts) * rate / 1000) " +
+            "local allowed = 0 " +
+            "if tokens >= 1 then tokens = tokens - 1 allowed = 1 end " +
+            "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens)) " +
+            "redis.call('HSET', KEYS[1], 'ts', tostring(now)) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+            "return allowed";
+
+    private static final Map<String, Tier> tiers = parseTiers(EnvUtil.getString("RATE_LIMIT_TIERS", DEFAULT_TIERS));
+
+    private static final Cache<String, LocalBucket> localBuckets = CacheBuilder.newBuilder()
+            .maximumSize(LOCAL_MAX_BUCKETS)
+            .expireAfterAccess(maxRefillMillis(), TimeUnit.MILLISECONDS)
+            .concurrencyLevel(Math.max(4, Runtime.getRuntime().availableProcessors() * 2))
+            .build();
+
+    private static final LongAdder localDecisions = new LongAdder();
+    private static final LongAdder redisErrors = new LongAdder();
+
+    private static volatile String acquireScriptSha;
+    private static volatile long redisRetryAt;
+
+    /**
+     * Rate and burst for one tier, with its decision counters
+     */
+    public static final class Tier {
+        private final String name;
+        private final double permitsPerSecond;
+        private final long burst;
+        private final long idleTtlMillis;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder denied = new LongAdder();
+
+        Tier(String name, double permitsPerSecond, long burst) {
+            this.name = name;
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+            // After this long without requests the bucket is full again, so forgetting it changes nothing
+            this.idleTtlMillis = (long) Math.ceil(burst * 1000.0 / permitsPerSecond) + 1000;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public long getBurst() {
+            return burst;
+        }
+
+        public long getAllowedCount() {
+            return allowed.sum();
+        }
+
+        public long getDeniedCount() {
+            return denied.sum();
+        }
+    }
+
+    /**
+     * Take one permit from an API key's bucket
+     * @param apiKey API key string
+     * @param tierName Tier of the key; unknown or null tiers use DEFAULT_TIER
+     * @return True if the request may proceed
+     */
+    public static boolean tryAcquire(String apiKey, String tierName) {
+        Tier tier = getTier(tierName);
+        String bucketKey = bucketKey(apiKey, tier);
+
+        boolean allowed;
+        Boolean remote = tryAcquireRemote(bucketKey, tier);
+        if (remote != null) {
+            allowed = remote;
+        } else {
+            localDecisions.increment();
+            allowed = tryAcquireLocal(bucketKey, tier);
+        }
+
+        if (allowed) {
+            tier.allowed.increment();
+        } else {
+            tier.denied.increment();
+        }
+        return allowed;
+    }
+
+    public static Tier getTier(String tierName) {
+        Tier tier = tierName == null ? null : tiers.get(tierName);
+        return tier != null ? tier : tiers.get(DEFAULT_TIER);
+    }
+
+    public static Collection<Tier> getTiers() {
+        return Collections.unmodifiableCollection(tiers.values());
+    }
+
+    public static long getLocalDecisionCount() {
+        return localDecisions.sum();
+    }
+
+    public static long getRedisErrorCount() {
+        return redisErrors.sum();
+    }
+
+    public static long getLocalBucketCount() {
+        return localBuckets.size();
+    }
+
+    /**
+     * @return The decision, or null if Redis is not available
+     */
+    private static Boolean tryAcquireRemote(String bucketKey, Tier tier) {
+        if (!REDIS_ENABLED || !DatabaseManager.isRedisAvailable() || System.currentTimeMillis() < redisRetryAt) {
+            return null;
+        }
+
+        List<String> keys = Collections.singletonList(KEY_PREFIX + bucketKey);
+        List<String> args = Arrays.asList(
+                String.valueOf(tier.permitsPerSecond),
+                String.valueOf(tier.burst),
+                String.valueOf(tier.idleTtlMillis));
+
+        try (Jedis jedis = DatabaseManager.getJedisPool().getResource()) {
+            return evalAcquire(jedis, keys, args) == 1L;
+        } catch (JedisException e) {
+            redisErrors.increment();
+            redisRetryAt = System.currentTimeMillis() + REDIS_RETRY_MS;
+            logger.warn("Rate limiting locally for {} ms after Redis error: {}", REDIS_RETRY_MS, e.getMessage());
+            return null;
+        }
+    }
+
+    private static long evalAcquire(Jedis jedis, List<String> keys, List<String> args) {
+        String sha = acquireScriptSha;
+        if (sha == null) {
+            sha = jedis.scriptLoad(ACQUIRE_SCRIPT);
+            acquireScriptSha = sha;
+        }
+
+        try {
+            return (Long) jedis.evalsha(sha, keys, args);
+        } catch (JedisDataException e) {
+            if (e.getMessage() == null || !e.getMessage().startsWith("NOSCRIPT")) {
+                throw e;
+            }
+            // Redis restarted or flushed its scripts
+            acquireScriptSha = jedis.scriptLoad(ACQUIRE_SCRIPT);
+            return (Long) jedis.evalsha(acquireScriptSha, keys, args);
+        }
+    }
+
+    private static boolean tryAcquireLocal(String bucketKey, Tier tier) {
+        try {
+            return localBuckets.get(bucketKey, () -> new LocalBucket(tier, System.currentTimeMillis()))
+                    .tryAcquire(System.currentTimeMillis());
+        } catch (ExecutionException e) {
+            // LocalBucket's constructor cannot throw
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * The tier is part of the key so a tier change takes effect with a fresh bucket.
+     * API keys are hashed so they never appear in Redis.
+     */
+    private static String bucketKey(String apiKey, Tier tier) {
+        return tier.name + ":" + Hashing.sha256().hashString(apiKey, StandardCharsets.UTF_8);
+    }
+
+    private static long maxRefillMillis() {
+        long max = 0;
+        for (Tier tier : tiers.values()) {
+            max = Math.max(max, tier.idleTtlMillis);
+        }
+        return max;
+    }
+
+    static Map<String, Tier> parseTiers(String spec) {
+        Map<String, Tier> parsed = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                logger.warn("Ignoring rate limit tier \"{}\"; expected name:permitsPerSecond:burst", entry);
+                continue;
+            }
+
+            try {
+                double permitsPerSecond = Double.parseDouble(parts[1].trim());
+                long burst = Long.parseLong(parts[2].trim());
+                if (permitsPerSecond <= 0 || burst < 1) {
+                    throw new NumberFormatException("rate and burst must be positive");
+                }
+                String name = parts[0].trim();
+                parsed.put(name, new Tier(name, permitsPerSecond, burst));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring rate limit tier \"{}\": {}", entry, e.getMessage());
+            }
+        }
+
+        if (!parsed.containsKey(DEFAULT_TIER)) {
+            parsed.put(DEFAULT_TIER, new Tier(DEFAULT_TIER, 100, 100));
+        }
+        return parsed;
+    }
+
+    static final class LocalBucket {
+        private final double permitsPerMilli;
+        private final long burst;
+        private double tokens;
+        private long refilledAt;
+
+        LocalBucket(Tier tier, long now) {
+            this.permitsPerMilli = tier.permitsPerSecond / 1000;
+            this.burst = tier.burst;
+            this.tokens = tier.burst;
+            this.refilledAt = now;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            tokens = Math.min(burst, tokens + Math.max(0, now - refilledAt) * permitsPerMilli);
+            // now is read before the lock, so a caller can arrive with an earlier time than the last one
+            refilledAt = Math.max(refilledAt, now);
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+}
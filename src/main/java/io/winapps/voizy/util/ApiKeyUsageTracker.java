@@ -0,0 +1,173 @@
+package io.winapps.voizy.util;
+
+import io.winapps.voizy.models.middleware.ApiKeyUsage;
+import io.winapps.voizy.repositories.ApiKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind recording of api_keys.last_used_at.
+ * Authenticated requests only put the time into a map keyed by (user, key), so any
+ * number of requests with the same key between flushes collapse into one entry.
+ * Every API_KEY_USAGE_FLUSH_INTERVAL_MS a background thread writes the entries as
+ * batched UPDATEs of up to API_KEY_USAGE_BATCH_SIZE keys each. Failed batches are
+ * merged back and retried on the next flush; shutdown() writes what is left.
+ */
+public class ApiKeyUsageTracker {
+    private static final Logger logger = LoggerFactory.getLogger(ApiKeyUsageTracker.class);
+
+    private static final long FLUSH_INTERVAL_MS = EnvUtil.getLong("API_KEY_USAGE_FLUSH_INTERVAL_MS", 30_000);
+    private static final int BATCH_SIZE = EnvUtil.getInt("API_KEY_USAGE_BATCH_SIZE", 500);
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private static final ApiKeyRepository apiKeyRepository = new ApiKeyRepository();
+    private static final ConcurrentHashMap<UsageKey, Long> pending = new ConcurrentHashMap<>();
+
+    private static final LongAdder touches = new LongAdder();
+    private static final LongAdder flushedRows = new LongAdder();
+    private static final LongAdder flushCount = new LongAdder();
+    private static final LongAdder failedFlushes = new LongAdder();
+
+    private static volatile ScheduledExecutorService scheduler;
+    private static volatile boolean running = true;
+
+    private static final class UsageKey {
+        private final long userID;
+        private final String apiKey;
+
+        private UsageKey(long userID, String apiKey) {
+            this.userID = userID;
+            this.apiKey = apiKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof UsageKey)) {
+                return false;
+            }
+            UsageKey other = (UsageKey) o;
+            return userID == other.userID && apiKey.equals(other.apiKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userID, apiKey);
+        }
+    }
+
+    /**
+     * Record that a key was used now
+     */
+    public static void touch(long userID, String apiKey) {
+        touches.increment();
+        pending.merge(new UsageKey(userID, apiKey), System.currentTimeMillis(), Math::max);
+
+        if (scheduler == null && running) {
+            startScheduler();
+        }
+    }
+
+    private static synchronized void startScheduler() {
+        if (scheduler != null || !running) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                VirtualThreadsUtil.newThreadFactory("api-key-usage-flusher"));
+        scheduler.scheduleWithFixedDelay(ApiKeyUsageTracker::flush,
+                FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write all pending usage times
+     */
+    static void flush() {
+        List<ApiKeyUsage> batch = new ArrayList<>(Math.min(BATCH_SIZE, pending.size()));
+
+        for (Map.Entry<UsageKey, Long> entry : pending.entrySet()) {
+            // A touch that lands after this read replaces the value, so remove fails and the
+            // newer time stays pending for the next flush
+            if (!pending.remove(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+
+            UsageKey key = entry.getKey();
+            LocalDateTime lastUsedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.getValue()), ZoneId.systemDefault());
+            batch.add(new ApiKeyUsage(key.userID, key.apiKey, lastUsedAt));
+
+            if (batch.size() >= BATCH_SIZE) {
+                writeBatch(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private static void writeBatch(List<ApiKeyUsage> batch) {
+        try {
+            flushedRows.add(apiKeyRepository.updateLastUsedAt(batch));
+            flushCount.increment();
+        } catch (Exception e) {
+            failedFlushes.increment();
+            logger.error("Error writing last_used_at for {} API keys; retrying on next flush", batch.size(), e);
+            for (ApiKeyUsage usage : batch) {
+                long usedAt = usage.getLastUsedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                pending.merge(new UsageKey(usage.getUserID(), usage.getApiKey()), usedAt, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Stop the flusher and write everything still pending
+     */
+    public static synchronized void shutdown() {
+        running = false;
+        BoundedExecutors.shutdown(scheduler, SHUTDOWN_TIMEOUT_MS);
+        scheduler = null;
+
+        if (!pending.isEmpty()) {
+            int remaining = pending.size();
+            flush();
+            logger.info("Flushed last_used_at for {} API keys on shutdown", remaining);
+        }
+    }
+
+    public static int getPendingCount() {
+        return pending.size();
+    }
+
+    public static long getTouchCount() {
+        return touches.sum();
+    }
+
+    public static long getFlushedRowCount() {
+        return flushedRows.sum();
+    }
+
+    public static long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public static long getFailedFlushCount() {
+        return failedFlushes.sum();
+    }
+}
@@ -1,32 +1,17 @@
 package io.winapps.voizy.util;
 
-import com.google.common.util.concurrent.RateLimiter;
 import io.winapps.voizy.models.middleware.APIKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class ApiKeyUtil {
     private static final Logger logger = LoggerFactory.getLogger(ApiKeyUtil.class);
     private static final int API_KEY_LENGTH = 32;
-    private static final int MAX_REQUEST_RATE = 100;
     private static final int KEY_ROTATION_DAYS = 90;
 
-    private static final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
-
-    /**
-     * Get or create a rate limiter for the given API key
-     * @param apiKey API key string
-     * @return RateLimiter for the API key
-     */
-    public static RateLimiter getLimiter(String apiKey) {
-        return limiters.computeIfAbsent(apiKey, k -> RateLimiter.create(MAX_REQUEST_RATE));
-    }
-
     /**
      * Get hex formatted string from bytes
      * @param bytes byte array to be converted
@@ -79,13 +64,9 @@ public class ApiKeyUtil {
             return false;
         }
 
-        if (LocalDateTime.now().isAfter(apiKey.getExpiresAt())) {
-            return false;
-        }
-
-        apiKey.setLastUsedAt(LocalDateTime.now());
-
-        return true;
+        // Cached keys are shared across requests, so this must not modify apiKey;
+        // usage is recorded by ApiKeyUsageTracker
+        return !LocalDateTime.now().isAfter(apiKey.getExpiresAt());
     }
 
     /**
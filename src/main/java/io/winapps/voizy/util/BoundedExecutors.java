@@ -0,0 +1,78 @@
+package io.winapps.voizy.util;
+
+import io.winapps.voizy.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Utility class for fixed-size executors with bounded queues.
+ * Submissions beyond the queue capacity are rejected with RejectedExecutionException
+ * instead of queueing without limit, so callers can shed load. Each executor exports
+ * its active threads, queue depth and rejections.
+ */
+public class BoundedExecutors {
+    private static final Logger logger = LoggerFactory.getLogger(BoundedExecutors.class);
+
+    /**
+     * Create a bounded executor
+     * @param name Name used for threads and the "executor" metric label
+     * @param threads Number of worker threads
+     * @param queueCapacity Maximum number of queued tasks
+     * @return The executor
+     */
+    public static ThreadPoolExecutor newBoundedExecutor(String name, int threads, int queueCapacity) {
+        LongAdder rejected = new LongAdder();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                VirtualThreadsUtil.newThreadFactory(name),
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException(name + " executor is saturated");
+                }
+        );
+
+        MetricsRegistry.gauge("voizy_executor_active_threads", "Threads running a task, by executor",
+                executor::getActiveCount, "executor", name);
+        MetricsRegistry.gauge("voizy_executor_queue_depth", "Tasks waiting to run, by executor",
+                () -> executor.getQueue().size(), "executor", name);
+        MetricsRegistry.gauge("voizy_executor_queue_capacity", "Maximum queued tasks, by executor",
+                () -> queueCapacity, "executor", name);
+        MetricsRegistry.counter("voizy_executor_rejected_total", "Tasks rejected because the queue was full, by executor",
+                rejected::sum, "executor", name);
+
+        logger.info("Created {} executor with {} threads and queue capacity {}", name, threads, queueCapacity);
+        return executor;
+    }
+
+    /**
+     * Stop accepting tasks and wait for queued ones to finish
+     */
+    public static void shutdown(ExecutorService executor, long timeoutMs) {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Executor did not finish within {} ms; {} tasks dropped",
+                        timeoutMs, executor.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.winapps.voizy.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Utility class for opaque keyset pagination cursors.
+ * A cursor encodes the (created_at, id) pair of the last row on a page so the
+ * next page can seek directly past it instead of skipping rows with OFFSET.
+ */
+public class CursorUtil {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encode a cursor from the sort key of the last row on a page
+     * @param createdAt Creation time of the last row
+     * @param id Primary key of the last row, used as a tie-breaker
+     * @return URL-safe opaque cursor string
+     */
+    public static String encode(LocalDateTime createdAt, long id) {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode(LocalDateTime, long)}
+     * @param cursor Opaque cursor string
+     * @return Decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separatorIndex));
+            long id = Long.parseLong(raw.substring(separatorIndex + 1));
+
+            return new Cursor(createdAt, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public static class Cursor {
+        private final LocalDateTime createdAt;
+        private final long id;
+
+        public Cursor(LocalDateTime createdAt, long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.winapps.voizy.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class for reading typed settings from environment variables
+ */
+public class EnvUtil {
+    private static final Logger logger = LoggerFactory.getLogger(EnvUtil.class);
+
+    /**
+     * Get a String setting, returning the default if unset or empty
+     */
+    public static String getString(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    /**
+     * Get an int setting, returning the default if unset or not a valid number
+     */
+    public static int getInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: \"{}\"; using default {}", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a long setting, returning the default if unset or not a valid number
+     */
+    public static long getLong(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: \"{}\"; using default {}", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a boolean setting ("true"/"false"), returning the default if unset
+     */
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return "true".equalsIgnoreCase(value.trim());
+    }
+}
@@ -0,0 +1,157 @@
+package io.winapps.voizy.util;
+
+import io.winapps.voizy.cache.FeedTimelineCache;
+import io.winapps.voizy.repositories.FriendshipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out-on-write for home timelines.
+ * After a post commits, its ID is pushed into the Redis timeline of the author and of
+ * every accepted friend, on a small bounded executor so createPost never waits on it.
+ * Authors with more than FEED_FANOUT_MAX_FRIENDS friends are switched to fan-out-on-read:
+ * only their own timeline is written and readers pull their posts from MySQL.
+ * A fan-out that is dropped because the executor is saturated, or that fails, is not
+ * retried. Instead the author is queued for invalidation and a fan-out worker deletes
+ * the timelines the post should have reached, so they are rebuilt from MySQL, which
+ * has the post, on their next read.
+ */
+public class FeedFanout {
+    private static final Logger logger = LoggerFactory.getLogger(FeedFanout.class);
+
+    private static final int THREADS = EnvUtil.getInt("FEED_FANOUT_THREADS", 2);
+    private static final int QUEUE_CAPACITY = EnvUtil.getInt("FEED_FANOUT_QUEUE_CAPACITY", 10_000);
+    private static final long MAX_FRIENDS = EnvUtil.getLong("FEED_FANOUT_MAX_FRIENDS", 5_000);
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private static final FriendshipRepository friendshipRepository = new FriendshipRepository();
+    private static final FeedTimelineCache timelineCache = FeedTimelineCache.getInstance();
+
+    private static final LongAdder fanouts = new LongAdder();
+    private static final LongAdder timelineWrites = new LongAdder();
+    private static final LongAdder pullOnlyPosts = new LongAdder();
+    private static final LongAdder failures = new LongAdder();
+    private static final LongAdder invalidations = new LongAdder();
+
+    /** Authors whose last fan-out was lost; their friends' timelines must be deleted */
+    private static final Set<Long> pendingInvalidations = ConcurrentHashMap.newKeySet();
+
+    private static ThreadPoolExecutor executor;
+
+    /**
+     * Queue a committed post for fan-out. Does nothing when Redis timelines are disabled.
+     */
+    public static void postCreated(long authorId, long postId) {
+        if (!timelineCache.isEnabled()) {
+            return;
+        }
+
+        try {
+            getExecutor().execute(() -> fanOut(authorId, postId));
+        } catch (RejectedExecutionException e) {
+            // The queue is only full while workers are busy, and each worker drains
+            // pending invalidations before its next fan-out
+            pendingInvalidations.add(authorId);
+            logger.warn("Feed fan-out queue full; post {} not pushed, timelines of user {} and friends will be invalidated",
+                    postId, authorId);
+        }
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = BoundedExecutors.newBoundedExecutor("voizy-feed-fanout", THREADS, QUEUE_CAPACITY);
+        }
+        return executor;
+    }
+
+    private static void fanOut(long authorId, long postId) {
+        invalidatePending();
+
+        try {
+            long friendCount = friendshipRepository.countAcceptedFriends(authorId);
+
+            if (friendCount > MAX_FRIENDS) {
+                timelineCache.addPullAuthor(authorId);
+                timelineWrites.add(timelineCache.push(Collections.singletonList(authorId), postId));
+                pullOnlyPosts.increment();
+            } else {
+                List<Long> owners = friendshipRepository.getAcceptedFriendIds(authorId);
+                owners.add(authorId);
+                timelineWrites.add(timelineCache.push(owners, postId));
+            }
+
+            fanouts.increment();
+        } catch (Exception e) {
+            failures.increment();
+            logger.error("Error fanning out post {} by user {}", postId, authorId, e);
+            invalidateOrDefer(authorId);
+        }
+    }
+
+    private static void invalidatePending() {
+        for (long authorId : new ArrayList<>(pendingInvalidations)) {
+            pendingInvalidations.remove(authorId);
+            invalidateOrDefer(authorId);
+        }
+    }
+
+    /**
+     * Delete the timelines an author's posts are pushed to. If that fails too, the author
+     * stays queued and is retried before the next fan-out.
+     */
+    private static void invalidateOrDefer(long authorId) {
+        try {
+            List<Long> owners = new ArrayList<>();
+            if (friendshipRepository.countAcceptedFriends(authorId) <= MAX_FRIENDS) {
+                owners.addAll(friendshipRepository.getAcceptedFriendIds(authorId));
+            }
+            owners.add(authorId);
+
+            timelineCache.invalidate(owners);
+            invalidations.increment();
+        } catch (Exception e) {
+            pendingInvalidations.add(authorId);
+            logger.error("Error invalidating timelines for user {}; will retry", authorId, e);
+        }
+    }
+
+    /**
+     * Finish queued fan-outs and stop the executor
+     */
+    public static synchronized void shutdown() {
+        BoundedExecutors.shutdown(executor, SHUTDOWN_TIMEOUT_MS);
+    }
+
+    public static long getFanoutCount() {
+        return fanouts.sum();
+    }
+
+    public static long getTimelineWriteCount() {
+        return timelineWrites.sum();
+    }
+
+    public static long getPullOnlyPostCount() {
+        return pullOnlyPosts.sum();
+    }
+
+    public static long getFailureCount() {
+        return failures.sum();
+    }
+
+    public static long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    public static int getPendingInvalidationCount() {
+        return pendingInvalidations.size();
+    }
+}
@@ -1,15 +1,50 @@
 package io.winapps.voizy.util;
 
+import io.winapps.voizy.metrics.LatencyHistogram;
+import io.winapps.voizy.metrics.MetricsRegistry;
 import org.mindrot.jbcrypt.BCrypt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
+/**
+ * Password hashing and salt generation.
+ * BCrypt runs on a dedicated executor bounded to a share of the cores, so a login or
+ * sign-up surge queues there instead of occupying request threads. When the queue is
+ * full, callers get a ServiceUnavailableException immediately.
+ */
 public class HashingUtil {
     private static final Logger logger = LoggerFactory.getLogger(HashingUtil.class);
 
+    private static final int BCRYPT_COST = Math.max(4, Math.min(31, EnvUtil.getInt("BCRYPT_COST", 15)));
+    private static final int THREADS = EnvUtil.getInt("PASSWORD_HASH_THREADS",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int QUEUE_CAPACITY = EnvUtil.getInt("PASSWORD_HASH_QUEUE_CAPACITY", THREADS * 8);
+    private static final long TIMEOUT_MS = EnvUtil.getLong("PASSWORD_HASH_TIMEOUT_MS", 30_000);
+    private static final long RETRY_AFTER_SECONDS = EnvUtil.getLong("PASSWORD_HASH_RETRY_AFTER_SECONDS", 2);
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private static final double[] HASH_BUCKETS = {0.01, 0.05, 0.1, 0.25, 0.5, 1, 2, 4, 8, 16, 32};
+
+    private static final LatencyHistogram hashLatency = MetricsRegistry.histogram("voizy_password_hash_seconds",
+            "Time spent computing BCrypt hashes, by operation", HASH_BUCKETS, "operation", "hash");
+    private static final LatencyHistogram checkLatency = MetricsRegistry.histogram("voizy_password_hash_seconds",
+            "Time spent computing BCrypt hashes, by operation", HASH_BUCKETS, "operation", "check");
+    private static final LatencyHistogram queueWait = MetricsRegistry.histogram("voizy_password_hash_queue_wait_seconds",
+            "Time hashing tasks waited for a thread", HASH_BUCKETS);
+
+    private static ThreadPoolExecutor executor;
+
     /**
      * Generate a random salt of specified length
      * @param length Length of the salt to generate
@@ -23,12 +58,13 @@ public class HashingUtil {
     }
 
     /**
-     * Hash a password using BCrypt
+     * Hash a password using BCrypt at the configured cost (BCRYPT_COST)
      * @param password The password to hash
      * @return Hashed password string
+     * @throws ServiceUnavailableException If the hashing queue is full or the hash timed out
      */
     public static String hashPassword(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt(15));
+        return runOnExecutor(() -> hash(password));
     }
 
     /**
@@ -36,13 +72,121 @@ public class HashingUtil {
      * @param password Plain text password
      * @param hash Hash to check against
      * @return True if the password matches the hash
+     * @throws ServiceUnavailableException If the hashing queue is full or the check timed out
      */
     public static boolean checkPasswordHash(String password, String hash) {
+        return runOnExecutor(() -> check(password, hash));
+    }
+
+    /**
+     * @return True if the hash was made with a cost other than the configured one
+     */
+    public static boolean needsRehash(String hash) {
+        Integer cost = parseCost(hash);
+        return cost != null && cost != BCRYPT_COST;
+    }
+
+    /**
+     * Hash a password at the configured cost in the background, e.g. to upgrade a stored
+     * hash after a successful login. Skipped when the hashing queue is full; the next
+     * login tries again.
+     * @param onHashed Called on the hashing executor with the new hash
+     * @return True if the rehash was queued
+     */
+    public static boolean rehashInBackground(String password, Consumer<String> onHashed) {
+        try {
+            getExecutor().execute(() -> {
+                try {
+                    onHashed.accept(hash(password));
+                } catch (Exception e) {
+                    logger.error("Error rehashing password", e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.debug("Password hashing queue full; rehash skipped");
+            return false;
+        }
+    }
+
+    public static int getCost() {
+        return BCRYPT_COST;
+    }
+
+    public static synchronized void shutdown() {
+        BoundedExecutors.shutdown(executor, SHUTDOWN_TIMEOUT_MS);
+        executor = null;
+    }
+
+    private static String hash(String password) {
+        long startTime = System.nanoTime();
+        try {
+            return BCrypt.hashpw(password, BCrypt.gensalt(BCRYPT_COST));
+        } finally {
+            hashLatency.recordNanos(System.nanoTime() - startTime);
+        }
+    }
+
+    private static boolean check(String password, String hash) {
+        long startTime = System.nanoTime();
         try {
             return BCrypt.checkpw(password, hash);
         } catch (Exception e) {
             logger.error("Error checking password hash", e);
             return false;
+        } finally {
+            checkLatency.recordNanos(System.nanoTime() - startTime);
+        }
+    }
+
+    private static <T> T runOnExecutor(Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = getExecutor().submit(() -> {
+                queueWait.recordNanos(System.nanoTime() - queuedAt);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many password operations in progress, please retry", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailableException("Password operation timed out, please retry", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password operation interrupted", RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Password operation failed", cause);
+        }
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = BoundedExecutors.newBoundedExecutor("voizy-password-hashing", THREADS, QUEUE_CAPACITY);
+        }
+        return executor;
+    }
+
+    /**
+     * Read the cost from a "$2a$NN$..." hash, or null if it is not a BCrypt hash
+     */
+    private static Integer parseCost(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return null;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 }
@@ -1,23 +1,58 @@
 package io.winapps.voizy.util;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 public class JwtUtil {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
     private static final String JWT_SECRET_KEY = "my_super_duper_uber_secret_and_cool_jwt_key_for_voizy"; // TODO: replace in production; for testing only!
     private static final Key SIGNING_KEY = Keys.hmacShaKeyFor(JWT_SECRET_KEY.getBytes());
+    // Parsers are immutable and thread-safe; build once instead of per request
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(SIGNING_KEY)
+            .build();
+
+    /**
+     * Recently verified tokens, keyed by SHA-256 digest so raw bearer tokens are not
+     * retained. Entries are also dropped once the token itself expires. Until tokens
+     * can be revoked, the TTL is the longest a cached token outlives a key change.
+     */
+    private static final Cache<HashCode, VerifiedToken> verifiedTokens = CacheBuilder.newBuilder()
+            .maximumSize(EnvUtil.getLong("JWT_CACHE_MAX_SIZE", 100_000))
+            .expireAfterWrite(EnvUtil.getLong("JWT_CACHE_TTL_SECONDS", 300), TimeUnit.SECONDS)
+            .build();
+
+    private static final LongAdder cacheHits = new LongAdder();
+    private static final LongAdder cacheMisses = new LongAdder();
+
+    private static final class VerifiedToken {
+        private final String userID;
+        private final long expiresAtMillis;
+
+        private VerifiedToken(String userID, long expiresAtMillis) {
+            this.userID = userID;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
 
     public static String getJwtSecretKey() {
         return JWT_SECRET_KEY;
@@ -81,10 +116,51 @@ public class JwtUtil {
      * @return Claims from the token if valid
      */
     public static Claims validateToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SIGNING_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return PARSER.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Validate a JWT token and return its userID claim.
+     * A token that was verified recently is served from cache until it expires;
+     * anything else is fully parsed and verified.
+     * @param token JWT token to validate
+     * @return The userID claim, or null if the token has none
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public static String verifyUserID(String token) {
+        HashCode digest = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (System.currentTimeMillis() < cached.expiresAtMillis) {
+                cacheHits.increment();
+                return cached.userID;
+            }
+            // Fall through so the parser reports the expiry
+            verifiedTokens.invalidate(digest);
+        }
+
+        cacheMisses.increment();
+        Claims claims = validateToken(token);
+        String userID = claims.get("userID", String.class);
+        Date expiration = claims.getExpiration();
+
+        if (userID != null && expiration != null) {
+            verifiedTokens.put(digest, new VerifiedToken(userID, expiration.getTime()));
+        }
+
+        return userID;
+    }
+
+    public static long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    public static long getCacheMissCount() {
+        return cacheMisses.sum();
+    }
+
+    public static long getCacheSize() {
+        return verifiedTokens.size();
     }
 }
@@ -0,0 +1,73 @@
+package io.winapps.voizy.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.winapps.voizy.models.posts.ListPost;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a ListPostsResponse to a stream one post at a time.
+ * The output has the same fields, in the same order, as serializing a ListPostsResponse
+ * with JsonUtil's mapper, but only the post being written is held in memory.
+ */
+public class ListPostsJsonWriter implements Closeable {
+    private static final ObjectWriter postWriter = JsonUtil.getObjectMapper()
+            .writerFor(ListPost.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final JsonGenerator generator;
+    private long count;
+    private ListPost lastPost;
+
+    public ListPostsJsonWriter(OutputStream out) throws IOException {
+        this.generator = JsonUtil.getObjectMapper().getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // If a row fails mid-stream, leave the JSON unterminated so clients see an error,
+        // and leave the response open so an error before the first flush can still be sent
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeFieldName("posts");
+        generator.writeStartArray();
+    }
+
+    public void writePost(ListPost post) throws IOException {
+        postWriter.writeValue(generator, post);
+        count++;
+        lastPost = post;
+    }
+
+    /**
+     * Close the posts array and write the remaining fields
+     * @param totalPosts Total posts, or null to leave totalPosts and totalPages out
+     */
+    public void finish(long limit, long page, Long totalPosts, Long totalPages, String nextCursor) throws IOException {
+        generator.writeEndArray();
+        generator.writeNumberField("limit", limit);
+        generator.writeNumberField("page", page);
+        if (totalPosts != null) {
+            generator.writeNumberField("totalPosts", totalPosts);
+            generator.writeNumberField("totalPages", totalPages);
+        }
+        generator.writeStringField("nextCursor", nextCursor);
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public ListPost getLastPost() {
+        return lastPost;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
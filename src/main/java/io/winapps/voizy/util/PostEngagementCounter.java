@@ -0,0 +1,142 @@
+package io.winapps.voizy.util;
+
+import io.winapps.voizy.repositories.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates post impressions and views in memory and adds them to posts.impressions
+ * and posts.views every POST_ENGAGEMENT_FLUSH_INTERVAL_MS.
+ * A flush is one UPDATE per chunk of posts, no matter how many times each was seen, so
+ * a viral post costs one row write per interval instead of one per request. Deltas
+ * from a failed flush are added back and retried; shutdown() writes what is left.
+ */
+public class PostEngagementCounter {
+    private static final Logger logger = LoggerFactory.getLogger(PostEngagementCounter.class);
+
+    private static final long FLUSH_INTERVAL_MS = EnvUtil.getLong("POST_ENGAGEMENT_FLUSH_INTERVAL_MS", 5_000);
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private static final PostRepository postRepository = new PostRepository();
+    private static final StripedCounters<Long> impressions = new StripedCounters<>();
+    private static final StripedCounters<Long> views = new StripedCounters<>();
+
+    private static final LongAdder recordedImpressions = new LongAdder();
+    private static final LongAdder recordedViews = new LongAdder();
+    private static final LongAdder flushedRows = new LongAdder();
+    private static final LongAdder flushCount = new LongAdder();
+    private static final LongAdder failedFlushes = new LongAdder();
+    private static final LongAdder totalFlushTimeNanos = new LongAdder();
+
+    private static volatile ScheduledExecutorService scheduler;
+    private static volatile boolean running = true;
+
+    public static void recordImpressions(Collection<Long> postIds) {
+        for (long postId : postIds) {
+            impressions.increment(postId);
+        }
+        recordedImpressions.add(postIds.size());
+        ensureStarted();
+    }
+
+    public static void recordViews(Collection<Long> postIds) {
+        for (long postId : postIds) {
+            views.increment(postId);
+        }
+        recordedViews.add(postIds.size());
+        ensureStarted();
+    }
+
+    private static void ensureStarted() {
+        if (scheduler == null && running) {
+            startScheduler();
+        }
+    }
+
+    private static synchronized void startScheduler() {
+        if (scheduler != null || !running) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                VirtualThreadsUtil.newThreadFactory("post-engagement-flusher"));
+        scheduler.scheduleWithFixedDelay(PostEngagementCounter::flush,
+                FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write all counts recorded so far. Only the flusher thread and shutdown() call this.
+     */
+    static synchronized void flush() {
+        Map<Long, Long> impressionDeltas = impressions.drain();
+        Map<Long, Long> viewDeltas = views.drain();
+        if (impressionDeltas.isEmpty() && viewDeltas.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            flushedRows.add(postRepository.addEngagementCounts(impressionDeltas, viewDeltas));
+            flushCount.increment();
+        } catch (Exception e) {
+            failedFlushes.increment();
+            logger.error("Error writing engagement counts for {} posts; retrying on next flush",
+                    impressionDeltas.size() + viewDeltas.size(), e);
+            impressionDeltas.forEach(impressions::add);
+            viewDeltas.forEach(views::add);
+        } finally {
+            totalFlushTimeNanos.add(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Stop the flusher and write everything still counted.
+     * Call after the server has stopped taking requests.
+     */
+    public static void shutdown() {
+        synchronized (PostEngagementCounter.class) {
+            running = false;
+        }
+        BoundedExecutors.shutdown(scheduler, SHUTDOWN_TIMEOUT_MS);
+        scheduler = null;
+
+        // Twice, so increments still in the retired generation after the first drain are written too
+        flush();
+        flush();
+    }
+
+    public static long getRecordedImpressionCount() {
+        return recordedImpressions.sum();
+    }
+
+    public static long getRecordedViewCount() {
+        return recordedViews.sum();
+    }
+
+    public static int getPendingPostCount() {
+        return impressions.size() + views.size();
+    }
+
+    public static long getFlushedRowCount() {
+        return flushedRows.sum();
+    }
+
+    public static long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public static long getFailedFlushCount() {
+        return failedFlushes.sum();
+    }
+
+    public static long getTotalFlushTimeNanos() {
+        return totalFlushTimeNanos.sum();
+    }
+}
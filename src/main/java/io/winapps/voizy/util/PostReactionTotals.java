@@ -0,0 +1,108 @@
+package io.winapps.voizy.util;
+
+import io.winapps.voizy.repositories.PostCountersRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates changes to each post's reaction total in memory and adds them to
+ * post_counters.total_reactions every POST_REACTION_TOTALS_FLUSH_INTERVAL_MS.
+ * Reactions themselves only lock the user's post_reactions row and one shard row, so
+ * the total is the one value every reaction to a post would otherwise queue on. Totals
+ * read by listPosts lag by up to one interval; rebuildAll corrects any drift, e.g.
+ * from changes still pending when a node crashed.
+ */
+public class PostReactionTotals {
+    private static final Logger logger = LoggerFactory.getLogger(PostReactionTotals.class);
+
+    private static final long FLUSH_INTERVAL_MS = EnvUtil.getLong("POST_REACTION_TOTALS_FLUSH_INTERVAL_MS", 5_000);
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private static final PostCountersRepository postCountersRepository = new PostCountersRepository();
+    private static final StripedCounters<Long> totals = new StripedCounters<>();
+
+    private static final LongAdder flushedRows = new LongAdder();
+    private static final LongAdder flushCount = new LongAdder();
+    private static final LongAdder failedFlushes = new LongAdder();
+
+    private static volatile ScheduledExecutorService scheduler;
+    private static volatile boolean running = true;
+
+    /**
+     * Record a committed change to a post's reaction total, +1 for a new reaction and -1 for a removed one
+     */
+    public static void record(long postId, long delta) {
+        totals.add(postId, delta);
+        if (scheduler == null && running) {
+            startScheduler();
+        }
+    }
+
+    private static synchronized void startScheduler() {
+        if (scheduler != null || !running) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                VirtualThreadsUtil.newThreadFactory("post-reaction-totals-flusher"));
+        scheduler.scheduleWithFixedDelay(PostReactionTotals::flush,
+                FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write all changes recorded so far. Only the flusher thread and shutdown() call this.
+     */
+    static synchronized void flush() {
+        Map<Long, Long> deltas = totals.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushedRows.add(postCountersRepository.addReactionTotals(deltas));
+            flushCount.increment();
+        } catch (Exception e) {
+            failedFlushes.increment();
+            logger.error("Error writing reaction totals for {} posts; retrying on next flush", deltas.size(), e);
+            deltas.forEach(totals::add);
+        }
+    }
+
+    /**
+     * Stop the flusher and write everything still recorded.
+     * Call after the server has stopped taking requests.
+     */
+    public static void shutdown() {
+        synchronized (PostReactionTotals.class) {
+            running = false;
+        }
+        BoundedExecutors.shutdown(scheduler, SHUTDOWN_TIMEOUT_MS);
+        scheduler = null;
+
+        // Twice, so changes still in the retired generation after the first drain are written too
+        flush();
+        flush();
+    }
+
+    public static int getPendingPostCount() {
+        return totals.size();
+    }
+
+    public static long getFlushedRowCount() {
+        return flushedRows.sum();
+    }
+
+    public static long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public static long getFailedFlushCount() {
+        return failedFlushes.sum();
+    }
+}
@@ -0,0 +1,18 @@
+package io.winapps.voizy.util;
+
+/**
+ * Thrown when work is shed because a bounded resource is saturated.
+ * Controllers answer it with 503 and a Retry-After header.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
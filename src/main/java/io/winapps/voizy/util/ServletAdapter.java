@@ -1,13 +1,35 @@
 package io.winapps.voizy.util;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.winapps.voizy.metrics.LatencyHistogram;
+import io.winapps.voizy.metrics.MetricsRegistry;
+import io.winapps.voizy.models.middleware.ErrorResponse;
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 
 public class ServletAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(ServletAdapter.class);
+    private static final ObjectMapper objectMapper = JsonUtil.getObjectMapper();
+
+    private static final long RETRY_AFTER_SECONDS = EnvUtil.getLong("ASYNC_RETRY_AFTER_SECONDS", 1);
+    private static final long MAX_QUEUE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            EnvUtil.getLong("ASYNC_MAX_QUEUE_WAIT_MS", 5000)
+    );
+    private static final double[] QUEUE_WAIT_BUCKETS = {
+            0.0001, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5
+    };
+
     public static BiConsumer<HttpServletRequest, HttpServletResponse> servletToBiConsumer(HttpServlet servlet) {
         return (req, res) -> {
             try {
@@ -27,4 +49,94 @@ public class ServletAdapter {
             }
         };
     }
+
+    /**
+     * Create a servlet that runs the handler on the given executor using AsyncContext,
+     * so the Jetty thread is released while the handler waits on the database.
+     * If the executor rejects the request, or the request waited in its queue longer
+     * than ASYNC_MAX_QUEUE_WAIT_MS, it is answered with 503 and Retry-After instead.
+     * The servlet's holder must have async support enabled.
+     * @param route Route label for queue-wait and shed metrics
+     * @param handler Handler to run
+     * @param executor Bounded executor that rejects when full
+     * @return Servlet wrapping the handler
+     */
+    public static HttpServlet biConsumerToAsyncServlet(String route, BiConsumer<HttpServletRequest, HttpServletResponse> handler, Executor executor) {
+        return biConsumerToAsyncServlet(route, handler, executor, MAX_QUEUE_WAIT_NANOS);
+    }
+
+    static HttpServlet biConsumerToAsyncServlet(String route, BiConsumer<HttpServletRequest, HttpServletResponse> handler,
+                                               Executor executor, long maxQueueWaitNanos) {
+        LatencyHistogram queueWait = MetricsRegistry.histogram(
+                "voizy_http_queue_wait_seconds",
+                "Time requests waited for a handler thread, by route",
+                QUEUE_WAIT_BUCKETS,
+                "route", route
+        );
+        LongAdder shed = new LongAdder();
+        MetricsRegistry.counter(
+                "voizy_http_requests_shed_total",
+                "Requests answered with 503 because the handler executor was saturated, by route",
+                shed::sum,
+                "route", route
+        );
+
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                AsyncContext async = req.startAsync();
+                // Handlers always complete the context themselves; queue time is bounded separately
+                async.setTimeout(0);
+                long enqueuedAt = System.nanoTime();
+
+                try {
+                    executor.execute(() -> {
+                        long waited = System.nanoTime() - enqueuedAt;
+                        queueWait.recordNanos(waited);
+
+                        HttpServletRequest asyncReq = (HttpServletRequest) async.getRequest();
+                        HttpServletResponse asyncResp = (HttpServletResponse) async.getResponse();
+
+                        try {
+                            if (waited > maxQueueWaitNanos) {
+                                shed.increment();
+                                sendServiceUnavailable(asyncResp);
+                                return;
+                            }
+
+                            handler.accept(asyncReq, asyncResp);
+                        } catch (Exception e) {
+                            logger.error("Unhandled error in async handler for {}", route, e);
+                            if (!asyncResp.isCommitted()) {
+                                asyncResp.reset();
+                                asyncResp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                            }
+                        } finally {
+                            async.complete();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    shed.increment();
+                    try {
+                        sendServiceUnavailable(resp);
+                    } finally {
+                        // The async timeout is disabled, so nothing else would end the request
+                        async.complete();
+                    }
+                }
+            }
+        };
+    }
+
+    private static void sendServiceUnavailable(HttpServletResponse resp) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                Integer.toString(HttpServletResponse.SC_SERVICE_UNAVAILABLE),
+                "Server is busy, please retry"
+        );
+
+        resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        resp.setHeader("Retry-After", Long.toString(RETRY_AFTER_SECONDS));
+        resp.setContentType("application/json");
+        objectMapper.writeValue(resp.getOutputStream(), errorResponse);
+    }
 }
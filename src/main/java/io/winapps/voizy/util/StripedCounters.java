@@ -0,0 +1,64 @@
+package io.winapps.voizy.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-key counters for hot write paths, drained periodically.
+ * Each key has a LongAdder, so concurrent increments of one key spread over striped
+ * cells instead of contending on a single value. drain() swaps in an empty generation
+ * and collects the old one; the generation before that is collected again on the next
+ * drain to pick up increments from threads that read it just before the swap. Since
+ * LongAdder.sumThenReset takes each cell with getAndSet, every increment is returned
+ * by exactly one drain. Memory is bounded by the keys touched in two drain intervals.
+ */
+public class StripedCounters<K> {
+    private volatile ConcurrentHashMap<K, LongAdder> current = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<K, LongAdder> retired = new ConcurrentHashMap<>();
+
+    public void add(K key, long delta) {
+        ConcurrentHashMap<K, LongAdder> counters = current;
+        LongAdder adder = counters.get(key);
+        if (adder == null) {
+            adder = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        adder.add(delta);
+    }
+
+    public void increment(K key) {
+        add(key, 1);
+    }
+
+    /**
+     * Take every count added since the previous drain
+     * @return Non-zero totals by key
+     */
+    public synchronized Map<K, Long> drain() {
+        ConcurrentHashMap<K, LongAdder> previous = current;
+        current = new ConcurrentHashMap<>();
+
+        Map<K, Long> totals = new HashMap<>();
+        collect(retired, totals);
+        collect(previous, totals);
+        retired = previous;
+        return totals;
+    }
+
+    /**
+     * @return Keys counted since the last drain
+     */
+    public int size() {
+        return current.size();
+    }
+
+    private static <K> void collect(Map<K, LongAdder> counters, Map<K, Long> totals) {
+        for (Map.Entry<K, LongAdder> entry : counters.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            if (count != 0) {
+                totals.merge(entry.getKey(), count, Long::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.winapps.voizy.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Utility class for opting into virtual threads.
+ * The build targets Java 11, so virtual threads are reached through reflection and
+ * are only used when the server runs on Java 21+ with VIRTUAL_THREADS=true.
+ * Otherwise platform threads are used.
+ */
+public class VirtualThreadsUtil {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsUtil.class);
+    private static final boolean SUPPORTED = probeSupport();
+    private static final boolean ENABLED = resolveEnabled();
+
+    private static boolean probeSupport() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static boolean resolveEnabled() {
+        boolean requested = EnvUtil.getBoolean("VIRTUAL_THREADS", false);
+        if (requested && !SUPPORTED) {
+            logger.warn("VIRTUAL_THREADS=true but Java {} has no virtual threads; using platform threads",
+                    System.getProperty("java.version"));
+        }
+        return requested && SUPPORTED;
+    }
+
+    /**
+     * @return True if the running JVM supports virtual threads
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * @return True if virtual threads were requested and are supported
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Create a thread factory that produces virtual threads when enabled,
+     * or daemon platform threads otherwise
+     * @param namePrefix Prefix for thread names; a counter is appended
+     * @return Thread factory
+     */
+    public static ThreadFactory newThreadFactory(String namePrefix) {
+        if (ENABLED) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                Method name = builderClass.getMethod("name", String.class, long.class);
+                builder = name.invoke(builder, namePrefix + "-", 0L);
+                return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Failed to create virtual thread factory for {}; using platform threads", namePrefix, e);
+            }
+        }
+
+        return new ThreadFactory() {
+            private int counter = 0;
+
+            @Override
+            public synchronized Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, namePrefix + "-" + counter++);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
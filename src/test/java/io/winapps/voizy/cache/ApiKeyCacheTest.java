@@ -0,0 +1,110 @@
+package io.winapps.voizy.cache;
+
+import io.winapps.voizy.models.middleware.APIKey;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiKeyCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void testGet_PositiveResultCached() throws Exception {
+        APIKey apiKey = apiKey("sk_positive");
+        long hitsBefore = ApiKeyCache.getHitCount();
+
+        assertSame(apiKey, ApiKeyCache.get(1001L, "sk_positive", () -> load(apiKey)));
+        assertSame(apiKey, ApiKeyCache.get(1001L, "sk_positive", () -> load(apiKeyFromDatabase())));
+
+        assertEquals(1, loads.get());
+        assertEquals(hitsBefore + 1, ApiKeyCache.getHitCount());
+    }
+
+    @Test
+    public void testGet_NegativeResultCached() throws Exception {
+        long negativeHitsBefore = ApiKeyCache.getNegativeHitCount();
+
+        assertNull(ApiKeyCache.get(1002L, "sk_missing", () -> load(null)));
+        assertNull(ApiKeyCache.get(1002L, "sk_missing", () -> load(apiKeyFromDatabase())));
+
+        assertEquals(1, loads.get());
+        assertEquals(negativeHitsBefore + 1, ApiKeyCache.getNegativeHitCount());
+    }
+
+    @Test
+    public void testGet_KeyedByUserAndKey() throws Exception {
+        ApiKeyCache.get(1003L, "sk_shared", () -> load(apiKey("sk_shared")));
+
+        // The same key string presented for another user is looked up separately
+        assertNull(ApiKeyCache.get(1004L, "sk_shared", () -> load(null)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testGet_LoadFailureNotCached() throws Exception {
+        long failuresBefore = ApiKeyCache.getLoadFailureCount();
+
+        assertThrows(SQLException.class, () -> ApiKeyCache.get(1005L, "sk_flaky", () -> {
+            loads.incrementAndGet();
+            throw new SQLException("Connection refused");
+        }));
+        APIKey apiKey = apiKey("sk_flaky");
+        assertSame(apiKey, ApiKeyCache.get(1005L, "sk_flaky", () -> load(apiKey)));
+
+        assertEquals(2, loads.get());
+        assertEquals(failuresBefore + 1, ApiKeyCache.getLoadFailureCount());
+    }
+
+    @Test
+    public void testInvalidate_DropsPositiveEntry() throws Exception {
+        ApiKeyCache.get(1006L, "sk_rotated", () -> load(apiKey("sk_rotated")));
+
+        ApiKeyCache.invalidate(1006L, "sk_rotated");
+
+        assertNull(ApiKeyCache.get(1006L, "sk_rotated", () -> load(null)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidate_DropsNegativeEntry() throws Exception {
+        ApiKeyCache.get(1007L, "sk_new", () -> load(null));
+
+        // The key was just stored, so the remembered miss must go
+        ApiKeyCache.invalidate(1007L, "sk_new");
+
+        APIKey apiKey = apiKey("sk_new");
+        assertSame(apiKey, ApiKeyCache.get(1007L, "sk_new", () -> load(apiKey)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidate_LeavesUsersOtherKeys() throws Exception {
+        APIKey kept = apiKey("sk_kept");
+        ApiKeyCache.get(1008L, "sk_kept", () -> load(kept));
+        ApiKeyCache.get(1008L, "sk_dropped", () -> load(apiKey("sk_dropped")));
+
+        ApiKeyCache.invalidate(1008L, "sk_dropped");
+
+        assertSame(kept, ApiKeyCache.get(1008L, "sk_kept", () -> load(null)));
+        assertEquals(2, loads.get());
+    }
+
+    private APIKey load(APIKey apiKey) {
+        loads.incrementAndGet();
+        return apiKey;
+    }
+
+    private static APIKey apiKeyFromDatabase() {
+        return apiKey("sk_from_database");
+    }
+
+    private static APIKey apiKey(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        return new APIKey(key, now, now, now.plusDays(90), now);
+    }
+}
@@ -0,0 +1,222 @@
+package io.winapps.voizy.cache;
+
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.models.users.GetUserProfileResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ProfileCacheTest {
+    private static final long USER_ID = 7L;
+    private static final String PROFILE_KEY = "voizy:profile:" + USER_ID;
+    private static final String VERSION_KEY = "voizy:profile:version:" + USER_ID;
+    private static final String CHANNEL = "voizy:profile:invalidate";
+
+    private MockedStatic<DatabaseManager> databaseManager;
+    private Jedis jedis;
+
+    /** Stands in for Redis: string keys only, enough for the commands and scripts ProfileCache runs */
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+    private final List<String> published = new CopyOnWriteArrayList<>();
+    private final CountDownLatch subscribed = new CountDownLatch(1);
+    private volatile JedisPubSub subscriber;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        jedis = mock(Jedis.class);
+        JedisPool jedisPool = mock(JedisPool.class);
+        when(jedisPool.getResource()).thenReturn(jedis);
+
+        databaseManager = mockStatic(DatabaseManager.class);
+        databaseManager.when(DatabaseManager::getJedisPool).thenReturn(jedisPool);
+
+        when(jedis.mget(anyString(), anyString())).thenAnswer(invocation ->
+                Arrays.asList(redis.get(invocation.<String>getArgument(0)), redis.get(invocation.<String>getArgument(1))));
+        when(jedis.eval(anyString(), anyList(), anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            List<String> args = invocation.getArgument(2);
+            if (args.size() == 3) {
+                // Write-back: only while the version is still the one read before the load
+                if (!redis.getOrDefault(keys.get(1), "0").equals(args.get(0))) {
+                    return 0L;
+                }
+                redis.put(keys.get(0), args.get(2));
+            } else {
+                // Invalidation: bump the version and drop the profile
+                redis.merge(keys.get(1), "1", (version, one) -> Long.toString(Long.parseLong(version) + 1));
+                redis.remove(keys.get(0));
+            }
+            return 1L;
+        });
+        when(jedis.publish(anyString(), anyString())).thenAnswer(invocation -> {
+            published.add(invocation.getArgument(1));
+            return 1L;
+        });
+        doAnswer(invocation -> {
+            subscriber = invocation.getArgument(0);
+            subscriber.onSubscribe(CHANNEL, 1);
+            subscribed.countDown();
+            // Held like a real subscription until shutdown() interrupts the thread
+            new CountDownLatch(1).await();
+            return null;
+        }).when(jedis).subscribe(any(JedisPubSub.class), anyString());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ProfileCache.shutdown();
+        databaseManager.close();
+    }
+
+    @Test
+    public void testLocalTier_ServesRepeatReads() throws Exception {
+        initWithRedis(false);
+
+        assertEquals("Ann", ProfileCache.get(USER_ID, () -> load("Ann")).getPreferredName());
+        assertEquals("Ann", ProfileCache.get(USER_ID, () -> load("Bob")).getPreferredName());
+
+        assertEquals(1, loads.get());
+        verifyNoInteractions(jedis);
+    }
+
+    @Test
+    public void testNotInitialized_CallsLoader() throws Exception {
+        assertEquals("Ann", ProfileCache.get(USER_ID, () -> load("Ann")).getPreferredName());
+        assertEquals("Bob", ProfileCache.get(USER_ID, () -> load("Bob")).getPreferredName());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testRedisTier_WrittenOnLoadAndServedAfterLocalDrop() throws Exception {
+        initWithRedis(true);
+
+        ProfileCache.get(USER_ID, () -> load("Ann"));
+        assertTrue(redis.get(PROFILE_KEY).contains("Ann"));
+
+        // Another node's invalidation message drops only the local copy here
+        subscriber.onMessage(CHANNEL, Long.toString(USER_ID));
+        assertEquals(0, ProfileCache.getLocalSize());
+
+        assertEquals("Ann", ProfileCache.get(USER_ID, () -> load("Bob")).getPreferredName());
+        assertEquals(1, loads.get());
+        assertTrue(ProfileCache.getInvalidationsReceivedCount() > 0);
+    }
+
+    @Test
+    public void testInvalidate_DropsBothTiersAndPublishes() throws Exception {
+        initWithRedis(true);
+        ProfileCache.get(USER_ID, () -> load("Ann"));
+
+        ProfileCache.invalidate(USER_ID);
+
+        assertNull(redis.get(PROFILE_KEY));
+        assertEquals("1", redis.get(VERSION_KEY));
+        assertEquals(List.of(Long.toString(USER_ID)), published);
+        assertEquals("Bob", ProfileCache.get(USER_ID, () -> load("Bob")).getPreferredName());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidateDuringLoad_NotWrittenBack() throws Exception {
+        initWithRedis(true);
+
+        GetUserProfileResponse stale = ProfileCache.get(USER_ID, () -> {
+            GetUserProfileResponse profile = load("Ann");
+            // The profile is updated after the loader read it
+            ProfileCache.invalidate(USER_ID);
+            return profile;
+        });
+
+        assertEquals("Ann", stale.getPreferredName());
+        assertNull(redis.get(PROFILE_KEY));
+        assertEquals(0, ProfileCache.getLocalSize());
+        assertEquals("Bob", ProfileCache.get(USER_ID, () -> load("Bob")).getPreferredName());
+    }
+
+    @Test
+    public void testInvalidateDuringLoad_LocalOnly_NotWrittenBack() throws Exception {
+        initWithRedis(false);
+
+        ProfileCache.get(USER_ID, () -> {
+            GetUserProfileResponse profile = load("Ann");
+            ProfileCache.invalidate(USER_ID);
+            return profile;
+        });
+
+        assertEquals(0, ProfileCache.getLocalSize());
+        assertEquals("Bob", ProfileCache.get(USER_ID, () -> load("Bob")).getPreferredName());
+    }
+
+    @Test
+    public void testInvalidationMessageDuringLoad_NotWrittenBack() throws Exception {
+        initWithRedis(true);
+        // Another node invalidates while this one is loading: its script bumps the version
+        // and the message reaches this node's subscriber
+        ProfileCache.get(USER_ID, () -> {
+            GetUserProfileResponse profile = load("Ann");
+            redis.put(VERSION_KEY, "1");
+            subscriber.onMessage(CHANNEL, Long.toString(USER_ID));
+            return profile;
+        });
+
+        assertNull(redis.get(PROFILE_KEY));
+        assertEquals(0, ProfileCache.getLocalSize());
+    }
+
+    @Test
+    public void testMalformedInvalidationMessage_Ignored() throws Exception {
+        initWithRedis(true);
+        ProfileCache.get(USER_ID, () -> load("Ann"));
+
+        subscriber.onMessage(CHANNEL, "not-a-user");
+
+        assertEquals(1, ProfileCache.getLocalSize());
+    }
+
+    @Test
+    public void testRedisFailure_ServesFromLoaderWithoutWriteBack() throws Exception {
+        initWithRedis(true);
+        when(jedis.mget(anyString(), anyString())).thenThrow(new RuntimeException("Connection refused"));
+
+        assertEquals("Ann", ProfileCache.get(USER_ID, () -> load("Ann")).getPreferredName());
+
+        verify(jedis, never()).eval(anyString(), anyList(), anyList());
+        assertEquals(1, ProfileCache.getLocalSize());
+    }
+
+    private void initWithRedis(boolean available) throws InterruptedException {
+        databaseManager.when(DatabaseManager::isRedisAvailable).thenReturn(available);
+        ProfileCache.init();
+        if (available) {
+            assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private GetUserProfileResponse load(String preferredName) {
+        loads.incrementAndGet();
+        GetUserProfileResponse profile = new GetUserProfileResponse();
+        profile.setUserID(USER_ID);
+        profile.setPreferredName(preferredName);
+        return profile;
+    }
+}
@@ -0,0 +1,176 @@
+package io.winapps.voizy.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CompressingResponseWrapperTest {
+    private static final int MIN_BYTES = 256;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private CapturingOutputStream body;
+    private DeflaterPool deflaterPool;
+    private CompressingResponseWrapper wrapper;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        body = new CapturingOutputStream();
+        deflaterPool = new DeflaterPool(5, 4);
+        wrapper = new CompressingResponseWrapper(response, new GzipCodec(deflaterPool), MIN_BYTES);
+
+        when(response.getOutputStream()).thenReturn(body);
+        when(response.getContentType()).thenReturn("application/json");
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        // Like a real response, resetting drops whatever is still in the buffer
+        doAnswer(invocation -> {
+            body.bytes.reset();
+            return null;
+        }).when(response).resetBuffer();
+        doAnswer(invocation -> {
+            body.bytes.reset();
+            return null;
+        }).when(response).sendError(anyInt());
+    }
+
+    @Test
+    public void testAboveThreshold_GzipRoundTrip() throws Exception {
+        byte[] json = jsonOfSize(10_000);
+
+        wrapper.getOutputStream().write(json);
+        wrapper.finish();
+
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertArrayEquals(json, gunzip(body.bytes.toByteArray()));
+        assertTrue(body.bytes.size() < json.length);
+        assertEquals(1, deflaterPool.getIdleCount());
+    }
+
+    @Test
+    public void testWriterAboveThreshold_GzipRoundTrip() throws Exception {
+        String json = new String(jsonOfSize(5_000), StandardCharsets.UTF_8) + "\"caf\u00e9\"";
+
+        PrintWriter writer = wrapper.getWriter();
+        writer.print(json);
+        wrapper.finish();
+
+        assertEquals(json, new String(gunzip(body.bytes.toByteArray()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testBelowThreshold_SentUnencoded() throws Exception {
+        byte[] json = "{\"posts\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        wrapper.getOutputStream().write(json);
+        wrapper.finish();
+
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+        assertArrayEquals(json, body.bytes.toByteArray());
+        assertEquals(0, deflaterPool.getCreatedCount());
+    }
+
+    @Test
+    public void testNotCompressibleContentType_SentUnencoded() throws Exception {
+        when(response.getContentType()).thenReturn("image/png");
+        byte[] image = jsonOfSize(10_000);
+
+        wrapper.getOutputStream().write(image);
+        wrapper.finish();
+
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+        assertArrayEquals(image, body.bytes.toByteArray());
+    }
+
+    @Test
+    public void testResetBufferAfterCompressing_DiscardsEncodedOutput() throws Exception {
+        wrapper.getOutputStream().write(jsonOfSize(10_000));
+
+        wrapper.resetBuffer();
+        byte[] json = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+        wrapper.getOutputStream().write(json);
+        wrapper.finish();
+
+        verify(response).setHeader("Content-Encoding", null);
+        assertArrayEquals(json, body.bytes.toByteArray());
+        assertEquals(1, deflaterPool.getIdleCount());
+    }
+
+    @Test
+    public void testSendErrorAfterCompressing_WritesNoTrailer() throws Exception {
+        wrapper.getOutputStream().write(jsonOfSize(10_000));
+
+        wrapper.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        wrapper.finish();
+
+        verify(response).sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        verify(response).setHeader("Content-Encoding", null);
+        assertEquals(0, body.bytes.size());
+        assertEquals(1, deflaterPool.getIdleCount());
+    }
+
+    @Test
+    public void testSetWriteListener_DelegatesToResponse() throws Exception {
+        WriteListener listener = mock(WriteListener.class);
+
+        wrapper.getOutputStream().setWriteListener(listener);
+
+        assertSame(listener, body.writeListener);
+    }
+
+    private static byte[] jsonOfSize(int size) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; json.length() < size; i++) {
+            json.append("{\"postId\":").append(i).append(",\"contentText\":\"Post number ").append(i).append("\"},");
+        }
+        json.setLength(size - 1);
+        json.append("]");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static class CapturingOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private WriteListener writeListener;
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.writeListener = writeListener;
+        }
+    }
+}
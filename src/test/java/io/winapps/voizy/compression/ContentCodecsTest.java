@@ -0,0 +1,46 @@
+package io.winapps.voizy.compression;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentCodecsTest {
+    @Test
+    public void testNegotiate_Gzip() {
+        assertEquals("gzip", ContentCodecs.negotiate("gzip, deflate, br").getEncoding());
+    }
+
+    @Test
+    public void testNegotiate_Wildcard() {
+        assertEquals("gzip", ContentCodecs.negotiate("*").getEncoding());
+    }
+
+    @Test
+    public void testNegotiate_GzipRefusedOverridesWildcard() {
+        assertNull(ContentCodecs.negotiate("gzip;q=0, *"));
+        assertNull(ContentCodecs.negotiate("*, gzip;q=0"));
+    }
+
+    @Test
+    public void testNegotiate_IdentityOnly() {
+        assertNull(ContentCodecs.negotiate(null));
+        assertNull(ContentCodecs.negotiate(""));
+        assertNull(ContentCodecs.negotiate("identity"));
+        assertNull(ContentCodecs.negotiate("br"));
+    }
+
+    @Test
+    public void testQualityOf() {
+        assertEquals(0.5, ContentCodecs.qualityOf("deflate, gzip;q=0.5", "gzip"));
+        assertEquals(0.8, ContentCodecs.qualityOf("br, *;q=0.8", "gzip"));
+        assertEquals(0.0, ContentCodecs.qualityOf("gzip;q=oops", "gzip"));
+    }
+
+    @Test
+    public void testForEncoding() {
+        assertEquals("gzip", ContentCodecs.forEncoding(" GZIP ").getEncoding());
+        assertEquals("gzip", ContentCodecs.forEncoding("x-gzip").getEncoding());
+        assertNull(ContentCodecs.forEncoding("br"));
+        assertNull(ContentCodecs.forEncoding(null));
+    }
+}
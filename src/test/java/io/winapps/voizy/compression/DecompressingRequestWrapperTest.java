@@ -0,0 +1,132 @@
+package io.winapps.voizy.compression;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class DecompressingRequestWrapperTest {
+    private static final long MAX_INFLATED_BYTES = 4096;
+
+    @Mock
+    private HttpServletRequest request;
+
+    private GzipCodec codec;
+
+    @BeforeEach
+    public void setup() {
+        codec = new GzipCodec(new DeflaterPool(5, 4));
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+        when(request.getHeader("Content-Length")).thenReturn("42");
+    }
+
+    @Test
+    public void testGetInputStream_Inflates() throws Exception {
+        byte[] json = "{\"contentText\": \"Hello\"}".getBytes(StandardCharsets.UTF_8);
+        givenBody(gzip(json));
+
+        DecompressingRequestWrapper wrapper = new DecompressingRequestWrapper(request, codec, MAX_INFLATED_BYTES);
+
+        assertArrayEquals(json, wrapper.getInputStream().readAllBytes());
+        assertTrue(wrapper.getInputStream().isFinished());
+        assertNull(wrapper.getHeader("Content-Encoding"));
+        assertNull(wrapper.getHeader("Content-Length"));
+        assertEquals(-1, wrapper.getContentLength());
+    }
+
+    @Test
+    public void testGetReader_Inflates() throws Exception {
+        String json = "{\"contentText\": \"Hello\"}";
+        givenBody(gzip(json.getBytes(StandardCharsets.UTF_8)));
+
+        DecompressingRequestWrapper wrapper = new DecompressingRequestWrapper(request, codec, MAX_INFLATED_BYTES);
+
+        try (BufferedReader reader = wrapper.getReader()) {
+            assertEquals(json, reader.lines().collect(Collectors.joining("\n")));
+        }
+    }
+
+    @Test
+    public void testOversizedInflatedBody_Rejected() throws Exception {
+        // Compresses to a few dozen bytes but inflates past the limit
+        givenBody(gzip(new byte[(int) MAX_INFLATED_BYTES * 10]));
+
+        DecompressingRequestWrapper wrapper = new DecompressingRequestWrapper(request, codec, MAX_INFLATED_BYTES);
+
+        IOException exception = assertThrows(IOException.class, () -> wrapper.getInputStream().readAllBytes());
+        assertTrue(exception.getMessage().contains("exceeds " + MAX_INFLATED_BYTES));
+    }
+
+    @Test
+    public void testSetReadListener_DelegatesToRequest() throws Exception {
+        RecordingInputStream source = givenBody(gzip("{}".getBytes(StandardCharsets.UTF_8)));
+        ReadListener listener = mock(ReadListener.class);
+
+        DecompressingRequestWrapper wrapper = new DecompressingRequestWrapper(request, codec, MAX_INFLATED_BYTES);
+        wrapper.getInputStream().setReadListener(listener);
+
+        assertSame(listener, source.readListener);
+    }
+
+    private RecordingInputStream givenBody(byte[] body) throws IOException {
+        RecordingInputStream inputStream = new RecordingInputStream(new ByteArrayInputStream(body));
+        when(request.getInputStream()).thenReturn(inputStream);
+        return inputStream;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static class RecordingInputStream extends ServletInputStream {
+        private final ByteArrayInputStream inputStream;
+        private ReadListener readListener;
+
+        public RecordingInputStream(ByteArrayInputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return inputStream.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return inputStream.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.readListener = readListener;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package io.winapps.voizy.controllers;
+
+import io.winapps.voizy.middleware.AuthMiddleware;
+import io.winapps.voizy.models.comments.CreateCommentRequest;
+import io.winapps.voizy.models.comments.CreateCommentResponse;
+import io.winapps.voizy.models.comments.ListCommentsResponse;
+import io.winapps.voizy.services.CommentService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CommentControllerTest {
+    @Mock
+    private CommentService commentService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private ServletOutputStream outputStream;
+
+    private CommentController commentController;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        commentController = new CommentController(commentService);
+        when(request.getAttribute(AuthMiddleware.USER_ID_CONTEXT_KEY)).thenReturn(1L);
+        when(response.getOutputStream()).thenReturn(outputStream);
+    }
+
+    @Test
+    public void testCreateComment_Success() throws Exception {
+        when(request.getMethod()).thenReturn("POST");
+        givenBody("{\"postID\": 5, \"parentCommentID\": 9, \"contentText\": \"Agreed\"}");
+        CreateCommentResponse mockResponse = new CreateCommentResponse();
+        mockResponse.setSuccess(true);
+        mockResponse.setCommentId(12L);
+        when(commentService.createComment(eq(1L), any(CreateCommentRequest.class))).thenReturn(mockResponse);
+
+        commentController.createComment(request, response);
+
+        verify(commentService).createComment(eq(1L), argThat(req ->
+                req.getPostId() == 5L && req.getParentCommentId() == 9L && "Agreed".equals(req.getContentText())));
+        verify(response).setContentType("application/json");
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
+    @Test
+    public void testCreateComment_MissingContent() throws Exception {
+        when(request.getMethod()).thenReturn("POST");
+        givenBody("{\"postID\": 5, \"contentText\": \"   \"}");
+
+        commentController.createComment(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), contains("contentText"));
+        verifyNoInteractions(commentService);
+    }
+
+    @Test
+    public void testCreateComment_InvalidPostId() throws Exception {
+        when(request.getMethod()).thenReturn("POST");
+        givenBody("{\"contentText\": \"Hello\"}");
+
+        commentController.createComment(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing or invalid postID");
+        verifyNoInteractions(commentService);
+    }
+
+    @Test
+    public void testCreateComment_Unauthenticated() throws Exception {
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getAttribute(AuthMiddleware.USER_ID_CONTEXT_KEY)).thenReturn(null);
+
+        commentController.createComment(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_UNAUTHORIZED), anyString());
+        verifyNoInteractions(commentService);
+    }
+
+    @Test
+    public void testListComments_Success() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("postId")).thenReturn("5");
+        when(request.getParameter("parentId")).thenReturn("9");
+        when(request.getParameter("limit")).thenReturn("25");
+        when(request.getParameter("cursor")).thenReturn("abc");
+        ListCommentsResponse mockResponse = new ListCommentsResponse();
+        mockResponse.setComments(new ArrayList<>());
+        when(commentService.listComments(5L, 9L, 25, "abc")).thenReturn(mockResponse);
+
+        commentController.listComments(request, response);
+
+        verify(commentService).listComments(5L, 9L, 25, "abc");
+        verify(response).setContentType("application/json");
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
+    @Test
+    public void testListComments_DefaultsToTopLevelFirstPage() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("postId")).thenReturn("5");
+        when(commentService.listComments(eq(5L), isNull(), anyInt(), isNull())).thenReturn(new ListCommentsResponse());
+
+        commentController.listComments(request, response);
+
+        verify(commentService).listComments(eq(5L), isNull(), eq(20), isNull());
+    }
+
+    @Test
+    public void testListComments_MissingPostId() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+
+        commentController.listComments(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'postId'");
+        verifyNoInteractions(commentService);
+    }
+
+    @Test
+    public void testListComments_InvalidLimit() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("postId")).thenReturn("5");
+        when(request.getParameter("limit")).thenReturn("0");
+
+        commentController.listComments(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), contains("limit"));
+        verifyNoInteractions(commentService);
+    }
+
+    @Test
+    public void testListComments_InvalidCursor() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("postId")).thenReturn("5");
+        when(request.getParameter("cursor")).thenReturn("bad");
+        when(commentService.listComments(5L, null, 20, "bad")).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        commentController.listComments(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameter 'cursor'");
+    }
+
+    @Test
+    public void testListComments_InvalidMethod() throws Exception {
+        when(request.getMethod()).thenReturn("POST");
+
+        commentController.listComments(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_METHOD_NOT_ALLOWED), anyString());
+        verifyNoInteractions(commentService);
+    }
+
+    private void givenBody(String body) throws IOException {
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(body.getBytes());
+        when(request.getInputStream()).thenReturn(new ServletInputStreamMock(inputStream));
+    }
+
+    private static class ServletInputStreamMock extends jakarta.servlet.ServletInputStream {
+        private final ByteArrayInputStream inputStream;
+
+        public ServletInputStreamMock(ByteArrayInputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return inputStream.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return inputStream.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(jakarta.servlet.ReadListener readListener) {
+            // Not implemented for this mock
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.winapps.voizy.controllers;
+
+import io.winapps.voizy.middleware.AuthMiddleware;
+import io.winapps.voizy.models.feed.GetFeedResponse;
+import io.winapps.voizy.services.FeedService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class FeedControllerTest {
+    @Mock
+    private FeedService feedService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private ServletOutputStream outputStream;
+
+    private FeedController feedController;
+
+    @BeforeEach
+    public void setup() {
+        feedController = new FeedController(feedService);
+        when(request.getAttribute(AuthMiddleware.USER_ID_CONTEXT_KEY)).thenReturn(1L);
+    }
+
+    @Test
+    public void testGetFeed_Success() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("id")).thenReturn("1");
+        when(request.getParameter("limit")).thenReturn("20");
+        when(request.getParameter("cursor")).thenReturn(null);
+
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        GetFeedResponse mockResponse = new GetFeedResponse();
+        mockResponse.setPosts(new ArrayList<>());
+        mockResponse.setLimit(20);
+        when(feedService.getFeed(1L, 20, null)).thenReturn(mockResponse);
+
+        feedController.getFeed(request, response);
+
+        verify(response).setContentType("application/json");
+        verify(feedService).getFeed(1L, 20, null);
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
+    @Test
+    public void testGetFeed_MissingIdParameter() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("id")).thenReturn(null);
+
+        feedController.getFeed(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'id'");
+        verify(feedService, never()).getFeed(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    public void testGetFeed_OtherUsersFeed() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("id")).thenReturn("2");
+        when(request.getParameter("limit")).thenReturn("20");
+
+        feedController.getFeed(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_FORBIDDEN), anyString());
+        verify(feedService, never()).getFeed(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    public void testGetFeed_Unauthenticated() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getAttribute(AuthMiddleware.USER_ID_CONTEXT_KEY)).thenReturn(null);
+        when(request.getParameter("id")).thenReturn("1");
+        when(request.getParameter("limit")).thenReturn("20");
+
+        feedController.getFeed(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_UNAUTHORIZED), anyString());
+        verify(feedService, never()).getFeed(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    public void testGetFeed_LimitOutOfRange() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("id")).thenReturn("1");
+        when(request.getParameter("limit")).thenReturn("0");
+
+        feedController.getFeed(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), contains("'limit' must be between"));
+        verify(feedService, never()).getFeed(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    public void testGetFeed_InvalidCursor() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("id")).thenReturn("1");
+        when(request.getParameter("limit")).thenReturn("20");
+        when(request.getParameter("cursor")).thenReturn("garbage");
+
+        when(feedService.getFeed(1L, 20, "garbage")).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        feedController.getFeed(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameter 'cursor'");
+    }
+
+    @Test
+    public void testGetFeed_InvalidMethod() throws Exception {
+        when(request.getMethod()).thenReturn("POST");
+
+        feedController.getFeed(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
+        verify(feedService, never()).getFeed(anyLong(), anyInt(), any());
+    }
+}
@@ -0,0 +1,113 @@
+package io.winapps.voizy.controllers;
+
+import io.winapps.voizy.metrics.MetricsRegistry;
+import io.winapps.voizy.middleware.MetricsMiddleware;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class MetricsControllerTest {
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private ServletOutputStream outputStream;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(request.getMethod()).thenReturn("GET");
+    }
+
+    private String captureBody() throws IOException {
+        ArgumentCaptor<byte[]> bodyCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(outputStream).write(bodyCaptor.capture());
+        return new String(bodyCaptor.getValue(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testMetrics_exportsRouteMetrics() throws Exception {
+        when(response.getStatus()).thenReturn(HttpServletResponse.SC_OK);
+        MetricsMiddleware.timed("/test/route", (req, res) -> res.setStatus(HttpServletResponse.SC_OK))
+                .accept(request, response);
+
+        new MetricsController(null).metrics(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response).setContentType(MetricsRegistry.CONTENT_TYPE);
+
+        String body = captureBody();
+        assertTrue(body.contains("# TYPE voizy_http_request_duration_seconds histogram"));
+        assertTrue(body.contains("voizy_http_request_duration_seconds_count{route=\"/test/route\"} 1"));
+        assertTrue(body.contains("voizy_http_request_duration_seconds_bucket{route=\"/test/route\",le=\"+Inf\"} 1"));
+        assertTrue(body.contains("voizy_http_requests_total{route=\"/test/route\",status=\"200\"} 1"));
+        assertTrue(body.contains("voizy_http_requests_in_flight{route=\"/test/route\"} 0"));
+    }
+
+    @Test
+    public void testMetrics_countsFailedRequestsAs500() throws Exception {
+        assertThrows(RuntimeException.class, () ->
+                MetricsMiddleware.timed("/test/failing", (req, res) -> {
+                    throw new RuntimeException("boom");
+                }).accept(request, response));
+
+        assertEquals(1, MetricsRegistry.route("/test/failing").getStatusCount(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+        assertEquals(0, MetricsRegistry.route("/test/failing").getInFlight());
+    }
+
+    @Test
+    public void testMetrics_missingToken() throws Exception {
+        new MetricsController("secret").metrics(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_UNAUTHORIZED), anyString());
+        verify(outputStream, never()).write(any(byte[].class));
+    }
+
+    @Test
+    public void testMetrics_wrongToken() throws Exception {
+        when(request.getHeader("Authorization")).thenReturn("Bearer nope");
+
+        new MetricsController("secret").metrics(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_UNAUTHORIZED), anyString());
+    }
+
+    @Test
+    public void testMetrics_validToken() throws Exception {
+        when(request.getHeader("Authorization")).thenReturn("Bearer secret");
+
+        new MetricsController("secret").metrics(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
+    @Test
+    public void testMetrics_invalidMethod() throws Exception {
+        when(request.getMethod()).thenReturn("POST");
+
+        new MetricsController(null).metrics(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_METHOD_NOT_ALLOWED), anyString());
+    }
+}
@@ -16,6 +16,8 @@ import org.mockito.quality.Strictness;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -105,4 +107,78 @@ public class PostControllerGetPostMediaTest {
 
         verify(response).sendError(eq(HttpServletResponse.SC_INTERNAL_SERVER_ERROR), contains("Error getting post media"));
     }
+
+    @Test
+    public void testGetPostMediaBatch_Success() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("ids")).thenReturn("1, 2,2,3");
+
+        GetPostMediaResponse mediaResponse = new GetPostMediaResponse();
+        mediaResponse.setImages(Collections.singletonList("image1.jpg"));
+        mediaResponse.setVideos(Collections.emptyList());
+
+        Map<Long, GetPostMediaResponse> mockResponse = new LinkedHashMap<>();
+        mockResponse.put(1L, mediaResponse);
+        mockResponse.put(2L, mediaResponse);
+        mockResponse.put(3L, mediaResponse);
+
+        when(postService.getPostMediaBatch(Arrays.asList(1L, 2L, 3L))).thenReturn(mockResponse);
+
+        postController.getPostMediaBatch(request, response);
+
+        verify(response).setContentType("application/json");
+        verify(postService).getPostMediaBatch(Arrays.asList(1L, 2L, 3L));
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
+    @Test
+    public void testGetPostMediaBatch_MissingIds() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("ids")).thenReturn(null);
+
+        postController.getPostMediaBatch(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'ids'");
+        verify(postService, never()).getPostMediaBatch(anyList());
+    }
+
+    @Test
+    public void testGetPostMediaBatch_InvalidId() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("ids")).thenReturn("1,abc");
+
+        postController.getPostMediaBatch(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), contains("Invalid post ID"));
+        verify(postService, never()).getPostMediaBatch(anyList());
+    }
+
+    @Test
+    public void testGetPostMediaBatch_TooManyIds() throws Exception {
+        StringBuilder ids = new StringBuilder();
+        for (int i = 1; i <= 51; i++) {
+            if (i > 1) {
+                ids.append(',');
+            }
+            ids.append(i);
+        }
+
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("ids")).thenReturn(ids.toString());
+
+        postController.getPostMediaBatch(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), contains("Too many post IDs"));
+        verify(postService, never()).getPostMediaBatch(anyList());
+    }
+
+    @Test
+    public void testGetPostMediaBatch_InvalidMethod() throws Exception {
+        when(request.getMethod()).thenReturn("POST");
+
+        postController.getPostMediaBatch(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
+        verify(postService, never()).getPostMediaBatch(anyList());
+    }
 }
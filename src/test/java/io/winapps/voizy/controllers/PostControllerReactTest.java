@@ -0,0 +1,175 @@
+package io.winapps.voizy.controllers;
+
+import io.winapps.voizy.middleware.AuthMiddleware;
+import io.winapps.voizy.models.posts.ReactToPostResponse;
+import io.winapps.voizy.services.PostService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class PostControllerReactTest {
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private ServletOutputStream outputStream;
+
+    private PostController postController;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        postController = new PostController(postService);
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getAttribute(AuthMiddleware.USER_ID_CONTEXT_KEY)).thenReturn(1L);
+        when(response.getOutputStream()).thenReturn(outputStream);
+    }
+
+    @Test
+    public void testReactToPost_Success() throws Exception {
+        givenBody("{\"postID\": 7, \"reactionType\": \"love\"}");
+        when(postService.reactToPost(1L, 7L, "love")).thenReturn(new ReactToPostResponse());
+
+        postController.reactToPost(request, response);
+
+        verify(postService).reactToPost(1L, 7L, "love");
+        verify(response).setContentType("application/json");
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
+    @Test
+    public void testReactToPost_NullReactionTypeRemoves() throws Exception {
+        givenBody("{\"postID\": 7, \"reactionType\": null}");
+        when(postService.reactToPost(1L, 7L, null)).thenReturn(new ReactToPostResponse());
+
+        postController.reactToPost(request, response);
+
+        verify(postService).reactToPost(1L, 7L, null);
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
+    @Test
+    public void testReactToPost_InvalidReactionType() throws Exception {
+        givenBody("{\"postID\": 7, \"reactionType\": \"meh\"}");
+
+        postController.reactToPost(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), contains("Invalid reactionType"));
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    public void testReactToPost_MissingPostId() throws Exception {
+        givenBody("{\"reactionType\": \"like\"}");
+
+        postController.reactToPost(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    public void testReactToPost_PostNotFound() throws Exception {
+        givenBody("{\"postID\": 7, \"reactionType\": \"like\"}");
+        when(postService.reactToPost(1L, 7L, "like")).thenThrow(new IllegalArgumentException("Post not found: 7"));
+
+        postController.reactToPost(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_NOT_FOUND, "Post not found: 7");
+    }
+
+    @Test
+    public void testReactToPost_Unauthenticated() throws Exception {
+        when(request.getAttribute(AuthMiddleware.USER_ID_CONTEXT_KEY)).thenReturn(null);
+        givenBody("{\"postID\": 7, \"reactionType\": \"like\"}");
+
+        postController.reactToPost(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_UNAUTHORIZED), anyString());
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    public void testGetPostReactions_Success() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("ids")).thenReturn("3, 1, 3");
+
+        Map<Long, Map<String, Long>> reactions = new LinkedHashMap<>();
+        reactions.put(3L, Collections.singletonMap("like", 12L));
+        reactions.put(1L, Collections.emptyMap());
+        when(postService.getPostReactions(Arrays.asList(3L, 1L))).thenReturn(reactions);
+
+        postController.getPostReactions(request, response);
+
+        verify(postService).getPostReactions(Arrays.asList(3L, 1L));
+        verify(response).setContentType("application/json");
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
+    @Test
+    public void testGetPostReactions_MissingIds() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+
+        postController.getPostReactions(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'ids'");
+        verifyNoInteractions(postService);
+    }
+
+    private void givenBody(String body) throws IOException {
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(body.getBytes());
+        when(request.getInputStream()).thenReturn(new ServletInputStreamMock(inputStream));
+    }
+
+    private static class ServletInputStreamMock extends jakarta.servlet.ServletInputStream {
+        private final ByteArrayInputStream inputStream;
+
+        public ServletInputStreamMock(ByteArrayInputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return inputStream.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return inputStream.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(jakarta.servlet.ReadListener readListener) {
+            // Not implemented for this mock
+        }
+    }
+}
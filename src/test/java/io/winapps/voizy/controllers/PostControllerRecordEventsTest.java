@@ -0,0 +1,147 @@
+package io.winapps.voizy.controllers;
+
+import io.winapps.voizy.services.PostService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class PostControllerRecordEventsTest {
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private PostController postController;
+
+    @BeforeEach
+    public void setup() {
+        postController = new PostController(postService);
+        when(request.getMethod()).thenReturn("POST");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordImpressions_Success() throws Exception {
+        givenBody("{\"postIds\": [3, 1, 3, 2]}");
+
+        postController.recordImpressions(request, response);
+
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(postService).recordImpressions(captor.capture());
+        assertEquals(Arrays.asList(3L, 1L, 2L), new ArrayList<>(captor.getValue()));
+        verify(postService, never()).recordViews(any());
+        verify(response).setStatus(HttpServletResponse.SC_ACCEPTED);
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
+    @Test
+    public void testRecordViews_Success() throws Exception {
+        givenBody("{\"postIds\": [5]}");
+
+        postController.recordViews(request, response);
+
+        verify(postService).recordViews(argThat(ids -> ids.size() == 1 && ids.contains(5L)));
+        verify(postService, never()).recordImpressions(any());
+        verify(response).setStatus(HttpServletResponse.SC_ACCEPTED);
+    }
+
+    @Test
+    public void testRecordImpressions_MissingPostIds() throws Exception {
+        givenBody("{\"postIds\": []}");
+
+        postController.recordImpressions(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    public void testRecordImpressions_InvalidPostId() throws Exception {
+        givenBody("{\"postIds\": [1, -4]}");
+
+        postController.recordImpressions(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), contains("Invalid post ID"));
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    public void testRecordImpressions_TooManyPostIds() throws Exception {
+        StringBuilder body = new StringBuilder("{\"postIds\": [");
+        for (int i = 1; i <= 201; i++) {
+            body.append(i == 1 ? "" : ", ").append(i);
+        }
+        givenBody(body.append("]}").toString());
+
+        postController.recordImpressions(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), contains("Too many post IDs"));
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    public void testRecordViews_InvalidMethod() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+
+        postController.recordViews(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_METHOD_NOT_ALLOWED), anyString());
+        verifyNoInteractions(postService);
+    }
+
+    private void givenBody(String body) throws IOException {
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(body.getBytes());
+        when(request.getInputStream()).thenReturn(new ServletInputStreamMock(inputStream));
+    }
+
+    private static class ServletInputStreamMock extends jakarta.servlet.ServletInputStream {
+        private final ByteArrayInputStream inputStream;
+
+        public ServletInputStreamMock(ByteArrayInputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return inputStream.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return inputStream.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(jakarta.servlet.ReadListener readListener) {
+            // Not implemented for this mock
+        }
+    }
+}
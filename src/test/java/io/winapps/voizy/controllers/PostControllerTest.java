@@ -3,6 +3,7 @@ package io.winapps.voizy.controllers;
 import io.winapps.voizy.models.posts.ListPost;
 import io.winapps.voizy.models.posts.ListPostsResponse;
 import io.winapps.voizy.services.PostService;
+import io.winapps.voizy.util.CursorUtil;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -55,7 +56,7 @@ public class PostControllerTest {
         mockResponse.setPage(1);
         mockResponse.setTotalPosts(20);
         mockResponse.setTotalPages(2);
-        when(postService.listPosts(1L, 10L, 1L)).thenReturn(mockResponse);
+        when(postService.listPosts(1L, 10L, 1L, true)).thenReturn(mockResponse);
 
         postController.listPosts(request, response);
 
@@ -73,7 +74,7 @@ public class PostControllerTest {
         postController.listPosts(request, response);
 
         verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'id'");
-        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong());
+        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong(), anyBoolean());
     }
 
     @Test
@@ -85,7 +86,7 @@ public class PostControllerTest {
         postController.listPosts(request, response);
 
         verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'limit'");
-        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong());
+        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong(), anyBoolean());
     }
 
     @Test
@@ -98,7 +99,7 @@ public class PostControllerTest {
         postController.listPosts(request, response);
 
         verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing required parameter 'page'");
-        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong());
+        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong(), anyBoolean());
     }
 
     @Test
@@ -108,7 +109,7 @@ public class PostControllerTest {
         postController.listPosts(request, response);
 
         verify(response).sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Invalid request method");
-        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong());
+        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong(), anyBoolean());
     }
 
     @Test
@@ -121,7 +122,7 @@ public class PostControllerTest {
         postController.listPosts(request, response);
 
         verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), contains("Invalid parameters"));
-        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong());
+        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong(), anyBoolean());
     }
 
     @Test
@@ -131,13 +132,74 @@ public class PostControllerTest {
         when(request.getParameter("limit")).thenReturn("10");
         when(request.getParameter("page")).thenReturn("1");
 
-        when(postService.listPosts(eq(1L), eq(10L), eq(1L))).thenThrow(new RuntimeException("Service error"));
+        when(postService.listPosts(eq(1L), eq(10L), eq(1L), anyBoolean())).thenThrow(new RuntimeException("Service error"));
 
         postController.listPosts(request, response);
 
         verify(response).sendError(eq(HttpServletResponse.SC_INTERNAL_SERVER_ERROR), contains("Error listing posts"));
     }
 
+    @Test
+    public void testListPosts_WithCursor() throws Exception {
+        String cursor = CursorUtil.encode(LocalDateTime.of(2025, 3, 20, 12, 0), 7L);
+
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("id")).thenReturn("1");
+        when(request.getParameter("limit")).thenReturn("10");
+        when(request.getParameter("cursor")).thenReturn(cursor);
+
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        ListPostsResponse mockResponse = new ListPostsResponse();
+        mockResponse.setPosts(createMockPosts(3));
+        mockResponse.setLimit(10);
+        when(postService.listPostsByCursor(1L, 10L, cursor, true)).thenReturn(mockResponse);
+
+        postController.listPosts(request, response);
+
+        verify(response).setContentType("application/json");
+        verify(postService).listPostsByCursor(1L, 10L, cursor, true);
+        verify(postService, never()).listPosts(anyLong(), anyLong(), anyLong(), anyBoolean());
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
+    @Test
+    public void testListPosts_InvalidCursor() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("id")).thenReturn("1");
+        when(request.getParameter("limit")).thenReturn("10");
+        when(request.getParameter("cursor")).thenReturn("garbage");
+
+        when(postService.listPostsByCursor(1L, 10L, "garbage", true)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        postController.listPosts(request, response);
+
+        verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameter 'cursor'");
+    }
+
+    @Test
+    public void testListPosts_WithoutTotals() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("id")).thenReturn("1");
+        when(request.getParameter("limit")).thenReturn("10");
+        when(request.getParameter("page")).thenReturn("1");
+        when(request.getParameter("includeTotals")).thenReturn("false");
+
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        ListPostsResponse mockResponse = new ListPostsResponse();
+        mockResponse.setPosts(createMockPosts(5));
+        mockResponse.setLimit(10);
+        mockResponse.setPage(1);
+        when(postService.listPosts(1L, 10L, 1L, false)).thenReturn(mockResponse);
+
+        postController.listPosts(request, response);
+
+        verify(response).setContentType("application/json");
+        verify(postService).listPosts(1L, 10L, 1L, false);
+        verify(response, never()).sendError(anyInt(), anyString());
+    }
+
     private List<ListPost> createMockPosts(int count) {
         List<ListPost> posts = new ArrayList<>();
 
@@ -0,0 +1,114 @@
+package io.winapps.voizy.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMigratorTest {
+    private static final Migration V1 = new Migration(1, "Create t", "CREATE TABLE t (id INT)");
+    private static final Migration V2 = new Migration(2, "Add name", "ALTER TABLE t ADD COLUMN name VARCHAR(10)");
+    private static final Migration V3 = new Migration(3, "Index name", "CREATE INDEX idx_t_name ON t (name)");
+
+    @Test
+    public void testChecksum_PinnedValues() {
+        // Changing how checksums are computed would fail every existing database's startup
+        assertEquals("f1b41ba497f10168e9963405fa928b63b1d70d52413cf53f8a2310c1c74eec25", V1.getChecksum());
+        assertEquals("c3bd097abf7bf498f5f4226924156ef26f689b08e8b7daa389f714ded92ebc5f",
+                new Migration(9, "Two statements", "CREATE TABLE t (id INT)",
+                        "ALTER TABLE t ADD COLUMN name VARCHAR(10)").getChecksum());
+    }
+
+    @Test
+    public void testChecksum_IgnoresSurroundingWhitespaceAndDescription() {
+        Migration reformatted = new Migration(7, "Renamed", "  CREATE TABLE t (id INT)\n");
+
+        assertEquals(V1.getChecksum(), reformatted.getChecksum());
+    }
+
+    @Test
+    public void testChecksum_ChangesWithStatements() {
+        assertNotEquals(V1.getChecksum(), new Migration(1, "Create t", "CREATE TABLE t (id BIGINT)").getChecksum());
+        // Statement boundaries count, not just the concatenated text
+        assertNotEquals(new Migration(1, "x", "ab", "c").getChecksum(), new Migration(1, "x", "a", "bc").getChecksum());
+    }
+
+    @Test
+    public void testMigration_RejectsInvalidDefinitions() {
+        assertThrows(IllegalArgumentException.class, () -> new Migration(0, "Zero", "SELECT 1"));
+        assertThrows(IllegalArgumentException.class, () -> new Migration(1, "Empty"));
+    }
+
+    @Test
+    public void testFindPending_FreshDatabase_All() throws Exception {
+        assertEquals(List.of(1, 2, 3), versions(SchemaMigrator.findPending(List.of(V1, V2, V3), new HashMap<>())));
+    }
+
+    @Test
+    public void testFindPending_OnlyUnapplied() throws Exception {
+        Map<Integer, String> applied = applied(V1, V2);
+
+        assertEquals(List.of(3), versions(SchemaMigrator.findPending(List.of(V1, V2, V3), applied)));
+    }
+
+    @Test
+    public void testFindPending_FillsGaps() throws Exception {
+        Map<Integer, String> applied = applied(V1, V3);
+
+        assertEquals(List.of(2), versions(SchemaMigrator.findPending(List.of(V1, V2, V3), applied)));
+    }
+
+    @Test
+    public void testFindPending_AllApplied_None() throws Exception {
+        assertTrue(SchemaMigrator.findPending(List.of(V1, V2, V3), applied(V1, V2, V3)).isEmpty());
+    }
+
+    @Test
+    public void testFindPending_NewerVersionsInDatabaseIgnored() throws Exception {
+        Map<Integer, String> applied = applied(V1, V2, V3);
+        applied.put(4, "checksum-from-a-newer-build");
+
+        assertTrue(SchemaMigrator.findPending(List.of(V1, V2, V3), applied).isEmpty());
+    }
+
+    @Test
+    public void testFindPending_ChecksumMismatch() {
+        Map<Integer, String> applied = applied(V1);
+        applied.put(2, "edited");
+
+        SQLException exception = assertThrows(SQLException.class,
+                () -> SchemaMigrator.findPending(List.of(V1, V2, V3), applied));
+        assertTrue(exception.getMessage().contains("Checksum mismatch for schema migration V2"));
+    }
+
+    @Test
+    public void testValidateOrder() {
+        SchemaMigrator.validateOrder(List.of(V1, V2, V3));
+
+        assertThrows(IllegalStateException.class, () -> SchemaMigrator.validateOrder(List.of(V1, V3, V2)));
+        assertThrows(IllegalStateException.class, () -> SchemaMigrator.validateOrder(List.of(V1, V1)));
+        assertThrows(IllegalStateException.class, () -> SchemaMigrator.validateOrder(List.of()));
+    }
+
+    @Test
+    public void testMigrations_InOrder() {
+        SchemaMigrator.validateOrder(Migrations.all());
+    }
+
+    private static Map<Integer, String> applied(Migration... migrations) {
+        Map<Integer, String> applied = new HashMap<>();
+        for (Migration migration : migrations) {
+            applied.put(migration.getVersion(), migration.getChecksum());
+        }
+        return applied;
+    }
+
+    private static List<Integer> versions(List<Migration> migrations) {
+        return migrations.stream().map(Migration::getVersion).collect(Collectors.toList());
+    }
+}
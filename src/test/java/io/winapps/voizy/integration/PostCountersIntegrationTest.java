@@ -0,0 +1,224 @@
+package io.winapps.voizy.integration;
+
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.models.comments.CreateCommentRequest;
+import io.winapps.voizy.models.posts.CreatePostRequest;
+import io.winapps.voizy.repositories.CommentRepository;
+import io.winapps.voizy.repositories.PostCountersRepository;
+import io.winapps.voizy.repositories.PostReactionRepository;
+import io.winapps.voizy.repositories.PostRepository;
+import io.winapps.voizy.util.TestDatabaseUtil;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * post_counters and post_reaction_counts replaced correlated COUNT(*) subqueries in the
+ * post queries; these tests check both ways of maintaining them agree with those counts.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PostCountersIntegrationTest {
+    private final PostCountersRepository postCountersRepository = new PostCountersRepository();
+    private final PostReactionRepository postReactionRepository = new PostReactionRepository();
+    private final PostRepository postRepository = new PostRepository();
+    private final CommentRepository commentRepository = new CommentRepository();
+
+    @BeforeAll
+    public void setup() throws Exception {
+        System.setProperty("TEST_MODE", "true");
+
+        TestDatabaseUtil.setupTestDatabase();
+
+        TestDatabaseUtil.cleanupTestData();
+    }
+
+    @AfterAll
+    public void cleanup() throws Exception {
+        TestDatabaseUtil.cleanupTestData();
+    }
+
+    @Test
+    public void testIncrements_MatchCorrelatedCounts() throws Exception {
+        String testId = UUID.randomUUID().toString().substring(0, 8);
+        long[] userIds = {
+                insertTestUser(testId + "a"), insertTestUser(testId + "b"), insertTestUser(testId + "c")
+        };
+        long postId = insertTestPost(userIds[0], testId);
+
+        engage(postId, userIds, testId);
+
+        assertCountersMatchSourceTables(postId);
+    }
+
+    @Test
+    public void testRebuildAll_MatchesCorrelatedCounts() throws Exception {
+        String testId = UUID.randomUUID().toString().substring(0, 8);
+        long[] userIds = {
+                insertTestUser(testId + "a"), insertTestUser(testId + "b"), insertTestUser(testId + "c")
+        };
+        long postId = insertTestPost(userIds[0], testId);
+
+        engage(postId, userIds, testId);
+        corruptCounters(postId);
+
+        postCountersRepository.rebuildAll();
+
+        assertCountersMatchSourceTables(postId);
+    }
+
+    /**
+     * Reacts, changes and removes a reaction, comments and shares through the same code
+     * paths as the API. Reaction totals are applied the way the PostReactionTotals flush does.
+     */
+    private void engage(long postId, long[] userIds, String testId) throws Exception {
+        long reactionTotal = 0;
+        reactionTotal += reactionDelta(null, postReactionRepository.setReaction(postId, userIds[0], "like"), "like");
+        reactionTotal += reactionDelta(null, postReactionRepository.setReaction(postId, userIds[1], "like"), "like");
+        reactionTotal += reactionDelta(null, postReactionRepository.setReaction(postId, userIds[2], "love"), "love");
+        reactionTotal += reactionDelta("like", postReactionRepository.setReaction(postId, userIds[1], "love"), "love");
+        reactionTotal += reactionDelta("love", postReactionRepository.setReaction(postId, userIds[2], null), null);
+        postCountersRepository.addReactionTotals(Collections.singletonMap(postId, reactionTotal));
+
+        for (long userId : userIds) {
+            CreateCommentRequest comment = new CreateCommentRequest();
+            comment.setPostId(postId);
+            comment.setContentText("Test comment " + testId);
+            commentRepository.createComment(userId, comment);
+        }
+
+        CreatePostRequest share = new CreatePostRequest();
+        share.setUserId(userIds[1]);
+        share.setToUserId(userIds[1]);
+        share.setOriginalPostId(postId);
+        share.setContentText("Test post share " + testId);
+        postRepository.createPost(share);
+    }
+
+    private static long reactionDelta(String expectedPrevious, String previous, String reactionType) {
+        assertEquals(expectedPrevious, previous);
+        if (previous == null && reactionType != null) {
+            return 1;
+        }
+        if (previous != null && reactionType == null) {
+            return -1;
+        }
+        return 0;
+    }
+
+    private void assertCountersMatchSourceTables(long postId) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            long reactions = count(conn, "SELECT COUNT(*) FROM post_reactions WHERE post_id = ?", postId);
+            long comments = count(conn, "SELECT COUNT(*) FROM comments WHERE post_id = ?", postId);
+            long shares = count(conn, "SELECT COUNT(*) FROM post_shares WHERE post_id = ?", postId);
+            assertEquals(2, reactions);
+            assertEquals(3, comments);
+            assertEquals(1, shares);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT total_reactions, total_comments, total_post_shares FROM post_counters WHERE post_id = ?")) {
+                stmt.setLong(1, postId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(reactions, rs.getLong("total_reactions"));
+                    assertEquals(comments, rs.getLong("total_comments"));
+                    assertEquals(shares, rs.getLong("total_post_shares"));
+                }
+            }
+
+            Map<String, Long> expectedByType = countsByType(conn,
+                    "SELECT reaction_type, COUNT(*) FROM post_reactions WHERE post_id = ? GROUP BY reaction_type", postId);
+            Map<String, Long> countedByType = countsByType(conn,
+                    "SELECT reaction_type, SUM(reaction_count) FROM post_reaction_counts WHERE post_id = ? " +
+                            "GROUP BY reaction_type HAVING SUM(reaction_count) <> 0", postId);
+            assertEquals(Map.of("like", 1L, "love", 1L), expectedByType);
+            assertEquals(expectedByType, countedByType);
+        }
+    }
+
+    private void corruptCounters(long postId) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            for (String query : List.of(
+                    "UPDATE post_counters SET total_reactions = 99, total_comments = 99, total_post_shares = 99 WHERE post_id = ?",
+                    "UPDATE post_reaction_counts SET reaction_count = reaction_count + 5 WHERE post_id = ?")) {
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    stmt.setLong(1, postId);
+                    stmt.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private static long count(Connection conn, String query, long postId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, postId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static Map<String, Long> countsByType(Connection conn, String query, long postId) throws SQLException {
+        Map<String, Long> counts = new HashMap<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, postId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getString(1), rs.getLong(2));
+                }
+            }
+        }
+
+        return counts;
+    }
+
+    private long insertTestUser(String testId) throws SQLException {
+        String query = "INSERT INTO users (api_key, email, salt, password_hash, username) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, "counters_key_" + testId);
+            stmt.setString(2, "counters_test_" + testId + "@example.com");
+            stmt.setString(3, "salt");
+            stmt.setString(4, "hash");
+            stmt.setString(5, "test_counters_" + testId);
+            stmt.executeUpdate();
+
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                assertTrue(keys.next());
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    private long insertTestPost(long userId, String testId) throws SQLException {
+        String query = "INSERT INTO posts (user_id, content_text) VALUES (?, ?)";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setLong(1, userId);
+            stmt.setString(2, "Test post counters " + testId);
+            stmt.executeUpdate();
+
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                assertTrue(keys.next());
+                return keys.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.winapps.voizy.integration;
+
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.repositories.PostRepository;
+import io.winapps.voizy.util.TestDatabaseUtil;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PostEngagementIntegrationTest {
+    private final PostRepository postRepository = new PostRepository();
+
+    @BeforeAll
+    public void setup() throws Exception {
+        System.setProperty("TEST_MODE", "true");
+
+        TestDatabaseUtil.setupTestDatabase();
+
+        TestDatabaseUtil.cleanupTestData();
+    }
+
+    @AfterAll
+    public void cleanup() throws Exception {
+        TestDatabaseUtil.cleanupTestData();
+    }
+
+    @Test
+    public void testAddEngagementCounts_LeavesUpdatedAtUnchanged() throws Exception {
+        String testId = UUID.randomUUID().toString().substring(0, 8);
+        LocalDateTime updatedAt = LocalDateTime.of(2020, 1, 1, 12, 0, 0);
+
+        long userId = insertTestUser(testId);
+        long postId = insertTestPost(userId, testId, updatedAt);
+
+        postRepository.addEngagementCounts(Collections.singletonMap(postId, 3L), Collections.singletonMap(postId, 2L));
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT impressions, views, updated_at FROM posts WHERE post_id = ?")) {
+            stmt.setLong(1, postId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(3L, rs.getLong("impressions"));
+                assertEquals(2L, rs.getLong("views"));
+                assertEquals(updatedAt, rs.getTimestamp("updated_at").toLocalDateTime());
+            }
+        }
+    }
+
+    private long insertTestUser(String testId) throws SQLException {
+        String query = "INSERT INTO users (api_key, email, salt, password_hash, username) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, "engagement_key_" + testId);
+            stmt.setString(2, "engagement_test_" + testId + "@example.com");
+            stmt.setString(3, "salt");
+            stmt.setString(4, "hash");
+            stmt.setString(5, "test_engagement_" + testId);
+            stmt.executeUpdate();
+
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                assertTrue(keys.next());
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    private long insertTestPost(long userId, String testId, LocalDateTime updatedAt) throws SQLException {
+        String query = "INSERT INTO posts (user_id, content_text, updated_at) VALUES (?, ?, ?)";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setLong(1, userId);
+            stmt.setString(2, "Test post engagement " + testId);
+            stmt.setTimestamp(3, Timestamp.valueOf(updatedAt));
+            stmt.executeUpdate();
+
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                assertTrue(keys.next());
+                return keys.getLong(1);
+            }
+        }
+    }
+}
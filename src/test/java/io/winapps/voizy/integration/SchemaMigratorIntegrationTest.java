@@ -0,0 +1,112 @@
+package io.winapps.voizy.integration;
+
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.database.Migration;
+import io.winapps.voizy.database.Migrations;
+import io.winapps.voizy.database.SchemaMigrator;
+import io.winapps.voizy.util.TestDatabaseUtil;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs test-only migrations, numbered well above the real ones, on top of Migrations.all()
+ * against the test database, then removes them again.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SchemaMigratorIntegrationTest {
+    private static final int FIRST_TEST_VERSION = 9001;
+    private static final String TEST_TABLE = "schema_migrator_test";
+
+    @BeforeAll
+    public void setup() throws Exception {
+        System.setProperty("TEST_MODE", "true");
+
+        TestDatabaseUtil.setupTestDatabase();
+
+        removeTestMigrations();
+    }
+
+    @AfterAll
+    public void cleanup() throws Exception {
+        removeTestMigrations();
+        // Puts getCurrentVersion() back to the real latest version
+        SchemaMigrator.migrate();
+    }
+
+    @Test
+    @Order(1)
+    public void testFirstBoot_AppliesAndRecordsMigrations() throws Exception {
+        SchemaMigrator.migrate(withTestMigrations("CREATE TABLE " + TEST_TABLE + " (id INT PRIMARY KEY)"));
+
+        assertEquals(FIRST_TEST_VERSION + 1, SchemaMigrator.getCurrentVersion());
+        assertEquals(2, count("SELECT COUNT(*) FROM schema_version WHERE version >= " + FIRST_TEST_VERSION));
+        assertEquals(1, count("SELECT COUNT(*) FROM " + TEST_TABLE));
+    }
+
+    @Test
+    @Order(2)
+    public void testReboot_RunsNoDdl() throws Exception {
+        Timestamp appliedAt = appliedAt(FIRST_TEST_VERSION + 1);
+
+        // The second migration is an INSERT into a primary key, so running it again would fail
+        SchemaMigrator.migrate(withTestMigrations("CREATE TABLE " + TEST_TABLE + " (id INT PRIMARY KEY)"));
+
+        assertEquals(FIRST_TEST_VERSION + 1, SchemaMigrator.getCurrentVersion());
+        assertEquals(2, count("SELECT COUNT(*) FROM schema_version WHERE version >= " + FIRST_TEST_VERSION));
+        assertEquals(1, count("SELECT COUNT(*) FROM " + TEST_TABLE));
+        assertEquals(appliedAt, appliedAt(FIRST_TEST_VERSION + 1));
+    }
+
+    @Test
+    @Order(3)
+    public void testEditedMigration_ChecksumMismatchFailsStartup() {
+        SQLException exception = assertThrows(SQLException.class, () -> SchemaMigrator.migrate(
+                withTestMigrations("CREATE TABLE " + TEST_TABLE + " (id BIGINT PRIMARY KEY)")));
+
+        assertTrue(exception.getMessage().contains("Checksum mismatch for schema migration V" + FIRST_TEST_VERSION));
+    }
+
+    private static List<Migration> withTestMigrations(String createTable) {
+        List<Migration> migrations = new ArrayList<>(Migrations.all());
+        migrations.add(new Migration(FIRST_TEST_VERSION, "Create test table", createTable));
+        migrations.add(new Migration(FIRST_TEST_VERSION + 1, "Insert test row",
+                "INSERT INTO " + TEST_TABLE + " (id) VALUES (1)"));
+        return migrations;
+    }
+
+    private static long count(String query) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    private static Timestamp appliedAt(int version) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT applied_at FROM schema_version WHERE version = " + version)) {
+            assertTrue(rs.next());
+            return rs.getTimestamp("applied_at");
+        }
+    }
+
+    private static void removeTestMigrations() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM schema_version WHERE version >= " + FIRST_TEST_VERSION);
+            stmt.execute("DROP TABLE IF EXISTS " + TEST_TABLE);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.winapps.voizy.middleware;
+
+import io.winapps.voizy.models.middleware.APIKey;
+import io.winapps.voizy.repositories.ApiKeyRepository;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AuthMiddlewareTest {
+    @Mock
+    private ApiKeyRepository apiKeyRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private ServletOutputStream outputStream;
+
+    private final AtomicInteger passed = new AtomicInteger();
+    private BiConsumer<HttpServletRequest, HttpServletResponse> chain;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        AuthMiddleware authMiddleware = new AuthMiddleware(apiKeyRepository);
+        chain = authMiddleware.validateApiKey((req, res) -> passed.incrementAndGet());
+        when(response.getOutputStream()).thenReturn(outputStream);
+    }
+
+    @Test
+    public void testValidateApiKey_ServedFromCache() throws Exception {
+        givenHeaders(2001L, "sk_cached");
+        when(apiKeyRepository.fetchApiKey(2001L, "sk_cached")).thenReturn(apiKey("sk_cached", 90));
+
+        chain.accept(request, response);
+        chain.accept(request, response);
+
+        assertEquals(2, passed.get());
+        verify(apiKeyRepository, times(1)).fetchApiKey(2001L, "sk_cached");
+        verify(request, times(2)).setAttribute(AuthMiddleware.USER_ID_CONTEXT_KEY, 2001L);
+    }
+
+    @Test
+    public void testValidateApiKey_UnknownKeyCachedAsMissing() throws Exception {
+        givenHeaders(2002L, "sk_unknown");
+        when(apiKeyRepository.fetchApiKey(2002L, "sk_unknown")).thenReturn(null);
+
+        chain.accept(request, response);
+        chain.accept(request, response);
+
+        assertEquals(0, passed.get());
+        verify(response, times(2)).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        verify(apiKeyRepository, times(1)).fetchApiKey(2002L, "sk_unknown");
+    }
+
+    @Test
+    public void testValidateApiKey_ExpiredKeyInvalidated() throws Exception {
+        givenHeaders(2003L, "sk_expired");
+        when(apiKeyRepository.fetchApiKey(2003L, "sk_expired"))
+                .thenReturn(apiKey("sk_expired", -1))
+                .thenReturn(apiKey("sk_expired", 90));
+
+        chain.accept(request, response);
+        // The expired key was dropped from the cache, so the renewed one is read
+        chain.accept(request, response);
+
+        assertEquals(1, passed.get());
+        verify(response, times(1)).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        verify(apiKeyRepository, times(2)).fetchApiKey(2003L, "sk_expired");
+    }
+
+    @Test
+    public void testValidateApiKey_DatabaseErrorNotCached() throws Exception {
+        givenHeaders(2004L, "sk_flaky");
+        when(apiKeyRepository.fetchApiKey(2004L, "sk_flaky"))
+                .thenThrow(new SQLException("Connection refused"))
+                .thenReturn(apiKey("sk_flaky", 90));
+
+        chain.accept(request, response);
+        chain.accept(request, response);
+
+        assertEquals(1, passed.get());
+        verify(apiKeyRepository, times(2)).fetchApiKey(2004L, "sk_flaky");
+    }
+
+    @Test
+    public void testValidateApiKey_MissingHeader() throws Exception {
+        when(request.getHeader("X-API-Key")).thenReturn(null);
+
+        chain.accept(request, response);
+
+        assertEquals(0, passed.get());
+        verify(response).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        verify(apiKeyRepository, never()).fetchApiKey(anyLong(), anyString());
+    }
+
+    private void givenHeaders(long userId, String apiKey) {
+        when(request.getHeader("X-API-Key")).thenReturn(apiKey);
+        when(request.getHeader("X-User-ID")).thenReturn(Long.toString(userId));
+    }
+
+    private static APIKey apiKey(String key, int expiresInDays) {
+        LocalDateTime now = LocalDateTime.now();
+        return new APIKey(key, now, now, now.plusDays(expiresInDays), now);
+    }
+}
@@ -0,0 +1,204 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.database.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PostReactionRepositoryTest {
+    private static final long POST_ID = 42L;
+
+    private MockedStatic<DatabaseManager> databaseManager;
+    private final List<RecordedStatement> statements = new ArrayList<>();
+    private final Map<Long, String> existingReactions = new HashMap<>();
+    private boolean duplicateOnInsert;
+
+    private PostReactionRepository postReactionRepository;
+
+    @BeforeEach
+    public void setup() {
+        databaseManager = mockStatic(DatabaseManager.class);
+        databaseManager.when(DatabaseManager::getConnection).thenAnswer(invocation -> newConnection());
+        postReactionRepository = new PostReactionRepository();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    public void testFirstReactionsFromTwoUsers_TouchDisjointRows() throws Exception {
+        assertNull(postReactionRepository.setReaction(POST_ID, 1L, "like"));
+        List<RecordedStatement> first = new ArrayList<>(statements);
+        statements.clear();
+
+        assertNull(postReactionRepository.setReaction(POST_ID, 2L, "like"));
+        List<RecordedStatement> second = new ArrayList<>(statements);
+
+        for (RecordedStatement statement : union(first, second)) {
+            assertFalse(statement.sql.contains("FOR UPDATE"), "No locking read before the insert: " + statement.sql);
+            assertFalse(statement.sql.contains("post_counters"), "The total is not written in the reaction transaction");
+        }
+
+        Set<List<Object>> firstRows = rowsWritten(first);
+        Set<List<Object>> secondRows = rowsWritten(second);
+        assertEquals(2, firstRows.size());
+        assertEquals(2, secondRows.size());
+
+        Set<List<Object>> shared = new HashSet<>(firstRows);
+        shared.retainAll(secondRows);
+        assertTrue(shared.isEmpty(), "Rows written by both reactions: " + shared);
+    }
+
+    @Test
+    public void testChangeReaction_LocksExistingRowAfterDuplicateKey() throws Exception {
+        duplicateOnInsert = true;
+        existingReactions.put(1L, "like");
+
+        assertEquals("like", postReactionRepository.setReaction(POST_ID, 1L, "love"));
+
+        List<String> sql = statements.stream().map(statement -> statement.sql).collect(Collectors.toList());
+        assertTrue(sql.get(0).startsWith("INSERT INTO post_reactions"));
+        assertTrue(sql.get(1).endsWith("FOR UPDATE"));
+        assertTrue(sql.get(2).startsWith("UPDATE post_reactions"));
+
+        List<RecordedStatement> counts = statements.stream()
+                .filter(statement -> statement.sql.startsWith("INSERT INTO post_reaction_counts"))
+                .collect(Collectors.toList());
+        assertEquals(2, counts.size());
+        assertEquals(List.of(POST_ID, "like", 1, -1L), counts.get(0).params());
+        assertEquals(List.of(POST_ID, "love", 1, 1L), counts.get(1).params());
+    }
+
+    @Test
+    public void testSameReactionAgain_WritesNoCounts() throws Exception {
+        duplicateOnInsert = true;
+        existingReactions.put(1L, "like");
+
+        assertEquals("like", postReactionRepository.setReaction(POST_ID, 1L, "like"));
+
+        assertTrue(statements.stream().noneMatch(statement -> statement.sql.startsWith("UPDATE")
+                || statement.sql.contains("post_reaction_counts")));
+    }
+
+    @Test
+    public void testRemoveMissingReaction_NoLockingReadOrWrites() throws Exception {
+        assertNull(postReactionRepository.setReaction(POST_ID, 1L, null));
+
+        assertEquals(1, statements.size());
+        assertTrue(statements.get(0).sql.startsWith("SELECT"));
+        assertFalse(statements.get(0).sql.contains("FOR UPDATE"));
+    }
+
+    @Test
+    public void testRemoveReaction_DeletesReadTypeAndDecrementsUsersShard() throws Exception {
+        existingReactions.put(2L, "sad");
+
+        assertEquals("sad", postReactionRepository.setReaction(POST_ID, 2L, null));
+
+        RecordedStatement delete = statements.get(1);
+        assertTrue(delete.sql.startsWith("DELETE FROM post_reactions"));
+        assertEquals(List.of(POST_ID, 2L, "sad"), delete.params());
+        assertEquals(List.of(POST_ID, "sad", 2, -1L), statements.get(2).params());
+    }
+
+    /**
+     * Keys of the rows each statement writes: the user's post_reactions row and the
+     * (post, type, shard) row of post_reaction_counts
+     */
+    private static Set<List<Object>> rowsWritten(List<RecordedStatement> statements) {
+        Set<List<Object>> rows = new HashSet<>();
+        for (RecordedStatement statement : statements) {
+            if (statement.sql.startsWith("INSERT INTO post_reactions ")) {
+                rows.add(List.of("post_reactions", statement.param(1), statement.param(2)));
+            } else if (statement.sql.startsWith("INSERT INTO post_reaction_counts")) {
+                rows.add(List.of("post_reaction_counts", statement.param(1), statement.param(2), statement.param(3)));
+            }
+        }
+        return rows;
+    }
+
+    private static List<RecordedStatement> union(List<RecordedStatement> a, List<RecordedStatement> b) {
+        List<RecordedStatement> all = new ArrayList<>(a);
+        all.addAll(b);
+        return all;
+    }
+
+    private Connection newConnection() throws SQLException {
+        Connection conn = mock(Connection.class);
+        when(conn.prepareStatement(anyString())).thenAnswer(invocation -> newStatement(invocation.getArgument(0)));
+        return conn;
+    }
+
+    private PreparedStatement newStatement(String sql) throws SQLException {
+        RecordedStatement recorded = new RecordedStatement(sql);
+        statements.add(recorded);
+
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        doAnswer(invocation -> recorded.set(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(stmt).setLong(anyInt(), anyLong());
+        doAnswer(invocation -> recorded.set(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(stmt).setInt(anyInt(), anyInt());
+        doAnswer(invocation -> recorded.set(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(stmt).setString(anyInt(), any());
+
+        when(stmt.executeUpdate()).thenAnswer(invocation -> {
+            if (sql.startsWith("INSERT INTO post_reactions ") && duplicateOnInsert) {
+                throw new SQLException("Duplicate entry", "23000", 1062);
+            }
+            return 1;
+        });
+        when(stmt.executeQuery()).thenAnswer(invocation -> {
+            String reaction = existingReactions.get((Long) recorded.param(2));
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.next()).thenReturn(reaction != null);
+            when(rs.getString("reaction_type")).thenReturn(reaction);
+            return rs;
+        });
+        return stmt;
+    }
+
+    private static class RecordedStatement {
+        private final String sql;
+        private final Map<Integer, Object> params = new HashMap<>();
+
+        RecordedStatement(String sql) {
+            this.sql = sql;
+        }
+
+        Object set(int index, Object value) {
+            params.put(index, value);
+            return null;
+        }
+
+        Object param(int index) {
+            return params.get(index);
+        }
+
+        List<Object> params() {
+            List<Object> values = new ArrayList<>();
+            for (int i = 1; i <= params.size(); i++) {
+                values.add(params.get(i));
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package io.winapps.voizy.repositories;
+
+import io.winapps.voizy.cache.HashtagDictionary;
+import io.winapps.voizy.database.DatabaseManager;
+import io.winapps.voizy.models.posts.CreatePostRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * HashtagDictionary is process-wide, so every test uses its own tags
+ */
+public class PostRepositoryHashtagsTest {
+    private static final int MYSQL_ER_NO_REFERENCED_ROW = 1452;
+
+    private MockedStatic<DatabaseManager> databaseManager;
+    private Connection conn;
+    private final List<String> statements = new ArrayList<>();
+    private final Map<String, Long> hashtagsTable = new HashMap<>();
+    private final AtomicLong nextHashtagId = new AtomicLong(500);
+    private SQLException commitFailure;
+    private SQLException postHashtagsFailure;
+    private Runnable onCommit = () -> { };
+
+    private PostRepository postRepository;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        conn = newConnection();
+        databaseManager = mockStatic(DatabaseManager.class);
+        databaseManager.when(DatabaseManager::getConnection).thenReturn(conn);
+        postRepository = new PostRepository();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    public void testCreatePost_NewTagsCachedOnlyAfterCommit() throws Exception {
+        List<String> keys = List.of("aftercommita", "aftercommitb");
+        List<Map<String, Long>> cachedDuringCommit = new ArrayList<>();
+        onCommit = () -> cachedDuringCommit.add(HashtagDictionary.getAll(keys));
+
+        postRepository.createPost(request("#afterCommitA", "afterCommitB"));
+
+        assertEquals(List.of(Map.of()), cachedDuringCommit);
+        Map<String, Long> cached = HashtagDictionary.getAll(keys);
+        assertEquals(hashtagsTable.get("afterCommitA"), cached.get("aftercommita"));
+        assertEquals(hashtagsTable.get("afterCommitB"), cached.get("aftercommitb"));
+    }
+
+    @Test
+    public void testCreatePost_CommitFails_NothingCached() throws Exception {
+        commitFailure = new SQLException("Lock wait timeout exceeded", "40001", 1205);
+
+        assertThrows(SQLException.class, () -> postRepository.createPost(request("rolledBackTag")));
+
+        verify(conn).rollback();
+        assertTrue(HashtagDictionary.getAll(List.of("rolledbacktag")).isEmpty());
+    }
+
+    @Test
+    public void testCreatePost_KnownTagsSkipHashtagsTable() throws Exception {
+        HashtagDictionary.putAll(Map.of("knowntag", 77L));
+
+        postRepository.createPost(request("#KnownTag"));
+
+        assertTrue(statements.stream().noneMatch(sql -> sql.contains("hashtags (tag)") || sql.contains("FROM hashtags")));
+        assertTrue(statements.stream().anyMatch(sql -> sql.startsWith("INSERT INTO post_hashtags")));
+    }
+
+    @Test
+    public void testCreatePost_StaleIdInvalidatedOnForeignKeyError() throws Exception {
+        HashtagDictionary.putAll(Map.of("staletag", 999L));
+        postHashtagsFailure = new SQLException("Cannot add or update a child row", "23000", MYSQL_ER_NO_REFERENCED_ROW);
+
+        SQLException exception = assertThrows(SQLException.class, () -> postRepository.createPost(request("staleTag")));
+
+        assertEquals(MYSQL_ER_NO_REFERENCED_ROW, exception.getErrorCode());
+        verify(conn).rollback();
+        assertTrue(HashtagDictionary.getAll(List.of("staletag")).isEmpty());
+
+        // The retry resolves the tag through the database and caches the real ID
+        postHashtagsFailure = null;
+        statements.clear();
+        postRepository.createPost(request("staleTag"));
+
+        assertTrue(statements.stream().anyMatch(sql -> sql.startsWith("INSERT INTO hashtags")));
+        assertEquals(hashtagsTable.get("staleTag"), HashtagDictionary.getAll(List.of("staletag")).get("staletag"));
+    }
+
+    @Test
+    public void testCreatePost_OtherErrorsKeepDictionary() throws Exception {
+        HashtagDictionary.putAll(Map.of("kepttag", 888L));
+        postHashtagsFailure = new SQLException("Deadlock found", "40001", 1213);
+
+        assertThrows(SQLException.class, () -> postRepository.createPost(request("keptTag")));
+
+        assertEquals(Map.of("kepttag", 888L), HashtagDictionary.getAll(List.of("kepttag")));
+    }
+
+    private static CreatePostRequest request(String... hashtags) {
+        CreatePostRequest request = new CreatePostRequest();
+        request.setUserId(1L);
+        request.setToUserId(1L);
+        request.setContentText("Hello");
+        request.setHashtags(List.of(hashtags));
+        return request;
+    }
+
+    private Connection newConnection() throws SQLException {
+        Connection conn = mock(Connection.class);
+        when(conn.prepareStatement(anyString())).thenAnswer(invocation -> newStatement(invocation.getArgument(0)));
+        when(conn.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS)))
+                .thenAnswer(invocation -> newInsertPostStatement(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            onCommit.run();
+            if (commitFailure != null) {
+                throw commitFailure;
+            }
+            return null;
+        }).when(conn).commit();
+        return conn;
+    }
+
+    private PreparedStatement newInsertPostStatement(String sql) throws SQLException {
+        statements.add(sql);
+
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet generatedKeys = mock(ResultSet.class);
+        when(generatedKeys.next()).thenReturn(true);
+        when(generatedKeys.getLong(1)).thenReturn(10L);
+        when(stmt.executeUpdate()).thenReturn(1);
+        when(stmt.getGeneratedKeys()).thenReturn(generatedKeys);
+        return stmt;
+    }
+
+    private PreparedStatement newStatement(String sql) throws SQLException {
+        statements.add(sql);
+
+        List<String> tags = new ArrayList<>();
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        doAnswer(invocation -> tags.add(invocation.getArgument(1)))
+                .when(stmt).setString(anyInt(), anyString());
+
+        when(stmt.executeUpdate()).thenAnswer(invocation -> {
+            if (sql.startsWith("INSERT INTO hashtags")) {
+                for (String tag : tags) {
+                    hashtagsTable.computeIfAbsent(tag, t -> nextHashtagId.incrementAndGet());
+                }
+            }
+            return tags.size();
+        });
+        when(stmt.executeQuery()).thenAnswer(invocation -> hashtagRows(tags));
+        when(stmt.executeBatch()).thenAnswer(invocation -> {
+            if (sql.startsWith("INSERT INTO post_hashtags") && postHashtagsFailure != null) {
+                throw postHashtagsFailure;
+            }
+            return new int[0];
+        });
+        return stmt;
+    }
+
+    private ResultSet hashtagRows(List<String> tags) throws SQLException {
+        Iterator<String> rows = tags.stream().filter(hashtagsTable::containsKey).iterator();
+        String[] current = new String[1];
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenAnswer(invocation -> {
+            current[0] = rows.hasNext() ? rows.next() : null;
+            return current[0] != null;
+        });
+        when(rs.getString("tag")).thenAnswer(invocation -> current[0]);
+        when(rs.getLong("hashtag_id")).thenAnswer(invocation -> hashtagsTable.get(current[0]));
+        return rs;
+    }
+}
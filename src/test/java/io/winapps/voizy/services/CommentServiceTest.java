@@ -0,0 +1,149 @@
+package io.winapps.voizy.services;
+
+import io.winapps.voizy.models.comments.Comment;
+import io.winapps.voizy.models.comments.CreateCommentRequest;
+import io.winapps.voizy.models.comments.CreateCommentResponse;
+import io.winapps.voizy.models.comments.ListCommentsResponse;
+import io.winapps.voizy.models.users.UserSummary;
+import io.winapps.voizy.repositories.CommentRepository;
+import io.winapps.voizy.repositories.UserRepository;
+import io.winapps.voizy.util.CursorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CommentServiceTest {
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CommentService commentService;
+
+    @BeforeEach
+    public void setup() {
+        commentService = new CommentService(commentRepository, userRepository);
+    }
+
+    @Test
+    public void testListComments_LoadsAuthorsInOneBatch() throws Exception {
+        List<Comment> comments = createMockComments(3, 10L, 20L, 10L);
+        when(commentRepository.listComments(5L, null, 10, null, 0L)).thenReturn(comments);
+        when(commentRepository.getReplyCounts(Arrays.asList(1L, 2L, 3L))).thenReturn(Collections.singletonMap(2L, 4L));
+
+        Map<Long, UserSummary> authors = new HashMap<>();
+        authors.put(10L, createUserSummary(10L, "alice"));
+        authors.put(20L, createUserSummary(20L, "bob"));
+        when(userRepository.getUserSummaries(new LinkedHashSet<>(Arrays.asList(10L, 20L)))).thenReturn(authors);
+
+        ListCommentsResponse response = commentService.listComments(5L, null, 10, null);
+
+        assertEquals(3, response.getComments().size());
+        assertEquals("alice", response.getComments().get(0).getUsername());
+        assertEquals("bob", response.getComments().get(1).getUsername());
+        assertEquals("alice", response.getComments().get(2).getUsername());
+        assertEquals(0L, response.getComments().get(0).getTotalReplies());
+        assertEquals(4L, response.getComments().get(1).getTotalReplies());
+        assertNull(response.getNextCursor());
+
+        verify(userRepository, times(1)).getUserSummaries(anyCollection());
+    }
+
+    @Test
+    public void testListComments_FullPageHasNextCursor() throws Exception {
+        List<Comment> comments = createMockComments(2, 10L, 10L);
+        when(commentRepository.listComments(5L, 9L, 2, null, 0L)).thenReturn(comments);
+        when(userRepository.getUserSummaries(anyCollection())).thenReturn(new HashMap<>());
+        when(commentRepository.getReplyCounts(anyList())).thenReturn(new HashMap<>());
+
+        ListCommentsResponse response = commentService.listComments(5L, 9L, 2, null);
+
+        Comment last = comments.get(1);
+        CursorUtil.Cursor cursor = CursorUtil.decode(response.getNextCursor());
+        assertEquals(last.getCreatedAt(), cursor.getCreatedAt());
+        assertEquals(last.getCommentId(), cursor.getId());
+    }
+
+    @Test
+    public void testListComments_SeeksPastCursor() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        when(commentRepository.listComments(5L, null, 10, createdAt, 42L)).thenReturn(new ArrayList<>());
+
+        ListCommentsResponse response = commentService.listComments(5L, null, 10, CursorUtil.encode(createdAt, 42L));
+
+        assertTrue(response.getComments().isEmpty());
+        assertNull(response.getNextCursor());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testListComments_InvalidCursor() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> commentService.listComments(5L, null, 10, "not-a-valid-cursor"));
+
+        verify(commentRepository, never()).listComments(anyLong(), any(), anyInt(), any(), anyLong());
+    }
+
+    @Test
+    public void testListComments_DatabaseError() throws Exception {
+        when(commentRepository.listComments(5L, null, 10, null, 0L)).thenThrow(new SQLException("Database error"));
+
+        Exception exception = assertThrows(Exception.class, () -> commentService.listComments(5L, null, 10, null));
+
+        assertTrue(exception.getMessage().contains("Failed to list comments"));
+    }
+
+    @Test
+    public void testCreateComment_PostNotFound() throws Exception {
+        CreateCommentRequest request = new CreateCommentRequest();
+        request.setPostId(5L);
+        request.setContentText("Nice post");
+        when(commentRepository.createComment(1L, request)).thenThrow(new IllegalArgumentException("Post not found: 5"));
+
+        CreateCommentResponse response = commentService.createComment(1L, request);
+
+        assertFalse(response.isSuccess());
+        assertEquals("Post not found: 5", response.getMessage());
+        assertNull(response.getCommentId());
+    }
+
+    private List<Comment> createMockComments(int count, Long... authorIds) {
+        List<Comment> comments = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            Comment comment = new Comment();
+            comment.setCommentId(i + 1);
+            comment.setPostId(5L);
+            comment.setUserId(authorIds[i]);
+            comment.setContentText("Test comment " + (i + 1));
+            comment.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+            comments.add(comment);
+        }
+
+        return comments;
+    }
+
+    private UserSummary createUserSummary(long userId, String username) {
+        UserSummary summary = new UserSummary();
+        summary.setUserId(userId);
+        summary.setUsername(username);
+        return summary;
+    }
+}
@@ -0,0 +1,236 @@
+package io.winapps.voizy.services;
+
+import io.winapps.voizy.cache.FeedTimelineCache;
+import io.winapps.voizy.models.feed.GetFeedResponse;
+import io.winapps.voizy.models.posts.ListPost;
+import io.winapps.voizy.repositories.FeedRepository;
+import io.winapps.voizy.repositories.PostRepository;
+import io.winapps.voizy.util.CursorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The timeline cache is a mock; tests that leave it disabled cover the MySQL pull path
+ */
+@ExtendWith(MockitoExtension.class)
+public class FeedServiceTest {
+    @Mock
+    private FeedRepository feedRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private FeedTimelineCache timelineCache;
+
+    private FeedService feedService;
+
+    @BeforeEach
+    public void setup() {
+        feedService = new FeedService(feedRepository, postRepository, timelineCache);
+    }
+
+    @Test
+    public void testGetFeed_FirstPage() throws Exception {
+        long userId = 1L;
+        List<Long> postIds = Arrays.asList(30L, 20L, 10L);
+        List<ListPost> mockPosts = createMockPosts(postIds);
+
+        when(feedRepository.listFeedPostIds(userId, Long.MAX_VALUE, 3)).thenReturn(postIds);
+        when(postRepository.getPostsByIds(userId, postIds)).thenReturn(mockPosts);
+
+        GetFeedResponse response = feedService.getFeed(userId, 3, null);
+
+        assertNotNull(response);
+        assertEquals(mockPosts, response.getPosts());
+        assertEquals(3L, response.getLimit());
+        assertNotNull(response.getNextCursor());
+        assertEquals(10L, CursorUtil.decode(response.getNextCursor()).getId());
+
+        verify(feedRepository).listFeedPostIds(userId, Long.MAX_VALUE, 3);
+        verify(postRepository).getPostsByIds(userId, postIds);
+    }
+
+    @Test
+    public void testGetFeed_WithCursor() throws Exception {
+        long userId = 1L;
+        String cursor = CursorUtil.encode(LocalDateTime.of(2025, 3, 20, 12, 0), 20L);
+        List<Long> postIds = Arrays.asList(10L);
+
+        when(feedRepository.listFeedPostIds(userId, 20L, 5)).thenReturn(postIds);
+        when(postRepository.getPostsByIds(userId, postIds)).thenReturn(createMockPosts(postIds));
+
+        GetFeedResponse response = feedService.getFeed(userId, 5, cursor);
+
+        assertEquals(1, response.getPosts().size());
+        assertNull(response.getNextCursor());
+
+        verify(feedRepository).listFeedPostIds(userId, 20L, 5);
+    }
+
+    @Test
+    public void testGetFeed_CursorAdvancesPastDeletedPosts() throws Exception {
+        long userId = 1L;
+        List<Long> postIds = Arrays.asList(30L, 20L);
+
+        when(feedRepository.listFeedPostIds(userId, Long.MAX_VALUE, 2)).thenReturn(postIds);
+        when(postRepository.getPostsByIds(userId, postIds)).thenReturn(createMockPosts(Arrays.asList(30L)));
+
+        GetFeedResponse response = feedService.getFeed(userId, 2, null);
+
+        assertEquals(1, response.getPosts().size());
+        assertEquals(20L, CursorUtil.decode(response.getNextCursor()).getId());
+    }
+
+    @Test
+    public void testGetFeed_ReadsTimeline() throws Exception {
+        long userId = 1L;
+        List<Long> postIds = Arrays.asList(30L, 20L, 10L);
+
+        when(timelineCache.isEnabled()).thenReturn(true);
+        when(timelineCache.read(userId, Long.MAX_VALUE, 3)).thenReturn(postIds);
+        when(timelineCache.getPullAuthors()).thenReturn(Collections.emptySet());
+        when(postRepository.getPostsByIds(userId, postIds)).thenReturn(createMockPosts(postIds));
+
+        GetFeedResponse response = feedService.getFeed(userId, 3, null);
+
+        assertEquals(3, response.getPosts().size());
+        assertEquals(10L, CursorUtil.decode(response.getNextCursor()).getId());
+
+        verify(feedRepository, never()).listFeedPostIds(anyLong(), anyLong(), anyInt());
+        verify(timelineCache, never()).beginRebuild(anyLong());
+    }
+
+    @Test
+    public void testGetFeed_RebuildsMissingTimeline() throws Exception {
+        long userId = 1L;
+        List<Long> recent = Arrays.asList(50L, 40L, 30L, 20L);
+        List<Long> page = Arrays.asList(50L, 40L, 30L);
+
+        when(timelineCache.isEnabled()).thenReturn(true);
+        when(timelineCache.read(userId, Long.MAX_VALUE, 3)).thenReturn(null);
+        when(timelineCache.getMaxSize()).thenReturn(800);
+        when(timelineCache.getPullAuthors()).thenReturn(Collections.emptySet());
+        when(feedRepository.listFeedPostIds(userId, Long.MAX_VALUE, 800)).thenReturn(recent);
+        when(postRepository.getPostsByIds(userId, page)).thenReturn(createMockPosts(page));
+
+        GetFeedResponse response = feedService.getFeed(userId, 3, null);
+
+        assertEquals(3, response.getPosts().size());
+        assertEquals(30L, CursorUtil.decode(response.getNextCursor()).getId());
+
+        InOrder inOrder = inOrder(timelineCache, feedRepository);
+        inOrder.verify(timelineCache).beginRebuild(userId);
+        inOrder.verify(feedRepository).listFeedPostIds(userId, Long.MAX_VALUE, 800);
+        inOrder.verify(timelineCache).completeRebuild(userId, recent);
+    }
+
+    @Test
+    public void testGetFeed_MergesPullAuthorPosts() throws Exception {
+        long userId = 1L;
+        Set<Long> pullAuthors = Collections.singleton(7L);
+        List<Long> merged = Arrays.asList(30L, 20L, 10L);
+
+        when(timelineCache.isEnabled()).thenReturn(true);
+        when(timelineCache.read(userId, Long.MAX_VALUE, 3)).thenReturn(Arrays.asList(30L, 10L));
+        when(timelineCache.getPullAuthors()).thenReturn(pullAuthors);
+        when(feedRepository.listFriendPostIdsByAuthors(userId, pullAuthors, Long.MAX_VALUE, 3)).thenReturn(Arrays.asList(20L));
+        when(postRepository.getPostsByIds(userId, merged)).thenReturn(createMockPosts(merged));
+
+        GetFeedResponse response = feedService.getFeed(userId, 3, null);
+
+        assertEquals(3, response.getPosts().size());
+        verify(postRepository).getPostsByIds(userId, merged);
+        verify(feedRepository, never()).listFeedPostIds(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void testGetFeed_ContinuesPastTimelineIntoMySql() throws Exception {
+        long userId = 1L;
+        List<Long> postIds = Arrays.asList(30L, 20L, 10L);
+
+        when(timelineCache.isEnabled()).thenReturn(true);
+        when(timelineCache.read(userId, Long.MAX_VALUE, 3)).thenReturn(Arrays.asList(30L));
+        when(timelineCache.getPullAuthors()).thenReturn(Collections.emptySet());
+        when(feedRepository.listFeedPostIds(userId, 30L, 2)).thenReturn(Arrays.asList(20L, 10L));
+        when(postRepository.getPostsByIds(userId, postIds)).thenReturn(createMockPosts(postIds));
+
+        GetFeedResponse response = feedService.getFeed(userId, 3, null);
+
+        assertEquals(3, response.getPosts().size());
+        assertEquals(10L, CursorUtil.decode(response.getNextCursor()).getId());
+        verify(postRepository).getPostsByIds(userId, postIds);
+    }
+
+    @Test
+    public void testGetFeed_RedisErrorFallsBackToMySql() throws Exception {
+        long userId = 1L;
+        List<Long> postIds = Arrays.asList(30L, 20L);
+
+        when(timelineCache.isEnabled()).thenReturn(true);
+        when(timelineCache.read(userId, Long.MAX_VALUE, 2)).thenThrow(new JedisConnectionException("Connection refused"));
+        when(feedRepository.listFeedPostIds(userId, Long.MAX_VALUE, 2)).thenReturn(postIds);
+        when(postRepository.getPostsByIds(userId, postIds)).thenReturn(createMockPosts(postIds));
+
+        GetFeedResponse response = feedService.getFeed(userId, 2, null);
+
+        assertEquals(2, response.getPosts().size());
+        verify(feedRepository).listFeedPostIds(userId, Long.MAX_VALUE, 2);
+    }
+
+    @Test
+    public void testGetFeed_InvalidCursor() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> {
+            feedService.getFeed(1L, 5, "not-a-valid-cursor");
+        });
+
+        verify(feedRepository, never()).listFeedPostIds(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void testGetFeed_DatabaseError() throws Exception {
+        when(feedRepository.listFeedPostIds(1L, Long.MAX_VALUE, 5)).thenThrow(new SQLException("Database error"));
+
+        Exception exception = assertThrows(Exception.class, () -> {
+            feedService.getFeed(1L, 5, null);
+        });
+
+        assertTrue(exception.getMessage().contains("Failed to get feed"));
+        verify(postRepository, never()).getPostsByIds(anyLong(), anyList());
+    }
+
+    private List<ListPost> createMockPosts(List<Long> postIds) {
+        List<ListPost> posts = new ArrayList<>();
+
+        for (int i = 0; i < postIds.size(); i++) {
+            ListPost post = new ListPost();
+            post.setPostId(postIds.get(i));
+            post.setUserId(2L);
+            post.setToUserId(-1L);
+            post.setContentText("Feed post " + postIds.get(i));
+            post.setCreatedAt(LocalDateTime.now().minusHours(i));
+            post.setUsername("frienduser");
+
+            posts.add(post);
+        }
+
+        return posts;
+    }
+}
@@ -13,7 +13,9 @@ import org.mockito.quality.Strictness;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -108,4 +110,44 @@ public class PostServiceGetPostMediaTest {
 
         verify(postRepository).getPostMedia(postId);
     }
+
+    @Test
+    public void testGetPostMediaBatch_Success() throws Exception {
+        List<Long> postIds = Arrays.asList(1L, 2L);
+
+        GetPostMediaResponse first = new GetPostMediaResponse();
+        first.setImages(Arrays.asList("image1.jpg"));
+        first.setVideos(Collections.emptyList());
+
+        GetPostMediaResponse second = new GetPostMediaResponse();
+        second.setImages(Collections.emptyList());
+        second.setVideos(Arrays.asList("video1.mp4"));
+
+        Map<Long, GetPostMediaResponse> mockResponse = new LinkedHashMap<>();
+        mockResponse.put(1L, first);
+        mockResponse.put(2L, second);
+
+        when(postRepository.getPostMediaBatch(postIds)).thenReturn(mockResponse);
+
+        Map<Long, GetPostMediaResponse> response = postService.getPostMediaBatch(postIds);
+
+        assertEquals(2, response.size());
+        assertEquals(Arrays.asList("image1.jpg"), response.get(1L).getImages());
+        assertEquals(Arrays.asList("video1.mp4"), response.get(2L).getVideos());
+
+        verify(postRepository).getPostMediaBatch(postIds);
+    }
+
+    @Test
+    public void testGetPostMediaBatch_DatabaseError() throws Exception {
+        List<Long> postIds = Arrays.asList(1L, 2L);
+
+        when(postRepository.getPostMediaBatch(postIds)).thenThrow(new SQLException("Database error"));
+
+        Map<Long, GetPostMediaResponse> response = postService.getPostMediaBatch(postIds);
+
+        assertEquals(2, response.size());
+        assertTrue(response.get(1L).getImages().isEmpty());
+        assertTrue(response.get(2L).getVideos().isEmpty());
+    }
 }
@@ -1,14 +1,21 @@
 package io.winapps.voizy.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.winapps.voizy.models.posts.ListPost;
 import io.winapps.voizy.models.posts.ListPostsResponse;
+import io.winapps.voizy.models.posts.ReactToPostResponse;
+import io.winapps.voizy.repositories.PostReactionRepository;
 import io.winapps.voizy.repositories.PostRepository;
+import io.winapps.voizy.util.CursorUtil;
+import io.winapps.voizy.util.JsonUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -23,11 +30,14 @@ public class PostServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private PostReactionRepository postReactionRepository;
+
     private PostService postService;
 
     @BeforeEach
     public void setup() {
-        postService = new PostService(postRepository);
+        postService = new PostService(postRepository, postReactionRepository);
     }
 
     @Test
@@ -125,6 +135,178 @@ public class PostServiceTest {
         verify(postRepository).listPosts(userId, limit, offset);
     }
 
+    @Test
+    public void testListPosts_FullPageReturnsNextCursor() throws Exception {
+        long userId = 1L;
+        long limit = 5L;
+        long page = 1L;
+        long offset = 0L;
+
+        List<ListPost> mockPosts = createMockPosts(5);
+
+        when(postRepository.getTotalPostsCount(userId)).thenReturn(12L);
+        when(postRepository.listPosts(userId, limit, offset)).thenReturn(mockPosts);
+
+        ListPostsResponse response = postService.listPosts(userId, limit, page);
+
+        ListPost last = mockPosts.get(mockPosts.size() - 1);
+        assertEquals(CursorUtil.encode(last.getCreatedAt(), last.getPostId()), response.getNextCursor());
+    }
+
+    @Test
+    public void testListPosts_LastPageHasNoNextCursor() throws Exception {
+        long userId = 1L;
+        long limit = 5L;
+        long page = 3L;
+        long offset = 10L;
+
+        when(postRepository.getTotalPostsCount(userId)).thenReturn(12L);
+        when(postRepository.listPosts(userId, limit, offset)).thenReturn(createMockPosts(2));
+
+        ListPostsResponse response = postService.listPosts(userId, limit, page);
+
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    public void testListPosts_WithoutTotals() throws Exception {
+        long userId = 1L;
+        long limit = 10L;
+        long page = 1L;
+        long offset = 0L;
+
+        List<ListPost> mockPosts = createMockPosts(3);
+
+        when(postRepository.listPosts(userId, limit, offset)).thenReturn(mockPosts);
+
+        ListPostsResponse response = postService.listPosts(userId, limit, page, false);
+
+        assertNotNull(response);
+        assertEquals(mockPosts, response.getPosts());
+        assertNull(response.getTotalPosts());
+        assertNull(response.getTotalPages());
+
+        verify(postRepository, never()).getTotalPostsCount(anyLong());
+        verify(postRepository).listPosts(userId, limit, offset);
+    }
+
+    @Test
+    public void testStreamListPosts_MatchesBufferedResponse() throws Exception {
+        long userId = 1L;
+        long limit = 5L;
+        long page = 1L;
+        long offset = 0L;
+
+        List<ListPost> mockPosts = createMockPosts(5);
+
+        when(postRepository.getTotalPostsCount(userId)).thenReturn(12L);
+        when(postRepository.listPosts(userId, limit, offset)).thenReturn(mockPosts);
+        doAnswer(invocation -> {
+            PostRepository.PostRowHandler handler = invocation.getArgument(3);
+            for (ListPost post : mockPosts) {
+                handler.handle(post);
+            }
+            return null;
+        }).when(postRepository).streamPosts(eq(userId), eq(limit), eq(offset), any());
+
+        String expected = JsonUtil.getObjectMapper().writeValueAsString(postService.listPosts(userId, limit, page));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        postService.streamListPosts(userId, limit, page, true, out);
+
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testStreamListPosts_WithoutTotals() throws Exception {
+        long userId = 1L;
+
+        doAnswer(invocation -> {
+            PostRepository.PostRowHandler handler = invocation.getArgument(3);
+            for (ListPost post : createMockPosts(2)) {
+                handler.handle(post);
+            }
+            return null;
+        }).when(postRepository).streamPosts(eq(userId), eq(10L), eq(0L), any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        postService.streamListPosts(userId, 10L, 1L, false, out);
+
+        JsonNode json = JsonUtil.getObjectMapper().readTree(out.toByteArray());
+        assertEquals(2, json.get("posts").size());
+        assertFalse(json.has("totalPosts"));
+        assertFalse(json.has("totalPages"));
+        assertTrue(json.get("nextCursor").isNull());
+
+        verify(postRepository, never()).getTotalPostsCount(anyLong());
+    }
+
+    @Test
+    public void testListPostsByCursor_Success() throws Exception {
+        long userId = 1L;
+        long limit = 5L;
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 20, 12, 30, 15);
+        long postId = 42L;
+        String cursor = CursorUtil.encode(createdAt, postId);
+
+        List<ListPost> mockPosts = createMockPosts(5);
+
+        when(postRepository.getTotalPostsCount(userId)).thenReturn(22L);
+        when(postRepository.listPostsBefore(userId, limit, createdAt, postId)).thenReturn(mockPosts);
+
+        ListPostsResponse response = postService.listPostsByCursor(userId, limit, cursor);
+
+        assertNotNull(response);
+        assertEquals(mockPosts, response.getPosts());
+        assertEquals(limit, response.getLimit());
+        assertEquals(0L, response.getPage());
+        assertEquals(22L, response.getTotalPosts());
+        assertNotNull(response.getNextCursor());
+
+        verify(postRepository).listPostsBefore(userId, limit, createdAt, postId);
+        verify(postRepository, never()).listPosts(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void testListPostsByCursor_InvalidCursor() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> {
+            postService.listPostsByCursor(1L, 5L, "not-a-valid-cursor");
+        });
+
+        verify(postRepository, never()).listPostsBefore(anyLong(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    public void testReactToPost_ChangesReaction() throws Exception {
+        when(postReactionRepository.setReaction(7L, 1L, "love")).thenReturn("like");
+
+        ReactToPostResponse response = postService.reactToPost(1L, 7L, "love");
+
+        assertEquals(7L, response.getPostId());
+        assertEquals("love", response.getReactionType());
+        assertEquals("like", response.getPreviousReactionType());
+        assertTrue(response.isChanged());
+    }
+
+    @Test
+    public void testReactToPost_SameReactionIsUnchanged() throws Exception {
+        when(postReactionRepository.setReaction(7L, 1L, "like")).thenReturn("like");
+
+        ReactToPostResponse response = postService.reactToPost(1L, 7L, "like");
+
+        assertEquals("like", response.getReactionType());
+        assertFalse(response.isChanged());
+    }
+
+    @Test
+    public void testReactToPost_DatabaseError() throws Exception {
+        when(postReactionRepository.setReaction(7L, 1L, null)).thenThrow(new SQLException("Database error"));
+
+        Exception exception = assertThrows(Exception.class, () -> postService.reactToPost(1L, 7L, null));
+
+        assertTrue(exception.getMessage().contains("Failed to react to post"));
+    }
+
     private List<ListPost> createMockPosts(int count) {
         List<ListPost> posts = new ArrayList<>();
 
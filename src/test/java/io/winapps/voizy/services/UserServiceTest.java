@@ -9,9 +9,11 @@ import io.winapps.voizy.models.users.CreateUserResponse;
 import io.winapps.voizy.models.users.Profile;
 import io.winapps.voizy.repositories.ProfileRepository;
 import io.winapps.voizy.repositories.UserRepository;
+import io.winapps.voizy.util.HashingUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mindrot.jbcrypt.BCrypt;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -128,4 +130,33 @@ public class UserServiceTest {
 
         verify(userRepository).findByUsername("nonexistentuser");
     }
+
+    @Test
+    public void testLogin_RehashesPasswordAtConfiguredCost() throws Exception {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("testuser");
+        request.setPassword("password123");
+
+        String oldHash = BCrypt.hashpw("password123" + "salt", BCrypt.gensalt(HashingUtil.getCost() == 4 ? 5 : 4));
+
+        User mockUser = new User();
+        mockUser.setUserID(1L);
+        mockUser.setEmail("test@example.com");
+        mockUser.setUsername("testuser");
+        mockUser.setSalt("salt");
+        mockUser.setPasswordHash(oldHash);
+        mockUser.setApiKey("apikey123");
+        mockUser.setCreatedAt(LocalDateTime.now());
+        mockUser.setUpdatedAt(LocalDateTime.now());
+
+        when(userRepository.findByUsername("testuser")).thenReturn(mockUser);
+
+        LoginResponse response = authService.login(request);
+
+        assertTrue(response.isPasswordCorrect());
+        assertNotNull(response.getToken());
+
+        String costPrefix = String.format("$2a$%02d$", HashingUtil.getCost());
+        verify(userRepository, timeout(30_000)).updatePasswordHash(eq(1L), eq(oldHash), startsWith(costPrefix));
+    }
 }
@@ -0,0 +1,173 @@
+package io.winapps.voizy.util;
+
+import io.winapps.voizy.util.AnalyticsUtil.OverflowPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalyticsEventQueueTest {
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writerEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseWriter = new CountDownLatch(1);
+    private AnalyticsEventQueue events;
+
+    @AfterEach
+    public void tearDown() {
+        releaseWriter.countDown();
+        if (events != null) {
+            events.shutdown(SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+
+    @Test
+    public void testShutdown_WritesQueuedEvents() {
+        // Nothing would be written before the interval without shutdown
+        events = new AnalyticsEventQueue(OverflowPolicy.DROP, 100, 50, 60_000, 0, 1, this::record);
+
+        track(events, "view_post", 3);
+        long startTime = System.nanoTime();
+        events.shutdown(SHUTDOWN_TIMEOUT_MS);
+
+        assertEquals(List.of("view_post", "view_post", "view_post"), written);
+        assertEquals(3, events.getFlushedCount());
+        assertEquals(0, events.getFailedCount());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) < SHUTDOWN_TIMEOUT_MS);
+    }
+
+    @Test
+    public void testShutdown_LetsBatchInProgressFinish() throws Exception {
+        events = new AnalyticsEventQueue(OverflowPolicy.DROP, 100, 1, 60_000, 0, 1, this::blockingRecord);
+
+        track(events, "react_post", 2);
+        assertTrue(writerEntered.await(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        Thread shutdown = new Thread(() -> events.shutdown(SHUTDOWN_TIMEOUT_MS));
+        shutdown.start();
+        Thread.sleep(100);
+        releaseWriter.countDown();
+        shutdown.join(SHUTDOWN_TIMEOUT_MS);
+
+        assertEquals(2, written.size());
+        assertEquals(0, events.getFailedCount());
+    }
+
+    @Test
+    public void testTrackAfterShutdown_Dropped() {
+        events = new AnalyticsEventQueue(OverflowPolicy.DROP, 100, 50, 60_000, 0, 1, this::record);
+        events.shutdown(SHUTDOWN_TIMEOUT_MS);
+
+        track(events, "view_post", 1);
+
+        assertEquals(1, events.getDroppedCount());
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    public void testDropPolicy_DropsWhenFull() throws Exception {
+        events = new AnalyticsEventQueue(OverflowPolicy.DROP, 2, 1, 60_000, 0, 1, this::blockingRecord);
+        holdFlusher(events);
+
+        track(events, "view_post", 3);
+
+        assertEquals(3, events.getEnqueuedCount());
+        assertEquals(1, events.getDroppedCount());
+
+        releaseWriter.countDown();
+        events.shutdown(SHUTDOWN_TIMEOUT_MS);
+        assertEquals(3, written.size());
+    }
+
+    @Test
+    public void testBlockPolicy_DropsAfterTimeout() throws Exception {
+        events = new AnalyticsEventQueue(OverflowPolicy.BLOCK, 2, 1, 60_000, 50, 1, this::blockingRecord);
+        holdFlusher(events);
+        track(events, "view_post", 2);
+
+        long startTime = System.nanoTime();
+        track(events, "view_post", 1);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= 50);
+        assertEquals(1, events.getDroppedCount());
+    }
+
+    @Test
+    public void testBlockPolicy_WaitsForSpace() throws Exception {
+        events = new AnalyticsEventQueue(OverflowPolicy.BLOCK, 2, 1, 60_000, SHUTDOWN_TIMEOUT_MS, 1, this::blockingRecord);
+        holdFlusher(events);
+        track(events, "view_post", 2);
+
+        Thread release = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            releaseWriter.countDown();
+        });
+        release.start();
+        track(events, "react_post", 1);
+
+        assertEquals(4, events.getEnqueuedCount());
+        assertEquals(0, events.getDroppedCount());
+
+        events.shutdown(SHUTDOWN_TIMEOUT_MS);
+        assertEquals("react_post", written.get(written.size() - 1));
+    }
+
+    @Test
+    public void testSamplePolicy_KeepsOneInRateAboveThreshold() throws Exception {
+        // Sampling starts once 8 of the 10 slots are taken
+        events = new AnalyticsEventQueue(OverflowPolicy.SAMPLE, 10, 1, 60_000, 0, 5, this::blockingRecord);
+        holdFlusher(events);
+        track(events, "view_post", 8);
+        assertEquals(0, events.getSampledOutCount());
+
+        track(events, "view_post", 10);
+
+        assertEquals(8, events.getSampledOutCount());
+        assertEquals(11, events.getEnqueuedCount());
+        assertEquals(0, events.getDroppedCount());
+        assertEquals(10, events.getQueueDepth());
+    }
+
+    /**
+     * Queue one event and wait until the flusher is stuck writing it, so later events stay queued
+     */
+    private void holdFlusher(AnalyticsEventQueue events) throws InterruptedException {
+        track(events, "hold", 1);
+        assertTrue(writerEntered.await(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    private static void track(AnalyticsEventQueue events, String eventType, int count) {
+        for (int i = 0; i < count; i++) {
+            events.offer(new AnalyticsEventQueue.Event(1L, eventType, "post", 42L, null));
+        }
+    }
+
+    private void record(List<AnalyticsEventQueue.Event> batch) {
+        written.addAll(batch.stream().map(event -> event.eventType).collect(Collectors.toList()));
+    }
+
+    private void blockingRecord(List<AnalyticsEventQueue.Event> batch) throws SQLException {
+        writerEntered.countDown();
+        try {
+            if (!releaseWriter.await(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Writer was never released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted", e);
+        }
+        record(batch);
+    }
+}
@@ -0,0 +1,144 @@
+package io.winapps.voizy.util;
+
+import io.winapps.voizy.database.DatabaseManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ApiKeyRateLimiterTest {
+    @Test
+    public void testParseTiers() {
+        Map<String, ApiKeyRateLimiter.Tier> tiers = ApiKeyRateLimiter.parseTiers("standard:10:20, premium:0.5:3");
+
+        assertEquals(List.of("standard", "premium"), List.copyOf(tiers.keySet()));
+        assertEquals(10.0, tiers.get("standard").getPermitsPerSecond());
+        assertEquals(20, tiers.get("standard").getBurst());
+        assertEquals(0.5, tiers.get("premium").getPermitsPerSecond());
+        assertEquals(3, tiers.get("premium").getBurst());
+    }
+
+    @Test
+    public void testParseTiers_MalformedEntriesSkipped() {
+        Map<String, ApiKeyRateLimiter.Tier> tiers = ApiKeyRateLimiter.parseTiers(
+                "standard:10:20,missing:5,rate:abc:5,burst:5:1.5,zero:0:5,negative:5:-1,,gold:50:100");
+
+        assertEquals(List.of("standard", "gold"), List.copyOf(tiers.keySet()));
+    }
+
+    @Test
+    public void testParseTiers_DefaultTierAddedWhenMissing() {
+        Map<String, ApiKeyRateLimiter.Tier> tiers = ApiKeyRateLimiter.parseTiers("premium:500:1000");
+
+        ApiKeyRateLimiter.Tier standard = tiers.get(ApiKeyRateLimiter.DEFAULT_TIER);
+        assertNotNull(standard);
+        assertEquals(100.0, standard.getPermitsPerSecond());
+        assertEquals(100, standard.getBurst());
+    }
+
+    @Test
+    public void testParseTiers_AllMalformed_OnlyDefaultTier() {
+        Map<String, ApiKeyRateLimiter.Tier> tiers = ApiKeyRateLimiter.parseTiers("garbage");
+
+        assertEquals(List.of(ApiKeyRateLimiter.DEFAULT_TIER), List.copyOf(tiers.keySet()));
+    }
+
+    @Test
+    public void testGetTier_UnknownOrNullFallsBackToDefault() {
+        assertEquals(ApiKeyRateLimiter.DEFAULT_TIER, ApiKeyRateLimiter.getTier(null).getName());
+        assertEquals(ApiKeyRateLimiter.DEFAULT_TIER, ApiKeyRateLimiter.getTier("no-such-tier").getName());
+    }
+
+    @Test
+    public void testLocalBucket_BurstThenDenied() {
+        ApiKeyRateLimiter.LocalBucket bucket = new ApiKeyRateLimiter.LocalBucket(tier(10, 3), 0);
+
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(0));
+    }
+
+    @Test
+    public void testLocalBucket_RefillsAtRate() {
+        ApiKeyRateLimiter.LocalBucket bucket = new ApiKeyRateLimiter.LocalBucket(tier(10, 1), 0);
+        assertTrue(bucket.tryAcquire(0));
+
+        // 10 per second is one permit every 100 ms
+        assertFalse(bucket.tryAcquire(50));
+        assertTrue(bucket.tryAcquire(100));
+        assertFalse(bucket.tryAcquire(100));
+    }
+
+    @Test
+    public void testLocalBucket_RefillCappedAtBurst() {
+        ApiKeyRateLimiter.LocalBucket bucket = new ApiKeyRateLimiter.LocalBucket(tier(10, 2), 0);
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+
+        // An hour idle still only refills to the burst
+        long later = 3_600_000;
+        assertTrue(bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later));
+        assertFalse(bucket.tryAcquire(later));
+    }
+
+    @Test
+    public void testLocalBucket_EarlierTimeDoesNotRefillTwice() {
+        ApiKeyRateLimiter.LocalBucket bucket = new ApiKeyRateLimiter.LocalBucket(tier(10, 1), 0);
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(100));
+
+        // Refilling from 60 again would make a permit available at 160
+        assertFalse(bucket.tryAcquire(60));
+        assertFalse(bucket.tryAcquire(160));
+    }
+
+    @Test
+    public void testTryAcquire_WithoutRedis_UsesLocalBuckets() {
+        try (MockedStatic<DatabaseManager> databaseManager = mockStatic(DatabaseManager.class)) {
+            databaseManager.when(DatabaseManager::isRedisAvailable).thenReturn(false);
+            long burst = ApiKeyRateLimiter.getTier(ApiKeyRateLimiter.DEFAULT_TIER).getBurst();
+            long localBefore = ApiKeyRateLimiter.getLocalDecisionCount();
+
+            for (long i = 0; i < burst; i++) {
+                assertTrue(ApiKeyRateLimiter.tryAcquire("sk_local_only", ApiKeyRateLimiter.DEFAULT_TIER));
+            }
+            assertFalse(ApiKeyRateLimiter.tryAcquire("sk_local_only", ApiKeyRateLimiter.DEFAULT_TIER));
+
+            assertEquals(localBefore + burst + 1, ApiKeyRateLimiter.getLocalDecisionCount());
+            databaseManager.verify(DatabaseManager::getJedisPool, never());
+        }
+    }
+
+    @Test
+    public void testTryAcquire_RedisError_FallsBackAndBacksOff() {
+        JedisPool jedisPool = mock(JedisPool.class);
+        when(jedisPool.getResource()).thenThrow(new JedisConnectionException("Connection refused"));
+
+        try (MockedStatic<DatabaseManager> databaseManager = mockStatic(DatabaseManager.class)) {
+            databaseManager.when(DatabaseManager::isRedisAvailable).thenReturn(true);
+            databaseManager.when(DatabaseManager::getJedisPool).thenReturn(jedisPool);
+            long errorsBefore = ApiKeyRateLimiter.getRedisErrorCount();
+            long localBefore = ApiKeyRateLimiter.getLocalDecisionCount();
+
+            assertTrue(ApiKeyRateLimiter.tryAcquire("sk_redis_down", ApiKeyRateLimiter.DEFAULT_TIER));
+            assertTrue(ApiKeyRateLimiter.tryAcquire("sk_redis_down", ApiKeyRateLimiter.DEFAULT_TIER));
+
+            assertEquals(errorsBefore + 1, ApiKeyRateLimiter.getRedisErrorCount());
+            assertEquals(localBefore + 2, ApiKeyRateLimiter.getLocalDecisionCount());
+            // The second call is within RATE_LIMIT_REDIS_RETRY_MS, so Redis is not tried again
+            verify(jedisPool, times(1)).getResource();
+        }
+    }
+
+    private static ApiKeyRateLimiter.Tier tier(double permitsPerSecond, long burst) {
+        return new ApiKeyRateLimiter.Tier("test", permitsPerSecond, burst);
+    }
+}
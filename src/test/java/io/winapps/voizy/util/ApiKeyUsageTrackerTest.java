@@ -0,0 +1,122 @@
+package io.winapps.voizy.util;
+
+import io.winapps.voizy.database.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ApiKeyUsageTrackerTest {
+    private MockedStatic<DatabaseManager> databaseManager;
+    private final List<String> queries = new ArrayList<>();
+    private final List<Timestamp> timestamps = new ArrayList<>();
+    private boolean failUpdates;
+
+    @BeforeEach
+    public void setup() {
+        databaseManager = mockStatic(DatabaseManager.class);
+        databaseManager.when(DatabaseManager::getConnection).thenAnswer(invocation -> newConnection());
+
+        // Start from nothing pending, whatever earlier tests touched
+        ApiKeyUsageTracker.flush();
+        queries.clear();
+        timestamps.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    public void testFlush_CoalescesTouchesPerKey() {
+        long before = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            ApiKeyUsageTracker.touch(1L, "key-1");
+        }
+        ApiKeyUsageTracker.touch(2L, "key-2");
+        assertEquals(2, ApiKeyUsageTracker.getPendingCount());
+
+        ApiKeyUsageTracker.flush();
+
+        assertEquals(1, queries.size());
+        assertEquals(2, countOf(queries.get(0), " WHEN "));
+        assertTrue(queries.get(0).contains("GREATEST(last_used_at, ?)"));
+        assertTrue(queries.get(0).contains("updated_at = updated_at"));
+        assertEquals(2, timestamps.size());
+        for (Timestamp timestamp : timestamps) {
+            assertTrue(timestamp.getTime() >= before);
+        }
+        assertEquals(0, ApiKeyUsageTracker.getPendingCount());
+    }
+
+    @Test
+    public void testFlush_NothingPending_NoQuery() {
+        ApiKeyUsageTracker.flush();
+
+        assertTrue(queries.isEmpty());
+    }
+
+    @Test
+    public void testFlush_FailedBatchMergedBackAndRetried() {
+        ApiKeyUsageTracker.touch(1L, "key-1");
+        ApiKeyUsageTracker.touch(2L, "key-2");
+        long failedBefore = ApiKeyUsageTracker.getFailedFlushCount();
+
+        failUpdates = true;
+        ApiKeyUsageTracker.flush();
+
+        assertEquals(failedBefore + 1, ApiKeyUsageTracker.getFailedFlushCount());
+        assertEquals(2, ApiKeyUsageTracker.getPendingCount());
+
+        // A touch after the failure merges with the requeued entry instead of adding one
+        ApiKeyUsageTracker.touch(1L, "key-1");
+        assertEquals(2, ApiKeyUsageTracker.getPendingCount());
+
+        failUpdates = false;
+        queries.clear();
+        timestamps.clear();
+        ApiKeyUsageTracker.flush();
+
+        assertEquals(1, queries.size());
+        assertEquals(2, timestamps.size());
+        assertEquals(0, ApiKeyUsageTracker.getPendingCount());
+    }
+
+    private static int countOf(String text, String part) {
+        int count = 0;
+        for (int index = text.indexOf(part); index >= 0; index = text.indexOf(part, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private Connection newConnection() throws SQLException {
+        Connection conn = mock(Connection.class);
+        when(conn.prepareStatement(anyString())).thenAnswer(invocation -> {
+            queries.add(invocation.getArgument(0));
+            PreparedStatement stmt = mock(PreparedStatement.class);
+            doAnswer(setTimestamp -> timestamps.add(setTimestamp.getArgument(1)))
+                    .when(stmt).setTimestamp(anyInt(), any(Timestamp.class));
+            when(stmt.executeUpdate()).thenAnswer(executeUpdate -> {
+                if (failUpdates) {
+                    throw new SQLException("Lock wait timeout exceeded", "HY000", 1205);
+                }
+                return timestamps.size();
+            });
+            return stmt;
+        });
+        return conn;
+    }
+}
@@ -0,0 +1,178 @@
+package io.winapps.voizy.util;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ServletAdapterTest {
+    private static final long MAX_QUEUE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private AsyncContext async;
+
+    private CapturingOutputStream body;
+    private final AtomicInteger handled = new AtomicInteger();
+    private final BiConsumer<HttpServletRequest, HttpServletResponse> okHandler = (req, res) -> {
+        handled.incrementAndGet();
+        res.setStatus(HttpServletResponse.SC_OK);
+    };
+
+    @BeforeEach
+    public void setup() throws IOException {
+        body = new CapturingOutputStream();
+        when(request.startAsync()).thenReturn(async);
+        when(async.getRequest()).thenReturn(request);
+        when(async.getResponse()).thenReturn(response);
+        when(response.getOutputStream()).thenReturn(body);
+    }
+
+    @Test
+    public void testHandlerRunsOnExecutor() throws Exception {
+        serve(okHandler, Runnable::run);
+
+        assertEquals(1, handled.get());
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(async).setTimeout(0);
+        verify(async, times(1)).complete();
+    }
+
+    @Test
+    public void testRejected_ServiceUnavailable() throws Exception {
+        serve(okHandler, command -> {
+            throw new RejectedExecutionException("queue full");
+        });
+
+        assertEquals(0, handled.get());
+        assertServiceUnavailable();
+        verify(async, times(1)).complete();
+    }
+
+    @Test
+    public void testRejected_WriteFails_StillCompletes() throws Exception {
+        when(response.getOutputStream()).thenThrow(new IOException("Broken pipe"));
+
+        assertThrows(IOException.class, () -> serve(okHandler, command -> {
+            throw new RejectedExecutionException("queue full");
+        }));
+
+        verify(async, times(1)).complete();
+    }
+
+    @Test
+    public void testQueueWaitOverLimit_ServiceUnavailable() throws Exception {
+        serve(okHandler, delayedBy(20));
+
+        assertEquals(0, handled.get());
+        assertServiceUnavailable();
+        verify(async, times(1)).complete();
+    }
+
+    @Test
+    public void testQueueWaitOverLimit_WriteFails_StillCompletes() throws Exception {
+        when(response.getOutputStream()).thenThrow(new IOException("Broken pipe"));
+
+        serve(okHandler, delayedBy(20));
+
+        verify(async, times(1)).complete();
+    }
+
+    @Test
+    public void testHandlerThrows_InternalServerError() throws Exception {
+        when(response.isCommitted()).thenReturn(false);
+
+        serve((req, res) -> {
+            throw new IllegalStateException("boom");
+        }, Runnable::run);
+
+        verify(response).reset();
+        verify(response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        verify(async, times(1)).complete();
+    }
+
+    @Test
+    public void testHandlerThrowsAfterCommit_LeavesResponse() throws Exception {
+        when(response.isCommitted()).thenReturn(true);
+
+        serve((req, res) -> {
+            throw new IllegalStateException("boom");
+        }, Runnable::run);
+
+        verify(response, never()).reset();
+        verify(response, never()).setStatus(anyInt());
+        verify(async, times(1)).complete();
+    }
+
+    private void serve(BiConsumer<HttpServletRequest, HttpServletResponse> handler, Executor executor) throws Exception {
+        HttpServlet servlet = ServletAdapter.biConsumerToAsyncServlet("/test", handler, executor, MAX_QUEUE_WAIT_NANOS);
+        servlet.service(request, response);
+    }
+
+    private void assertServiceUnavailable() {
+        verify(response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        verify(response).setHeader("Retry-After", "1");
+        assertTrue(body.bytes.toString(StandardCharsets.UTF_8).contains("Server is busy"));
+    }
+
+    /**
+     * Runs the task on the calling thread after it has waited in the "queue" for delayMs
+     */
+    private static Executor delayedBy(long delayMs) {
+        return command -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            command.run();
+        };
+    }
+
+    private static class CapturingOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}